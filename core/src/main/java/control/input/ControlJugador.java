@@ -15,7 +15,7 @@ public class ControlJugador {
     private final int keyLeft;
     private final int keyRight;
 
-    private static boolean enPausa = false;  // Flag para la pausa
+    private static volatile boolean enPausa = false;  // Flag para la pausa (la escribe la UI, la lee la simulación)
 
     // Evita allocaciones por frame
     private final Vector2 dir = new Vector2();
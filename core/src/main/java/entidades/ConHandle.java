@@ -0,0 +1,11 @@
+package entidades;
+
+/**
+ * Entidad que guarda su propio handle de RegistroHandles (objeto -> id en O(1), sin mapas).
+ */
+public interface ConHandle {
+
+    int getHandle();
+
+    void setHandle(int handle);
+}
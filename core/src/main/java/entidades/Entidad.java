@@ -11,7 +11,7 @@ import control.input.ControlJugador;
  *
  * Nota: NO maneja input ni IA. Eso vive en ControlJugador / ControlEnemigo.
  */
-public abstract class Entidad {
+public abstract class Entidad implements ConHandle {
 
     protected String nombre;
     protected float velocidad;          // unidades/segundo (escala según tu mundo Box2D)
@@ -29,6 +29,12 @@ public abstract class Entidad {
     // Puede ser un nombre de región de atlas, un path, una key, etc.
     //protected String spriteId;
 
+    // Handle de red (RegistroHandles del server). 0 = sin registrar.
+    private int handle = RegistroHandles.SIN_HANDLE;
+
+    // Slot en AnimacionesEntidades (cliente). -1 = sin sprite.
+    private int slotAnimacion = -1;
+
     protected final Vector2 tmpDir = new Vector2();
     protected final Vector2 tmpPos = new Vector2();
 
@@ -39,6 +45,24 @@ public abstract class Entidad {
     }
 
     // ---------- Getters / setters ----------
+    @Override
+    public int getHandle() {
+        return handle;
+    }
+
+    @Override
+    public void setHandle(int handle) {
+        this.handle = handle;
+    }
+
+    public int getSlotAnimacion() {
+        return slotAnimacion;
+    }
+
+    public void setSlotAnimacion(int slotAnimacion) {
+        this.slotAnimacion = slotAnimacion;
+    }
+
     public String getNombre() {
         return nombre;
     }
@@ -105,6 +129,14 @@ public abstract class Entidad {
         cuerpoFisico.setLinearVelocity(tmpDir);
     }
 
+    /**
+     * Mueve la entidad en una dirección ya normalizada (por ej. la de un campo de flujo).
+     */
+    public void moverEnDireccion(float dirX, float dirY) {
+        if (cuerpoFisico == null) return;
+        cuerpoFisico.setLinearVelocity(dirX * velocidad, dirY * velocidad);
+    }
+
     public boolean estaViva() { return viva; }
     public boolean estaEnMuerte() { return enMuerte; }
     public boolean esInmune() { return inmune; }
@@ -6,34 +6,51 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 
+import entidades.enemigos.AlmacenEnemigos;
 import entidades.enemigos.Enemigo;
 import entidades.items.Item;
 import entidades.items.ItemTipo;
 import entidades.personajes.Jugador;
 import mapa.model.Habitacion;
 import mapa.model.TipoSala;
+import mapa.navegacion.CampoFlujo;
+import mapa.navegacion.NavegacionSalas;
 import mapa.puertas.PuertaVisual;
+import telemetria.Log;
 
 public class GestorDeEntidades {
 
+    private static final Log.Categoria LOG = Log.categoria("ENTIDADES");
+
     private final World world;
 
     // ✅ ahora soporta N jugadores
     private final Map<Integer, Jugador> jugadores = new HashMap<>();
 
-    private final Map<Habitacion, List<PuertaVisual>> puertasPorSala = new HashMap<>();
+    private final Map<Habitacion, List<PuertaVisual>> puertasPorSala = new EnumMap<>(Habitacion.class);
 
     // Ítems tirados en el mundo
     private final List<Item> itemsMundo = new ArrayList<>();
     private final Map<Item, Body> cuerposItems = new HashMap<>();
+    private final Map<Habitacion, List<Item>> itemsPorSala = new EnumMap<>(Habitacion.class);
 
     // Para no respawnear infinitamente ítems de BOTIN
-    private final Set<Habitacion> botinesConItem = new HashSet<>();
+    private final Set<Habitacion> botinesConItem = EnumSet.noneOf(Habitacion.class);
 
     // ===================== ENEMIGOS =====================
-    private final List<Enemigo> enemigosMundo = new ArrayList<>();
-    private final Map<Enemigo, Body> cuerposEnemigos = new HashMap<>();
-    private final Map<Habitacion, List<Enemigo>> enemigosPorSala = new HashMap<>();
+    // ✅ única fuente de verdad: datos de IA en arrays + lista de índices por sala (sin listas paralelas)
+    private final AlmacenEnemigos almacenEnemigos = new AlmacenEnemigos();
+    private int versionEnemigos = 0; // sube con cada alta/baja de enemigo (los sprites sincronizan solo entonces)
+
+    // ===================== SALAS DORMIDAS =====================
+    // Salas sin jugadores: cuerpos inactivos (Box2D no los simula ni les calcula contactos) y la IA las saltea.
+    private final Set<Habitacion> salasDormidas = EnumSet.noneOf(Habitacion.class); // ✅ orden por ordinal: setActive igual en cada corrida (replays)
+
+    // Navegación por sala (opcional): sin esto los enemigos persiguen en línea recta
+    private NavegacionSalas navegacion;
+
+    // RNG de drops de la partida (el dueño lo siembra con la semilla del nivel)
+    private SplittableRandom rngItems = new SplittableRandom();
 
     public GestorDeEntidades(World world) {
         this.world = world;
@@ -95,12 +112,12 @@ public class GestorDeEntidades {
             // ✅ esto pone body.userData = jugador
             jugador.setCuerpoFisico(body);
 
-            System.out.println("[GestorEntidades] Jugador" + id + " creado en (" + px + "," + py + ")");
+            if (LOG.debug()) LOG.debug("Jugador" + id + " creado en (" + px + "," + py + ")");
         } else {
             body.setTransform(px, py, body.getAngle());
             body.setLinearVelocity(0f, 0f);
 
-            System.out.println("[GestorEntidades] Jugador" + id + " movido a (" + px + "," + py + ")");
+            if (LOG.debug()) LOG.debug("Jugador" + id + " movido a (" + px + "," + py + ")");
         }
 
         return body;
@@ -183,14 +200,14 @@ public class GestorDeEntidades {
             // ✅ vincula body.userData = jugador también
             jugador.setCuerpoFisico(newBody);
 
-            System.out.println("[GestorEntidades] Jugador" + idDebug + " respawn (nuevo body) en (" + px + "," + py + ")");
+            if (LOG.debug()) LOG.debug("Jugador" + idDebug + " respawn (nuevo body) en (" + px + "," + py + ")");
         } else {
             // Body válido en este World: solo teletransportamos
             body.setTransform(px, py, body.getAngle());
             body.setLinearVelocity(0f, 0f);
             body.setAwake(true);
 
-            System.out.println("[GestorEntidades] Jugador" + idDebug + " respawn (mover) a (" + px + "," + py + ")");
+            if (LOG.debug()) LOG.debug("Jugador" + idDebug + " respawn (mover) a (" + px + "," + py + ")");
         }
     }
 
@@ -201,71 +218,149 @@ public class GestorDeEntidades {
     public void registrarEnemigo(Habitacion sala, Enemigo enemigo) {
         if (enemigo == null) return;
 
-        enemigosMundo.add(enemigo);
+        if (!almacenEnemigos.contiene(enemigo)) versionEnemigos++;
+        almacenEnemigos.agregar(enemigo, sala);
 
-        if (enemigo.getCuerpoFisico() != null) {
-            cuerposEnemigos.put(enemigo, enemigo.getCuerpoFisico());
-        }
-
-        if (sala != null) {
-            enemigosPorSala.computeIfAbsent(sala, k -> new ArrayList<>()).add(enemigo);
+        // si se registra en una sala dormida, nace dormido
+        if (sala != null && salasDormidas.contains(sala) && enemigo.getCuerpoFisico() != null) {
+            enemigo.getCuerpoFisico().setActive(false);
         }
     }
 
+    /** Vista de solo lectura del store (viva). */
     public List<Enemigo> getEnemigosMundo() {
-        return Collections.unmodifiableList(enemigosMundo);
+        return almacenEnemigos.getEnemigos();
+    }
+
+    public int getVersionEnemigos() {
+        return versionEnemigos;
     }
 
+    /** Vista de solo lectura de la sala (viva: copiarla antes de eliminar mientras se recorre). */
     public List<Enemigo> getEnemigosDeSala(Habitacion sala) {
-        if (sala == null) return Collections.emptyList();
-        List<Enemigo> lista = enemigosPorSala.get(sala);
-        if (lista == null || lista.isEmpty()) return Collections.emptyList();
-        return Collections.unmodifiableList(lista);
+        return almacenEnemigos.getEnemigosDeSala(sala);
+    }
+
+    public int contarEnemigosDeSala(Habitacion sala) {
+        return almacenEnemigos.getCantidadEnSala(sala);
     }
 
     public void eliminarTodosLosEnemigos() {
-        for (Enemigo e : new ArrayList<>(enemigosMundo)) {
-            eliminarEnemigo(e);
+        List<Enemigo> todos = almacenEnemigos.getEnemigos();
+        // desde el final: el swap-remove no mueve a los que faltan recorrer
+        for (int i = todos.size() - 1; i >= 0; i--) {
+            eliminarEnemigo(todos.get(i));
         }
-        enemigosPorSala.clear();
     }
 
     public void eliminarEnemigosDeSala(Habitacion sala) {
-        if (sala == null) return;
-
-        List<Enemigo> lista = enemigosPorSala.get(sala);
-        if (lista == null || lista.isEmpty()) return;
-
-        List<Enemigo> copia = new ArrayList<>(lista);
-        for (Enemigo e : copia) {
-            eliminarEnemigo(e);
+        List<Enemigo> lista = almacenEnemigos.getEnemigosDeSala(sala);
+        for (int i = lista.size() - 1; i >= 0; i--) {
+            eliminarEnemigo(lista.get(i));
         }
-
-        enemigosPorSala.remove(sala);
     }
 
     public void eliminarEnemigo(Enemigo enemigo) {
         if (enemigo == null) return;
 
-        Body b = cuerposEnemigos.remove(enemigo);
+        Body b = almacenEnemigos.getCuerpo(enemigo);
         if (b == null) b = enemigo.getCuerpoFisico();
+        if (almacenEnemigos.quitar(enemigo)) versionEnemigos++;
 
         if (b != null) {
             world.destroyBody(b);
         }
+    }
 
-        enemigosMundo.remove(enemigo);
+    public void actualizarEnemigos(float delta, Jugador j1, Jugador j2) {
+        // ✅ solo salas despiertas con enemigos: el costo no crece con las salas exploradas
+        for (Habitacion sala : Habitacion.values()) {
+            if (almacenEnemigos.getCantidadEnSala(sala) == 0 || salasDormidas.contains(sala)) continue;
+            actualizarEnemigosDeSala(sala, delta, j1, j2);
+        }
+    }
 
-        for (List<Enemigo> lista : enemigosPorSala.values()) {
-            lista.remove(enemigo);
+    /**
+     * IA de una sala: los campos de flujo hacia cada jugador se piden una vez por sala
+     * (y solo se recalculan si el jugador cambió de celda); cada enemigo hace un lookup.
+     */
+    public void actualizarEnemigosDeSala(Habitacion sala, float delta, Jugador j1, Jugador j2) {
+        if (almacenEnemigos.getCantidadEnSala(sala) == 0) return;
+
+        // (delta no se usa: la IA actual solo fija velocidades; queda por si se agregan timers)
+        CampoFlujo campo1 = null;
+        CampoFlujo campo2 = null;
+        if (navegacion != null) {
+            if (j1 != null && j1.getCuerpoFisico() != null) campo1 = navegacion.campoHacia(sala, 1, j1.getPosicion());
+            if (j2 != null && j2.getCuerpoFisico() != null) campo2 = navegacion.campoHacia(sala, 2, j2.getPosicion());
         }
 
-        enemigosPorSala.values().removeIf(List::isEmpty);
+        almacenEnemigos.actualizarSala(sala, j1, j2, campo1, campo2);
     }
 
-    public void actualizarEnemigos(float delta, Jugador j1, Jugador j2) {
-        for (Enemigo e : enemigosMundo) {
-            e.actualizar(delta, j1, j2);
+    public AlmacenEnemigos getAlmacenEnemigos() {
+        return almacenEnemigos;
+    }
+
+    public void setNavegacion(NavegacionSalas navegacion) {
+        this.navegacion = navegacion;
+    }
+
+    public NavegacionSalas getNavegacion() {
+        return navegacion;
+    }
+
+    // ===================== SALAS DORMIDAS =====================
+
+    /**
+     * Despierta las salas con jugadores y duerme todas las demás que tengan entidades.
+     * ⚠️ Llamar fuera de world.step() y de callbacks de contacto (setActive con el World lockeado crashea).
+     */
+    public void actualizarSalasActivas(Collection<Habitacion> salasConJugadores) {
+        // EnumSet: recorrido en orden de ordinal, no de hash de identidad (determinista entre JVMs)
+        Set<Habitacion> conEntidades = EnumSet.noneOf(Habitacion.class);
+        conEntidades.addAll(itemsPorSala.keySet());
+        for (Habitacion sala : Habitacion.values()) {
+            if (almacenEnemigos.getCantidadEnSala(sala) > 0) conEntidades.add(sala);
+        }
+
+        for (Habitacion sala : conEntidades) {
+            boolean activa = salasConJugadores != null && salasConJugadores.contains(sala);
+            if (activa == !salasDormidas.contains(sala)) continue;
+            setSalaActiva(sala, activa);
+        }
+
+        // una sala con jugadores nunca queda marcada dormida (aunque hoy no tenga entidades)
+        if (salasConJugadores != null) salasDormidas.removeAll(salasConJugadores);
+    }
+
+    /** Caso típico: ambos jugadores en la misma sala. */
+    public void activarSoloSala(Habitacion sala) {
+        actualizarSalasActivas(sala != null ? Collections.singleton(sala) : Collections.emptySet());
+    }
+
+    public boolean estaDormida(Habitacion sala) {
+        return sala != null && salasDormidas.contains(sala);
+    }
+
+    private void setSalaActiva(Habitacion sala, boolean activa) {
+        if (activa) salasDormidas.remove(sala);
+        else salasDormidas.add(sala);
+
+        List<Enemigo> enemigos = almacenEnemigos.getEnemigosDeSala(sala);
+        for (int i = 0; i < enemigos.size(); i++) {
+            Body b = enemigos.get(i).getCuerpoFisico();
+            if (b == null) continue;
+            if (!activa) b.setLinearVelocity(0f, 0f);
+            b.setActive(activa);
+        }
+
+        List<Item> items = itemsPorSala.get(sala);
+        if (items != null) {
+            for (Item item : items) {
+                Body b = cuerposItems.get(item);
+                if (b != null) b.setActive(activa);
+            }
         }
     }
 
@@ -282,6 +377,11 @@ public class GestorDeEntidades {
 
     // ===================== ITEMS / UPDATE =====================
 
+    /** RNG propio de la partida para los drops (ver ItemTipo.sortearPorRareza). */
+    public void setRngItems(SplittableRandom rng) {
+        if (rng != null) this.rngItems = rng;
+    }
+
     public void actualizar(float delta, Habitacion salaActual) {
         if (salaActual != null && salaActual.tipo == TipoSala.BOTIN) {
             intentarSpawnearItemEnBotin(salaActual);
@@ -291,7 +391,7 @@ public class GestorDeEntidades {
     private void intentarSpawnearItemEnBotin(Habitacion salaBotin) {
         if (botinesConItem.contains(salaBotin)) return;
 
-        Item item = ItemTipo.generarAleatorioPorRareza();
+        Item item = ItemTipo.generarAleatorioPorRareza(rngItems);
         if (item == null) return;
 
         float baseX = salaBotin.gridX * salaBotin.ancho;
@@ -319,7 +419,10 @@ public class GestorDeEntidades {
 
         itemsMundo.add(item);
         cuerposItems.put(item, body);
+        itemsPorSala.computeIfAbsent(salaBotin, k -> new ArrayList<>()).add(item);
         botinesConItem.add(salaBotin);
+
+        if (salasDormidas.contains(salaBotin)) body.setActive(false);
     }
 
     /** ✅ Coop real: el item se aplica al jugador que lo recogió */
@@ -345,12 +448,28 @@ public class GestorDeEntidades {
         Body body = cuerposItems.remove(item);
         if (body != null) world.destroyBody(body);
         itemsMundo.remove(item);
+
+        for (List<Item> lista : itemsPorSala.values()) {
+            lista.remove(item);
+        }
+        itemsPorSala.values().removeIf(List::isEmpty);
     }
 
     public List<Item> getItemsMundo() {
         return Collections.unmodifiableList(itemsMundo);
     }
 
+    public List<Item> getItemsDeSala(Habitacion sala) {
+        List<Item> lista = (sala != null) ? itemsPorSala.get(sala) : null;
+        if (lista == null || lista.isEmpty()) return Collections.emptyList();
+        return Collections.unmodifiableList(lista);
+    }
+
+    public int contarItemsDeSala(Habitacion sala) {
+        List<Item> lista = (sala != null) ? itemsPorSala.get(sala) : null;
+        return (lista != null) ? lista.size() : 0;
+    }
+
     public Body getCuerpoItem(Item item) {
         return cuerposItems.get(item);
     }
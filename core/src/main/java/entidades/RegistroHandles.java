@@ -0,0 +1,196 @@
+package entidades;
+
+import java.util.Arrays;
+
+/**
+ * Registro de ids con generación (handles) para entidades replicadas por red.
+ *
+ * - handle = (generación << BITS_INDICE) | índice, siempre > 0 (0 = SIN_HANDLE).
+ * - id -> objeto: array por índice + chequeo de generación (O(1), sin boxing).
+ * - objeto -> id: el handle vive como campo en la propia entidad (ConHandle).
+ * - Al liberar un slot se incrementa su generación: un id viejo que llegue tarde
+ *   (pickup encolado, mensaje repetido) ya no resuelve a nada.
+ *
+ * Cada slot tiene además flags de bits (ej: "pickup encolado") que se limpian al liberarlo.
+ * Solo se usa desde el hilo de física del server (no es thread-safe).
+ */
+public final class RegistroHandles<T extends ConHandle> {
+
+    public static final int SIN_HANDLE = 0;
+
+    private static final int BITS_INDICE = 20;
+    private static final int MASCARA_INDICE = (1 << BITS_INDICE) - 1;
+    private static final int MASCARA_GENERACION = (1 << (31 - BITS_INDICE)) - 1; // bit de signo libre
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private Object[] objetos;
+    private int[] generacion;
+    private byte[] flags;
+
+    private int[] libres;
+    private int cantidadLibres = 0;
+    private int siguienteIndice = 0;
+    private int vivos = 0;
+
+    public RegistroHandles() {
+        objetos = new Object[CAPACIDAD_INICIAL];
+        generacion = new int[CAPACIDAD_INICIAL];
+        flags = new byte[CAPACIDAD_INICIAL];
+        libres = new int[CAPACIDAD_INICIAL];
+        Arrays.fill(generacion, 1);
+    }
+
+    public static int indice(int handle) {
+        return handle & MASCARA_INDICE;
+    }
+
+    public static int generacion(int handle) {
+        return (handle >>> BITS_INDICE) & MASCARA_GENERACION;
+    }
+
+    // =====================
+    // Alta / baja
+    // =====================
+
+    /** Devuelve el handle del objeto, registrándolo si todavía no tiene uno válido acá. */
+    public int registrar(T obj) {
+        if (obj == null) return SIN_HANDLE;
+
+        int actual = obj.getHandle();
+        if (get(actual) == obj) return actual;
+
+        int i;
+        if (cantidadLibres > 0) {
+            i = libres[--cantidadLibres];
+        } else {
+            if (siguienteIndice > MASCARA_INDICE) {
+                throw new IllegalStateException("RegistroHandles lleno (" + siguienteIndice + " slots)");
+            }
+            i = siguienteIndice++;
+            asegurarCapacidad(i + 1);
+        }
+
+        objetos[i] = obj;
+        flags[i] = 0;
+        vivos++;
+
+        int handle = (generacion[i] << BITS_INDICE) | i;
+        obj.setHandle(handle);
+        return handle;
+    }
+
+    /** Libera el slot del handle (si sigue vigente). El objeto queda con SIN_HANDLE. */
+    public boolean liberar(int handle) {
+        T obj = get(handle);
+        if (obj == null) return false;
+
+        int i = indice(handle);
+        objetos[i] = null;
+        flags[i] = 0;
+        generacion[i] = siguienteGeneracion(generacion[i]);
+        obj.setHandle(SIN_HANDLE);
+
+        if (cantidadLibres == libres.length) libres = Arrays.copyOf(libres, libres.length * 2);
+        libres[cantidadLibres++] = i;
+        vivos--;
+        return true;
+    }
+
+    public boolean liberar(T obj) {
+        return obj != null && liberar(obj.getHandle());
+    }
+
+    /**
+     * Nuevo nivel: libera todo. Las generaciones avanzan igual (no se reinician),
+     * así ningún id del nivel anterior vuelve a resolver.
+     */
+    public void limpiar() {
+        cantidadLibres = 0;
+        for (int i = siguienteIndice - 1; i >= 0; i--) {
+            Object o = objetos[i];
+            if (o != null) {
+                @SuppressWarnings("unchecked")
+                T obj = (T) o;
+                obj.setHandle(SIN_HANDLE);
+                objetos[i] = null;
+                generacion[i] = siguienteGeneracion(generacion[i]);
+            }
+            flags[i] = 0;
+            if (cantidadLibres == libres.length) libres = Arrays.copyOf(libres, libres.length * 2);
+            libres[cantidadLibres++] = i;
+        }
+        vivos = 0;
+    }
+
+    // =====================
+    // Consultas
+    // =====================
+
+    /** @return el objeto del handle, o null si el handle es inválido o viejo. */
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        if (handle <= 0) return null;
+        int i = indice(handle);
+        if (i >= siguienteIndice) return null;
+        if (generacion[i] != generacion(handle)) return null;
+        return (T) objetos[i];
+    }
+
+    public boolean esValido(int handle) {
+        return get(handle) != null;
+    }
+
+    /** Handle vigente del objeto en este registro, o SIN_HANDLE. */
+    public int handleDe(T obj) {
+        if (obj == null) return SIN_HANDLE;
+        int h = obj.getHandle();
+        return (get(h) == obj) ? h : SIN_HANDLE;
+    }
+
+    public int getCantidad() {
+        return vivos;
+    }
+
+    // =====================
+    // Flags por slot
+    // =====================
+
+    public boolean tieneFlag(int handle, int flag) {
+        return esValido(handle) && (flags[indice(handle)] & flag) != 0;
+    }
+
+    /** @return true si el flag no estaba puesto (útil para "encolar una sola vez"). */
+    public boolean ponerFlag(int handle, int flag) {
+        if (!esValido(handle)) return false;
+        int i = indice(handle);
+        if ((flags[i] & flag) != 0) return false;
+        flags[i] |= (byte) flag;
+        return true;
+    }
+
+    public void quitarFlag(int handle, int flag) {
+        if (!esValido(handle)) return;
+        flags[indice(handle)] &= (byte) ~flag;
+    }
+
+    /** Limpia un flag en todos los slots (ej: se descartó la cola de pickups). */
+    public void quitarFlagATodos(int flag) {
+        for (int i = 0; i < siguienteIndice; i++) flags[i] &= (byte) ~flag;
+    }
+
+    private static int siguienteGeneracion(int g) {
+        int n = (g + 1) & MASCARA_GENERACION;
+        return (n == 0) ? 1 : n; // generación 0 nunca se usa: el handle nunca es 0
+    }
+
+    private void asegurarCapacidad(int requerida) {
+        if (requerida <= objetos.length) return;
+        int viejo = objetos.length;
+        int cap = Math.max(requerida, viejo * 2);
+        objetos = Arrays.copyOf(objetos, cap);
+        generacion = Arrays.copyOf(generacion, cap);
+        flags = Arrays.copyOf(flags, cap);
+        Arrays.fill(generacion, viejo, cap, 1);
+    }
+}
@@ -0,0 +1,371 @@
+package entidades.enemigos;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+import entidades.personajes.Jugador;
+import mapa.model.Habitacion;
+import mapa.navegacion.CampoFlujo;
+
+/**
+ * Store de enemigos en formato structure-of-arrays, y única implementación de su IA.
+ *
+ * - Arrays primitivos (posición, velocidad, rapidez, objetivo, sala) indexados en forma densa.
+ * - El índice denso vive en el propio Enemigo (como Entidad.slotAnimacion): sin mapas ni boxing.
+ *   Al quitar se hace swap-remove (sin huecos) y se actualiza el índice del que se movió.
+ * - Cada sala tiene su lista de índices: la IA de una sala solo recorre sus enemigos.
+ * - Es la única fuente de verdad de qué enemigos hay y en qué sala: getEnemigos() /
+ *   getEnemigosDeSala() son vistas de solo lectura (vivas: copiar antes de quitar mientras se recorre).
+ * - La IA de una sala corre en 3 pasadas: leer bodies, calcular en arrays, escribir velocidades.
+ *
+ * El Enemigo sigue existiendo (sprites, red, userData de Box2D); sus setters de velocidad,
+ * objetivo, distancia mínima y cuerpo escriben acá (ver Enemigo), así que no divergen.
+ */
+public final class AlmacenEnemigos {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+    private static final int CAPACIDAD_SALA = 16;
+    private static final int SIN_SALA = -1;
+
+    private int cantidad = 0;
+
+    // ===== SoA (índice denso 0..cantidad-1) =====
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] velocidad;
+    private float[] distanciaMinima2;
+    private int[] objetivo;   // 0 = más cercano, 1, 2
+    private int[] sala;       // Habitacion.ordinal() o SIN_SALA
+    private int[] posEnSala;  // posición dentro de indicesSala[sala]
+    private Body[] cuerpo;
+    private Enemigo[] enemigo;
+
+    // ===== sala -> índices densos de sus enemigos =====
+    private final int[][] indicesSala = new int[Habitacion.values().length][];
+    private final int[] cantidadSala = new int[Habitacion.values().length];
+
+    // vistas List (sin copiar; una por sala, creada la primera vez)
+    private final List<Enemigo> vistaTodos = new AbstractList<Enemigo>() {
+        @Override public Enemigo get(int i) {
+            if (i < 0 || i >= cantidad) throw new IndexOutOfBoundsException(i);
+            return enemigo[i];
+        }
+        @Override public int size() { return cantidad; }
+    };
+    private final VistaSala[] vistasSala = new VistaSala[Habitacion.values().length];
+
+    public AlmacenEnemigos() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public AlmacenEnemigos(int capacidadInicial) {
+        int cap = Math.max(1, capacidadInicial);
+        x = new float[cap];
+        y = new float[cap];
+        vx = new float[cap];
+        vy = new float[cap];
+        velocidad = new float[cap];
+        distanciaMinima2 = new float[cap];
+        objetivo = new int[cap];
+        sala = new int[cap];
+        posEnSala = new int[cap];
+        cuerpo = new Body[cap];
+        enemigo = new Enemigo[cap];
+    }
+
+    // =====================
+    // Alta / baja
+    // =====================
+
+    /** @return índice denso del enemigo (si ya estaba, solo se lo pasa a la sala indicada) */
+    public int agregar(Enemigo e, Habitacion salaDelEnemigo) {
+        if (e == null) return -1;
+
+        int i = indiceDe(e);
+        if (i >= 0) {
+            moverASala(e, salaDelEnemigo);
+            return i;
+        }
+
+        asegurarCapacidad(cantidad + 1);
+        i = cantidad++;
+
+        Body b = e.getCuerpoFisico();
+        Vector2 p = (b != null) ? b.getPosition() : null;
+        x[i] = (p != null) ? p.x : 0f;
+        y[i] = (p != null) ? p.y : 0f;
+        vx[i] = 0f;
+        vy[i] = 0f;
+        enemigo[i] = e;
+        e.almacen = this;
+        e.indiceAlmacen = i;
+        sincronizar(e);
+
+        sala[i] = SIN_SALA;
+        entrarASala(i, salaDelEnemigo);
+        return i;
+    }
+
+    /** Swap-remove: el último ocupa el hueco, los arrays quedan densos. */
+    public boolean quitar(Enemigo e) {
+        int i = indiceDe(e);
+        if (i < 0) return false;
+
+        salirDeSala(i);
+        e.almacen = null;
+        e.indiceAlmacen = -1;
+
+        int ultimo = --cantidad;
+        if (i != ultimo) {
+            x[i] = x[ultimo];
+            y[i] = y[ultimo];
+            vx[i] = vx[ultimo];
+            vy[i] = vy[ultimo];
+            velocidad[i] = velocidad[ultimo];
+            distanciaMinima2[i] = distanciaMinima2[ultimo];
+            objetivo[i] = objetivo[ultimo];
+            sala[i] = sala[ultimo];
+            posEnSala[i] = posEnSala[ultimo];
+            cuerpo[i] = cuerpo[ultimo];
+            enemigo[i] = enemigo[ultimo];
+
+            enemigo[i].indiceAlmacen = i;
+            if (sala[i] != SIN_SALA) indicesSala[sala[i]][posEnSala[i]] = i;
+        }
+        cuerpo[ultimo] = null;
+        enemigo[ultimo] = null;
+        return true;
+    }
+
+    /** Cambio de sala: swap-remove en la lista vieja, append en la nueva. */
+    public void moverASala(Enemigo e, Habitacion nueva) {
+        int i = indiceDe(e);
+        if (i < 0) return;
+        int s = (nueva != null) ? nueva.ordinal() : SIN_SALA;
+        if (sala[i] == s) return;
+        salirDeSala(i);
+        entrarASala(i, nueva);
+    }
+
+    public void limpiar() {
+        for (int i = 0; i < cantidad; i++) {
+            enemigo[i].almacen = null;
+            enemigo[i].indiceAlmacen = -1;
+        }
+        Arrays.fill(cuerpo, 0, cantidad, null);
+        Arrays.fill(enemigo, 0, cantidad, null);
+        Arrays.fill(cantidadSala, 0);
+        cantidad = 0;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public int getCantidadEnSala(Habitacion s) {
+        return (s != null) ? cantidadSala[s.ordinal()] : 0;
+    }
+
+    /** Todos los enemigos (orden denso). */
+    public List<Enemigo> getEnemigos() {
+        return vistaTodos;
+    }
+
+    /** Enemigos de la sala (orden de su lista de índices). */
+    public List<Enemigo> getEnemigosDeSala(Habitacion s) {
+        if (s == null) return List.of();
+        int o = s.ordinal();
+        VistaSala v = vistasSala[o];
+        if (v == null) v = vistasSala[o] = new VistaSala(o);
+        return v;
+    }
+
+    public boolean contiene(Enemigo e) {
+        return indiceDe(e) >= 0;
+    }
+
+    public Body getCuerpo(Enemigo e) {
+        int i = indiceDe(e);
+        return (i >= 0) ? cuerpo[i] : null;
+    }
+
+    /** Índice denso vigente del enemigo en este store, o -1. */
+    private int indiceDe(Enemigo e) {
+        if (e == null || e.almacen != this) return -1;
+        int i = e.indiceAlmacen;
+        return (i >= 0 && i < cantidad && enemigo[i] == e) ? i : -1;
+    }
+
+    /** Copia los parámetros de IA del enemigo a los arrays (lo llaman sus setters). */
+    void sincronizar(Enemigo e) {
+        int i = indiceDe(e);
+        if (i < 0) return;
+        float dm = e.getDistanciaMinima();
+        velocidad[i] = e.getVelocidad();
+        distanciaMinima2[i] = dm * dm;
+        objetivo[i] = e.getJugadorObjetivo();
+        cuerpo[i] = e.getCuerpoFisico();
+    }
+
+    private void entrarASala(int i, Habitacion s) {
+        if (s == null) {
+            sala[i] = SIN_SALA;
+            return;
+        }
+        int o = s.ordinal();
+        int[] lista = indicesSala[o];
+        int n = cantidadSala[o];
+        if (lista == null) {
+            lista = indicesSala[o] = new int[CAPACIDAD_SALA];
+        } else if (n == lista.length) {
+            lista = indicesSala[o] = Arrays.copyOf(lista, n * 2);
+        }
+        lista[n] = i;
+        cantidadSala[o] = n + 1;
+        sala[i] = o;
+        posEnSala[i] = n;
+    }
+
+    private void salirDeSala(int i) {
+        int o = sala[i];
+        if (o == SIN_SALA) return;
+        int[] lista = indicesSala[o];
+        int ultimo = --cantidadSala[o];
+        int pos = posEnSala[i];
+        if (pos != ultimo) {
+            int movido = lista[ultimo];
+            lista[pos] = movido;
+            posEnSala[movido] = pos;
+        }
+        sala[i] = SIN_SALA;
+    }
+
+    private final class VistaSala extends AbstractList<Enemigo> {
+        private final int o;
+
+        VistaSala(int o) { this.o = o; }
+
+        @Override public Enemigo get(int k) {
+            if (k < 0 || k >= cantidadSala[o]) throw new IndexOutOfBoundsException(k);
+            return enemigo[indicesSala[o][k]];
+        }
+
+        @Override public int size() { return cantidadSala[o]; }
+    }
+
+    private void asegurarCapacidad(int requerida) {
+        if (requerida <= x.length) return;
+        int cap = Math.max(requerida, x.length * 2);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        vx = Arrays.copyOf(vx, cap);
+        vy = Arrays.copyOf(vy, cap);
+        velocidad = Arrays.copyOf(velocidad, cap);
+        distanciaMinima2 = Arrays.copyOf(distanciaMinima2, cap);
+        objetivo = Arrays.copyOf(objetivo, cap);
+        sala = Arrays.copyOf(sala, cap);
+        posEnSala = Arrays.copyOf(posEnSala, cap);
+        cuerpo = Arrays.copyOf(cuerpo, cap);
+        enemigo = Arrays.copyOf(enemigo, cap);
+    }
+
+    // =====================
+    // IA batch
+    // =====================
+
+    /**
+     * Actualiza los enemigos de la sala (solo los de su lista de índices) en un loop apretado:
+     * 1) lee posiciones de los bodies
+     * 2) elige objetivo + calcula velocidad (campo de flujo o línea recta) solo con arrays
+     * 3) escribe las velocidades a los bodies
+     *
+     * Objetivo 0 = más cercano, 1/2 = fijo; frena dentro de distanciaMinima.
+     */
+    public void actualizarSala(Habitacion salaActual, Jugador j1, Jugador j2, CampoFlujo campoJ1, CampoFlujo campoJ2) {
+        if (salaActual == null) return;
+        final int s = salaActual.ordinal();
+        final int n = cantidadSala[s];
+        if (n == 0) return;
+        final int[] idx = indicesSala[s];
+
+        // posiciones de jugadores una sola vez por sala
+        boolean hay1 = j1 != null && j1.getCuerpoFisico() != null;
+        boolean hay2 = j2 != null && j2.getCuerpoFisico() != null;
+        float p1x = 0f, p1y = 0f, p2x = 0f, p2y = 0f;
+        if (hay1) { Vector2 p = j1.getCuerpoFisico().getPosition(); p1x = p.x; p1y = p.y; }
+        if (hay2) { Vector2 p = j2.getCuerpoFisico().getPosition(); p2x = p.x; p2y = p.y; }
+
+        // 1) leer
+        for (int k = 0; k < n; k++) {
+            int i = idx[k];
+            if (cuerpo[i] == null) continue;
+            Vector2 p = cuerpo[i].getPosition();
+            x[i] = p.x;
+            y[i] = p.y;
+        }
+
+        // 2) calcular
+        for (int k = 0; k < n; k++) {
+            int i = idx[k];
+            float ex = x[i];
+            float ey = y[i];
+
+            // elegir objetivo
+            int obj = objetivo[i];
+            if (obj != 1 && obj != 2) {
+                if (hay1 && hay2) {
+                    float d1 = (p1x - ex) * (p1x - ex) + (p1y - ey) * (p1y - ey);
+                    float d2 = (p2x - ex) * (p2x - ex) + (p2y - ey) * (p2y - ey);
+                    obj = (d1 <= d2) ? 1 : 2;
+                } else {
+                    obj = hay1 ? 1 : (hay2 ? 2 : 0);
+                }
+            }
+
+            boolean hayObj = (obj == 1) ? hay1 : (obj == 2 && hay2);
+            if (!hayObj) {
+                vx[i] = 0f;
+                vy[i] = 0f;
+                continue;
+            }
+
+            float tx = (obj == 1) ? p1x : p2x;
+            float ty = (obj == 1) ? p1y : p2y;
+            float dx = tx - ex;
+            float dy = ty - ey;
+            float len2 = dx * dx + dy * dy;
+
+            // muy cerca: frena (evita vibración / empuje constante)
+            if (len2 <= distanciaMinima2[i] || len2 < 0.0001f) {
+                vx[i] = 0f;
+                vy[i] = 0f;
+                continue;
+            }
+
+            float v = velocidad[i];
+            CampoFlujo campo = (obj == 1) ? campoJ1 : campoJ2;
+            int cod = (campo != null) ? campo.codigoDireccionEn(ex, ey) : -1;
+            if (cod >= 0) {
+                vx[i] = CampoFlujo.dirX(cod) * v;
+                vy[i] = CampoFlujo.dirY(cod) * v;
+            } else {
+                float inv = v / (float) Math.sqrt(len2);
+                vx[i] = dx * inv;
+                vy[i] = dy * inv;
+            }
+        }
+
+        // 3) escribir
+        for (int k = 0; k < n; k++) {
+            int i = idx[k];
+            if (cuerpo[i] == null) continue;
+            cuerpo[i].setLinearVelocity(vx[i], vy[i]);
+        }
+    }
+}
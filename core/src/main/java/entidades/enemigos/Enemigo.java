@@ -1,14 +1,15 @@
 package entidades.enemigos;
 
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import entidades.Entidad;
-import entidades.personajes.Jugador;
 
 /**
  * Enemigo básico.
  * - No tiene vida (se elimina al resolver puzzle de sala).
  * - Persigue al jugador objetivo (1/2) o al más cercano (0).
+ *
+ * La IA corre en AlmacenEnemigos.actualizarSala; los setters de parámetros de IA
+ * escriben también en el store para que no queden copias viejas.
  */
 public class Enemigo extends Entidad {
 
@@ -22,6 +23,10 @@ public class Enemigo extends Entidad {
     // Parámetros simples para evitar vibración / “pegarse” al jugador
     private float distanciaMinima = 0.35f; // en unidades del mundo Box2D (ajustable)
 
+    // Índice denso en AlmacenEnemigos (-1 = sin registrar); lo mantiene el store
+    AlmacenEnemigos almacen;
+    int indiceAlmacen = -1;
+
     public Enemigo(String nombre, float velocidad, Body cuerpoFisico, int jugadorObjetivo) {
         super(nombre, velocidad, cuerpoFisico);
         this.jugadorObjetivo = jugadorObjetivo;
@@ -36,6 +41,7 @@ public class Enemigo extends Entidad {
 
     public void setJugadorObjetivo(int jugadorObjetivo) {
         this.jugadorObjetivo = jugadorObjetivo;
+        if (almacen != null) almacen.sincronizar(this);
     }
 
     public float getDistanciaMinima() {
@@ -45,51 +51,28 @@ public class Enemigo extends Entidad {
     public void setDistanciaMinima(float distanciaMinima) {
         if (distanciaMinima < 0f) distanciaMinima = 0f;
         this.distanciaMinima = distanciaMinima;
+        if (almacen != null) almacen.sincronizar(this);
     }
 
-    /**
-     * Update simple: si hay target, lo sigue.
-     * Le pasamos los jugadores desde afuera (Partida / sistema de IA),
-     * así el Enemigo no conoce gestores globales.
-     */
-    public void actualizar(float delta, Jugador jugador1, Jugador jugador2) {
-        Jugador objetivo = elegirObjetivo(jugador1, jugador2);
-        if (objetivo == null) {
-            detener();
-            return;
-        }
-
-        Vector2 posObj = objetivo.getPosicion();
-        Vector2 miPos = getPosicion();
+    @Override
+    public void setVelocidad(float velocidad) {
+        super.setVelocidad(velocidad);
+        if (almacen != null) almacen.sincronizar(this);
+    }
 
-        // Si está muy cerca, frena para evitar vibración o “empuje constante”
-        if (miPos.dst2(posObj) <= distanciaMinima * distanciaMinima) {
-            detener();
-            return;
-        }
+    @Override
+    public void setCuerpoFisico(Body cuerpoFisico) {
+        super.setCuerpoFisico(cuerpoFisico);
+        if (almacen != null) almacen.sincronizar(this);
+    }
 
-        moverHacia(posObj);
+    public int getIndiceAlmacen() {
+        return indiceAlmacen;
     }
 
     // Mantenemos el hook default por compatibilidad (por si alguien llama actualizar(delta) sin jugadores)
     @Override
     public void actualizar(float delta) {
-        // No hace nada: para que el update “real” tenga contexto de jugadores.
-        // (A futuro esto se puede resolver con un AiController que tenga referencias al mundo.)
-    }
-
-    private Jugador elegirObjetivo(Jugador j1, Jugador j2) {
-        if (jugadorObjetivo == 1) return j1;
-        if (jugadorObjetivo == 2) return j2;
-
-        // 0 o cualquier otro valor: el más cercano válido
-        if (j1 == null && j2 == null) return null;
-        if (j1 == null) return j2;
-        if (j2 == null) return j1;
-
-        Vector2 miPos = getPosicion();
-        float d1 = miPos.dst2(j1.getPosicion());
-        float d2 = miPos.dst2(j2.getPosicion());
-        return (d1 <= d2) ? j1 : j2;
+        // No hace nada: la IA real corre por sala en AlmacenEnemigos (necesita jugadores y campos de flujo).
     }
 }
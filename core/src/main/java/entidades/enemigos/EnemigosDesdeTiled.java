@@ -1,5 +1,8 @@
 package entidades.enemigos;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
@@ -75,6 +78,20 @@ public class EnemigosDesdeTiled {
         }
     }
 
+    /** Nombres de enemigo usados en el TMX (para resolver sus sprites antes de arrancar la simulación). */
+    public static Set<String> nombresEnMapa(TiledMap map) {
+        Set<String> nombres = new LinkedHashSet<>();
+        if (map == null) return nombres;
+
+        MapLayer layer = map.getLayers().get(LAYER_ENEMIGOS);
+        if (layer == null) return nombres;
+
+        for (MapObject obj : layer.getObjects()) {
+            if (obj instanceof RectangleMapObject) nombres.add(getString(obj, "nombre", "enemigo"));
+        }
+        return nombres;
+    }
+
     private static Habitacion leerSala(MapObject obj) {
         String salaProp = getString(obj, "sala", null);
         if (salaProp == null || salaProp.isBlank()) {
@@ -1,15 +1,20 @@
 package entidades.items;
 
+import entidades.ConHandle;
+import entidades.RegistroHandles;
 import entidades.personajes.Jugador;
 
 import java.util.function.Consumer;
 
-public class Item {
+public class Item implements ConHandle {
 
     private final String nombre;
     private final ItemTipo tipo;
     private final Consumer<Jugador> efecto;
 
+    // Handle de red (RegistroHandles del server). 0 = sin registrar.
+    private int handle = RegistroHandles.SIN_HANDLE;
+
     public Item(String nombre, ItemTipo tipo, Consumer<Jugador> efecto) {
         this.nombre = nombre;
         this.tipo = tipo;
@@ -24,6 +29,16 @@ public class Item {
         return tipo;
     }
 
+    @Override
+    public int getHandle() {
+        return handle;
+    }
+
+    @Override
+    public void setHandle(int handle) {
+        this.handle = handle;
+    }
+
     /** 👇 ESTE MÉTODO ES CLAVE */
     public void aplicarModificacion(Jugador jugador) {
         if (jugador == null || efecto == null) return;
@@ -1,6 +1,6 @@
 package entidades.items;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Enum de todos los tipos de ítems del juego.
@@ -73,32 +73,40 @@ public enum ItemTipo {
     // Cada tipo debe crear su propia instancia del item
     public abstract Item crearInstancia();
 
-    private static final Random rng = new Random();
+    private static final ItemTipo[] VALORES = values();
+
+    // Pesos de rareza de cada tipo -> tabla de alias (sorteo O(1))
+    private static final TablaAlias TABLA_RAREZA = crearTablaRareza();
+
+    private static TablaAlias crearTablaRareza() {
+        int[] pesos = new int[VALORES.length];
+        for (int i = 0; i < VALORES.length; i++) {
+            pesos[i] = VALORES[i].rareza.getPeso();
+        }
+        return new TablaAlias(pesos);
+    }
 
     // ============================================================
     // GENERADOR ALEATORIO POR RAREZA
     // ============================================================
 
-    public static Item generarAleatorioPorRareza() {
-        // Sumar pesos totales
-        int pesoTotal = 0;
-        for (ItemTipo tipo : values()) {
-            pesoTotal += tipo.rareza.getPeso();
-        }
+    /**
+     * Sortea un tipo con probabilidad proporcional al peso de su rareza.
+     * El RNG es de la partida (derivado de su semilla): mismo seed => mismos drops.
+     */
+    public static ItemTipo sortearPorRareza(SplittableRandom rng) {
+        return VALORES[TABLA_RAREZA.sortear(rng)];
+    }
 
-        // Sortear número dentro del rango total
-        int tirada = rng.nextInt(pesoTotal);
+    public static Item generarAleatorioPorRareza(SplittableRandom rng) {
+        return sortearPorRareza(rng).crearInstancia();
+    }
 
-        // Selección ponderada
-        int acumulado = 0;
-        for (ItemTipo tipo : values()) {
-            acumulado += tipo.rareza.getPeso();
-            if (tirada < acumulado) {
-                return tipo.crearInstancia();
-            }
-        }
+    // sal para no correlacionar los drops con el Random(semilla) que arma el mapa
+    private static final long SAL_DROPS = 0x9E3779B97F4A7C15L;
 
-        // Seguridad (no debería llegar)
-        return values()[0].crearInstancia();
+    /** RNG de drops de una partida/nivel, derivado de su semilla. */
+    public static SplittableRandom rngParaSemilla(long semilla) {
+        return new SplittableRandom(semilla ^ SAL_DROPS);
     }
 }
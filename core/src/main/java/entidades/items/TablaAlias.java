@@ -0,0 +1,76 @@
+package entidades.items;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tabla de alias (método de Vose) para sortear índices con pesos en O(1).
+ *
+ * Se arma una sola vez con los pesos; cada sorteo es un nextInt + un nextDouble.
+ * No guarda estado de sorteo: el RNG lo pone el que llama (uno por partida).
+ */
+public final class TablaAlias {
+
+    private final double[] prob;
+    private final int[] alias;
+
+    public TablaAlias(int[] pesos) {
+        int n = pesos.length;
+        if (n == 0) throw new IllegalArgumentException("TablaAlias sin pesos");
+
+        long total = 0;
+        for (int p : pesos) {
+            if (p < 0) throw new IllegalArgumentException("Peso negativo: " + p);
+            total += p;
+        }
+        if (total == 0) throw new IllegalArgumentException("TablaAlias con peso total 0");
+
+        prob = new double[n];
+        alias = new int[n];
+
+        // pesos escalados: promedio = 1
+        double[] escalado = new double[n];
+        int[] chicos = new int[n];
+        int[] grandes = new int[n];
+        int cantChicos = 0;
+        int cantGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalado[i] = (double) pesos[i] * n / total;
+            if (escalado[i] < 1.0) chicos[cantChicos++] = i;
+            else grandes[cantGrandes++] = i;
+        }
+
+        // cada columna chica se completa con un pedazo de una grande
+        while (cantChicos > 0 && cantGrandes > 0) {
+            int c = chicos[--cantChicos];
+            int g = grandes[--cantGrandes];
+            prob[c] = escalado[c];
+            alias[c] = g;
+
+            escalado[g] = (escalado[g] + escalado[c]) - 1.0;
+            if (escalado[g] < 1.0) chicos[cantChicos++] = g;
+            else grandes[cantGrandes++] = g;
+        }
+
+        // lo que queda es 1.0 (salvo error de redondeo)
+        while (cantGrandes > 0) {
+            int g = grandes[--cantGrandes];
+            prob[g] = 1.0;
+            alias[g] = g;
+        }
+        while (cantChicos > 0) {
+            int c = chicos[--cantChicos];
+            prob[c] = 1.0;
+            alias[c] = c;
+        }
+    }
+
+    public int getCantidad() {
+        return prob.length;
+    }
+
+    /** @return índice sorteado en [0, cantidad) con probabilidad peso[i] / total. */
+    public int sortear(SplittableRandom rng) {
+        int i = rng.nextInt(prob.length);
+        return (rng.nextDouble() < prob[i]) ? i : alias[i];
+    }
+}
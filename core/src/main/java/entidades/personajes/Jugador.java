@@ -28,6 +28,10 @@ public class Jugador extends Entidad {
 
     // Inventario simple (ítems pasivos)
     private final List<Item> objetos = new ArrayList<>();
+    private final List<Item> objetosSoloLectura = Collections.unmodifiableList(objetos); // vista viva: una sola
+
+    // ✅ sube con cada cambio de vida, vidaMaxima o inventario (el HUD rearma su cache solo entonces)
+    private int versionEstado = 0;
 
     public Jugador(int id, String nombre,
                    Genero generoInicial,
@@ -86,6 +90,7 @@ public class Jugador extends Entidad {
     public void setVida(int vida) {
         if (vida < 0) vida = 0;
         if (vida > vidaMaxima) vida = vidaMaxima;
+        if (vida != this.vida) versionEstado++;
         this.vida = vida;
     }
 
@@ -99,6 +104,12 @@ public class Jugador extends Entidad {
         if (vida > vidaMaxima) {
             vida = vidaMaxima;
         }
+        versionEstado++;
+    }
+
+    /** Versión de vida/vidaMaxima/inventario: si no cambió, nada de eso cambió. */
+    public int getVersionEstado() {
+        return versionEstado;
     }
 
     // ------------------ Física ------------------
@@ -121,6 +132,7 @@ public class Jugador extends Entidad {
         if (!viva || enMuerte || inmune) return;
 
         vida--;
+        versionEstado++;
         enMuerte = true;
         puedeMoverse = false;
         tiempoMuerte = 0f;
@@ -190,18 +202,20 @@ public class Jugador extends Entidad {
     // ------------------ Inventario ------------------
 
     public List<Item> getObjetos() {
-        return Collections.unmodifiableList(objetos);
+        return objetosSoloLectura;
     }
 
     public void agregarObjeto(Item item) {
         if (item == null) return;
         objetos.add(item);
+        versionEstado++;
         reaplicarEfectosDeItems();   // ✅ garantiza que el stat quede aplicado
     }
 
 
     public void removerObjeto(Item item) {
         if (objetos.remove(item)) {
+            versionEstado++;
             reaplicarEfectosDeItems();
         }
     }
@@ -216,6 +230,7 @@ public class Jugador extends Entidad {
         super.setVelocidad(velocidadBase);
 
         if (vida > vidaMaxima) vida = vidaMaxima;
+        versionEstado++;
 
         for (Item item : objetos) {
             item.aplicarModificacion(this);
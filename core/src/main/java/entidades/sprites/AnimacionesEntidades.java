@@ -0,0 +1,295 @@
+package entidades.sprites;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+import entidades.Entidad;
+import recursos.CacheAnimaciones;
+
+/**
+ * Estado de animación de todas las entidades con sprite, en arrays densos indexados por slot.
+ *
+ * - slot = Entidad.getSlotAnimacion() (O(1), sin mapas). Al quitar se mueve el último al hueco
+ *   (swap-remove): los slots vivos son siempre [0..cantidad).
+ * - actualizar(delta) avanza tiempos, resuelve muerte/movimiento/mirada y deja elegido el frame
+ *   (tabla de key-frames de la hoja) y el rect de dibujo de cada slot, en un solo pase.
+ * - Después el render solo lee getFrame/getX/getY/getW/getH (w negativo = espejado).
+ *
+ * No es thread-safe: un solo hilo (el de simulación si corre, si no el de render).
+ */
+public final class AnimacionesEntidades {
+
+    // Animación elegida por slot (índice en hojas[slot * ANIMS + anim])
+    public static final byte ANIM_QUIETO = 0;
+    public static final byte ANIM_MOVIMIENTO = 1;
+    public static final byte ANIM_MUERTE = 2;
+    private static final int ANIMS = 3;
+
+    // Flags por slot
+    private static final byte EN_MUERTE = 1;
+    private static final byte MUERTE_TERMINADA = 1 << 1;
+    private static final byte MIRA_DERECHA = 1 << 2;
+    private static final byte ESPEJA_OFFSET = 1 << 3;
+    private static final byte SIGUE_MUERTE_ENTIDAD = 1 << 4;
+    /** Flag libre para quien usa el sistema (ej: "eliminar la entidad al terminar la muerte"). */
+    public static final byte FLAG_USUARIO = (byte) (1 << 5);
+
+    private static final int CAPACIDAD_INICIAL = 32;
+
+    private int cantidad = 0;
+
+    private Entidad[] entidades = new Entidad[CAPACIDAD_INICIAL];
+    private SpritesEntidad[] definiciones = new SpritesEntidad[CAPACIDAD_INICIAL];
+    private CacheAnimaciones.Hoja[] hojas = new CacheAnimaciones.Hoja[CAPACIDAD_INICIAL * ANIMS];
+
+    private byte[] anim = new byte[CAPACIDAD_INICIAL];
+    private float[] tiempo = new float[CAPACIDAD_INICIAL];
+    private float[] tiempoMuerte = new float[CAPACIDAD_INICIAL];
+    private byte[] flags = new byte[CAPACIDAD_INICIAL];
+    private int[] marcas = new int[CAPACIDAD_INICIAL];
+
+    // Anclaje (copiado de la definición): offX, offY, anclaPie
+    private float[] anclaje = new float[CAPACIDAD_INICIAL * 3];
+
+    // Resultado del último actualizar(): frame + rect (x, y, w, h)
+    private TextureRegion[] frames = new TextureRegion[CAPACIDAD_INICIAL];
+    private float[] rects = new float[CAPACIDAD_INICIAL * 4];
+
+    // =====================
+    // Alta / baja
+    // =====================
+
+    /** Agrega la entidad con su definición (ya cargada). Si ya estaba, reemplaza la definición. */
+    public int agregar(Entidad e, SpritesEntidad def) {
+        if (e == null || def == null) return -1;
+
+        int s = slotDe(e);
+        if (s >= 0) {
+            if (definiciones[s] != def) definiciones[s].dispose();
+        } else {
+            if (cantidad == entidades.length) crecer(cantidad * 2);
+            s = cantidad++;
+            entidades[s] = e;
+            e.setSlotAnimacion(s);
+        }
+
+        definiciones[s] = def;
+        int h = s * ANIMS;
+        hojas[h + ANIM_QUIETO] = def.getHojaQuieto();
+        hojas[h + ANIM_MOVIMIENTO] = def.getHojaMovimiento();
+        hojas[h + ANIM_MUERTE] = def.getHojaMuerte();
+
+        anim[s] = ANIM_QUIETO;
+        tiempo[s] = 0f;
+        tiempoMuerte[s] = 0f;
+        marcas[s] = 0;
+        byte f = MIRA_DERECHA;
+        if (def.espejaOffset()) f |= ESPEJA_OFFSET;
+        if (def.sigueMuerteDeEntidad()) f |= SIGUE_MUERTE_ENTIDAD;
+        flags[s] = f;
+
+        int a = s * 3;
+        anclaje[a] = def.getOffsetX();
+        anclaje[a + 1] = def.getOffsetY();
+        anclaje[a + 2] = def.getAnclaPie();
+
+        frames[s] = null;
+        return s;
+    }
+
+    /** Quita el slot (suelta las hojas de su definición) y mueve el último al hueco. */
+    public void quitar(int s) {
+        if (s < 0 || s >= cantidad) return;
+
+        entidades[s].setSlotAnimacion(-1);
+        definiciones[s].dispose();
+
+        int ultimo = --cantidad;
+        if (s != ultimo) {
+            entidades[s] = entidades[ultimo];
+            definiciones[s] = definiciones[ultimo];
+            System.arraycopy(hojas, ultimo * ANIMS, hojas, s * ANIMS, ANIMS);
+            anim[s] = anim[ultimo];
+            tiempo[s] = tiempo[ultimo];
+            tiempoMuerte[s] = tiempoMuerte[ultimo];
+            flags[s] = flags[ultimo];
+            marcas[s] = marcas[ultimo];
+            System.arraycopy(anclaje, ultimo * 3, anclaje, s * 3, 3);
+            frames[s] = frames[ultimo];
+            System.arraycopy(rects, ultimo * 4, rects, s * 4, 4);
+            entidades[s].setSlotAnimacion(s);
+        }
+
+        entidades[ultimo] = null;
+        definiciones[ultimo] = null;
+        Arrays.fill(hojas, ultimo * ANIMS, ultimo * ANIMS + ANIMS, null);
+        frames[ultimo] = null;
+    }
+
+    public void quitar(Entidad e) {
+        quitar(slotDe(e));
+    }
+
+    /** Quita todo (fin de nivel): las entidades que sobreviven (jugadores) quedan sin slot. */
+    public void limpiar() {
+        for (int s = cantidad - 1; s >= 0; s--) quitar(s);
+    }
+
+    /** Slot vigente de la entidad en este sistema, o -1. */
+    public int slotDe(Entidad e) {
+        if (e == null) return -1;
+        int s = e.getSlotAnimacion();
+        return (s >= 0 && s < cantidad && entidades[s] == e) ? s : -1;
+    }
+
+    public int getCantidad() { return cantidad; }
+    public Entidad getEntidad(int s) { return entidades[s]; }
+
+    // =====================
+    // Pase por frame
+    // =====================
+
+    public void actualizar(float delta) {
+        for (int s = 0; s < cantidad; s++) {
+            Entidad e = entidades[s];
+            byte f = flags[s];
+            int h = s * ANIMS;
+
+            tiempo[s] += delta;
+
+            // Jugador: la muerte del sprite sigue al stun real
+            if ((f & SIGUE_MUERTE_ENTIDAD) != 0) {
+                if (e.estaEnMuerte()) {
+                    if ((f & EN_MUERTE) == 0 && hojas[h + ANIM_MUERTE] != null) {
+                        f = (byte) ((f | EN_MUERTE) & ~MUERTE_TERMINADA);
+                        tiempoMuerte[s] = 0f;
+                    }
+                } else if ((f & (EN_MUERTE | MUERTE_TERMINADA)) != 0) {
+                    f &= ~(EN_MUERTE | MUERTE_TERMINADA);
+                    tiempoMuerte[s] = 0f;
+                }
+            }
+
+            if ((f & EN_MUERTE) != 0) {
+                float dur = hojas[h + ANIM_MUERTE].getDuracionTotal();
+                float t = tiempoMuerte[s] + delta;
+                if (t >= dur) {
+                    t = dur; // clamp al último frame
+                    f |= MUERTE_TERMINADA;
+                }
+                tiempoMuerte[s] = t;
+            }
+
+            Body b = e.getCuerpoFisico();
+            if (b == null) {
+                flags[s] = f;
+                frames[s] = null;
+                continue;
+            }
+
+            Vector2 v = b.getLinearVelocity();
+            if (Math.abs(v.x) > 0.001f) {
+                f = (v.x >= 0f) ? (byte) (f | MIRA_DERECHA) : (byte) (f & ~MIRA_DERECHA);
+            }
+            flags[s] = f;
+
+            // 🔴 prioridad total: muerte; después movimiento
+            byte a;
+            TextureRegion frame;
+            if ((f & EN_MUERTE) != 0) {
+                a = ANIM_MUERTE;
+                frame = hojas[h + ANIM_MUERTE].frame(tiempoMuerte[s]);
+            } else {
+                a = (v.len2() > 0.01f) ? ANIM_MOVIMIENTO : ANIM_QUIETO;
+                frame = hojas[h + a].frame(tiempo[s]);
+            }
+            anim[s] = a;
+            frames[s] = frame;
+
+            // Rect: centrado en X, ancla al pie en Y; si mira a la izquierda se espeja (x + w, -w)
+            boolean derecha = (f & MIRA_DERECHA) != 0;
+            float w = frame.getRegionWidth();
+            float fh = frame.getRegionHeight();
+            int ai = s * 3;
+            float ox = (!derecha && (f & ESPEJA_OFFSET) != 0) ? -anclaje[ai] : anclaje[ai];
+            Vector2 p = e.getPosicion();
+            float x = p.x - w / 2f + ox;
+
+            int r = s * 4;
+            rects[r] = derecha ? x : x + w;
+            rects[r + 1] = p.y - anclaje[ai + 2] + anclaje[ai + 1];
+            rects[r + 2] = derecha ? w : -w;
+            rects[r + 3] = fh;
+        }
+    }
+
+    // =====================
+    // Muerte
+    // =====================
+
+    /** @return false si el slot no tiene animación de muerte */
+    public boolean iniciarMuerte(int s) {
+        if (s < 0 || hojas[s * ANIMS + ANIM_MUERTE] == null) return false;
+        if ((flags[s] & EN_MUERTE) != 0) return true;
+        flags[s] = (byte) ((flags[s] | EN_MUERTE) & ~MUERTE_TERMINADA);
+        tiempoMuerte[s] = 0f;
+        return true;
+    }
+
+    public void detenerMuerte(int s) {
+        if (s < 0) return;
+        flags[s] &= ~(EN_MUERTE | MUERTE_TERMINADA);
+        tiempoMuerte[s] = 0f;
+    }
+
+    public boolean estaEnMuerte(int s) {
+        return s >= 0 && (flags[s] & EN_MUERTE) != 0;
+    }
+
+    public boolean muerteTerminada(int s) {
+        return s >= 0 && (flags[s] & MUERTE_TERMINADA) != 0;
+    }
+
+    // =====================
+    // Flag / marca de usuario
+    // =====================
+
+    public boolean tieneFlagUsuario(int s) { return (flags[s] & FLAG_USUARIO) != 0; }
+    public void setFlagUsuario(int s, boolean valor) {
+        flags[s] = valor ? (byte) (flags[s] | FLAG_USUARIO) : (byte) (flags[s] & ~FLAG_USUARIO);
+    }
+
+    /** Entero libre por slot (ej: marca de generación para barridos "¿sigue existiendo?"). */
+    public int getMarca(int s) { return marcas[s]; }
+    public void setMarca(int s, int marca) { marcas[s] = marca; }
+
+    // =====================
+    // Lectura (render / captura)
+    // =====================
+
+    /** Animación elegida en el último actualizar() (ANIM_*). */
+    public byte getAnim(int s) { return anim[s]; }
+    /** null si no hay nada para dibujar */
+    public TextureRegion getFrame(int s) { return frames[s]; }
+    public float getX(int s) { return rects[s * 4]; }
+    public float getY(int s) { return rects[s * 4 + 1]; }
+    public float getW(int s) { return rects[s * 4 + 2]; }
+    public float getH(int s) { return rects[s * 4 + 3]; }
+
+    private void crecer(int cap) {
+        entidades = Arrays.copyOf(entidades, cap);
+        definiciones = Arrays.copyOf(definiciones, cap);
+        hojas = Arrays.copyOf(hojas, cap * ANIMS);
+        anim = Arrays.copyOf(anim, cap);
+        tiempo = Arrays.copyOf(tiempo, cap);
+        tiempoMuerte = Arrays.copyOf(tiempoMuerte, cap);
+        flags = Arrays.copyOf(flags, cap);
+        marcas = Arrays.copyOf(marcas, cap);
+        anclaje = Arrays.copyOf(anclaje, cap * 3);
+        frames = Arrays.copyOf(frames, cap);
+        rects = Arrays.copyOf(rects, cap * 4);
+    }
+}
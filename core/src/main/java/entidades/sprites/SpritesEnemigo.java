@@ -7,24 +7,23 @@ public class SpritesEnemigo extends SpritesEntidad {
     public SpritesEnemigo(Enemigo enemigo, int frameW, int frameH) {
         super(enemigo, frameW, frameH);
         cargar();
-        construirAnimaciones();
     }
 
     @Override
-    protected String pathQuieto() {
+    protected String regionQuieto() {
         Enemigo e = (Enemigo) entidad;
-        return "Enemigos/" + e.getNombre() + "_quieto.png";
+        return "Enemigos/" + e.getNombre() + "_quieto";
     }
 
     @Override
-    protected String pathMovimiento() {
+    protected String regionMovimiento() {
         Enemigo e = (Enemigo) entidad;
-        return "Enemigos/" + e.getNombre() + "_movimiento.png";
+        return "Enemigos/" + e.getNombre() + "_movimiento";
     }
 
     @Override
-    protected String pathMuerte() {
+    protected String regionMuerte() {
         Enemigo e = (Enemigo) entidad;
-        return "Enemigos/" + e.getNombre() + "_muerte.png";
+        return "Enemigos/" + e.getNombre() + "_muerte";
     }
 }
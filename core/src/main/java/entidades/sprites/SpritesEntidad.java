@@ -1,14 +1,15 @@
 package entidades.sprites;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.utils.Array;
 import entidades.Entidad;
-import entidades.personajes.Jugador;
-
+import recursos.AtlasJuego;
+import recursos.CacheAnimaciones;
+
+/**
+ * Definición del sprite de una entidad: qué hojas usa (quieto / movimiento / muerte) y cómo
+ * se ancla al cuerpo. No tiene estado por frame: tiempos, flags y frame elegido viven en
+ * AnimacionesEntidades (arrays densos, un solo pase por frame).
+ */
 public abstract class SpritesEntidad {
 
     protected final Entidad entidad;
@@ -21,29 +22,10 @@ public abstract class SpritesEntidad {
 
     protected float anclaPie = 12f;
 
-    protected float stateTime = 0f;
-
-    protected Texture texQuieto;
-    protected Texture texMovimiento;
-
-    protected Texture texMuerte;
-    protected boolean enMuerte = false;
-    protected boolean muerteFinalizada = false;
-    protected float muerteTime = 0f;
-
-    protected Array<TextureRegion> framesQuieto;
-    protected Array<TextureRegion> framesMovimiento;
-    protected Array<TextureRegion> framesMuerte;
-
-    protected Animation<TextureRegion> animQuieto;
-    protected Animation<TextureRegion> animMovimiento;
-    protected Animation<TextureRegion> animMuerte;
-
-    protected TextureRegion fallbackQuieto;
-    protected TextureRegion fallbackMovimiento;
-    protected TextureRegion fallbackMuerte;
-
-    protected boolean ultimaMiradaDerecha = true;
+    // ✅ hojas compartidas (CacheAnimaciones): acá solo queda la referencia
+    protected CacheAnimaciones.Hoja hojaQuieto;
+    protected CacheAnimaciones.Hoja hojaMovimiento;
+    protected CacheAnimaciones.Hoja hojaMuerte;
 
     protected SpritesEntidad(Entidad entidad, int frameW, int frameH) {
         this.entidad = entidad;
@@ -51,144 +33,58 @@ public abstract class SpritesEntidad {
         this.frameH = frameH;
     }
 
-    protected abstract String pathQuieto();
-    protected abstract String pathMovimiento();
-    protected String pathMuerte() { return null; }
+    // Nombres de región en AtlasJuego (ruta del PNG sin extensión)
+    protected abstract String regionQuieto();
+    protected abstract String regionMovimiento();
+    protected String regionMuerte() { return null; }
 
     protected float duracionQuieto() { return 0.20f; }
     protected float duracionMovimiento() { return 0.12f; }
     protected float duracionMuerte() { return 0.10f; }
 
-    protected void cargar() {
-        texQuieto = new Texture(Gdx.files.internal(pathQuieto()));
-        texMovimiento = new Texture(Gdx.files.internal(pathMovimiento()));
-
-        String pm = pathMuerte();
-        if (pm != null && !pm.isBlank()) {
-            texMuerte = new Texture(Gdx.files.internal(pm));
-        }
-    }
-
-    protected void construirAnimaciones() {
-        framesQuieto = split(texQuieto);
-        framesMovimiento = split(texMovimiento);
-
-        animQuieto = new Animation<>(duracionQuieto(), framesQuieto, Animation.PlayMode.LOOP);
-        animMovimiento = new Animation<>(duracionMovimiento(), framesMovimiento, Animation.PlayMode.LOOP);
+    /** true: el offsetX se espeja al mirar a la izquierda (jugadores). */
+    protected boolean espejaOffset() { return false; }
 
-        fallbackQuieto = framesQuieto.size > 0 ? framesQuieto.first() : new TextureRegion(texQuieto);
-        fallbackMovimiento = framesMovimiento.size > 0 ? framesMovimiento.first() : new TextureRegion(texMovimiento);
+    /** true: la anim de muerte sigue a entidad.estaEnMuerte() (stun del jugador). */
+    protected boolean sigueMuerteDeEntidad() { return false; }
 
-        if (texMuerte != null) {
-            framesMuerte = split(texMuerte);
-            animMuerte = new Animation<>(duracionMuerte(), framesMuerte, Animation.PlayMode.NORMAL);
-            fallbackMuerte = framesMuerte.size > 0 ? framesMuerte.first() : new TextureRegion(texMuerte);
+    protected void cargar() {
+        CacheAnimaciones cache = AtlasJuego.get().getAnimaciones();
+        hojaQuieto = cache.adquirirRequerida(regionQuieto(), frameW, frameH, duracionQuieto(), Animation.PlayMode.LOOP);
+        hojaMovimiento = cache.adquirirRequerida(regionMovimiento(), frameW, frameH, duracionMovimiento(), Animation.PlayMode.LOOP);
+
+        String rm = regionMuerte();
+        if (rm != null && !rm.isBlank()) {
+            hojaMuerte = cache.adquirir(rm, frameW, frameH, duracionMuerte(), Animation.PlayMode.NORMAL);
+            if (hojaMuerte != null && hojaMuerte.getCantidadFrames() == 0) {
+                hojaMuerte.soltar();
+                hojaMuerte = null;
+            }
         }
     }
 
-    protected Array<TextureRegion> split(Texture tex) {
-        Array<TextureRegion> frames = new Array<>();
-        TextureRegion[][] grid = TextureRegion.split(tex, frameW, frameH);
-
-        for (TextureRegion[] row : grid)
-            for (TextureRegion r : row)
-                frames.add(r);
-
-        return frames;
-    }
-
     public void setOffset(float x, float y) {
         this.offsetX = x;
         this.offsetY = y;
     }
 
-    public void iniciarMuerte() {
-        if (enMuerte) return;
-        if (animMuerte == null || framesMuerte == null || framesMuerte.size == 0) return;
-
-        enMuerte = true;
-        muerteFinalizada = false;
-        muerteTime = 0f;
-    }
-
-
-    public void detenerMuerte() {
-        enMuerte = false;
-        muerteFinalizada = false;
-        muerteTime = 0f;
-    }
-
-
-    public boolean muerteTerminada() {
-        return muerteFinalizada;
-    }
-
-    public boolean estaEnMuerte() {
-        return enMuerte;
-    }
-
-
-    public void update(float delta) {
-        stateTime += delta;
-
-        if (enMuerte) {
-            muerteTime += delta;
-            float dur = animMuerte.getAnimationDuration();
-            if (muerteTime >= dur) {
-                muerteTime = dur; // clamp al último frame
-                muerteFinalizada = true;
-                // ❌ NO: enMuerte = false;
-            }
-        }
-    }
-
-    public void render(SpriteBatch batch) {
-        if (entidad == null || entidad.getCuerpoFisico() == null) return;
-
-        float vx = entidad.getCuerpoFisico().getLinearVelocity().x;
-
-        if (Math.abs(vx) > 0.001f) {
-            ultimaMiradaDerecha = vx >= 0f;
-        }
-
-        TextureRegion frame = elegirFrame();
-
-        float w = frame.getRegionWidth();
-        float h = frame.getRegionHeight();
-
-        float x = entidad.getPosicion().x - w / 2f + offsetX;
-        float y = entidad.getPosicion().y - anclaPie + offsetY;
-
-        if (ultimaMiradaDerecha) {
-            batch.draw(frame, x, y);
-        } else {
-            batch.draw(frame, x + w, y, -w, h);
-        }
-    }
-
-    protected TextureRegion elegirFrame() {
-        // 🔴 prioridad total: muerte
-        if (enMuerte) {
-            if (animMuerte != null && framesMuerte.size > 0) {
-                return animMuerte.getKeyFrame(muerteTime, false);
-            }
-            return fallbackMuerte;
-        }
-
-        // 👇 recién acá miramos movimiento
-        float v2 = entidad.getCuerpoFisico().getLinearVelocity().len2();
-        boolean moviendo = v2 > 0.01f;
-
-        if (moviendo) {
-            return animMovimiento.getKeyFrame(stateTime, true);
-        }
-        return animQuieto.getKeyFrame(stateTime, true);
-    }
+    public Entidad getEntidad() { return entidad; }
+    public float getOffsetX() { return offsetX; }
+    public float getOffsetY() { return offsetY; }
+    public float getAnclaPie() { return anclaPie; }
 
+    public CacheAnimaciones.Hoja getHojaQuieto() { return hojaQuieto; }
+    public CacheAnimaciones.Hoja getHojaMovimiento() { return hojaMovimiento; }
+    /** null si la entidad no tiene animación de muerte */
+    public CacheAnimaciones.Hoja getHojaMuerte() { return hojaMuerte; }
 
     public void dispose() {
-        if (texQuieto != null) texQuieto.dispose();
-        if (texMovimiento != null) texMovimiento.dispose();
-        if (texMuerte != null) texMuerte.dispose();
+        // Las tablas de frames son compartidas: solo soltamos nuestra referencia a cada hoja
+        if (hojaQuieto != null) hojaQuieto.soltar();
+        if (hojaMovimiento != null) hojaMovimiento.soltar();
+        if (hojaMuerte != null) hojaMuerte.soltar();
+        hojaQuieto = null;
+        hojaMovimiento = null;
+        hojaMuerte = null;
     }
 }
@@ -10,6 +10,8 @@ import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.ShortArray;
 
+import telemetria.EventosJfr;
+
 public final class ColisionesDesdeTiled {
 
     private static final String NOMBRE_CAPA = "colision";
@@ -19,6 +21,8 @@ public final class ColisionesDesdeTiled {
     public static void crearColisiones(TiledMap map, World world) {
         if (map == null || world == null) return;
 
+        EventosJfr.Colisiones ev = new EventosJfr.Colisiones();
+        ev.begin();
         int creadas = 0;
 
         // 1) Buscar cualquier layer llamada "colision" (case-insensitive)
@@ -36,6 +40,9 @@ public final class ColisionesDesdeTiled {
         }
 
         Gdx.app.log("ColisionesDesdeTiled", "Colisiones creadas: " + creadas);
+
+        ev.creadas = creadas;
+        ev.commit();
     }
 
     private static int crearDesdeObjectLayer(MapLayer layer, World world) {
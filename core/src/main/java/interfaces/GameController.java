@@ -22,4 +22,10 @@ public interface GameController {
 
     /** Fallback: request de pasar de nivel (el server valida). */
     void nextLevelRequest(int playerNum);
+
+    /**
+     * Un jugador se fue (Disconnect o timeout) con la partida en curso: el server deja de simular.
+     * Lo llama el hilo de red: no debe bloquear. Al terminar de liberar el mundo resetea el lobby.
+     */
+    void jugadorDesconectado(int playerNum);
 }
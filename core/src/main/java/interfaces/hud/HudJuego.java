@@ -1,19 +1,23 @@
 package interfaces.hud;
 
+import java.util.Arrays;
 import java.util.EnumMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.Disposable;
-import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
@@ -21,26 +25,27 @@ import entidades.items.Item;
 import entidades.items.ItemTipo;
 import entidades.personajes.Jugador;
 import interfaces.listeners.ListenerCambioSala;
+import juego.sistemas.SnapshotRender;
 import mapa.generacion.DisposicionMapa;
 import mapa.minimapa.LayoutMinimapa;
 import mapa.minimapa.PosMini;
 import mapa.model.Habitacion;
+import recursos.AtlasJuego;
+import recursos.PrecargaJuego;
 
 public class HudJuego implements Disposable, ListenerCambioSala {
 
     private static final float HUD_W = 960f;
     private static final float HUD_H = 540f;
 
-    // === Paths HUD (cambiá nombres si los tuyos son distintos) ===
-    private static final String PATH_HEART_FULL  = "Hud/corazon_lleno.png";
-    private static final String PATH_HEART_EMPTY = "Hud/corazon_vacio.png";
-    private static final String PATH_SLOT        = "Hud/slot.png";
+    // === Regiones HUD en AtlasJuego (ruta del PNG sin extensión) ===
+    private static final String REGION_HEART_FULL  = "Hud/corazon_lleno";
+    private static final String REGION_HEART_EMPTY = "Hud/corazon_vacio";
+    private static final String REGION_SLOT        = "Hud/slot";
 
-    // === Items (futuro) ===
-    // Cuando diseñes sprites, ponelos en assets/Items/...
-    // Convención: "Items/<tipo>.png" o "Items/item_<tipo>.png"
-    // (ver método resolveItemIconPath)
-    private static final String PATH_ITEM_UNKNOWN = "Hud/items/item_unknown.png"; // opcional fallback
+    // === Items ===
+    // Mismos sprites que en el mundo: "items/<tipo>" (ver AtlasJuego.regionItem)
+    private static final String REGION_ITEM_UNKNOWN = "Hud/items/item_unknown"; // opcional fallback
 
     private final DisposicionMapa disposicion;
     private final Jugador jugador;
@@ -55,13 +60,43 @@ public class HudJuego implements Disposable, ListenerCambioSala {
     private final ShapeRenderer shapes;
     private final BitmapFont font;
 
-    // === Texturas HUD ===
-    private Texture texHeartFull, texHeartEmpty, texSlot, texItemUnknown;
+    // === Regiones HUD (del atlas compartido: el HUD no es dueño de texturas) ===
     private TextureRegion heartFull, heartEmpty, slot, itemUnknown;
 
-    // === Cache de iconos por tipo de item (carga lazy) ===
+    // === Cache de iconos por tipo de item (lookup lazy) ===
     private final EnumMap<ItemTipo, TextureRegion> iconosPorTipo = new EnumMap<>(ItemTipo.class);
-    private final EnumMap<ItemTipo, Texture> texturasPorTipo = new EnumMap<>(ItemTipo.class);
+
+    // === Minimapa cacheado (FrameBuffer): se redibuja solo al descubrir una sala o cambiar de sala ===
+    private static final float MINI_ROOM_W = 18f;
+    private static final float MINI_ROOM_H = 14f;
+    private static final float MINI_GAP = 8f;
+    private static final float MINI_BORDE = 6f;
+
+    private FrameBuffer fboMinimapa;
+    private TextureRegion regionMinimapa;
+    private final Matrix4 proyMinimapa = new Matrix4();
+    private int escalaMinimapa = 1;       // px de FBO por unidad de HUD (nítido al agrandar la ventana)
+    private int versionMinimapa = -1;     // versionDescubiertas dibujada
+    private Habitacion salaMinimapa;      // sala actual dibujada
+    private float miniX, miniY, miniW, miniH; // rect del minimapa (con borde) en coords HUD
+
+    // === Valores que se dibujan: en vivo (render()) o copiados de un SnapshotRender (modo hilo) ===
+    private int vida, vidaMax;
+    private ItemTipo[] tiposItems = new ItemTipo[8];
+    private String[] nombresItems = new String[8];
+    private int cantidadItems = 0;
+    private Set<Habitacion> descubiertas;
+    private int versionDescubiertas;
+
+    // === Cache de dibujo: se rearma solo si cambia Jugador.getVersionEstado() (vida/vidaMax/inventario) ===
+    private int versionEstado = -1;
+    private TextureRegion[] iconosItems = new TextureRegion[8];
+    private GlyphLayout[] textosItems = new GlyphLayout[8]; // "- nombre" (sin slot) o inicial (sin icono)
+    private final GlyphLayout textoVida = new GlyphLayout();
+    private final StringBuilder sbTexto = new StringBuilder();
+    private final GlyphLayout textoItems;
+    private final GlyphLayout textoItemsLista;
+    private final GlyphLayout textoMinimapa;
 
     // Layout items
     private int maxSlots = 6;            // ajustable
@@ -74,7 +109,7 @@ public class HudJuego implements Disposable, ListenerCambioSala {
         this.jugador = jugador;
 
         this.salaActual = disposicion.salaInicio();
-        this.layout = LayoutMinimapa.construir(disposicion);
+        this.layout = disposicion.getLayoutMinimapa(); // uno por nivel, compartido
 
         cam = new OrthographicCamera();
         viewport = new FitViewport(HUD_W, HUD_H, cam);
@@ -82,43 +117,21 @@ public class HudJuego implements Disposable, ListenerCambioSala {
 
         batch = new SpriteBatch();
         shapes = new ShapeRenderer();
-        font = new BitmapFont();
+        font = PrecargaJuego.fuenteHud(); // compartida entre niveles
+
+        textoItems = new GlyphLayout(font, "Items");
+        textoItemsLista = new GlyphLayout(font, "Items:");
+        textoMinimapa = new GlyphLayout(font, "Minimapa");
 
         cargarTexturasHud();
     }
 
     private void cargarTexturasHud() {
-        texHeartFull = loadTextureSafe(PATH_HEART_FULL);
-        texHeartEmpty = loadTextureSafe(PATH_HEART_EMPTY);
-        texSlot = loadTextureSafe(PATH_SLOT);
-        texItemUnknown = loadTextureSafe(PATH_ITEM_UNKNOWN);
-
-        if (texHeartFull != null) {
-            texHeartFull.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-            heartFull = new TextureRegion(texHeartFull);
-        }
-        if (texHeartEmpty != null) {
-            texHeartEmpty.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-            heartEmpty = new TextureRegion(texHeartEmpty);
-        }
-        if (texSlot != null) {
-            texSlot.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-            slot = new TextureRegion(texSlot);
-        }
-        if (texItemUnknown != null) {
-            texItemUnknown.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-            itemUnknown = new TextureRegion(texItemUnknown);
-        }
-    }
-
-    private static Texture loadTextureSafe(String internalPath) {
-        try {
-            if (internalPath == null || internalPath.isBlank()) return null;
-            if (!Gdx.files.internal(internalPath).exists()) return null;
-            return new Texture(Gdx.files.internal(internalPath));
-        } catch (GdxRuntimeException ex) {
-            return null;
-        }
+        AtlasJuego atlas = AtlasJuego.get();
+        heartFull = atlas.region(REGION_HEART_FULL);
+        heartEmpty = atlas.region(REGION_HEART_EMPTY);
+        slot = atlas.region(REGION_SLOT);
+        itemUnknown = atlas.region(REGION_ITEM_UNKNOWN);
     }
 
     public void actualizarSalaActual(Habitacion nuevaSala) {
@@ -132,9 +145,108 @@ public class HudJuego implements Disposable, ListenerCambioSala {
 
     public void resize(int width, int height) {
         viewport.update(width, height, true);
+
+        int escala = Math.max(1, Math.round(Math.min(width / HUD_W, height / HUD_H)));
+        if (escala != escalaMinimapa) {
+            escalaMinimapa = escala;
+            liberarMinimapa(); // se recrea al tamaño nuevo en el próximo render
+        }
     }
 
+    /** Lee jugador/disposición en vivo (loop en un solo hilo). */
     public void render() {
+        leerEnVivo();
+        dibujar();
+    }
+
+    /** Modo hilo de simulación: todo sale del snapshot (no toca entidades ni la disposición). */
+    public void render(SnapshotRender snap) {
+        if (snap.getVersionEstado() != versionEstado) {
+            vida = snap.vida;
+            vidaMax = snap.vidaMaxima;
+
+            int n = snap.getCantidadItems();
+            asegurarCapacidadItems(n);
+            for (int i = 0; i < n; i++) {
+                tiposItems[i] = snap.getTipoItem(i);
+                nombresItems[i] = snap.getNombreItem(i);
+            }
+            cantidadItems = n;
+
+            versionEstado = snap.getVersionEstado();
+            rearmarCache();
+        }
+
+        descubiertas = snap.getDescubiertas();
+        versionDescubiertas = snap.getVersionDescubiertas();
+        salaActual = snap.sala;
+
+        dibujar();
+    }
+
+    private void leerEnVivo() {
+        if (jugador.getVersionEstado() != versionEstado) {
+            vida = jugador.getVida();
+            vidaMax = jugador.getVidaMaxima();
+
+            List<Item> objetos = jugador.getObjetos();
+            int n = objetos.size();
+            asegurarCapacidadItems(n);
+            for (int i = 0; i < n; i++) {
+                Item item = objetos.get(i);
+                tiposItems[i] = (item != null) ? item.getTipo() : null;
+                nombresItems[i] = (item != null) ? item.getNombre() : null;
+            }
+            cantidadItems = n;
+
+            versionEstado = jugador.getVersionEstado();
+            rearmarCache();
+        }
+
+        descubiertas = disposicion.getDescubiertas();
+        versionDescubiertas = disposicion.getVersionDescubiertas();
+    }
+
+    private void asegurarCapacidadItems(int n) {
+        if (n <= tiposItems.length) return;
+        tiposItems = Arrays.copyOf(tiposItems, n * 2);
+        nombresItems = Arrays.copyOf(nombresItems, n * 2);
+        iconosItems = Arrays.copyOf(iconosItems, n * 2);
+        textosItems = Arrays.copyOf(textosItems, n * 2);
+    }
+
+    /** Iconos y textos ya maquetados (GlyphLayout) para los valores actuales: por frame solo se dibujan. */
+    private void rearmarCache() {
+        if (heartFull == null || heartEmpty == null) {
+            sbTexto.setLength(0);
+            sbTexto.append("Vida: ");
+            for (int i = 0; i < vidaMax; i++) sbTexto.append(i < vida ? '♥' : '♡');
+            textoVida.setText(font, sbTexto);
+        }
+
+        for (int i = 0; i < cantidadItems; i++) {
+            iconosItems[i] = getIconoItem(tiposItems[i]);
+
+            GlyphLayout texto = textosItems[i];
+            if (texto == null) texto = textosItems[i] = new GlyphLayout();
+
+            String n = nombresItems[i];
+            sbTexto.setLength(0);
+            if (slot == null) {
+                sbTexto.append("- ").append(n);
+            } else if (iconosItems[i] == null) {
+                sbTexto.append((n != null && !n.isBlank()) ? Character.toUpperCase(n.charAt(0)) : '?');
+            } else {
+                texto.reset();
+                continue;
+            }
+            texto.setText(font, sbTexto);
+        }
+    }
+
+    private void dibujar() {
+        actualizarMinimapa(); // antes del apply: el FBO cambia el viewport GL
+
         viewport.apply();
         cam.update();
 
@@ -144,8 +256,7 @@ public class HudJuego implements Disposable, ListenerCambioSala {
         dibujarItemsSlots();
         batch.end();
 
-        shapes.setProjectionMatrix(cam.combined);
-        dibujarMinimapaExplorado();
+        dibujarMinimapa();
     }
 
     // ============================================================
@@ -153,8 +264,7 @@ public class HudJuego implements Disposable, ListenerCambioSala {
     // ============================================================
 
     private void dibujarVida() {
-        int vidaActual = jugador.getVida();
-        int vidaMax = jugador.getVidaMaxima();
+        int vidaActual = vida;
 
         float x = padding;
         float yTop = HUD_H - padding;
@@ -167,14 +277,12 @@ public class HudJuego implements Disposable, ListenerCambioSala {
             }
         } else {
             // Fallback texto (por si faltan assets)
-            StringBuilder sb = new StringBuilder("Vida: ");
-            for (int i = 0; i < vidaMax; i++) sb.append(i < vidaActual ? "♥" : "♡");
-            font.draw(batch, sb.toString(), x, yTop);
+            font.draw(batch, textoVida, x, yTop);
         }
     }
 
     // ============================================================
-    // ITEMS (slots + iconos por ItemTipo, carga lazy desde assets/Items)
+    // ITEMS (slots + iconos por ItemTipo, lookup lazy en el atlas)
     // ============================================================
 
     private void dibujarItemsSlots() {
@@ -182,18 +290,16 @@ public class HudJuego implements Disposable, ListenerCambioSala {
             // Fallback texto (si falta el slot)
             float x = padding;
             float y = HUD_H - padding - iconSize - 20f; // debajo de la vida
-            font.draw(batch, "Items:", x, y);
+            font.draw(batch, textoItemsLista, x, y);
             y -= 18f;
 
-            for (Item item : jugador.getObjetos()) {
-                font.draw(batch, "- " + item.getNombre(), x, y);
+            for (int i = 0; i < cantidadItems; i++) {
+                font.draw(batch, textosItems[i], x, y);
                 y -= 16f;
             }
             return;
         }
 
-        int vidaMax = jugador.getVidaMaxima();
-
         // Arriba-izquierda
         float left = padding;
         float top = HUD_H - padding;
@@ -205,12 +311,12 @@ public class HudJuego implements Disposable, ListenerCambioSala {
 
         // Título items (debajo de la vida)
         float titleY = top - offsetY;
-        font.draw(batch, "Items", left, titleY);
+        font.draw(batch, textoItems, left, titleY);
 
         // Fila de slots debajo del título
         float slotsY = titleY - 10f - iconSize;
 
-        int total = jugador.getObjetos().size();
+        int total = cantidadItems;
         int slots = Math.max(maxSlots, total);
         slots = Math.min(slots, maxSlots); // fijo; si querés que crezca, quitá esta línea
 
@@ -223,94 +329,110 @@ public class HudJuego implements Disposable, ListenerCambioSala {
 
             // Icono encima si hay item
             if (i < total) {
-                Item item = jugador.getObjetos().get(i);
-                TextureRegion icon = getIconoItem(item);
+                TextureRegion icon = iconosItems[i];
 
                 if (icon != null) {
                     batch.draw(icon, x, y, iconSize, iconSize);
                 } else {
-                    String n = item.getNombre();
-                    String letter = (n != null && !n.isBlank()) ? n.substring(0, 1).toUpperCase() : "?";
-                    font.draw(batch, letter, x + 5f, y + 12f);
+                    font.draw(batch, textosItems[i], x + 5f, y + 12f); // inicial del nombre
                 }
             }
         }
     }
 
 
-    private TextureRegion getIconoItem(Item item) {
-        if (item == null) return itemUnknown;
-
-        ItemTipo tipo = item.getTipo();
+    private TextureRegion getIconoItem(ItemTipo tipo) {
         if (tipo == null) return itemUnknown;
 
         // Cache hit
         TextureRegion cached = iconosPorTipo.get(tipo);
         if (cached != null) return cached;
 
-        // Intentar carga lazy desde assets/Items
-        String path = resolveItemIconPath(tipo);
-        Texture tex = loadTextureSafe(path);
-
-        if (tex == null) {
+        TextureRegion region = AtlasJuego.get().region(AtlasJuego.regionItem(tipo));
+        if (region == null) {
             // No existe todavía: devolvemos unknown (si existe)
             return itemUnknown;
         }
 
-        tex.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-
-        TextureRegion region = new TextureRegion(tex);
         iconosPorTipo.put(tipo, region);
-        texturasPorTipo.put(tipo, tex);
         return region;
     }
 
-    /**
-     * Convención de paths:
-     * - Primero prueba: Items/<TIPO_EN_MINUSCULA>.png
-     * - Si no existe:  Items/item_<TIPO_EN_MINUSCULA>.png
-     *
-     * Ej: ItemTipo.VELOCIDAD -> Items/velocidad.png  (o Items/item_velocidad.png)
-     */
-    private static String resolveItemIconPath(ItemTipo tipo) {
-        String base = tipo.name().toLowerCase(); // ej: "velocidad"
-        String p1 = "Items/" + base + ".png";
-        if (Gdx.files.internal(p1).exists()) return p1;
-
-        String p2 = "Items/item_" + base + ".png";
-        if (Gdx.files.internal(p2).exists()) return p2;
-
-        // Si no existe, devolvemos p1 como "default"
-        return p1;
-    }
-
     // ============================================================
-    // MINIMAPA (igual que antes, pero en HUD virtual)
+    // MINIMAPA (cacheado en FrameBuffer, en HUD virtual)
     // ============================================================
 
-    private void dibujarMinimapaExplorado() {
-        Set<Habitacion> descubiertas = disposicion.getDescubiertas();
+    /** Redibuja el FBO solo si hubo una sala descubierta nueva o cambió la sala actual. */
+    private void actualizarMinimapa() {
+        boolean sucio = fboMinimapa == null
+            || versionMinimapa != versionDescubiertas
+            || salaMinimapa != salaActual;
+        if (!sucio) return;
+
+        calcularRectMinimapa();
+
+        int fbW = Math.max(1, Math.round(miniW * escalaMinimapa));
+        int fbH = Math.max(1, Math.round(miniH * escalaMinimapa));
+        if (fboMinimapa == null) {
+            fboMinimapa = new FrameBuffer(Pixmap.Format.RGBA8888, fbW, fbH, false);
+            Texture tex = fboMinimapa.getColorBufferTexture();
+            tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            regionMinimapa = new TextureRegion(tex);
+            regionMinimapa.flip(false, true); // el FBO queda invertido en Y
+        }
 
-        final float roomW = 18f;
-        final float roomH = 14f;
-        final float gap = 8f;
+        // Coords locales del FBO: (0,0) = esquina inferior izquierda del fondo
+        proyMinimapa.setToOrtho2D(0f, 0f, miniW, miniH);
 
-        int minX = layout.minX(), maxX = layout.maxX();
-        int minY = layout.minY(), maxY = layout.maxY();
+        fboMinimapa.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        shapes.setProjectionMatrix(proyMinimapa);
+        dibujarMinimapaExplorado(MINI_BORDE, MINI_BORDE);
+        fboMinimapa.end();
 
-        int widthCells = (maxX - minX + 1);
-        int heightCells = (maxY - minY + 1);
+        versionMinimapa = versionDescubiertas;
+        salaMinimapa = salaActual;
+    }
+
+    private void calcularRectMinimapa() {
+        int widthCells = (layout.maxX() - layout.minX() + 1);
+        int heightCells = (layout.maxY() - layout.minY() + 1);
 
-        float mapW = widthCells * roomW + (widthCells - 1) * gap;
-        float mapH = heightCells * roomH + (heightCells - 1) * gap;
+        float mapW = widthCells * MINI_ROOM_W + (widthCells - 1) * MINI_GAP;
+        float mapH = heightCells * MINI_ROOM_H + (heightCells - 1) * MINI_GAP;
 
         float baseX = HUD_W - mapW - 20f;
         float baseY = HUD_H - mapH - 40f;
 
+        miniX = baseX - MINI_BORDE;
+        miniY = baseY - MINI_BORDE;
+        miniW = mapW + MINI_BORDE * 2;
+        miniH = mapH + MINI_BORDE * 2;
+    }
+
+    /** Por frame: un draw del FBO + el título. */
+    private void dibujarMinimapa() {
+        batch.begin();
+        if (regionMinimapa != null) batch.draw(regionMinimapa, miniX, miniY, miniW, miniH);
+        font.draw(batch, textoMinimapa, miniX + MINI_BORDE, miniY + MINI_BORDE - 12f);
+        batch.end();
+    }
+
+    /** Dibuja salas/pasillos descubiertos con ShapeRenderer (solo al invalidar el cache). */
+    private void dibujarMinimapaExplorado(float baseX, float baseY) {
+
+        final float roomW = MINI_ROOM_W;
+        final float roomH = MINI_ROOM_H;
+        final float gap = MINI_GAP;
+
+        int minX = layout.minX();
+        int minY = layout.minY();
+
         // Fondo
         shapes.begin(ShapeRenderer.ShapeType.Filled);
         shapes.setColor(0f, 0f, 0f, 0.55f);
-        shapes.rect(baseX - 6, baseY - 6, mapW + 12, mapH + 12);
+        shapes.rect(baseX - MINI_BORDE, baseY - MINI_BORDE, miniW, miniH);
         shapes.end();
 
         // Pasillos
@@ -363,10 +485,14 @@ public class HudJuego implements Disposable, ListenerCambioSala {
                 shapes.end();
             }
         }
+    }
 
-        batch.begin();
-        font.draw(batch, "Minimapa", baseX, baseY - 12f);
-        batch.end();
+    private void liberarMinimapa() {
+        if (fboMinimapa != null) {
+            fboMinimapa.dispose();
+            fboMinimapa = null;
+        }
+        regionMinimapa = null;
     }
 
     private void setColorSala(ShapeRenderer sr, Habitacion h) {
@@ -404,18 +530,10 @@ public class HudJuego implements Disposable, ListenerCambioSala {
     public void dispose() {
         batch.dispose();
         shapes.dispose();
-        font.dispose();
-
-        if (texHeartFull != null) texHeartFull.dispose();
-        if (texHeartEmpty != null) texHeartEmpty.dispose();
-        if (texSlot != null) texSlot.dispose();
-        if (texItemUnknown != null) texItemUnknown.dispose();
+        liberarMinimapa();
+        // font: compartida (PrecargaJuego)
 
-        for (Map.Entry<ItemTipo, Texture> e : texturasPorTipo.entrySet()) {
-            Texture t = e.getValue();
-            if (t != null) t.dispose();
-        }
-        texturasPorTipo.clear();
+        // Texturas: son del AtlasJuego
         iconosPorTipo.clear();
     }
 }
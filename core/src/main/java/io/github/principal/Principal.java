@@ -5,6 +5,7 @@ import com.badlogic.gdx.Screen;
 import config.AudioManager;
 import config.Settings;
 import pantallas.MenuPrincipal;
+import recursos.PrecargaJuego;
 
 public class Principal extends Game {
 
@@ -20,6 +21,7 @@ public class Principal extends Game {
         audio.setMasterVolume(settings.getVolumen()); // ✅ aplica volumen guardado
         audio.playMenu();               // ✅ suena el menú
 
+        PrecargaJuego.encolar();        // ✅ atlas/mapa/skin se cargan mientras se ve el menú
         cambiarPantalla(new MenuPrincipal(this));
     }
 
@@ -44,5 +46,6 @@ public class Principal extends Game {
     @Override
     public void dispose() {
         if (audio != null) audio.dispose();
+        PrecargaJuego.liberar();
     }
 }
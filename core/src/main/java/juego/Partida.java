@@ -5,7 +5,6 @@ import java.util.*;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -22,6 +21,7 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import config.OpcionesPanel;
 import control.input.ControlJugador;
@@ -50,6 +50,9 @@ import juego.sistemas.CanalRenderizadoPartida;
 import juego.sistemas.ProcesadorColasEventos;
 import juego.sistemas.SistemaActualizacionPartida;
 import juego.sistemas.ContextoActualizacionPartida;
+import juego.sistemas.HiloSimulacionPartida;
+import juego.sistemas.SnapshotRender;
+import juego.sistemas.TripleBuffer;
 import juego.sistemas.SistemaFinNivel;
 import juego.sistemas.SistemaSpritesEntidades;
 import juego.sistemas.SistemaTransicionSala;
@@ -60,6 +63,9 @@ import mapa.botones.*;
 import mapa.generacion.*;
 import mapa.model.*;
 import mapa.puertas.*;
+import recursos.AtlasJuego;
+import recursos.PerfilDibujado;
+import recursos.PrecargaJuego;
 
 /**
  * Contenedor del gameplay.
@@ -123,31 +129,39 @@ public class Partida {
     private final Set<Integer> jugadoresDanioFrame = new HashSet<>();
 
 
+    // ✅ Todas las regiones salen de AtlasJuego (una textura compartida, vive toda la run)
     private final List<BotonVisual> botonesVisuales = new ArrayList<>();
-    private Texture texBotonRojo;
-    private Texture texBotonAzul;
     private TextureRegion[][] framesBotonRojo;
     private TextureRegion[][] framesBotonAzul;
 
     private final java.util.List<PuertaVisual> puertasVisuales = new java.util.ArrayList<>();
-    private Texture texPuertaAbierta;
-    private Texture texPuertaCerrada;
     private TextureRegion regPuertaAbierta;
     private TextureRegion regPuertaCerrada;
 
     // Trampilla (visual)
-    private Texture texTrampilla;
     private TextureRegion regTrampilla;
 
 
     private Map<ItemTipo, TextureRegion> spritesItems = new HashMap<>();
-    private Map<ItemTipo, Texture> texturasItems = new HashMap<>();
 
-    private boolean gameOverSolicitado = false;
+    // Draw calls / binds por frame (-Drender.perfil=true)
+    private PerfilDibujado perfilDibujado;
+
+    // volatile: con hilo de simulación los escribe ese hilo y los consume JuegoPrincipal (GL)
+    private volatile boolean gameOverSolicitado = false;
     private float timerGameOver = 0f;
 
     private static final int NIVEL_FINAL = 3;
-    private boolean victoriaSolicitada = false;
+    private volatile boolean victoriaSolicitada = false;
+    private volatile boolean cambioNivelPendiente = false;
+
+    // --- Hilo de simulación (-Dpartida.hiloSimulacion=true) ---
+    // Update + física + sprites corren en HiloSimulacionPartida a DT fijo; el render (GL) solo
+    // dibuja el último SnapshotRender publicado (triple buffer, sin locks) con su propia cámara.
+    private static final boolean HILO_SIMULACION = Boolean.getBoolean("partida.hiloSimulacion");
+    private HiloSimulacionPartida hiloSimulacion;
+    private TripleBuffer<SnapshotRender> snapshots; // uno por nivel (cada hilo arranca limpio)
+    private CamaraDeSala camaraRender; // solo GL (la de la simulación es camaraSala)
 
     // Persisten durante toda la run (NO se reinician entre niveles)
     private Jugador jugador1Persistente;
@@ -249,8 +263,7 @@ public class Partida {
         cargarSpriteTrampilla();
         cargarSpritesItems();
 
-        if (texBotonRojo != null) texBotonRojo.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-        if (texBotonAzul != null) texBotonAzul.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        if (perfilDibujado == null) perfilDibujado = new PerfilDibujado();
 
         // Crear sensores + visuales
         BotonesDesdeTiled.crearBotones(mapaTiled, world, framesBotonRojo, framesBotonAzul, botonesVisuales);
@@ -266,8 +279,8 @@ public class Partida {
             gestorEntidades.registrarPuertaVisual(reg.origen(), reg.visual());
         });
 
-        // 4) Listeners HUD
-        agregarListenerCambioSala(hud);
+        // 4) Listeners HUD (con hilo de simulación el HUD toma la sala del snapshot)
+        if (!HILO_SIMULACION) agregarListenerCambioSala(hud);
 
         // 5) Sistemas
         sistemaActualizacion = new SistemaActualizacionPartida(
@@ -280,7 +293,7 @@ public class Partida {
         );
 
         canalRenderizado = new CanalRenderizadoPartida(
-            camaraSala,
+            HILO_SIMULACION ? crearCamaraRender() : camaraSala,
             mapaRenderer,
             shapeRendererMundo,
             batch,
@@ -289,6 +302,10 @@ public class Partida {
             gestorEntidades,
             sistemaSprites
         );
+        // ✅ índices de render por sala (una vez por nivel, no por frame)
+        canalRenderizado.setTilesPorSala(PrecargaJuego.tilesPorSala()); // se hornea en el primer nivel
+        canalRenderizado.setPuertasVisuales(puertasVisuales);
+        canalRenderizado.setBotonesVisuales(botonesVisuales);
 
         // 6) Contactos
         fisica.setContactListener(new EnrutadorContactosPartida(this));
@@ -300,22 +317,91 @@ public class Partida {
         if (gestorEntidades != null && jugador1 != null && jugador2 != null && salaActual != null) {
             gestorEntidades.forzarRespawnJugadoresEnWorldActual(jugador1, jugador2, salaActual);
         }
+
+        // 8) Desde acá Box2D/entidades/sprites son del hilo de simulación
+        if (HILO_SIMULACION) iniciarHiloSimulacion();
     }
 
+    // ==========================
+    // HILO DE SIMULACIÓN
+    // ==========================
 
+    private CamaraDeSala crearCamaraRender() {
+        camaraRender = new CamaraDeSala(512f, 512f);
+        camaraRender.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        camaraRender.setFactorLerp(0f);
+        camaraRender.centrarEn(salaActual);
+        return camaraRender;
+    }
 
+    private void iniciarHiloSimulacion() {
+        // Los enemigos se crean en la simulación: sus regiones se resuelven acá (GL), así el hilo
+        // solo lee el cache de AtlasJuego y nunca carga texturas.
+        AtlasJuego atlas = AtlasJuego.get();
+        for (String nombre : EnemigosDesdeTiled.nombresEnMapa(mapaTiled)) {
+            atlas.region("Enemigos/" + nombre + "_quieto");
+            atlas.region("Enemigos/" + nombre + "_movimiento");
+            atlas.region("Enemigos/" + nombre + "_muerte");
+        }
 
-    private void cargarSpriteTrampilla() {
-        // Textura 16x16 (o cualquier tamaño, se dibuja escalada a 16x16)
-        try {
-            texTrampilla = new Texture(Gdx.files.internal("Trampilla/trampilla.png"));
-            texTrampilla.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-            regTrampilla = new TextureRegion(texTrampilla);
-        } catch (Exception ex) {
-            // Si no existe el asset aún, la trampilla seguirá funcionando como sensor.
-            texTrampilla = null;
-            regTrampilla = null;
+        snapshots = new TripleBuffer<>(SnapshotRender::new);
+        hiloSimulacion = new HiloSimulacionPartida(this::pasoSimulacion);
+        hiloSimulacion.iniciar();
+    }
+
+    private void detenerHiloSimulacion() {
+        if (hiloSimulacion == null) return;
+        hiloSimulacion.detener();
+        hiloSimulacion = null;
+    }
+
+    /** Un step a DT fijo en el hilo de simulación: lógica + captura del snapshot. */
+    private void pasoSimulacion() {
+        if (gameOverSolicitado || victoriaSolicitada || cambioNivelPendiente) return;
+
+        float dt = HiloSimulacionPartida.DT;
+        if (!actualizarLogica(dt)) return;
+        registrarSpritesItemsNuevos();
+
+        SnapshotRender snap = snapshots.escritura();
+        canalRenderizado.capturar(
+            snap,
+            dt,
+            salaActual,
+            jugador1,
+            jugador2,
+            (sistemaFinNivel != null) ? sistemaFinNivel.getTrampillaVisual() : null
+        );
+        snap.camX = camaraSala.getCamara().position.x;
+        snap.camY = camaraSala.getCamara().position.y;
+        snap.capturarHud(jugador1);
+        snap.capturarDescubiertas(disposicion.getDescubiertas(), disposicion.getVersionDescubiertas());
+        snapshots.publicar();
+    }
+
+    /** Render con hilo de simulación: solo UI + último snapshot (no toca entidades ni Box2D). */
+    private void renderSnapshot(float delta) {
+        Throwable error = hiloSimulacion.getError();
+        if (error != null) throw new GdxRuntimeException("Falló el hilo de simulación", error);
+
+        SnapshotRender snap = snapshots.leer();
+        if (snap != null && canalRenderizado != null) canalRenderizado.renderSnapshot(snap);
+
+        if (opcionesAbiertas && pauseStage != null) {
+            pauseStage.act(delta);
+            pauseStage.draw();
         }
+
+        if (perfilDibujado != null) perfilDibujado.finFrame(salaActual);
+    }
+
+
+
+
+    private void cargarSpriteTrampilla() {
+        // Región 16x16 (o cualquier tamaño, se dibuja escalada a 16x16)
+        // Si no existe el asset aún (null), la trampilla seguirá funcionando como sensor.
+        regTrampilla = AtlasJuego.get().region("Trampilla/trampilla");
     }
 
     private void aplicarContexto(ContextoPartida ctx) {
@@ -347,22 +433,16 @@ public class Partida {
     }
 
     private void cargarSpritesBotones() {
-        // Carga texturas
-        texBotonRojo = new Texture(Gdx.files.internal("Botones/boton_rojo.png"));
-        texBotonAzul = new Texture(Gdx.files.internal("Botones/boton_azul.png"));
+        AtlasJuego atlas = AtlasJuego.get();
+        TextureRegion rojo = atlas.region("Botones/boton_rojo");
+        TextureRegion azul = atlas.region("Botones/boton_azul");
+        if (rojo == null || azul == null) {
+            throw new IllegalStateException("Faltan los sprites de botones (Botones/boton_rojo, Botones/boton_azul).");
+        }
 
         // Split: 1 fila x 2 columnas (UP/DOWN)
-        framesBotonRojo = TextureRegion.split(
-            texBotonRojo,
-            texBotonRojo.getWidth() / 2,
-            texBotonRojo.getHeight()
-        );
-
-        framesBotonAzul = TextureRegion.split(
-            texBotonAzul,
-            texBotonAzul.getWidth() / 2,
-            texBotonAzul.getHeight()
-        );
+        framesBotonRojo = rojo.split(rojo.getRegionWidth() / 2, rojo.getRegionHeight());
+        framesBotonAzul = azul.split(azul.getRegionWidth() / 2, azul.getRegionHeight());
 
         // Validación rápida (para detectar spritesheet mal cortado)
         if (framesBotonRojo.length < 1 || framesBotonRojo[0].length < 2) {
@@ -374,26 +454,18 @@ public class Partida {
     }
 
     private void cargarSpritesPuertas() {
-        texPuertaAbierta = new Texture(Gdx.files.internal("Puertas/puerta_abierta.png"));
-        texPuertaCerrada = new Texture(Gdx.files.internal("Puertas/puerta_cerrada.png"));
-
-        texPuertaAbierta.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-        texPuertaCerrada.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-
-        regPuertaAbierta = new TextureRegion(texPuertaAbierta);
-        regPuertaCerrada = new TextureRegion(texPuertaCerrada);
+        regPuertaAbierta = AtlasJuego.get().region("Puertas/puerta_abierta");
+        regPuertaCerrada = AtlasJuego.get().region("Puertas/puerta_cerrada");
     }
 
     private void cargarSpritesItems() {
         for (ItemTipo tipo : ItemTipo.values()) {
-            String archivo = "items/" + tipo.name().toLowerCase() + ".png";
-            Gdx.app.log("ITEM_SPRITE", "Cargando: " + archivo);
-
-            Texture tex = new Texture(Gdx.files.internal(archivo)); // <- acá revienta
-            tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-
-            texturasItems.put(tipo, tex);
-            spritesItems.put(tipo, new TextureRegion(tex));
+            TextureRegion region = AtlasJuego.get().region(AtlasJuego.regionItem(tipo));
+            if (region == null) {
+                Gdx.app.log("ITEM_SPRITE", "Falta sprite: " + AtlasJuego.regionItem(tipo));
+                continue;
+            }
+            spritesItems.put(tipo, region);
         }
     }
 
@@ -479,8 +551,48 @@ public void render(float delta) {
 
 
 
-        canalRenderizado.setPuertasVisuales(puertasVisuales);
+        if (hiloSimulacion != null) {
+            renderSnapshot(delta);
+            return;
+        }
+
+        if (!actualizarLogica(delta)) {
+            return; // game over / fin de nivel: cortamos el frame para que no siga avanzando lógica/render
+        }
+
+        if (canalRenderizado != null) {
+            canalRenderizado.render(
+                    delta,
+                    salaActual,
+                    debugFisica,
+                    jugador1,
+                    jugador2,
+                    (sistemaFinNivel != null) ? sistemaFinNivel.getTrampillaVisual() : null
+            );
+        }
+        registrarSpritesItemsNuevos();
+
+        // Overlay de opciones arriba del juego (sin pausar lógica)
+        if (opcionesAbiertas && pauseStage != null) {
+            pauseStage.act(delta);
+            pauseStage.draw();
+        }
+
+        if (perfilDibujado != null) perfilDibujado.finFrame(salaActual);
+    Body b1 = jugador1.getCuerpoFisico();
+    Body b2 = jugador2.getCuerpoFisico();
+
+    canalRenderizado.dibujarDebugBodies(camaraSala.getCamara(), debugRenderer, b1, b2);
+
+
+    }
 
+    /**
+     * Update del gameplay de un frame/step (sin render). Lo llama render() o, con hilo de
+     * simulación, pasoSimulacion().
+     * @return false si el frame se corta (game over o fin de nivel)
+     */
+    private boolean actualizarLogica(float delta) {
         sincronizarEstadoPuertasVisuales();
 
 
@@ -494,7 +606,7 @@ public void render(float delta) {
 
         actualizarGameOver(delta);
         if (gameOverSolicitado) {
-            return; // cortamos el frame para que no siga avanzando lógica/render
+            return false;
         }
 
 
@@ -516,33 +628,9 @@ public void render(float delta) {
         });
         if (avanzar[0]) {
             avanzarAlSiguienteNivel();
-            return;
-        }
-
-        if (canalRenderizado != null) {
-            canalRenderizado.render(
-                    delta,
-                    salaActual,
-                    debugFisica,
-                    jugador1,
-                    jugador2,
-                    botonesVisuales,
-                    (sistemaFinNivel != null) ? sistemaFinNivel.getTrampillaVisual() : null
-            );
+            return false;
         }
-        registrarSpritesItemsNuevos();
-
-        // Overlay de opciones arriba del juego (sin pausar lógica)
-        if (opcionesAbiertas && pauseStage != null) {
-            pauseStage.act(delta);
-            pauseStage.draw();
-        }
-    Body b1 = jugador1.getCuerpoFisico();
-    Body b2 = jugador2.getCuerpoFisico();
-
-    canalRenderizado.dibujarDebugBodies(camaraSala.getCamara(), debugRenderer, b1, b2);
-
-
+        return true;
     }
 
     private void avanzarAlSiguienteNivel() {
@@ -553,11 +641,29 @@ public void render(float delta) {
             return;
         }
 
+        // ✅ no se reconstruye en este frame: JuegoPrincipal muestra la pantalla de carga
+        // (precarga con presupuesto) y después llama a completarCambioNivel()
+        cambioNivelPendiente = true;
+    }
+
+    public boolean hayCambioNivelPendiente() {
+        return cambioNivelPendiente;
+    }
+
+    public int getNivelActual() {
+        return nivelActual;
+    }
+
+    public void completarCambioNivel() {
+        if (!cambioNivelPendiente) return;
+        cambioNivelPendiente = false;
+
         int w = Gdx.graphics.getWidth();
         int h = Gdx.graphics.getHeight();
 
         nivelActual++;
 
+        detenerHiloSimulacion();
         disposeNivel();
         initNivel();
         resize(w, h);
@@ -567,8 +673,9 @@ public void render(float delta) {
 
 
     private void initOverlayOpciones() {
+        if (pauseStage != null) pauseStage.dispose(); // el de nivel anterior
         pauseStage = new Stage(new ScreenViewport());
-        skin = new Skin(Gdx.files.internal("uiskin.json"));
+        skin = PrecargaJuego.skin();
 
         // Fondo semitransparente
         Table fondo = new Table();
@@ -634,40 +741,38 @@ public void render(float delta) {
     // ==========================
 
     public void resize(int width, int height) {
-        if (camaraSala != null) camaraSala.getViewport().update(width, height, true);
+        // Con hilo de simulación, camaraSala es de ese hilo: GL solo toca la de render
+        if (camaraRender != null) camaraRender.getViewport().update(width, height, true);
+        else if (camaraSala != null) camaraSala.getViewport().update(width, height, true);
         if (hud != null) hud.resize(width, height);
         if (pauseStage != null) pauseStage.getViewport().update(width, height, true);
     }
 
     public void dispose() {
+        detenerHiloSimulacion(); // antes de liberar Box2D/sprites
         if (opcionesAbiertas) cerrarOpciones();
-        if (mapaRenderer != null) mapaRenderer.dispose();
-        if (mapaTiled != null) mapaTiled.dispose();
+        // Mapa + renderer son residentes (PrecargaJuego): acá solo soltamos referencias
+        mapaRenderer = null;
+        mapaTiled = null;
         if (batch != null) batch.dispose();
         if (shapeRendererMundo != null) shapeRendererMundo.dispose();
         if (fisica != null) fisica.dispose();
         if (hud != null) hud.dispose();
 
         if (pauseStage != null) { pauseStage.dispose(); pauseStage = null; }
-        if (skin != null) { skin.dispose(); skin = null; }
+        skin = null; // compartida (PrecargaJuego)
 
         if (sistemaSprites != null) {
             sistemaSprites.dispose();
         }
 
-        if (texBotonRojo != null) texBotonRojo.dispose();
-        if (texBotonAzul != null) texBotonAzul.dispose();
-
-        if (texPuertaAbierta != null) texPuertaAbierta.dispose();
-        if (texPuertaCerrada != null) texPuertaCerrada.dispose();
-
-        if (texTrampilla != null) texTrampilla.dispose();
-
-        for (Texture t : texturasItems.values()) {
-            if (t != null) t.dispose();
-        }
-        texturasItems.clear();
         spritesItems.clear();
+        regPuertaAbierta = null;
+        regPuertaCerrada = null;
+        regTrampilla = null;
+
+        // El atlas queda residente (lo libera Principal al cerrar la app)
+        if (perfilDibujado != null) { perfilDibujado.dispose(); perfilDibujado = null; }
 
 
         resetearEstadoNivel();
@@ -677,9 +782,9 @@ public void render(float delta) {
     }
 
     private void disposeNivel() {
-        // OJO: esto es nivel, NO run
-        if (mapaRenderer != null) { mapaRenderer.dispose(); mapaRenderer = null; }
-        if (mapaTiled != null) { mapaTiled.dispose(); mapaTiled = null; }
+        // OJO: esto es nivel, NO run. Mapa + renderer son residentes: no se liberan.
+        mapaRenderer = null;
+        mapaTiled = null;
 
         if (batch != null) { batch.dispose(); batch = null; }
         if (shapeRendererMundo != null) { shapeRendererMundo.dispose(); shapeRendererMundo = null; }
@@ -692,20 +797,12 @@ public void render(float delta) {
         if (sistemaSprites != null) { sistemaSprites.dispose(); sistemaSprites = null; }
         if (sistemaActualizacion != null) { sistemaActualizacion = null; }
         if (canalRenderizado != null) { canalRenderizado = null; }
+        camaraRender = null;
 
-        // Texturas/sprites del nivel
-        if (texBotonRojo != null) { texBotonRojo.dispose(); texBotonRojo = null; }
-        if (texBotonAzul != null) { texBotonAzul.dispose(); texBotonAzul = null; }
-
-        if (texPuertaAbierta != null) { texPuertaAbierta.dispose(); texPuertaAbierta = null; }
-        if (texPuertaCerrada != null) { texPuertaCerrada.dispose(); texPuertaCerrada = null; }
-
-        if (texTrampilla != null) { texTrampilla.dispose(); texTrampilla = null; }
-
-        for (Texture t : texturasItems.values()) {
-            if (t != null) t.dispose();
-        }
-        texturasItems.clear();
+        // Sprites del nivel: solo referencias (las texturas son del AtlasJuego)
+        regPuertaAbierta = null;
+        regPuertaCerrada = null;
+        regTrampilla = null;
         spritesItems.clear();
 
         // Colecciones de nivel
@@ -1,35 +1,70 @@
 package juego.eventos;
 
-import java.util.ArrayDeque;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
  * Cola unificada para eventos del juego.
  *
- * Nota: por ahora el proyecto todavía usa colas tipadas por evento en algunos sistemas.
- * Esta clase se agrega para poder migrar gradualmente a un único flujo de eventos
- * (muy útil para red/snapshots/replay) sin tener que reescribir todo de una.
+ * Internamente hay un anillo preasignado por TipoEvento:
+ * - publicar() no aloca (salvo que un anillo se llene y tenga que crecer).
+ * - drenar/pollFirst/limpiar por tipo son O(k) sobre los eventos de ESE tipo, sin iteradores.
+ * - Cada evento lleva un número de secuencia global: poll() y recorrerEnOrden()
+ *   reconstruyen el flujo unificado en el orden de publicación (red/snapshots/replay).
  */
 public final class ColaEventos {
 
-    private final ArrayDeque<EventoJuego> cola = new ArrayDeque<>();
+    private static final int CAPACIDAD_INICIAL = 32; // potencia de 2
+
+    private final Anillo[] anillos = new Anillo[TipoEvento.cantidad()];
+    private final int[] cursores = new int[TipoEvento.cantidad()];
+
+    private long siguienteSecuencia = 0L;
+    private int total = 0;
+
+    public ColaEventos() {
+        for (int i = 0; i < anillos.length; i++) anillos[i] = new Anillo(CAPACIDAD_INICIAL);
+    }
 
     public void publicar(EventoJuego ev) {
-        cola.add(Objects.requireNonNull(ev));
+        Objects.requireNonNull(ev);
+        anillos[ev.tipo().ordinal()].agregar(ev, siguienteSecuencia++);
+        total++;
     }
 
     public boolean isEmpty() {
-        return cola.isEmpty();
+        return total == 0;
     }
 
     public int size() {
-        return cola.size();
+        return total;
+    }
+
+    public int size(TipoEvento tipo) {
+        return anillos[tipo.ordinal()].cantidad;
     }
 
+    /** Secuencia que va a recibir el próximo evento publicado (crece siempre, clear() no la reinicia). */
+    public long getSiguienteSecuencia() {
+        return siguienteSecuencia;
+    }
+
+    /** Obtiene y remueve el evento más viejo (de cualquier tipo). */
     public EventoJuego poll() {
-        return cola.poll();
+        Anillo mejor = null;
+        long mejorSeq = Long.MAX_VALUE;
+        for (Anillo a : anillos) {
+            if (a.cantidad == 0) continue;
+            long s = a.secuenciaEn(0);
+            if (s < mejorSeq) {
+                mejorSeq = s;
+                mejor = a;
+            }
+        }
+        if (mejor == null) return null;
+        total--;
+        return mejor.sacar();
     }
 
     /**
@@ -37,16 +72,10 @@ public final class ColaEventos {
      * Devuelve null si no hay ninguno.
      */
     public <T extends EventoJuego> T pollFirst(Class<T> tipo) {
-        Objects.requireNonNull(tipo);
-
-        for (Iterator<EventoJuego> it = cola.iterator(); it.hasNext(); ) {
-            EventoJuego ev = it.next();
-            if (tipo.isInstance(ev)) {
-                it.remove();
-                return tipo.cast(ev);
-            }
-        }
-        return null;
+        Anillo a = anillo(tipo);
+        if (a.cantidad == 0) return null;
+        total--;
+        return tipo.cast(a.sacar());
     }
 
     /**
@@ -54,38 +83,127 @@ public final class ColaEventos {
      * @return cuántos se removieron.
      */
     public <T extends EventoJuego> int limpiar(Class<T> tipo) {
-        Objects.requireNonNull(tipo);
-        int n = 0;
-        for (Iterator<EventoJuego> it = cola.iterator(); it.hasNext(); ) {
-            EventoJuego ev = it.next();
-            if (tipo.isInstance(ev)) {
-                it.remove();
-                n++;
-            }
-        }
+        Anillo a = anillo(tipo);
+        int n = a.cantidad;
+        a.vaciar();
+        total -= n;
         return n;
     }
 
     public void clear() {
-        cola.clear();
+        for (Anillo a : anillos) a.vaciar();
+        total = 0;
     }
 
     /**
      * Drena (consume) sólo eventos de una clase determinada.
+     * Solo consume los que había al empezar: lo que el consumer publique queda para la próxima.
      *
      * Ejemplo:
      *   cola.drenar(EventoPickup.class, ev -> ...);
      */
     public <T extends EventoJuego> void drenar(Class<T> tipo, Consumer<T> consumer) {
-        Objects.requireNonNull(tipo);
         Objects.requireNonNull(consumer);
+        Anillo a = anillo(tipo);
+
+        for (int n = a.cantidad; n > 0 && a.cantidad > 0; n--) {
+            EventoJuego ev = a.sacar();
+            total--;
+            consumer.accept(tipo.cast(ev));
+        }
+    }
+
+    /**
+     * Recorre (sin consumir) todos los eventos pendientes en orden global de publicación.
+     * Merge de los anillos por secuencia; no aloca.
+     */
+    public void recorrerEnOrden(Consumer<? super EventoJuego> consumer) {
+        Objects.requireNonNull(consumer);
+        Arrays.fill(cursores, 0);
+
+        for (int restantes = total; restantes > 0; restantes--) {
+            int mejor = -1;
+            long mejorSeq = Long.MAX_VALUE;
+            for (int i = 0; i < anillos.length; i++) {
+                Anillo a = anillos[i];
+                if (cursores[i] >= a.cantidad) continue;
+                long s = a.secuenciaEn(cursores[i]);
+                if (s < mejorSeq) {
+                    mejorSeq = s;
+                    mejor = i;
+                }
+            }
+            if (mejor < 0) return;
+            consumer.accept(anillos[mejor].eventoEn(cursores[mejor]++));
+        }
+    }
+
+    private Anillo anillo(Class<? extends EventoJuego> tipo) {
+        Objects.requireNonNull(tipo);
+        return anillos[TipoEvento.de(tipo).ordinal()];
+    }
+
+    // =====================
+    // Anillo por tipo
+    // =====================
+
+    private static final class Anillo {
+        EventoJuego[] eventos;
+        long[] secuencias;
+        int mascara;
+        int cabeza = 0;
+        int cantidad = 0;
+
+        Anillo(int capacidad) {
+            eventos = new EventoJuego[capacidad];
+            secuencias = new long[capacidad];
+            mascara = capacidad - 1;
+        }
+
+        void agregar(EventoJuego ev, long seq) {
+            if (cantidad == eventos.length) crecer();
+            int i = (cabeza + cantidad) & mascara;
+            eventos[i] = ev;
+            secuencias[i] = seq;
+            cantidad++;
+        }
+
+        EventoJuego sacar() {
+            EventoJuego ev = eventos[cabeza];
+            eventos[cabeza] = null;
+            cabeza = (cabeza + 1) & mascara;
+            cantidad--;
+            return ev;
+        }
+
+        EventoJuego eventoEn(int offset) {
+            return eventos[(cabeza + offset) & mascara];
+        }
+
+        long secuenciaEn(int offset) {
+            return secuencias[(cabeza + offset) & mascara];
+        }
+
+        void vaciar() {
+            for (int k = 0; k < cantidad; k++) eventos[(cabeza + k) & mascara] = null;
+            cabeza = 0;
+            cantidad = 0;
+        }
 
-        for (Iterator<EventoJuego> it = cola.iterator(); it.hasNext(); ) {
-            EventoJuego ev = it.next();
-            if (tipo.isInstance(ev)) {
-                it.remove();
-                consumer.accept(tipo.cast(ev));
+        // Solo si se llena (ráfaga de contactos): duplica y desenrolla
+        private void crecer() {
+            int cap = eventos.length * 2;
+            EventoJuego[] ne = new EventoJuego[cap];
+            long[] ns = new long[cap];
+            for (int k = 0; k < cantidad; k++) {
+                int i = (cabeza + k) & mascara;
+                ne[k] = eventos[i];
+                ns[k] = secuencias[i];
             }
+            eventos = ne;
+            secuencias = ns;
+            mascara = cap - 1;
+            cabeza = 0;
         }
     }
 }
@@ -3,12 +3,39 @@ package juego.eventos;
 /**
  * Identificador estable de tipos de evento.
  * Útil para logging/telemetría y futuro ruteo/serialización de eventos (red).
+ *
+ * Cada tipo conoce su clase de evento: ColaEventos lo usa para ir directo
+ * al anillo del tipo (sin isInstance sobre toda la cola).
  */
 public enum TipoEvento {
-    BOTON,
-    PUERTA,
-    DANIO,
-    PICKUP,
-    FIN_NIVEL,
-    TRAMPILLA
+    BOTON(EventoBoton.class),
+    PUERTA(EventoPuerta.class),
+    DANIO(EventoDanio.class),
+    PICKUP(EventoPickup.class),
+    FIN_NIVEL(EventoFinNivel.class),
+    TRAMPILLA(EventoTrampilla.class);
+
+    private static final TipoEvento[] VALORES = values();
+
+    private final Class<? extends EventoJuego> claseEvento;
+
+    TipoEvento(Class<? extends EventoJuego> claseEvento) {
+        this.claseEvento = claseEvento;
+    }
+
+    public Class<? extends EventoJuego> getClaseEvento() {
+        return claseEvento;
+    }
+
+    public static int cantidad() {
+        return VALORES.length;
+    }
+
+    /** Tipo de una clase de evento concreta (los eventos son records finales: comparación por identidad). */
+    public static TipoEvento de(Class<? extends EventoJuego> clase) {
+        for (TipoEvento t : VALORES) {
+            if (t.claseEvento == clase) return t;
+        }
+        throw new IllegalArgumentException("Clase de evento sin TipoEvento: " + clase);
+    }
 }
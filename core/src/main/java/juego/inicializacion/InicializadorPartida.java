@@ -7,7 +7,6 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
@@ -32,6 +31,7 @@ import mapa.botones.*;
 import mapa.generacion.*;
 import mapa.model.*;
 import mapa.puertas.*;
+import recursos.PrecargaJuego;
 
 /**
  * Construye y deja listo el contexto inicial de una partida.
@@ -85,8 +85,9 @@ public final class InicializadorPartida {
         World world = new World(new Vector2(0, 0), true);
         FisicaMundo fisica = new FisicaMundo(world);
 
-        TiledMap mapaTiled = new TmxMapLoader().load("TMX/mapa.tmx");
-        OrthogonalTiledMapRenderer mapaRenderer = new OrthogonalTiledMapRenderer(mapaTiled, 1f);
+        // ✅ residentes (PrecargaJuego): no se relee el TMX ni se crea el renderer por nivel
+        TiledMap mapaTiled = PrecargaJuego.mapa();
+        OrthogonalTiledMapRenderer mapaRenderer = PrecargaJuego.rendererMapa();
 
         // Paredes/botones desde Tiled
         ColisionesDesdeTiled.crearColisiones(mapaTiled, world);
@@ -118,6 +119,8 @@ public final class InicializadorPartida {
         Jugador jugador2 = new Jugador(2, "Jugador 2", Genero.FEMENINO, Estilo.CLASICO);
 
         GestorDeEntidades gestorEntidades = new GestorDeEntidades(world);
+        gestorEntidades.setNavegacion(PrecargaJuego.navegacion());
+        gestorEntidades.setRngItems(ItemTipo.rngParaSemilla(cfg.semilla));
         gestorEntidades.registrarJugador(jugador1);
         gestorEntidades.registrarJugador(jugador2);
 
@@ -208,8 +211,9 @@ public final class InicializadorPartida {
         World world = new World(new Vector2(0, 0), true);
         FisicaMundo fisica = new FisicaMundo(world);
 
-        TiledMap mapaTiled = new TmxMapLoader().load("TMX/mapa.tmx");
-        OrthogonalTiledMapRenderer mapaRenderer = new OrthogonalTiledMapRenderer(mapaTiled, 1f);
+        // ✅ residentes (PrecargaJuego): no se relee el TMX ni se crea el renderer por nivel
+        TiledMap mapaTiled = PrecargaJuego.mapa();
+        OrthogonalTiledMapRenderer mapaRenderer = PrecargaJuego.rendererMapa();
 
         ColisionesDesdeTiled.crearColisiones(mapaTiled, world);
 
@@ -245,6 +249,8 @@ public final class InicializadorPartida {
         jugador2.setCuerpoFisico(null);
 
         GestorDeEntidades gestorEntidades = new GestorDeEntidades(world);
+        gestorEntidades.setNavegacion(PrecargaJuego.navegacion());
+        gestorEntidades.setRngItems(ItemTipo.rngParaSemilla(cfg.semilla));
         gestorEntidades.registrarJugador(jugador1);
         gestorEntidades.registrarJugador(jugador2);
 
@@ -21,7 +21,7 @@ public final class InicializadorSpritesPartida {
         sistemaSprites.registrar(jugador2, new SpritesJugador(jugador2, 48, 48), +6f, -2f);
 
         // Enemigos (los vivos al momento de iniciar)
-        sistemaSprites.registrarSpritesDeEnemigosVivos();
+        sistemaSprites.sincronizarEnemigos();
 
 
         return sistemaSprites;
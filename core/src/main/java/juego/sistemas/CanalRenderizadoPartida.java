@@ -1,11 +1,13 @@
 package juego.sistemas;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -17,16 +19,27 @@ import com.badlogic.gdx.physics.box2d.Body;
 import entidades.GestorDeEntidades;
 import entidades.enemigos.Enemigo;
 import entidades.personajes.Jugador;
-import entidades.sprites.SpritesEntidad;
 import fisica.FisicaMundo;
 import interfaces.hud.HudJuego;
+import mapa.botones.BotonVisual;
 import mapa.model.Habitacion;
 import mapa.puertas.PuertaVisual;
+import mapa.render.TilesPorSala;
 import mapa.trampilla.TrampillaVisual;
 
 /**
  * Se encarga SOLO del render (mapa, puertas, sprites, debug y HUD).
  * No actualiza gameplay.
+ *
+ * Culling: solo se recorre lo de la sala actual (listas por sala: enemigos/items/puertas del
+ * GestorDeEntidades, botones indexados acá una vez por nivel) y se descarta lo que cae fuera
+ * del rectángulo visible de la cámara. El costo por frame no crece con el tamaño del mapa.
+ *
+ * Con hilo de simulación (ver HiloSimulacionPartida) se parte en dos: capturar() arma el
+ * SnapshotRender en el hilo de simulación y renderSnapshot() lo dibuja en GL sin tocar entidades.
+ *
+ * Mapa: si hay TilesPorSala, los tiles de la sala se dibujan desde el SpriteCache horneado
+ * (una llamada por sala); si no, OrthogonalTiledMapRenderer como antes.
  */
 public final class CanalRenderizadoPartida {
 
@@ -40,9 +53,22 @@ public final class CanalRenderizadoPartida {
     private final SistemaSpritesEntidades sprites;
     private ShapeRenderer debugRenderer = new ShapeRenderer();
 
+    // Tiles horneados por sala (null => mapaRenderer)
+    private TilesPorSala tilesPorSala;
 
+
+    // Fallback si no hay gestor (las puertas por sala viven en GestorDeEntidades)
     private final List<PuertaVisual> puertasVisuales = new ArrayList<>();
 
+    // Botones por sala (son estáticos: se indexan una vez por nivel)
+    private final EnumMap<Habitacion, List<BotonVisual>> botonesPorSala = new EnumMap<>(Habitacion.class);
+
+    // Rectángulo visible de la cámara en coordenadas de mundo (se recalcula por frame)
+    private float vistaMinX, vistaMinY, vistaMaxX, vistaMaxY;
+
+    // Margen para sprites que se dibujan corridos respecto al body (48x48 anclados al pie)
+    private static final float MARGEN_SPRITE = 48f;
+
     public CanalRenderizadoPartida(
         CamaraDeSala camaraSala,
         OrthogonalTiledMapRenderer mapaRenderer,
@@ -63,18 +89,49 @@ public final class CanalRenderizadoPartida {
         this.sprites = sprites;
     }
 
+    public void setTilesPorSala(TilesPorSala tilesPorSala) {
+        this.tilesPorSala = tilesPorSala;
+    }
+
     public void setPuertasVisuales(List<PuertaVisual> puertasVisuales) {
         this.puertasVisuales.clear();
         if (puertasVisuales != null) this.puertasVisuales.addAll(puertasVisuales);
     }
 
+    /** Indexa los botones por sala (llamar una vez por nivel, después de crearlos). */
+    public void setBotonesVisuales(List<BotonVisual> botones) {
+        botonesPorSala.clear();
+        if (botones == null) return;
+        for (BotonVisual bv : botones) {
+            if (bv == null || bv.sala == null) continue;
+            botonesPorSala.computeIfAbsent(bv.sala, k -> new ArrayList<>()).add(bv);
+        }
+    }
+
+    private void actualizarVista() {
+        OrthographicCamera cam = camaraSala.getCamara();
+        float w = cam.viewportWidth * cam.zoom;
+        float h = cam.viewportHeight * cam.zoom;
+        vistaMinX = cam.position.x - w / 2f;
+        vistaMinY = cam.position.y - h / 2f;
+        vistaMaxX = vistaMinX + w;
+        vistaMaxY = vistaMinY + h;
+    }
+
+    private boolean visible(float x, float y, float w, float h) {
+        return x < vistaMaxX && x + w > vistaMinX && y < vistaMaxY && y + h > vistaMinY;
+    }
+
+    private boolean visibleCentro(float cx, float cy, float margen) {
+        return visible(cx - margen, cy - margen, 2f * margen, 2f * margen);
+    }
+
     public void render(
         float delta,
         Habitacion salaActual,
         boolean debugFisica,
         Jugador jugador1,
         Jugador jugador2,
-        List<mapa.botones.BotonVisual> botonesVisuales,
         TrampillaVisual trampillaVisual
 
     ) {
@@ -86,7 +143,9 @@ public final class CanalRenderizadoPartida {
         // =====================
         // Mapa Tiled
         // =====================
-        if (mapaRenderer != null) {
+        if (tilesPorSala != null) {
+            tilesPorSala.render(camaraSala.getCamara());
+        } else if (mapaRenderer != null) {
             mapaRenderer.setView(camaraSala.getCamara());
             mapaRenderer.render();
         }
@@ -95,32 +154,36 @@ public final class CanalRenderizadoPartida {
         // Sprites (puertas, botones, enemigos, jugadores)
         // =====================
         if (batch != null) {
+            actualizarVista();
             batch.setProjectionMatrix(camaraSala.getCamara().combined);
             batch.begin();
             batch.enableBlending();
             batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
 
-            // Puertas (sprite) - se dibujan con la textura asignada a cada PuertaVisual
-            if (puertasVisuales != null && !puertasVisuales.isEmpty()) {
-                for (PuertaVisual pv : puertasVisuales) {
-                    if (pv == null) continue;
+            // Puertas (sprite) de la sala actual - se dibujan con la textura asignada a cada PuertaVisual
+            List<PuertaVisual> puertas = (gestorEntidades != null)
+                ? gestorEntidades.getPuertasVisuales(salaActual)
+                : puertasVisuales;
+            for (int i = 0; i < puertas.size(); i++) {
+                PuertaVisual pv = puertas.get(i);
+                if (pv == null || !visible(pv.x, pv.y, pv.width, pv.height)) continue;
 
-                    TextureRegion tr = pv.frameActual();
-                    if (tr != null) {
-                        batch.draw(tr, pv.x, pv.y, pv.width, pv.height);
-                    }
+                TextureRegion tr = pv.frameActual();
+                if (tr != null) {
+                    batch.draw(tr, pv.x, pv.y, pv.width, pv.height);
                 }
             }
 
-            // Botones (antes que enemigos/jugadores) - se dibujan al tamaño del rect en Tiled
-            if (botonesVisuales != null && salaActual != null) {
-                for (mapa.botones.BotonVisual bv : botonesVisuales) {
-                    if (bv == null) continue;
-                    if (bv.sala != salaActual) continue;
+            // Botones de la sala actual (antes que enemigos/jugadores) - al tamaño del rect en Tiled
+            List<BotonVisual> botones = (salaActual != null) ? botonesPorSala.get(salaActual) : null;
+            if (botones != null) {
+                for (int i = 0; i < botones.size(); i++) {
+                    BotonVisual bv = botones.get(i);
 
                     float x = bv.posCentro.x - bv.w / 2f;
                     float y = bv.posCentro.y - bv.h / 2f;
+                    if (!visible(x, y, bv.w, bv.h)) continue;
 
                     TextureRegion fr = bv.frameActual();
                     if (fr != null) {
@@ -132,39 +195,34 @@ public final class CanalRenderizadoPartida {
             // Trampilla (fin de nivel) - solo si existe y pertenece a la sala actual
             if (trampillaVisual != null && salaActual != null) {
                 TextureRegion tr = trampillaVisual.region();
-                if (tr != null) {
+                if (tr != null && visible(trampillaVisual.x, trampillaVisual.y, trampillaVisual.w, trampillaVisual.h)) {
                     batch.draw(tr, trampillaVisual.x, trampillaVisual.y, trampillaVisual.w, trampillaVisual.h);
                 }
             }
 
-            // Enemigos primero (atrás)
+            // Un solo pase de animación para todos los sprites (corre aunque no se vean, para
+            // que la animación de muerte termine igual)
+            if (sprites != null) sprites.actualizarAnimaciones(delta);
+
+            // Enemigos primero (atrás) - solo los de la sala actual (las otras salas no tienen
+            // enemigos vivos: se eliminan al salir)
             if (gestorEntidades != null && sprites != null) {
-                for (Enemigo e : gestorEntidades.getEnemigosMundo()) {
-                    SpritesEntidad s = sprites.get(e);
-                    if (s != null) {
-                        s.update(delta);
-                        s.render(batch);
-                    }
+                List<Enemigo> enemigos = gestorEntidades.getEnemigosDeSala(salaActual);
+                for (int i = 0; i < enemigos.size(); i++) {
+                    Enemigo e = enemigos.get(i);
+                    Vector2 p = e.getPosicion();
+                    if (p != null && visibleCentro(p.x, p.y, MARGEN_SPRITE)) sprites.dibujar(batch, e);
                 }
             }
 
             // Jugadores después
             if (sprites != null) {
-                SpritesEntidad s1 = sprites.get(jugador1);
-                if (s1 != null) {
-                    s1.update(delta);
-                    s1.render(batch);
-                }
-
-                SpritesEntidad s2 = sprites.get(jugador2);
-                if (s2 != null) {
-                    s2.update(delta);
-                    s2.render(batch);
-                }
+                sprites.dibujar(batch, jugador1);
+                sprites.dibujar(batch, jugador2);
             }
 
             sprites.limpiarItemsDesaparecidos();
-            sprites.renderItems(batch, salaActual);
+            sprites.renderItems(batch, salaActual, vistaMinX, vistaMinY, vistaMaxX, vistaMaxY);
 
 
 
@@ -196,6 +254,115 @@ public final class CanalRenderizadoPartida {
         }
     }
 
+    // =====================
+    // Modo hilo de simulación
+    // =====================
+
+    /**
+     * Hilo de simulación: avanza las animaciones y arma la lista de dibujo de la sala en el
+     * mismo orden que render(). No toca GL ni la cámara de render.
+     */
+    public void capturar(
+        SnapshotRender out,
+        float delta,
+        Habitacion salaActual,
+        Jugador jugador1,
+        Jugador jugador2,
+        TrampillaVisual trampillaVisual
+    ) {
+        out.limpiar();
+        out.sala = salaActual;
+
+        // Puertas
+        List<PuertaVisual> puertas = (gestorEntidades != null)
+            ? gestorEntidades.getPuertasVisuales(salaActual)
+            : puertasVisuales;
+        for (int i = 0; i < puertas.size(); i++) {
+            PuertaVisual pv = puertas.get(i);
+            if (pv != null) out.agregar(pv.frameActual(), pv.x, pv.y, pv.width, pv.height);
+        }
+
+        // Botones
+        List<BotonVisual> botones = (salaActual != null) ? botonesPorSala.get(salaActual) : null;
+        if (botones != null) {
+            for (int i = 0; i < botones.size(); i++) {
+                BotonVisual bv = botones.get(i);
+                out.agregar(bv.frameActual(), bv.posCentro.x - bv.w / 2f, bv.posCentro.y - bv.h / 2f, bv.w, bv.h);
+            }
+        }
+
+        // Trampilla
+        if (trampillaVisual != null && salaActual != null) {
+            out.agregar(trampillaVisual.region(), trampillaVisual.x, trampillaVisual.y, trampillaVisual.w, trampillaVisual.h);
+        }
+
+        if (sprites == null) return;
+        sprites.actualizarAnimaciones(delta);
+
+        // Enemigos
+        if (gestorEntidades != null) {
+            List<Enemigo> enemigos = gestorEntidades.getEnemigosDeSala(salaActual);
+            for (int i = 0; i < enemigos.size(); i++) {
+                sprites.capturar(out, enemigos.get(i));
+            }
+        }
+
+        // Jugadores
+        sprites.capturar(out, jugador1);
+        sprites.capturar(out, jugador2);
+
+        // Items
+        sprites.limpiarItemsDesaparecidos();
+        sprites.capturarItems(out, salaActual);
+    }
+
+    /**
+     * Hilo de GL: dibuja un snapshot (mapa + lista de dibujo + HUD). Solo lee el snapshot,
+     * el mapa estático y la cámara de render (que se centra con el valor capturado).
+     */
+    public void renderSnapshot(SnapshotRender snap) {
+        if (camaraSala == null || snap == null) return;
+
+        Gdx.gl.glClearColor(0.05f, 0.05f, 0.07f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        camaraSala.centrarEn(snap.camX, snap.camY);
+
+        if (tilesPorSala != null) {
+            tilesPorSala.render(camaraSala.getCamara());
+        } else if (mapaRenderer != null) {
+            mapaRenderer.setView(camaraSala.getCamara());
+            mapaRenderer.render();
+        }
+
+        if (batch != null) {
+            actualizarVista();
+            batch.setProjectionMatrix(camaraSala.getCamara().combined);
+            batch.begin();
+            batch.enableBlending();
+            batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+            for (int i = 0, n = snap.getCantidad(); i < n; i++) {
+                float x = snap.getX(i);
+                float w = snap.getW(i);
+                float h = snap.getH(i);
+                // w negativo = espejado: el rect real arranca en x + w
+                float minX = (w >= 0f) ? x : x + w;
+                if (!visible(minX, snap.getY(i), Math.abs(w), h)) continue;
+
+                batch.draw(snap.getRegion(i), x, snap.getY(i), w, h);
+            }
+
+            batch.end();
+        }
+
+        // Debug de física: no en este modo (el World es del hilo de simulación)
+
+        if (hud != null) {
+            hud.render(snap);
+        }
+    }
+
     public void dibujarDebugBodies(Camera camara, ShapeRenderer debugRenderer, Body... bodies) {
         if (camara == null || debugRenderer == null || bodies == null) return;
 
@@ -0,0 +1,68 @@
+package juego.sistemas;
+
+import com.badlogic.gdx.Gdx;
+
+import server.MotorTicks;
+
+/**
+ * Hilo de simulación del cliente: corre el paso de Partida a DT fijo (MotorTicks, igual que el
+ * servidor) y deja al hilo de GL solo el input de UI y el dibujo del último SnapshotRender.
+ *
+ * - Un pico de simulación ya no frena el frame: el render sigue con el último snapshot.
+ * - Un frame lento no frena la simulación: los steps atrasados se recuperan (catch-up acotado).
+ * - Box2D, entidades y sprites quedan SOLO de este hilo mientras corre: para tocarlos desde
+ *   GL (cambio de nivel, dispose) primero detener().
+ *
+ * Si el paso tira una excepción, el hilo termina y el error se relanza en el render (getError).
+ */
+public final class HiloSimulacionPartida {
+
+    public static final float DT = 1f / 60f;
+
+    private final MotorTicks motor = new MotorTicks((long) (DT * 1_000_000_000L), 5);
+    private final Thread hilo;
+
+    private volatile boolean corriendo = false;
+    private volatile Throwable error;
+
+    public HiloSimulacionPartida(Runnable paso) {
+        hilo = new Thread(() -> {
+            try {
+                motor.correr(() -> corriendo, paso);
+            } catch (Throwable t) {
+                error = t;
+                Gdx.app.error("SIM", "El hilo de simulación terminó con error", t);
+            } finally {
+                corriendo = false;
+            }
+        }, "SimulacionPartida");
+        hilo.setDaemon(true);
+    }
+
+    public void iniciar() {
+        if (corriendo) return;
+        corriendo = true;
+        hilo.start();
+    }
+
+    /** Frena el loop y espera a que salga (después de esto Box2D vuelve a ser del hilo que llama). */
+    public void detener() {
+        corriendo = false;
+        if (hilo == Thread.currentThread()) return;
+        hilo.interrupt();
+        try {
+            hilo.join(2000);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        if (hilo.isAlive()) Gdx.app.error("SIM", "El hilo de simulación no terminó a tiempo");
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public MotorTicks getMotor() {
+        return motor;
+    }
+}
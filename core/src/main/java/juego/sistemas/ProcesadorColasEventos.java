@@ -13,7 +13,6 @@ import juego.eventos.ColaEventos;
 import juego.eventos.EventoDanio;
 import juego.eventos.EventoPickup;
 import entidades.personajes.Jugador;
-import entidades.sprites.SpritesEntidad;
 import mapa.botones.DatosBoton;
 import juego.eventos.EventoBoton;
 import mapa.model.Habitacion;
@@ -149,10 +148,7 @@ public final class ProcesadorColasEventos {
             // =========================
             // 3) Animación + feedback
             // =========================
-            SpritesEntidad sp = (sprites != null) ? sprites.get(j) : null;
-            if (sp != null) {
-                sp.iniciarMuerte();
-            }
+            if (sprites != null) sprites.iniciarMuerte(j);
         });
     }
 }
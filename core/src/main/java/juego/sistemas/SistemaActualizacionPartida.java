@@ -127,9 +127,8 @@ public final class SistemaActualizacionPartida {
 
         // 7) housekeeping sprites
         if (sprites != null) {
-            sprites.registrarSpritesDeEnemigosVivos();
             sprites.procesarEnemigosEnMuerte();
-            sprites.limpiarSpritesDeEntidadesMuertas();
+            sprites.sincronizarEnemigos();
         }
 
         // 8) cámara (en update, no en render)
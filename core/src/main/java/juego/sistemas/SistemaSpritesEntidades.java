@@ -1,10 +1,9 @@
 package juego.sistemas;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -14,7 +13,7 @@ import entidades.Entidad;
 import entidades.GestorDeEntidades;
 import entidades.enemigos.Enemigo;
 import entidades.items.Item;
-import entidades.personajes.Jugador;
+import entidades.sprites.AnimacionesEntidades;
 import entidades.sprites.SpritesEnemigo;
 import entidades.sprites.SpritesEntidad;
 import mapa.model.Habitacion;
@@ -22,12 +21,18 @@ import mapa.model.Habitacion;
 /**
  * Centraliza el manejo de sprites (jugadores + enemigos) y la cola de muertes animadas.
  * + Render simple de ITEMS (sin usar SpritesEntidad).
+ *
+ * El estado de animación vive en AnimacionesEntidades (arrays densos por slot): un solo
+ * actualizarAnimaciones() por frame y después se dibuja leyendo frame + rect del slot.
  */
 public final class SistemaSpritesEntidades {
 
     private final GestorDeEntidades gestorEntidades;
-    private final Map<Entidad, SpritesEntidad> spritesPorEntidad = new HashMap<>();
-    private final Set<Enemigo> enemigosEnMuerte = new HashSet<>();
+    private final AnimacionesEntidades animaciones = new AnimacionesEntidades();
+
+    // Sincronización con los enemigos del gestor: solo cuando cambió su versión
+    private int versionEnemigosSincronizada = -1;
+    private int marcaBarrido = 0;
 
     // ===== ITEMS (nuevo) =====
     private static class ItemVisual {
@@ -58,53 +63,43 @@ public final class SistemaSpritesEntidades {
     public void registrar(Entidad e, SpritesEntidad sprite, float offX, float offY) {
         if (e == null || sprite == null) return;
         sprite.setOffset(offX, offY);
-        spritesPorEntidad.put(e, sprite);
-    }
-
-    public SpritesEntidad get(Entidad e) {
-        return spritesPorEntidad.get(e);
+        animaciones.agregar(e, sprite);
     }
 
-    /** Acceso solo lectura (para render). */
-    public Map<Entidad, SpritesEntidad> getMapaSprites() {
-        return spritesPorEntidad;
+    public boolean tieneSprite(Entidad e) {
+        return animaciones.slotDe(e) >= 0;
     }
 
-    public void registrarSpritesDeEnemigosVivos() {
+    /**
+     * Alta de sprites para enemigos nuevos y baja de los que ya no están en el mundo.
+     * Si el gestor no cambió sus enemigos desde la última vez, no recorre nada.
+     */
+    public void sincronizarEnemigos() {
         if (gestorEntidades == null) return;
-        for (Enemigo e : gestorEntidades.getEnemigosMundo()) {
+        int version = gestorEntidades.getVersionEnemigos();
+        if (version == versionEnemigosSincronizada) return;
+        versionEnemigosSincronizada = version;
+
+        // 1) marcamos los vivos (y damos de alta los que no tienen sprite)
+        if (++marcaBarrido == 0) marcaBarrido = 1;
+        List<Enemigo> enemigos = gestorEntidades.getEnemigosMundo();
+        for (int i = 0; i < enemigos.size(); i++) {
+            Enemigo e = enemigos.get(i);
             if (e == null) continue;
-            if (spritesPorEntidad.containsKey(e)) continue;
-
-            SpritesEnemigo se = new SpritesEnemigo(e, 48, 48);
-            se.setOffset(0f, -2f);
-            spritesPorEntidad.put(e, se);
-        }
-    }
-
-    public void limpiarSpritesDeEntidadesMuertas() {
-        if (gestorEntidades == null) return;
-
-        Iterator<Map.Entry<Entidad, SpritesEntidad>> it = spritesPorEntidad.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<Entidad, SpritesEntidad> entry = it.next();
-            Entidad ent = entry.getKey();
 
-            if (ent == null) {
-                if (entry.getValue() != null) entry.getValue().dispose();
-                it.remove();
-                continue;
+            int s = animaciones.slotDe(e);
+            if (s < 0) {
+                SpritesEnemigo se = new SpritesEnemigo(e, 48, 48);
+                se.setOffset(0f, -2f);
+                s = animaciones.agregar(e, se);
             }
+            animaciones.setMarca(s, marcaBarrido);
+        }
 
-            if (ent instanceof Jugador) continue;
-
-            if (ent instanceof Enemigo enemigo) {
-                boolean sigueVivo = gestorEntidades.getEnemigosMundo().contains(enemigo);
-                if (!sigueVivo) {
-                    if (entry.getValue() != null) entry.getValue().dispose();
-                    it.remove();
-                }
-            }
+        // 2) barrido: enemigos sin marca ya no existen (de atrás para adelante por el swap-remove)
+        for (int s = animaciones.getCantidad() - 1; s >= 0; s--) {
+            if (!(animaciones.getEntidad(s) instanceof Enemigo)) continue;
+            if (animaciones.getMarca(s) != marcaBarrido) animaciones.quitar(s);
         }
     }
 
@@ -113,11 +108,12 @@ public final class SistemaSpritesEntidades {
         if (gestorEntidades == null) return;
         if (sala == null) return;
 
-        for (Enemigo e : gestorEntidades.getEnemigosDeSala(sala)) {
-            SpritesEntidad sp = spritesPorEntidad.get(e);
-            if (sp != null) {
-                sp.iniciarMuerte();
-                enemigosEnMuerte.add(e);
+        // copia: eliminarEnemigo modifica la lista de la sala
+        Enemigo[] enemigos = gestorEntidades.getEnemigosDeSala(sala).toArray(new Enemigo[0]);
+        for (Enemigo e : enemigos) {
+            int s = animaciones.slotDe(e);
+            if (animaciones.iniciarMuerte(s)) {
+                animaciones.setFlagUsuario(s, true); // eliminar al terminar la anim
             } else {
                 gestorEntidades.eliminarEnemigo(e);
             }
@@ -127,39 +123,48 @@ public final class SistemaSpritesEntidades {
     /** Elimina realmente enemigos cuya animación ya terminó. */
     public void procesarEnemigosEnMuerte() {
         if (gestorEntidades == null) return;
-        if (enemigosEnMuerte.isEmpty()) return;
 
-        Iterator<Enemigo> it = enemigosEnMuerte.iterator();
-        while (it.hasNext()) {
-            Enemigo e = it.next();
-            SpritesEntidad sp = spritesPorEntidad.get(e);
+        for (int s = animaciones.getCantidad() - 1; s >= 0; s--) {
+            if (!animaciones.tieneFlagUsuario(s) || !animaciones.muerteTerminada(s)) continue;
 
-            if (sp == null) {
-                it.remove();
-                continue;
-            }
-
-            if (sp.muerteTerminada()) {
-                gestorEntidades.eliminarEnemigo(e);
-                sp.dispose();
-                spritesPorEntidad.remove(e);
-                it.remove();
-            }
+            Entidad e = animaciones.getEntidad(s);
+            animaciones.quitar(s);
+            if (e instanceof Enemigo enemigo) gestorEntidades.eliminarEnemigo(enemigo);
         }
     }
 
     public void iniciarMuerte(Entidad e) {
-        SpritesEntidad sp = spritesPorEntidad.get(e);
-        if (sp != null) sp.iniciarMuerte();
+        animaciones.iniciarMuerte(animaciones.slotDe(e));
     }
 
     public void detenerMuerte(Entidad e) {
-        SpritesEntidad sp = spritesPorEntidad.get(e);
-        if (sp != null) sp.detenerMuerte();
+        animaciones.detenerMuerte(animaciones.slotDe(e));
     }
 
     public void limpiarColaMuertes() {
-        enemigosEnMuerte.clear();
+        for (int s = 0; s < animaciones.getCantidad(); s++) animaciones.setFlagUsuario(s, false);
+    }
+
+    /** Un pase por todas las animaciones (tiempos, muerte, frame y rect). Llamar 1 vez por frame. */
+    public void actualizarAnimaciones(float delta) {
+        animaciones.actualizar(delta);
+    }
+
+    /** Dibuja el frame ya elegido de la entidad (si tiene sprite). */
+    public void dibujar(SpriteBatch batch, Entidad e) {
+        int s = animaciones.slotDe(e);
+        if (s < 0) return;
+        TextureRegion frame = animaciones.getFrame(s);
+        if (frame != null) {
+            batch.draw(frame, animaciones.getX(s), animaciones.getY(s), animaciones.getW(s), animaciones.getH(s));
+        }
+    }
+
+    /** Igual que dibujar pero agrega al snapshot (hilo de simulación). */
+    public void capturar(SnapshotRender out, Entidad e) {
+        int s = animaciones.slotDe(e);
+        if (s < 0) return;
+        out.agregar(animaciones.getFrame(s), animaciones.getX(s), animaciones.getY(s), animaciones.getW(s), animaciones.getH(s));
     }
 
     // =======================
@@ -198,48 +203,60 @@ public final class SistemaSpritesEntidades {
     }
 
     /**
-     * Renderiza items SOLO de la sala actual (según posición del body dentro del rectángulo de sala).
+     * Renderiza items SOLO de la sala actual (lista por sala del gestor) que caen dentro del
+     * rectángulo visible [minX..maxX] x [minY..maxY].
      * Llamar desde CanalRenderizadoPartida, cuando el batch ya está "begin()".
      */
-    public void renderItems(SpriteBatch batch, Habitacion salaActual) {
+    public void renderItems(SpriteBatch batch, Habitacion salaActual,
+                            float vistaMinX, float vistaMinY, float vistaMaxX, float vistaMaxY) {
         if (batch == null || gestorEntidades == null || salaActual == null) return;
 
-        float minX = salaActual.gridX * salaActual.ancho;
-        float minY = salaActual.gridY * salaActual.alto;
-        float maxX = minX + salaActual.ancho;
-        float maxY = minY + salaActual.alto;
-
-        for (Item item : gestorEntidades.getItemsMundo()) {
+        List<Item> items = gestorEntidades.getItemsDeSala(salaActual);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
             ItemVisual vis = visualPorItem.get(item);
             if (item == null || vis == null || vis.region == null) continue;
 
             Body b = gestorEntidades.getCuerpoItem(item);
             if (b == null) continue;
 
-            float x = b.getPosition().x;
-            float y = b.getPosition().y;
-
-            // Solo dibujar si el item está dentro de la sala actual
-            if (x < minX || x > maxX || y < minY || y > maxY) continue;
+            float drawX = b.getPosition().x - vis.w / 2f + vis.offX;
+            float drawY = b.getPosition().y - vis.h / 2f + vis.offY;
 
-            float drawX = x - vis.w / 2f + vis.offX;
-            float drawY = y - vis.h / 2f + vis.offY;
+            // Frustum: fuera de la cámara no se dibuja
+            if (drawX > vistaMaxX || drawX + vis.w < vistaMinX || drawY > vistaMaxY || drawY + vis.h < vistaMinY) continue;
 
             batch.draw(vis.region, drawX, drawY, vis.w, vis.h);
         }
     }
 
+    /** Igual que renderItems pero agrega al snapshot (hilo de simulación; el render hace el culling). */
+    public void capturarItems(SnapshotRender out, Habitacion salaActual) {
+        if (out == null || gestorEntidades == null || salaActual == null) return;
+
+        List<Item> items = gestorEntidades.getItemsDeSala(salaActual);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            ItemVisual vis = visualPorItem.get(item);
+            if (item == null || vis == null || vis.region == null) continue;
+
+            Body b = gestorEntidades.getCuerpoItem(item);
+            if (b == null) continue;
+
+            out.agregar(vis.region,
+                b.getPosition().x - vis.w / 2f + vis.offX,
+                b.getPosition().y - vis.h / 2f + vis.offY,
+                vis.w, vis.h);
+        }
+    }
+
     public boolean tieneItemRegistrado(Item item) {
         return visualPorItem.containsKey(item);
     }
 
 
     public void dispose() {
-        for (SpritesEntidad s : spritesPorEntidad.values()) {
-            if (s != null) s.dispose();
-        }
-        spritesPorEntidad.clear();
-        enemigosEnMuerte.clear();
+        animaciones.limpiar();
         visualPorItem.clear();
     }
 }
@@ -72,11 +72,14 @@ public final class SistemaTransicionSala {
             gestorEntidades.eliminarEnemigosDeSala(anterior);
 
             // limpiamos tracking de muerte de esa sala
-            if (sprites != null) sprites.limpiarSpritesDeEntidadesMuertas();
+            if (sprites != null) sprites.sincronizarEnemigos();
 
             salaActual = nueva;
             disposicion.descubrir(salaActual);
 
+            // items (y cualquier entidad que sobreviva) de otras salas quedan dormidos
+            gestorEntidades.activarSoloSala(salaActual);
+
             if (notificarCambioSala != null) {
                 notificarCambioSala.accept(anterior, salaActual);
             }
@@ -89,8 +92,7 @@ public final class SistemaTransicionSala {
                 controlPuzzle.setEnemigosVivos(salaActual, gestorEntidades.getEnemigosDeSala(salaActual).size());
             }
             if (sprites != null) {
-                sprites.registrarSpritesDeEnemigosVivos();
-                sprites.limpiarSpritesDeEntidadesMuertas();
+                sprites.sincronizarEnemigos();
             }
         }
 
@@ -0,0 +1,133 @@
+package juego.sistemas;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import entidades.items.Item;
+import entidades.items.ItemTipo;
+import entidades.personajes.Jugador;
+import mapa.model.Habitacion;
+
+/**
+ * Estado que necesita el render para dibujar un frame, armado por el hilo de simulación.
+ *
+ * - Lista de dibujo en orden de pintado (puertas, botones, trampilla, enemigos, jugadores, items):
+ *   región + rect (w negativo = espejado). El frame de animación ya viene elegido.
+ * - Centro de cámara, sala actual y valores del HUD.
+ *
+ * Se recicla vía TripleBuffer: mientras el render lo lee, la simulación no lo toca.
+ * Las TextureRegion son compartidas (AtlasJuego) y no se modifican: se pueden leer desde el render.
+ */
+public final class SnapshotRender {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    // =====================
+    // Mundo
+    // =====================
+
+    public Habitacion sala;
+    public float camX;
+    public float camY;
+
+    private TextureRegion[] regiones = new TextureRegion[CAPACIDAD_INICIAL];
+    private float[] rects = new float[CAPACIDAD_INICIAL * 4];
+    private int cantidad = 0;
+
+    // =====================
+    // HUD
+    // =====================
+
+    public int vida;
+    public int vidaMaxima;
+
+    private ItemTipo[] tiposItems = new ItemTipo[8];
+    private String[] nombresItems = new String[8];
+    private int cantidadItems = 0;
+    private int versionEstado = -1; // Jugador.getVersionEstado() copiada en este buffer
+
+    private final EnumSet<Habitacion> descubiertas = EnumSet.noneOf(Habitacion.class);
+    private int versionDescubiertas = -1;
+
+    // =====================
+    // Escritura (hilo de simulación)
+    // =====================
+
+    public void limpiar() {
+        cantidad = 0;
+    }
+
+    public void agregar(TextureRegion region, float x, float y, float w, float h) {
+        if (region == null) return;
+        if (cantidad == regiones.length) {
+            regiones = Arrays.copyOf(regiones, cantidad * 2);
+            rects = Arrays.copyOf(rects, cantidad * 2 * 4);
+        }
+        regiones[cantidad] = region;
+        int i = cantidad * 4;
+        rects[i] = x;
+        rects[i + 1] = y;
+        rects[i + 2] = w;
+        rects[i + 3] = h;
+        cantidad++;
+    }
+
+    /** Vida e items del jugador que muestra el HUD (solo si cambiaron desde la última vez que se usó este buffer). */
+    public void capturarHud(Jugador jugador) {
+        if (jugador == null) {
+            cantidadItems = 0;
+            versionEstado = -1;
+            return;
+        }
+        int version = jugador.getVersionEstado();
+        if (version == versionEstado) return;
+
+        vida = jugador.getVida();
+        vidaMaxima = jugador.getVidaMaxima();
+
+        List<Item> objetos = jugador.getObjetos();
+        int n = objetos.size();
+        if (n > tiposItems.length) {
+            tiposItems = Arrays.copyOf(tiposItems, n * 2);
+            nombresItems = Arrays.copyOf(nombresItems, n * 2);
+        }
+        for (int i = 0; i < n; i++) {
+            Item item = objetos.get(i);
+            tiposItems[i] = (item != null) ? item.getTipo() : null;
+            nombresItems[i] = (item != null) ? item.getNombre() : null;
+        }
+        cantidadItems = n;
+        versionEstado = version;
+    }
+
+    /** Copia las salas descubiertas solo si cambiaron desde la última vez que se usó este buffer. */
+    public void capturarDescubiertas(Set<Habitacion> fuente, int version) {
+        if (version == versionDescubiertas) return;
+        descubiertas.clear();
+        descubiertas.addAll(fuente);
+        versionDescubiertas = version;
+    }
+
+    // =====================
+    // Lectura (hilo de render)
+    // =====================
+
+    public int getCantidad() { return cantidad; }
+    public TextureRegion getRegion(int i) { return regiones[i]; }
+    public float getX(int i) { return rects[i * 4]; }
+    public float getY(int i) { return rects[i * 4 + 1]; }
+    public float getW(int i) { return rects[i * 4 + 2]; }
+    public float getH(int i) { return rects[i * 4 + 3]; }
+
+    public int getCantidadItems() { return cantidadItems; }
+    public ItemTipo getTipoItem(int i) { return tiposItems[i]; }
+    public String getNombreItem(int i) { return nombresItems[i]; }
+    public int getVersionEstado() { return versionEstado; }
+
+    public Set<Habitacion> getDescubiertas() { return descubiertas; }
+    public int getVersionDescubiertas() { return versionDescubiertas; }
+}
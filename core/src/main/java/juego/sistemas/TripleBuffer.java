@@ -0,0 +1,57 @@
+package juego.sistemas;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Triple buffer sin locks: UN escritor (hilo de simulación) y UN lector (hilo de render).
+ *
+ * - El escritor arma siempre sobre su buffer privado y lo publica con un getAndSet.
+ * - El lector toma el último publicado (si hay uno nuevo) con otro getAndSet.
+ * - Nadie espera a nadie: si el render va más lento, los estados intermedios se pisan;
+ *   si va más rápido, repite el último.
+ *
+ * Los objetos se crean una vez (fábrica) y se reciclan: no hay allocs por publicación.
+ */
+public final class TripleBuffer<T> {
+
+    private static final int INDICE = 0b011;
+    private static final int NUEVO = 0b100; // el buffer del medio tiene algo que el lector no vio
+
+    private final Object[] buffers = new Object[3];
+
+    /** Índice del buffer del medio (+ bit NUEVO): el único estado compartido */
+    private final AtomicInteger medio = new AtomicInteger(1);
+
+    private int escritura = 0; // solo escritor
+    private int lectura = 2;   // solo lector
+    private boolean hayPublicado = false; // solo lector
+
+    public TripleBuffer(Supplier<T> fabrica) {
+        for (int i = 0; i < buffers.length; i++) buffers[i] = fabrica.get();
+    }
+
+    /** Escritor: buffer libre para armar el próximo estado. */
+    @SuppressWarnings("unchecked")
+    public T escritura() {
+        return (T) buffers[escritura];
+    }
+
+    /** Escritor: publica lo armado y recibe como nuevo buffer de escritura el viejo del medio. */
+    public void publicar() {
+        escritura = medio.getAndSet(escritura | NUEVO) & INDICE;
+    }
+
+    /**
+     * Lector: el último estado publicado (cambia solo si hubo una publicación nueva).
+     * @return null si el escritor todavía no publicó nada
+     */
+    @SuppressWarnings("unchecked")
+    public T leer() {
+        if ((medio.get() & NUEVO) != 0) {
+            lectura = medio.getAndSet(lectura) & INDICE;
+            hayPublicado = true;
+        }
+        return hayPublicado ? (T) buffers[lectura] : null;
+    }
+}
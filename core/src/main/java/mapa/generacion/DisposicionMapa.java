@@ -5,8 +5,13 @@ import mapa.model.Habitacion;
 
 import java.util.*;
 
+import mapa.minimapa.LayoutMinimapa;
+import telemetria.Log;
+
 public class DisposicionMapa {
 
+    private static final Log.Categoria LOG = Log.categoria("MAPA");
+
     /** El camino de habitaciones que el generador decidió para este nivel (EN ORDEN) */
     private final List<Habitacion> camino = new ArrayList<>();
 
@@ -16,10 +21,19 @@ public class DisposicionMapa {
     /** Conexiones REALES del piso (solo puertas válidas) */
     private final Map<Habitacion, EnumMap<Direccion, Habitacion>> conexionesPiso = new HashMap<>();
 
+    /** Sube cada vez que se descubre una sala NUEVA (el HUD redibuja el minimapa solo si cambió) */
+    private int versionDescubiertas = 0;
+
+    /** Layout del minimapa: se arma una vez por nivel (lazy) y lo comparten todos los HUD */
+    private LayoutMinimapa layoutMinimapa;
+
     /** Agrega una sala al camino (la run actual) */
     public void agregarAlCamino(Habitacion h) {
         if (h == null) return;
-        if (!camino.contains(h)) camino.add(h);
+        if (!camino.contains(h)) {
+            camino.add(h);
+            layoutMinimapa = null;
+        }
     }
 
     /** Devuelve el camino completo (salas activas de esta run) */
@@ -38,7 +52,7 @@ public class DisposicionMapa {
 
     /** Marca una sala como descubierta */
     public void descubrir(Habitacion h) {
-        if (h != null) descubiertas.add(h);
+        if (h != null && descubiertas.add(h)) versionDescubiertas++;
     }
 
     /** Devuelve true si la sala ya se visitó */
@@ -51,6 +65,16 @@ public class DisposicionMapa {
         return descubiertas;
     }
 
+    public int getVersionDescubiertas() {
+        return versionDescubiertas;
+    }
+
+    /** Layout del minimapa para este piso (se recalcula solo si cambiaron camino o conexiones) */
+    public LayoutMinimapa getLayoutMinimapa() {
+        if (layoutMinimapa == null) layoutMinimapa = LayoutMinimapa.construir(this);
+        return layoutMinimapa;
+    }
+
     /** Sala de inicio: la primera del camino, si existe; si no, INICIO_1 */
     public Habitacion salaInicio() {
         if (!camino.isEmpty()) return camino.get(0);
@@ -67,6 +91,7 @@ public class DisposicionMapa {
         conexionesPiso
             .computeIfAbsent(origen, k -> new EnumMap<>(Direccion.class))
             .put(dir, destino);
+        layoutMinimapa = null;
     }
 
     /** Destino por una dirección, SOLO si la puerta es válida en este piso */
@@ -76,26 +101,27 @@ public class DisposicionMapa {
         return m.get(dir);
     }
 
-    /** Conexiones válidas de la sala en este piso */
-    public EnumMap<Direccion, Habitacion> getConexionesEnPiso(Habitacion origen) {
+    /** Conexiones válidas de la sala en este piso (sin conexiones: mapa vacío compartido, no asigna) */
+    public Map<Direccion, Habitacion> getConexionesEnPiso(Habitacion origen) {
         EnumMap<Direccion, Habitacion> m = conexionesPiso.get(origen);
-        if (m == null) return new EnumMap<>(Direccion.class);
+        if (m == null) return Collections.emptyMap();
         return m;
     }
 
     /** Útil para debug */
     public void imprimirConexionesPiso() {
-        System.out.println("== CONEXIONES DEL PISO ==");
+        if (!LOG.debug()) return;
+
+        StringBuilder sb = new StringBuilder("== CONEXIONES DEL PISO ==");
         for (Habitacion h : camino) {
             EnumMap<Direccion, Habitacion> m = conexionesPiso.get(h);
-            StringBuilder sb = new StringBuilder();
-            sb.append(" ").append(h.nombreVisible).append(" -> ");
+            sb.append("\n ").append(h.nombreVisible).append(" -> ");
             if (m != null) {
                 for (var e : m.entrySet()) {
                     sb.append("[").append(e.getKey()).append("→").append(e.getValue().nombreVisible).append("] ");
                 }
             }
-            System.out.println(sb);
         }
+        LOG.debug(sb.toString());
     }
 }
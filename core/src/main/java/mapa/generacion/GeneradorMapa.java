@@ -6,8 +6,9 @@ import mapa.generacion.DisposicionMapa;
 import mapa.model.Direccion;
 import mapa.model.Habitacion;
 
-import com.badlogic.gdx.Gdx;
 import mapa.model.TipoSala;
+import telemetria.EventosJfr;
+import telemetria.Log;
 
 /**
  * Genera un camino de habitaciones usando el GrafoPuertas y restricciones por nivel.
@@ -15,6 +16,8 @@ import mapa.model.TipoSala;
  */
 public class GeneradorMapa {
 
+    private static final Log.Categoria LOG = Log.categoria("MAPA");
+
     public static class Configuracion {
         public int nivel = 1;
         public long semilla = System.currentTimeMillis();
@@ -47,13 +50,24 @@ public class GeneradorMapa {
 
     public List<Habitacion> salasDelPiso = new ArrayList<>();
 
+    // llamadas a dfsTodos en la última generación (costo de la búsqueda)
+    private long nodosExpandidos = 0;
+
     public GeneradorMapa(Configuracion cfg, GrafoPuertas grafo) {
         this.cfg = cfg;
         this.grafo = grafo;
         this.rng = new Random(cfg.semilla);
     }
 
+    public long getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
     public DisposicionMapa generar() {
+        EventosJfr.GeneracionMapa ev = new EventosJfr.GeneracionMapa();
+        ev.begin();
+        nodosExpandidos = 0;
+
         NivelCfg nivelCfg = elegirCfgNivel(cfg.nivel);
 
         Habitacion inicio = Habitacion.INICIO_1;
@@ -75,8 +89,7 @@ public class GeneradorMapa {
             mejor.add(inicio);
             mejor.add(jefeFallback);
 
-            Gdx.app.log("GeneradorMapa",
-                "No se pudo generar un camino completo, usando fallback simple.");
+            LOG.warn("No se pudo generar un camino completo, usando fallback simple.");
             imprimirCamino("CAMINO FALLBACK", mejor);
         } else {
             int maxLen = 0;
@@ -102,6 +115,15 @@ public class GeneradorMapa {
         // Debug opcional
         disposicion.imprimirConexionesPiso();
 
+        if (ev.shouldCommit()) {
+            ev.nivel = cfg.nivel;
+            ev.semilla = cfg.semilla;
+            ev.nodosExpandidos = nodosExpandidos;
+            ev.candidatos = candidatos.size();
+            ev.salas = mejor.size();
+            ev.commit();
+        }
+
         return disposicion;
     }
 
@@ -116,8 +138,7 @@ public class GeneradorMapa {
             if (dir == null) {
                 // Si pasa esto, tu grafo te dio vecinas() pero no podemos recuperar la dirección.
                 // Es 100% un bug de GrafoPuertas (vecinas sin mantener dirección).
-                Gdx.app.log("GeneradorMapa",
-                    "ADVERTENCIA: No se encontró dirección entre " + a.nombreVisible + " y " + b.nombreVisible);
+                LOG.warn("No se encontró dirección entre " + a.nombreVisible + " y " + b.nombreVisible);
                 continue;
             }
 
@@ -146,6 +167,7 @@ public class GeneradorMapa {
                           Set<Habitacion> visitados,
                           List<List<Habitacion>> candidatos) {
 
+        nodosExpandidos++;
         int n = path.size();
         if (n > nivelCfg.maxSalas) return;
 
@@ -218,10 +240,13 @@ public class GeneradorMapa {
     }
 
     private void imprimirCamino(String titulo, List<Habitacion> camino) {
-        System.out.println("== " + titulo + " ==");
+        if (!LOG.debug()) return;
+
+        StringBuilder sb = new StringBuilder("== ").append(titulo).append(" ==");
         for (Habitacion h : camino) {
-            System.out.println(" - " + h.nombreVisible +
-                " (" + h.gridX + "," + h.gridY + ")");
+            sb.append("\n - ").append(h.nombreVisible)
+              .append(" (").append(h.gridX).append(",").append(h.gridY).append(")");
         }
+        LOG.debug(sb.toString());
     }
 }
@@ -5,6 +5,8 @@ import mapa.model.Habitacion;
 
 import java.util.*;
 
+import telemetria.Log;
+
 /**
  * Grafo de “compatibilidad de puertas” entre habitaciones.
  *
@@ -18,6 +20,8 @@ import java.util.*;
  */
 public class GrafoPuertas {
 
+    private static final Log.Categoria LOG = Log.categoria("MAPA");
+
     private final List<Habitacion> habitaciones;
     private final Random rng;
 
@@ -98,13 +102,14 @@ public class GrafoPuertas {
         }
 
         // log
-        System.out.println("== GRAFO DE PUERTAS ==");
+        if (!LOG.debug()) return;
+        StringBuilder sb = new StringBuilder("== GRAFO DE PUERTAS ==");
         for (var e : conexiones.entrySet()) {
-            System.out.print(" " + e.getKey().nombreVisible + " ->");
+            sb.append("\n ").append(e.getKey().nombreVisible).append(" ->");
             for (var d : e.getValue().entrySet())
-                System.out.print(" [" + d.getKey() + "→" + d.getValue().nombreVisible + "]");
-            System.out.println();
+                sb.append(" [").append(d.getKey()).append("→").append(d.getValue().nombreVisible).append("]");
         }
+        LOG.debug(sb.toString());
     }
 
 
@@ -15,6 +15,8 @@ import java.util.*;
  *
  * Esto hace que el minimapa represente EXACTAMENTE lo establecido por el generador (piso),
  * sin perder tu GrafoPuertas random (que sigue existiendo, solo no se usa para el HUD).
+ *
+ * Se pide con DisposicionMapa.getLayoutMinimapa() (uno por nivel, compartido).
  */
 public final class LayoutMinimapa {
 
@@ -48,7 +50,7 @@ public final class LayoutMinimapa {
             if (ph == null) continue;
 
             // 🔥 Fuente de verdad: conexiones del piso
-            EnumMap<Direccion, Habitacion> conex = disposicion.getConexionesEnPiso(h);
+            Map<Direccion, Habitacion> conex = disposicion.getConexionesEnPiso(h);
 
             for (var e : conex.entrySet()) {
                 Direccion dir = e.getKey();
@@ -0,0 +1,165 @@
+package mapa.navegacion;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Campo de flujo (flow field) de una sala hacia un objetivo (un jugador).
+ *
+ * - BFS desde la celda objetivo sobre la grilla de la sala (una vez por cambio de celda del objetivo).
+ * - Cada celda guarda hacia qué vecino moverse (8 direcciones, sin cortar esquinas).
+ * - Los enemigos solo hacen un lookup O(1): no hay pathfinding por enemigo.
+ */
+public final class CampoFlujo {
+
+    public static final byte SIN_RUTA = -1;
+    public static final byte EN_OBJETIVO = 8;
+
+    // 0..7: E, NE, N, NO, O, SO, S, SE
+    private static final int[] DX = { 1, 1, 0, -1, -1, -1, 0, 1 };
+    private static final int[] DY = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    private static final float DIAG = 0.70710677f;
+    private static final float[] DIR_X = { 1f, DIAG, 0f, -DIAG, -1f, -DIAG, 0f, DIAG };
+    private static final float[] DIR_Y = { 0f, DIAG, 1f, DIAG, 0f, -DIAG, -1f, -DIAG };
+
+    private static final int SIN_DISTANCIA = Integer.MAX_VALUE;
+
+    private final GrillaNavegacion grilla;
+    private final int[] distancia;
+    private final byte[] direccion;
+    private final int[] cola;
+
+    private int celdaObjetivo = -1;
+
+    public CampoFlujo(GrillaNavegacion grilla) {
+        this.grilla = grilla;
+        int n = grilla.getCantidadCeldas();
+        this.distancia = new int[n];
+        this.direccion = new byte[n];
+        this.cola = new int[n];
+        Arrays.fill(direccion, SIN_RUTA);
+    }
+
+    public GrillaNavegacion getGrilla() {
+        return grilla;
+    }
+
+    /**
+     * Apunta el campo a una posición de mundo. Solo recalcula si cambió la celda objetivo.
+     * @return false si el objetivo está fuera de esta sala (el campo queda inválido)
+     */
+    public boolean apuntarA(float x, float y) {
+        int celda = grilla.indiceEn(x, y);
+        if (celda < 0) {
+            celdaObjetivo = -1;
+            return false;
+        }
+        if (celda != celdaObjetivo) {
+            celdaObjetivo = celda;
+            recalcular();
+        }
+        return true;
+    }
+
+    public boolean esValido() {
+        return celdaObjetivo >= 0;
+    }
+
+    /**
+     * Dirección normalizada a seguir desde (x, y).
+     * @return false si no aplica (fuera de la sala, sin ruta o ya en la celda objetivo):
+     *         en ese caso el enemigo usa su movimiento directo de siempre.
+     */
+    public boolean direccionEn(float x, float y, Vector2 out) {
+        int d = codigoDireccionEn(x, y);
+        if (d < 0) return false;
+
+        out.set(DIR_X[d], DIR_Y[d]);
+        return true;
+    }
+
+    /**
+     * Versión sin Vector2 para loops batch: código 0..7 (ver dirX/dirY) o -1 si no aplica.
+     */
+    public int codigoDireccionEn(float x, float y) {
+        if (celdaObjetivo < 0) return -1;
+        int celda = grilla.indiceEn(x, y);
+        if (celda < 0) return -1;
+
+        byte d = direccion[celda];
+        if (d < 0 || d == EN_OBJETIVO) return -1;
+        return d;
+    }
+
+    public static float dirX(int codigo) { return DIR_X[codigo]; }
+    public static float dirY(int codigo) { return DIR_Y[codigo]; }
+
+    // =====================
+    // BFS + direcciones
+    // =====================
+
+    private void recalcular() {
+        Arrays.fill(distancia, SIN_DISTANCIA);
+
+        // 1) BFS 4-vecinos desde el objetivo (aunque el objetivo esté pegado a una pared, lo sembramos igual)
+        int cabeza = 0;
+        int fin = 0;
+        distancia[celdaObjetivo] = 0;
+        cola[fin++] = celdaObjetivo;
+
+        while (cabeza < fin) {
+            int c = cola[cabeza++];
+            int cx = grilla.celdaX(c);
+            int cy = grilla.celdaY(c);
+            int dSig = distancia[c] + 1;
+
+            for (int k = 0; k < 8; k += 2) {
+                int nx = cx + DX[k];
+                int ny = cy + DY[k];
+                if (!grilla.esTransitable(nx, ny)) continue;
+                int n = grilla.indice(nx, ny);
+                if (distancia[n] != SIN_DISTANCIA) continue;
+                distancia[n] = dSig;
+                cola[fin++] = n;
+            }
+        }
+
+        // 2) Cada celda apunta al vecino con menor distancia (diagonal solo si no corta esquina).
+        //    Las celdas bloqueadas también tienen dirección: los enemigos son sensores y pueden quedar adentro.
+        int total = grilla.getCantidadCeldas();
+        for (int c = 0; c < total; c++) {
+            if (c == celdaObjetivo) {
+                direccion[c] = EN_OBJETIVO;
+                continue;
+            }
+
+            int cx = grilla.celdaX(c);
+            int cy = grilla.celdaY(c);
+            int mejor = distancia[c];
+            byte mejorDir = SIN_RUTA;
+
+            for (int k = 0; k < 8; k++) {
+                int nx = cx + DX[k];
+                int ny = cy + DY[k];
+                if (!grilla.dentro(nx, ny)) continue;
+
+                int dn = distancia[grilla.indice(nx, ny)];
+                if (dn == SIN_DISTANCIA) continue;
+
+                boolean diagonal = (k & 1) == 1;
+                if (diagonal && (!grilla.esTransitable(cx + DX[k], cy) || !grilla.esTransitable(cx, cy + DY[k]))) {
+                    continue;
+                }
+
+                // con distancias 4-vecinos, una diagonal útil está 2 pasos más cerca => gana sola
+                if (dn < mejor) {
+                    mejor = dn;
+                    mejorDir = (byte) k;
+                }
+            }
+
+            direccion[c] = mejorDir;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package mapa.navegacion;
+
+import mapa.model.Habitacion;
+
+/**
+ * Grilla de navegación de UNA sala (celdas de TAM_CELDA px, coordenadas de mundo).
+ *
+ * Se construye una sola vez desde la capa "colision" del TMX (ver NavegacionSalas)
+ * y después es solo lectura: la comparten todos los campos de flujo de la sala.
+ */
+public final class GrillaNavegacion {
+
+    public static final int TAM_CELDA = 32;
+
+    private final Habitacion sala;
+    private final float origenX;
+    private final float origenY;
+    private final int ancho;   // en celdas
+    private final int alto;    // en celdas
+    private final boolean[] bloqueada;
+
+    GrillaNavegacion(Habitacion sala) {
+        this.sala = sala;
+        this.origenX = sala.gridX * (float) sala.ancho;
+        this.origenY = sala.gridY * (float) sala.alto;
+        this.ancho = Math.max(1, sala.ancho / TAM_CELDA);
+        this.alto = Math.max(1, sala.alto / TAM_CELDA);
+        this.bloqueada = new boolean[ancho * alto];
+    }
+
+    public Habitacion getSala() { return sala; }
+    public int getAncho() { return ancho; }
+    public int getAlto() { return alto; }
+    public int getCantidadCeldas() { return ancho * alto; }
+
+    public float getOrigenX() { return origenX; }
+    public float getOrigenY() { return origenY; }
+
+    // ---------- mundo <-> celda ----------
+
+    /** Índice de celda para una posición de mundo, o -1 si cae fuera de la sala. */
+    public int indiceEn(float x, float y) {
+        int cx = (int) Math.floor((x - origenX) / TAM_CELDA);
+        int cy = (int) Math.floor((y - origenY) / TAM_CELDA);
+        if (!dentro(cx, cy)) return -1;
+        return cy * ancho + cx;
+    }
+
+    public boolean dentro(int cx, int cy) {
+        return cx >= 0 && cy >= 0 && cx < ancho && cy < alto;
+    }
+
+    public int indice(int cx, int cy) {
+        return cy * ancho + cx;
+    }
+
+    public int celdaX(int indice) { return indice % ancho; }
+    public int celdaY(int indice) { return indice / ancho; }
+
+    public float centroX(int cx) { return origenX + cx * TAM_CELDA + TAM_CELDA / 2f; }
+    public float centroY(int cy) { return origenY + cy * TAM_CELDA + TAM_CELDA / 2f; }
+
+    // ---------- bloqueos ----------
+
+    public boolean esBloqueada(int indice) {
+        return bloqueada[indice];
+    }
+
+    public boolean esTransitable(int cx, int cy) {
+        return dentro(cx, cy) && !bloqueada[indice(cx, cy)];
+    }
+
+    void marcarBloqueada(int cx, int cy) {
+        if (dentro(cx, cy)) bloqueada[indice(cx, cy)] = true;
+    }
+
+    public int contarBloqueadas() {
+        int n = 0;
+        for (boolean b : bloqueada) if (b) n++;
+        return n;
+    }
+}
@@ -0,0 +1,127 @@
+package mapa.navegacion;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import mapa.model.Habitacion;
+
+/**
+ * Navegación de todas las salas del mapa:
+ * - una GrillaNavegacion por sala, construida UNA vez desde la capa "colision"
+ * - un CampoFlujo por (sala, jugador), que solo se recalcula cuando ese jugador cambia de celda
+ *
+ * Los enemigos de una sala comparten el campo de su objetivo (lookup O(1) cada uno).
+ */
+public final class NavegacionSalas {
+
+    private static final String NOMBRE_CAPA = "colision";
+    private static final int MAX_JUGADORES = 2;
+
+    // margen para no bloquear celdas que la pared apenas roza
+    private static final float MARGEN_CELDA = 4f;
+
+    private final EnumMap<Habitacion, GrillaNavegacion> grillas = new EnumMap<>(Habitacion.class);
+    private final EnumMap<Habitacion, CampoFlujo[]> campos = new EnumMap<>(Habitacion.class);
+
+    private NavegacionSalas() {}
+
+    public static NavegacionSalas desdeMapa(TiledMap map) {
+        NavegacionSalas nav = new NavegacionSalas();
+
+        List<Rectangle> rects = new ArrayList<>();
+        List<Polygon> polys = new ArrayList<>();
+        if (map != null) {
+            for (MapLayer layer : map.getLayers()) {
+                if (layer.getName() == null || !layer.getName().equalsIgnoreCase(NOMBRE_CAPA)) continue;
+                for (MapObject obj : layer.getObjects()) {
+                    if (obj instanceof RectangleMapObject r) rects.add(r.getRectangle());
+                    else if (obj instanceof PolygonMapObject p) polys.add(p.getPolygon());
+                }
+            }
+        }
+
+        int bloqueadas = 0;
+        for (Habitacion sala : Habitacion.values()) {
+            GrillaNavegacion g = new GrillaNavegacion(sala);
+            marcarBloqueos(g, rects, polys);
+            nav.grillas.put(sala, g);
+            bloqueadas += g.contarBloqueadas();
+        }
+
+        if (Gdx.app != null) {
+            Gdx.app.log("NavegacionSalas", "Grillas: " + nav.grillas.size() + " salas, celdas bloqueadas: " + bloqueadas);
+        }
+        return nav;
+    }
+
+    private static void marcarBloqueos(GrillaNavegacion g, List<Rectangle> rects, List<Polygon> polys) {
+        final int t = GrillaNavegacion.TAM_CELDA;
+        Rectangle celda = new Rectangle();
+
+        for (int cy = 0; cy < g.getAlto(); cy++) {
+            for (int cx = 0; cx < g.getAncho(); cx++) {
+                float x0 = g.getOrigenX() + cx * t + MARGEN_CELDA;
+                float y0 = g.getOrigenY() + cy * t + MARGEN_CELDA;
+                float lado = t - 2f * MARGEN_CELDA;
+                celda.set(x0, y0, lado, lado);
+
+                if (tocaAlguno(celda, rects, polys)) g.marcarBloqueada(cx, cy);
+            }
+        }
+    }
+
+    private static boolean tocaAlguno(Rectangle celda, List<Rectangle> rects, List<Polygon> polys) {
+        for (Rectangle r : rects) {
+            if (r.overlaps(celda)) return true;
+        }
+
+        float x1 = celda.x + celda.width;
+        float y1 = celda.y + celda.height;
+        float mx = celda.x + celda.width / 2f;
+        float my = celda.y + celda.height / 2f;
+        for (Polygon p : polys) {
+            if (p.contains(mx, my)
+                    || p.contains(celda.x, celda.y) || p.contains(x1, celda.y)
+                    || p.contains(celda.x, y1) || p.contains(x1, y1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public GrillaNavegacion getGrilla(Habitacion sala) {
+        return sala != null ? grillas.get(sala) : null;
+    }
+
+    /**
+     * Campo de flujo de la sala hacia el jugador (1..2), apuntado a su posición actual.
+     * @return null si el jugador no está dentro de esa sala (el enemigo cae al movimiento directo)
+     */
+    public CampoFlujo campoHacia(Habitacion sala, int playerNum, Vector2 posJugador) {
+        if (sala == null || posJugador == null) return null;
+        if (playerNum < 1 || playerNum > MAX_JUGADORES) return null;
+
+        GrillaNavegacion g = grillas.get(sala);
+        if (g == null) return null;
+
+        CampoFlujo[] porJugador = campos.computeIfAbsent(sala, k -> new CampoFlujo[MAX_JUGADORES + 1]);
+        CampoFlujo campo = porJugador[playerNum];
+        if (campo == null) {
+            campo = new CampoFlujo(g);
+            porJugador[playerNum] = campo;
+        }
+
+        return campo.apuntarA(posJugador.x, posJugador.y) ? campo : null;
+    }
+}
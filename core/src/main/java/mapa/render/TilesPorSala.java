@@ -0,0 +1,179 @@
+package mapa.render;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Disposable;
+
+import mapa.model.Habitacion;
+
+/**
+ * Capas de tiles del TMX "horneadas" por sala en un SpriteCache (geometría estática en GPU).
+ *
+ * - Se arma una vez (el TMX es estático: puertas y botones son sprites aparte).
+ * - Por frame: una llamada draw(id) por sala visible, sin recorrer celdas (CPU ~0).
+ * - Respeta orden y visibilidad de capas, opacidad por capa y flips H/V de las celdas.
+ *
+ * Reemplaza a OrthogonalTiledMapRenderer.render(); con -Dmapa.tilesCacheados=false se vuelve
+ * al renderer de libGDX (para comparar).
+ * Solo hilo de render.
+ */
+public final class TilesPorSala implements Disposable {
+
+    private static final Habitacion[] SALAS = Habitacion.values(); // sin clonar el array por frame
+
+    private final SpriteCache cache;
+    private final int[] idPorSala = new int[SALAS.length]; // por ordinal; -1 = sin cache
+
+    /** Copias volteadas de regiones de tiles (clave: id de tile + flips) */
+    private final HashMap<Long, TextureRegion> volteadas = new HashMap<>();
+
+    private int tilesHorneados = 0;
+
+    public TilesPorSala(TiledMap mapa) {
+        int capacidad = Math.max(1, contarCeldas(mapa));
+        cache = new SpriteCache(capacidad, false); // sin índices: no hay tope de 8191 sprites
+
+        Arrays.fill(idPorSala, -1);
+        for (Habitacion h : SALAS) {
+            cache.beginCache();
+            hornearSala(mapa, h);
+            idPorSala[h.ordinal()] = cache.endCache();
+        }
+        volteadas.clear();
+
+        Gdx.app.log("MAPA", "Tiles horneados: " + tilesHorneados + " en " + SALAS.length + " salas");
+    }
+
+    // =====================
+    // Horneado
+    // =====================
+
+    private static int contarCeldas(TiledMap mapa) {
+        int total = 0;
+        for (MapLayer capa : mapa.getLayers()) {
+            if (!(capa instanceof TiledMapTileLayer tl) || !capa.isVisible()) continue;
+            for (int y = 0; y < tl.getHeight(); y++) {
+                for (int x = 0; x < tl.getWidth(); x++) {
+                    TiledMapTileLayer.Cell c = tl.getCell(x, y);
+                    if (c != null && c.getTile() != null) total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    private void hornearSala(TiledMap mapa, Habitacion sala) {
+        float baseX = sala.gridX * sala.ancho;
+        float baseY = sala.gridY * sala.alto;
+
+        for (MapLayer capa : mapa.getLayers()) {
+            if (!(capa instanceof TiledMapTileLayer tl) || !capa.isVisible()) continue;
+
+            float tw = tl.getTileWidth();
+            float th = tl.getTileHeight();
+            if (tw <= 0 || th <= 0) continue;
+
+            int x0 = Math.max(0, (int) (baseX / tw));
+            int y0 = Math.max(0, (int) (baseY / th));
+            int x1 = Math.min(tl.getWidth(), (int) Math.ceil((baseX + sala.ancho) / tw));
+            int y1 = Math.min(tl.getHeight(), (int) Math.ceil((baseY + sala.alto) / th));
+
+            cache.setColor(1f, 1f, 1f, capa.getOpacity());
+
+            // Mismo desplazamiento de capa que OrthogonalTiledMapRenderer (Y de Tiled hacia abajo)
+            float offX = capa.getOffsetX();
+            float offY = -capa.getOffsetY();
+
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) {
+                    TiledMapTileLayer.Cell c = tl.getCell(x, y);
+                    if (c == null) continue;
+                    TiledMapTile tile = c.getTile();
+                    if (tile == null) continue;
+
+                    TextureRegion r = region(tile, c.getFlipHorizontally(), c.getFlipVertically());
+                    if (r == null) continue;
+
+                    float px = x * tw + tile.getOffsetX() + offX;
+                    float py = y * th + tile.getOffsetY() + offY;
+                    float w = r.getRegionWidth();
+                    float h = r.getRegionHeight();
+
+                    int rot = c.getRotation();
+                    if (rot == 0) {
+                        cache.add(r, px, py, w, h);
+                    } else {
+                        cache.add(r, px, py, w / 2f, h / 2f, w, h, 1f, 1f, rot * 90f);
+                    }
+                    tilesHorneados++;
+                }
+            }
+        }
+        cache.setColor(1f, 1f, 1f, 1f);
+    }
+
+    private TextureRegion region(TiledMapTile tile, boolean flipH, boolean flipV) {
+        TextureRegion base = tile.getTextureRegion();
+        if (base == null || (!flipH && !flipV)) return base;
+
+        long clave = ((long) tile.getId() << 2) | (flipH ? 1 : 0) | (flipV ? 2 : 0);
+        TextureRegion r = volteadas.get(clave);
+        if (r == null) {
+            r = new TextureRegion(base);
+            r.flip(flipH, flipV);
+            volteadas.put(clave, r);
+        }
+        return r;
+    }
+
+    // =====================
+    // Dibujo
+    // =====================
+
+    /** Dibuja las salas que tocan la vista de la cámara (normalmente una sola). */
+    public void render(OrthographicCamera cam) {
+        float w = cam.viewportWidth * cam.zoom;
+        float h = cam.viewportHeight * cam.zoom;
+        float minX = cam.position.x - w / 2f;
+        float minY = cam.position.y - h / 2f;
+        float maxX = minX + w;
+        float maxY = minY + h;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        cache.setProjectionMatrix(cam.combined);
+        cache.begin();
+        for (Habitacion s : SALAS) {
+            float sx = s.gridX * s.ancho;
+            float sy = s.gridY * s.alto;
+            if (sx >= maxX || sx + s.ancho <= minX || sy >= maxY || sy + s.alto <= minY) continue;
+
+            int id = idPorSala[s.ordinal()];
+            if (id >= 0) cache.draw(id);
+        }
+        cache.end();
+
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public int getTilesHorneados() {
+        return tilesHorneados;
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+        Arrays.fill(idPorSala, -1);
+    }
+}
@@ -1,9 +1,11 @@
 package pantallas;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 
 import io.github.principal.Principal;
 import juego.Partida;
+import recursos.PrecargaJuego;
 
 /**
  * Pantalla fina: delega toda la lógica del gameplay a {@link Partida}.
@@ -14,6 +16,10 @@ public class JuegoPrincipal implements Screen {
     private final Principal game;
     private Partida partida;
 
+    // Pantalla de carga entre niveles (se crea la primera vez que hace falta)
+    private VistaCarga vistaCarga;
+    private int framesCarga = 0;
+
     public JuegoPrincipal(Principal game) {
         this.game = game;
     }
@@ -27,6 +33,11 @@ public class JuegoPrincipal implements Screen {
 
     @Override
     public void render(float delta) {
+        if (partida.hayCambioNivelPendiente()) {
+            renderCambioNivel();
+            return;
+        }
+
         partida.render(delta);
 
         if (partida.consumirVictoriaSolicitada()) {
@@ -40,10 +51,29 @@ public class JuegoPrincipal implements Screen {
     }
 
 
+    /**
+     * Entre niveles: se dibuja la vista de carga (al menos 1 frame) mientras la precarga
+     * termina con presupuesto; recién después se reconstruye el nivel (assets ya residentes).
+     */
+    private void renderCambioNivel() {
+        if (vistaCarga == null) {
+            vistaCarga = new VistaCarga();
+            vistaCarga.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        }
+
+        boolean listo = PrecargaJuego.actualizar();
+        vistaCarga.dibujar("Nivel " + (partida.getNivelActual() + 1), PrecargaJuego.getProgreso());
+
+        if (listo && ++framesCarga > 1) {
+            framesCarga = 0;
+            partida.completarCambioNivel();
+        }
+    }
 
     @Override
     public void resize(int width, int height) {
         if (partida != null) partida.resize(width, height);
+        if (vistaCarga != null) vistaCarga.resize(width, height);
     }
 
     @Override public void pause() {}
@@ -60,5 +90,9 @@ public class JuegoPrincipal implements Screen {
             partida.dispose();
             partida = null;
         }
+        if (vistaCarga != null) {
+            vistaCarga.dispose();
+            vistaCarga = null;
+        }
     }
 }
@@ -11,6 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
 import io.github.principal.Principal;
+import recursos.PrecargaJuego;
 
 public class MenuPrincipal implements Screen {
 
@@ -67,7 +68,12 @@ public class MenuPrincipal implements Screen {
 
         btnJugar.addListener(new ClickListener() {
             @Override public void clicked(InputEvent event, float x, float y) {
-                game.cambiarPantalla(new JuegoPrincipal(game));
+                // ✅ si la precarga no terminó mientras estábamos en el menú, pasamos por la pantalla de carga
+                if (PrecargaJuego.terminada()) {
+                    game.cambiarPantalla(new JuegoPrincipal(game));
+                } else {
+                    game.cambiarPantalla(new PantallaCarga(game, () -> new JuegoPrincipal(game)));
+                }
             }
         });
 
@@ -99,6 +105,9 @@ public class MenuPrincipal implements Screen {
     public void render(float delta) {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        // Precarga del juego en segundo plano (presupuesto por frame, el menú sigue fluido)
+        PrecargaJuego.actualizar();
+
         stage.act(delta);
         stage.draw();
     }
@@ -0,0 +1,59 @@
+package pantallas;
+
+import java.util.function.Supplier;
+
+import com.badlogic.gdx.Screen;
+
+import io.github.principal.Principal;
+import recursos.PrecargaJuego;
+
+/**
+ * Pantalla de carga: avanza PrecargaJuego con presupuesto por frame y cuando termina
+ * pasa a la pantalla siguiente (se crea recién ahí, con todo residente).
+ */
+public class PantallaCarga implements Screen {
+
+    private final Principal game;
+    private final Supplier<Screen> siguiente;
+
+    private VistaCarga vista;
+    private int frames = 0;
+
+    public PantallaCarga(Principal game, Supplier<Screen> siguiente) {
+        this.game = game;
+        this.siguiente = siguiente;
+    }
+
+    @Override
+    public void show() {
+        vista = new VistaCarga();
+    }
+
+    @Override
+    public void render(float delta) {
+        boolean listo = PrecargaJuego.actualizar();
+        vista.dibujar("Cargando...", PrecargaJuego.getProgreso());
+
+        // al menos 1 frame visible antes de cambiar (si ya estaba todo cargado)
+        if (listo && ++frames > 1) {
+            game.cambiarPantalla(siguiente.get());
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if (vista != null) vista.resize(width, height);
+    }
+
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void hide() {}
+
+    @Override
+    public void dispose() {
+        if (vista != null) {
+            vista.dispose();
+            vista = null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package pantallas;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import recursos.PrecargaJuego;
+
+/**
+ * Dibujo de "Cargando..." + barra de progreso.
+ * La usan PantallaCarga (menú -> juego) y JuegoPrincipal (entre niveles).
+ * No carga assets propios: fuente por defecto (compartida) y rectángulos.
+ */
+public final class VistaCarga implements Disposable {
+
+    private static final float W = 960f;
+    private static final float H = 540f;
+
+    private final OrthographicCamera cam = new OrthographicCamera();
+    private final Viewport viewport = new FitViewport(W, H, cam);
+    private final SpriteBatch batch = new SpriteBatch();
+    private final ShapeRenderer shapes = new ShapeRenderer();
+
+    public VistaCarga() {
+        viewport.apply(true);
+    }
+
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    public void dibujar(String titulo, float progreso) {
+        float p = Math.max(0f, Math.min(1f, progreso));
+
+        Gdx.gl.glClearColor(0.05f, 0.05f, 0.07f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        viewport.apply();
+        cam.update();
+
+        float barW = 420f;
+        float barH = 18f;
+        float x = (W - barW) / 2f;
+        float y = H / 2f - 30f;
+
+        shapes.setProjectionMatrix(cam.combined);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0.2f, 0.2f, 0.25f, 1f);
+        shapes.rect(x, y, barW, barH);
+        shapes.setColor(0.85f, 0.85f, 0.85f, 1f);
+        shapes.rect(x, y, barW * p, barH);
+        shapes.end();
+
+        BitmapFont font = PrecargaJuego.fuenteHud();
+        batch.setProjectionMatrix(cam.combined);
+        batch.begin();
+        font.draw(batch, titulo, x, y + barH + 30f);
+        font.draw(batch, (int) (p * 100f) + "%", x + barW + 10f, y + barH - 3f);
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        shapes.dispose();
+    }
+}
@@ -0,0 +1,156 @@
+package recursos;
+
+import java.util.HashMap;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import entidades.items.ItemTipo;
+
+/**
+ * Atlas único de sprites del juego (jugadores, enemigos, items, botones, puertas, trampilla, HUD).
+ *
+ * - Se empaqueta en build (./gradlew :lwjgl3:empaquetarAtlas) a "atlas/juego.atlas".
+ * - Las regiones se piden por nombre = ruta del PNG sin extensión (ej: "items/bota_veloz").
+ * - Si el atlas no existe (o falta una región) cae al PNG suelto: una textura por archivo, compartida.
+ * - Todo se carga por un AssetManager (una carga por ruta, sin importar cuántos lo pidan).
+ * - Las animaciones de hojas de sprites se comparten vía getAnimaciones() (ref-count por hoja).
+ * - El atlas se encola sin bloquear (PrecargaJuego lo va cargando con presupuesto por frame);
+ *   si alguien pide una región antes de que termine, se completa en el momento.
+ *
+ * Vive toda la app (residente entre niveles y partidas): se libera con PrecargaJuego.liberar().
+ * Con -Datlas.sueltas=true se fuerza el modo suelto (para comparar draw calls).
+ */
+public final class AtlasJuego implements Disposable {
+
+    public static final String RUTA_ATLAS = "atlas/juego.atlas";
+
+    private static AtlasJuego instancia;
+
+    private final AssetManager assets = new AssetManager();
+    private final TextureLoader.TextureParameter paramSueltas = new TextureLoader.TextureParameter();
+
+    private final boolean conAtlas;   // false => solo PNG sueltos
+    private TextureAtlas atlas;       // null hasta que termine de cargar
+    private final HashMap<String, TextureRegion> regiones = new HashMap<>();
+    private final CacheAnimaciones animaciones = new CacheAnimaciones(this);
+
+    private AtlasJuego() {
+        paramSueltas.minFilter = Texture.TextureFilter.Nearest;
+        paramSueltas.magFilter = Texture.TextureFilter.Nearest;
+        this.conAtlas = encolarAtlas();
+    }
+
+    public static AtlasJuego get() {
+        if (instancia == null) instancia = new AtlasJuego();
+        return instancia;
+    }
+
+    public static void liberar() {
+        if (instancia != null) {
+            instancia.dispose();
+            instancia = null;
+        }
+    }
+
+    private boolean encolarAtlas() {
+        if (Boolean.getBoolean("atlas.sueltas")) {
+            Gdx.app.log("ATLAS", "Modo PNG sueltos (-Datlas.sueltas)");
+            return false;
+        }
+        if (!Gdx.files.internal(RUTA_ATLAS).exists()) {
+            Gdx.app.log("ATLAS", "No existe " + RUTA_ATLAS + " (correr :lwjgl3:empaquetarAtlas), uso PNG sueltos");
+            return false;
+        }
+        assets.load(RUTA_ATLAS, TextureAtlas.class); // async: lo avanza AssetManager.update()
+        return true;
+    }
+
+    private TextureAtlas atlas() {
+        if (conAtlas && atlas == null) atlas = assets.finishLoadingAsset(RUTA_ATLAS);
+        return atlas;
+    }
+
+    public boolean usaAtlas() {
+        return conAtlas;
+    }
+
+    /** AssetManager compartido (PrecargaJuego encola acá mapa, skin, etc.). */
+    public AssetManager getAssetManager() {
+        return assets;
+    }
+
+    public CacheAnimaciones getAnimaciones() {
+        return animaciones;
+    }
+
+    // =====================
+    // Regiones
+    // =====================
+
+    /**
+     * Región por nombre ("Jugadores/jugador_fem_quieto", "Hud/slot", ...).
+     * @return null si no está ni en el atlas ni como PNG suelto
+     */
+    public TextureRegion region(String nombre) {
+        if (nombre == null || nombre.isBlank()) return null;
+
+        TextureRegion r = regiones.get(nombre);
+        if (r != null || regiones.containsKey(nombre)) return r;
+
+        TextureAtlas a = atlas();
+        if (a != null) r = a.findRegion(nombre);
+        if (r == null) r = cargarSuelta(nombre);
+
+        regiones.put(nombre, r); // cachea también los faltantes (null)
+        return r;
+    }
+
+    /** Corta una región en frames de w x h (mismo orden que TextureRegion.split de una textura). */
+    public TextureRegion[][] split(String nombre, int w, int h) {
+        TextureRegion r = region(nombre);
+        return (r != null) ? r.split(w, h) : null;
+    }
+
+    /** Nombre de región del sprite de un item (mundo y HUD usan el mismo). */
+    public static String regionItem(ItemTipo tipo) {
+        return "items/" + tipo.name().toLowerCase();
+    }
+
+    /** En modo suelto encola los PNG sin bloquear (con atlas no hace falta: ya está encolado). */
+    public void precargarSueltas(Iterable<String> nombres) {
+        if (conAtlas) return;
+        for (String nombre : nombres) {
+            String ruta = nombre + ".png";
+            if (!assets.contains(ruta) && Gdx.files.internal(ruta).exists()) {
+                assets.load(ruta, Texture.class, paramSueltas);
+            }
+        }
+    }
+
+    private TextureRegion cargarSuelta(String nombre) {
+        String ruta = nombre + ".png";
+        if (!Gdx.files.internal(ruta).exists()) return null;
+        try {
+            if (!assets.contains(ruta)) assets.load(ruta, Texture.class, paramSueltas);
+            Texture tex = assets.finishLoadingAsset(ruta);
+            return new TextureRegion(tex);
+        } catch (GdxRuntimeException ex) {
+            Gdx.app.log("ATLAS", "No se pudo cargar " + ruta + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        animaciones.limpiar();
+        regiones.clear();
+        assets.dispose(); // atlas + sueltas
+    }
+}
@@ -0,0 +1,121 @@
+package recursos;
+
+import java.util.HashMap;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Animaciones compartidas por hoja de sprites (clave: región + tamaño de frame + duración + modo).
+ *
+ * - La primera entidad que pide una hoja la corta y arma su tabla de key-frames; las demás reusan la misma.
+ * - Ref-count por hoja: al soltar la última referencia se descarta la entrada.
+ * - La hoja es sin estado (frame(t) es un índice en la tabla): el tiempo de cada entidad vive en
+ *   AnimacionesEntidades. A diferencia de Animation.getKeyFrame, no escribe nada: se puede leer
+ *   desde cualquier hilo.
+ *
+ * Las texturas no se liberan acá: son del AssetManager de AtlasJuego y quedan residentes toda la run.
+ */
+public final class CacheAnimaciones {
+
+    /** Tabla de key-frames compartida + contador de usuarios. */
+    public static final class Hoja {
+        private final CacheAnimaciones cache;
+        private final String clave;
+        private final TextureRegion[] frames; // nunca vacía (sin frames = la región entera)
+        private final float framesPorSegundo;
+        private final float duracionTotal;
+        private final boolean loop;
+        private final int cantidadFrames;
+        private int referencias = 0;
+
+        private Hoja(CacheAnimaciones cache, String clave, TextureRegion[] frames, int cantidadFrames,
+                     float duracion, boolean loop) {
+            this.cache = cache;
+            this.clave = clave;
+            this.frames = frames;
+            this.cantidadFrames = cantidadFrames;
+            this.framesPorSegundo = (duracion > 0f) ? 1f / duracion : 0f;
+            this.duracionTotal = frames.length * duracion;
+            this.loop = loop;
+        }
+
+        /** Frame para el tiempo t (>= 0): LOOP da la vuelta, NORMAL se queda en el último. */
+        public TextureRegion frame(float t) {
+            int i = (int) (t * framesPorSegundo);
+            if (i >= frames.length) i = loop ? i % frames.length : frames.length - 1;
+            return frames[i];
+        }
+
+        public float getDuracionTotal() { return duracionTotal; }
+        public TextureRegion getPrimerFrame() { return frames[0]; }
+        public int getCantidadFrames() { return cantidadFrames; }
+        public int getReferencias() { return referencias; }
+
+        /** Suelta una referencia (seguro aunque el atlas ya se haya liberado). */
+        public void soltar() { cache.soltar(this); }
+    }
+
+    private final AtlasJuego atlas;
+    private final HashMap<String, Hoja> hojas = new HashMap<>();
+
+    CacheAnimaciones(AtlasJuego atlas) {
+        this.atlas = atlas;
+    }
+
+    /**
+     * Hoja compartida para la región cortada en frames de frameW x frameH.
+     * @return null si la región no existe (el llamador decide si es opcional)
+     */
+    public Hoja adquirir(String region, int frameW, int frameH, float duracion, Animation.PlayMode modo) {
+        if (region == null || region.isBlank()) return null;
+
+        String clave = region + "@" + frameW + "x" + frameH + "/" + duracion + "/" + modo;
+        Hoja h = hojas.get(clave);
+        if (h == null) {
+            h = crear(clave, region, frameW, frameH, duracion, modo);
+            if (h == null) return null;
+            hojas.put(clave, h);
+        }
+        h.referencias++;
+        return h;
+    }
+
+    /** Igual que adquirir, pero la hoja es obligatoria. */
+    public Hoja adquirirRequerida(String region, int frameW, int frameH, float duracion, Animation.PlayMode modo) {
+        Hoja h = adquirir(region, frameW, frameH, duracion, modo);
+        if (h == null) throw new GdxRuntimeException("Falta el sprite: " + region);
+        return h;
+    }
+
+    public void soltar(Hoja h) {
+        if (h == null || h.referencias <= 0) return;
+        if (--h.referencias == 0) hojas.remove(h.clave, h);
+    }
+
+    private Hoja crear(String clave, String region, int frameW, int frameH, float duracion, Animation.PlayMode modo) {
+        TextureRegion base = atlas.region(region);
+        if (base == null) return null;
+
+        Array<TextureRegion> frames = new Array<>();
+        for (TextureRegion[] fila : base.split(frameW, frameH)) {
+            for (TextureRegion r : fila) frames.add(r);
+        }
+
+        int cantidad = frames.size;
+        if (cantidad == 0) frames.add(base);
+        boolean loop = modo == Animation.PlayMode.LOOP;
+        return new Hoja(this, clave, frames.toArray(TextureRegion.class), cantidad, duracion, loop);
+    }
+
+    /** Hojas vivas (para debug/métricas). */
+    public int getCantidadHojas() {
+        return hojas.size();
+    }
+
+    void limpiar() {
+        hojas.clear();
+    }
+}
@@ -0,0 +1,136 @@
+package recursos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import mapa.model.Habitacion;
+
+/**
+ * Draw calls y texture binds por frame (GLProfiler), promediados y logueados cada FRAMES_REPORTE.
+ *
+ * Se activa con -Drender.perfil=true; apagado no cuesta nada (no envuelve el GL).
+ * Además acumula por sala toda la corrida y al cerrar loguea un resumen; con
+ * -Drender.perfil.salida=archivo.tsv agrega una fila por sala (modo, sala, frames, promedios, máx).
+ *
+ * Para comparar atlas vs PNG sueltos: empaquetar (./gradlew :lwjgl3:empaquetarAtlas), jugar las
+ * mismas salas dos veces con la misma salida, una de ellas con -Datlas.sueltas=true, y comparar
+ * las filas de cada sala.
+ */
+public final class PerfilDibujado {
+
+    private static final int FRAMES_REPORTE = 120;
+
+    private final GLProfiler profiler;
+    private final String salida;
+    private String modo; // "atlas" / "sueltas": fijo en la corrida, se toma en el primer frame
+
+    private int frames = 0;
+    private long drawCalls = 0;
+    private long binds = 0;
+    private int maxDrawCalls = 0;
+
+    private int ultimoDrawCalls = 0;
+    private int ultimoBinds = 0;
+
+    // Toda la corrida, por Habitacion.ordinal()
+    private final long[] framesSala = new long[Habitacion.values().length];
+    private final long[] drawCallsSala = new long[Habitacion.values().length];
+    private final long[] bindsSala = new long[Habitacion.values().length];
+    private final int[] maxDrawCallsSala = new int[Habitacion.values().length];
+
+    public PerfilDibujado() {
+        if (Boolean.getBoolean("render.perfil")) {
+            profiler = new GLProfiler(Gdx.graphics);
+            profiler.enable();
+        } else {
+            profiler = null;
+        }
+        salida = System.getProperty("render.perfil.salida", "");
+    }
+
+    public boolean activo() {
+        return profiler != null;
+    }
+
+    /** Llamar una vez al final de cada frame (después del HUD). */
+    public void finFrame(Habitacion sala) {
+        if (profiler == null) return;
+
+        ultimoDrawCalls = profiler.getDrawCalls();
+        ultimoBinds = profiler.getTextureBindings();
+        profiler.reset();
+        if (modo == null) modo = AtlasJuego.get().usaAtlas() ? "atlas" : "sueltas";
+
+        frames++;
+        drawCalls += ultimoDrawCalls;
+        binds += ultimoBinds;
+        if (ultimoDrawCalls > maxDrawCalls) maxDrawCalls = ultimoDrawCalls;
+
+        if (sala != null) {
+            int s = sala.ordinal();
+            framesSala[s]++;
+            drawCallsSala[s] += ultimoDrawCalls;
+            bindsSala[s] += ultimoBinds;
+            if (ultimoDrawCalls > maxDrawCallsSala[s]) maxDrawCallsSala[s] = ultimoDrawCalls;
+        }
+
+        if (frames >= FRAMES_REPORTE) {
+            AtlasJuego atlas = AtlasJuego.get();
+            Gdx.app.log("RENDER", String.format("[%s] drawCalls/frame=%.1f (max %d) | texBinds/frame=%.1f | hojas=%d",
+                modo, drawCalls / (double) frames, maxDrawCalls, binds / (double) frames,
+                atlas.getAnimaciones().getCantidadHojas()));
+            frames = 0;
+            drawCalls = 0;
+            binds = 0;
+            maxDrawCalls = 0;
+        }
+    }
+
+    public int getUltimoDrawCalls() { return ultimoDrawCalls; }
+    public int getUltimoBinds() { return ultimoBinds; }
+
+    public void dispose() {
+        if (profiler == null) return;
+        profiler.disable();
+        resumir();
+    }
+
+    // =====================
+    // Resumen de la corrida
+    // =====================
+
+    private void resumir() {
+        StringBuilder filas = new StringBuilder();
+        Habitacion[] salas = Habitacion.values();
+        for (int s = 0; s < salas.length; s++) {
+            long f = framesSala[s];
+            if (f == 0) continue;
+            double dc = drawCallsSala[s] / (double) f;
+            double tb = bindsSala[s] / (double) f;
+            Gdx.app.log("RENDER", String.format("[%s] resumen %s: frames=%d drawCalls/frame=%.1f (max %d) | texBinds/frame=%.1f",
+                modo, salas[s], f, dc, maxDrawCallsSala[s], tb));
+            filas.append(String.format(Locale.ROOT, "%s\t%s\t%d\t%.2f\t%d\t%.2f\n",
+                modo, salas[s], f, dc, maxDrawCallsSala[s], tb));
+        }
+
+        if (salida.isBlank() || filas.length() == 0) return;
+        try {
+            Path p = Paths.get(salida);
+            if (!Files.exists(p)) {
+                filas.insert(0, "modo\tsala\tframes\tdrawCalls\tmaxDrawCalls\ttexBinds\n");
+            }
+            Files.writeString(p, filas, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Gdx.app.log("RENDER", "Resumen agregado a " + p.toAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("RENDER", "No se pudo escribir " + salida + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package recursos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+
+import entidades.items.ItemTipo;
+import mapa.navegacion.NavegacionSalas;
+import mapa.render.TilesPorSala;
+
+/**
+ * Precarga asíncrona de lo que usa una partida (atlas, mapa TMX, skin, fuente del HUD).
+ *
+ * - encolar() una vez (al abrir el menú); actualizar() cada frame con un presupuesto en ms
+ *   (AssetManager.update(ms)): el menú y la pantalla de carga siguen respondiendo.
+ * - Todo queda RESIDENTE entre niveles y partidas: initNivel ya no lee el TMX ni crea el renderer.
+ * - Si algo se pide antes de terminar, se completa en el momento (mismo resultado, con tirón).
+ *
+ * Presupuesto por frame: -Dcarga.presupuestoMs (default 8 = medio frame a 60 Hz).
+ * Solo hilo de render.
+ */
+public final class PrecargaJuego {
+
+    public static final String RUTA_MAPA = "TMX/mapa.tmx";
+    public static final String RUTA_SKIN = "uiskin.json";
+
+    public static final int PRESUPUESTO_MS = Math.max(1, Integer.getInteger("carga.presupuestoMs", 8));
+
+    private static boolean encolada = false;
+
+    // Creados en el hilo de render a partir de lo cargado (no son assets del AssetManager)
+    private static OrthogonalTiledMapRenderer rendererMapa;
+    private static BitmapFont fuenteHud;
+    private static TilesPorSala tilesPorSala;
+    private static NavegacionSalas navegacion;
+
+    private PrecargaJuego() {}
+
+    public static void encolar() {
+        if (encolada) return;
+        encolada = true;
+
+        AtlasJuego atlas = AtlasJuego.get(); // encola el atlas
+        AssetManager am = atlas.getAssetManager();
+        am.load(RUTA_MAPA, TiledMap.class);
+        am.load(RUTA_SKIN, Skin.class);
+        atlas.precargarSueltas(spritesFijos());
+    }
+
+    /** Avanza la carga con el presupuesto por defecto. @return true si ya está todo */
+    public static boolean actualizar() {
+        return actualizar(PRESUPUESTO_MS);
+    }
+
+    /** Avanza la carga hasta presupuestoMs (bloquea como mucho eso). @return true si ya está todo */
+    public static boolean actualizar(int presupuestoMs) {
+        encolar();
+        return AtlasJuego.get().getAssetManager().update(presupuestoMs);
+    }
+
+    /** 0..1 */
+    public static float getProgreso() {
+        encolar();
+        return AtlasJuego.get().getAssetManager().getProgress();
+    }
+
+    public static boolean terminada() {
+        return encolada && AtlasJuego.get().getAssetManager().isFinished();
+    }
+
+    // =====================
+    // Residentes
+    // =====================
+
+    public static TiledMap mapa() {
+        return obtener(RUTA_MAPA);
+    }
+
+    /** Compartida: NO hacer dispose desde las pantallas. */
+    public static Skin skin() {
+        return obtener(RUTA_SKIN);
+    }
+
+    /** Un solo renderer del TMX para toda la app (setView por frame, sin estado de nivel). */
+    public static OrthogonalTiledMapRenderer rendererMapa() {
+        if (rendererMapa == null) rendererMapa = new OrthogonalTiledMapRenderer(mapa(), 1f);
+        return rendererMapa;
+    }
+
+    /**
+     * Tiles del TMX horneados por sala (SpriteCache). Se arma en la carga del primer nivel y queda
+     * residente: el mapa es el mismo en todos los niveles.
+     * @return null con -Dmapa.tilesCacheados=false (se dibuja con rendererMapa())
+     */
+    public static TilesPorSala tilesPorSala() {
+        if (!Boolean.parseBoolean(System.getProperty("mapa.tilesCacheados", "true"))) return null;
+        if (tilesPorSala == null) tilesPorSala = new TilesPorSala(mapa());
+        return tilesPorSala;
+    }
+
+    /**
+     * Grillas de navegación del TMX (capa de colisión). Igual que en el server: se arma una vez
+     * y queda residente, porque las paredes son las mismas en todos los niveles.
+     */
+    public static NavegacionSalas navegacion() {
+        if (navegacion == null) navegacion = NavegacionSalas.desdeMapa(mapa());
+        return navegacion;
+    }
+
+    /** Fuente por defecto del HUD (compartida entre niveles). */
+    public static BitmapFont fuenteHud() {
+        if (fuenteHud == null) fuenteHud = new BitmapFont();
+        return fuenteHud;
+    }
+
+    private static <T> T obtener(String ruta) {
+        encolar();
+        AssetManager am = AtlasJuego.get().getAssetManager();
+        return am.isLoaded(ruta) ? am.get(ruta) : am.finishLoadingAsset(ruta);
+    }
+
+    /** Sprites que siempre usa una partida (en modo atlas no hace falta: van en la misma página). */
+    private static List<String> spritesFijos() {
+        List<String> nombres = new ArrayList<>();
+        for (String g : new String[] { "jugador_fem", "jugador_masc" }) {
+            nombres.add("Jugadores/" + g + "_quieto");
+            nombres.add("Jugadores/" + g + "_movimiento");
+            nombres.add("Jugadores/" + g + "_muerte");
+        }
+        nombres.add("Botones/boton_rojo");
+        nombres.add("Botones/boton_azul");
+        nombres.add("Puertas/puerta_abierta");
+        nombres.add("Puertas/puerta_cerrada");
+        nombres.add("Trampilla/trampilla");
+        nombres.add("Hud/corazon_lleno");
+        nombres.add("Hud/corazon_vacio");
+        nombres.add("Hud/slot");
+        for (ItemTipo t : ItemTipo.values()) nombres.add(AtlasJuego.regionItem(t));
+        return nombres;
+    }
+
+    /** Al cerrar la app. */
+    public static void liberar() {
+        if (rendererMapa != null) { rendererMapa.dispose(); rendererMapa = null; }
+        if (fuenteHud != null) { fuenteHud.dispose(); fuenteHud = null; }
+        if (tilesPorSala != null) { tilesPorSala.dispose(); tilesPorSala = null; }
+        navegacion = null;
+        encolada = false;
+        AtlasJuego.liberar();
+    }
+}
@@ -0,0 +1,191 @@
+package red;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Buffer de snapshots remotos por id de entidad (jugadores o enemigos).
+ *
+ * El cliente guarda cada UpdatePosition/UpdateEnemy con su tiempo de recepción (espaciado
+ * al menos medio intervalo del server, para que las ráfagas no inventen velocidades) y dibuja la entidad "en el pasado" (retraso de render), interpolando linealmente
+ * entre los dos snapshots que rodean ese instante. Si faltan paquetes, extrapola
+ * con la última velocidad conocida durante un tiempo acotado y después se queda quieta.
+ *
+ * Usar una instancia por espacio de ids (una para jugadores, otra para enemigos).
+ * No es thread-safe: registrar y muestrear desde el mismo hilo (el de render).
+ */
+public final class InterpolacionSnapshots {
+
+    public static final long RETRASO_RENDER_NS_DEFECTO = 100_000_000L;     // 100 ms
+    public static final long EXTRAPOLACION_MAX_NS_DEFECTO = 250_000_000L;  // 250 ms
+    public static final float DISTANCIA_TELEPORT_DEFECTO = 96f;            // px (cambio de sala, respawn)
+    public static final long INTERVALO_SNAPSHOT_NS_DEFECTO = 50_000_000L;  // 50 ms (NET_HZ = 20 del server)
+    public static final float VELOCIDAD_MAX_DEFECTO = 400f;                // px/s (jugador: 100)
+
+    private static final int CAPACIDAD = 16;
+
+    private final long retrasoRenderNs;
+    private final long extrapolacionMaxNs;
+    private final float distanciaTeleport2;
+    private final long separacionMinNs;
+    private final float velocidadMax;
+
+    private final Map<Integer, Historial> historiales = new HashMap<>();
+
+    public InterpolacionSnapshots() {
+        this(RETRASO_RENDER_NS_DEFECTO, EXTRAPOLACION_MAX_NS_DEFECTO, DISTANCIA_TELEPORT_DEFECTO);
+    }
+
+    public InterpolacionSnapshots(long retrasoRenderNs, long extrapolacionMaxNs, float distanciaTeleport) {
+        this(retrasoRenderNs, extrapolacionMaxNs, distanciaTeleport, INTERVALO_SNAPSHOT_NS_DEFECTO, VELOCIDAD_MAX_DEFECTO);
+    }
+
+    /**
+     * @param intervaloSnapshotNs cadencia con la que manda el server: dos snapshots nunca quedan a
+     *                            menos de la mitad de esto (las ráfagas tras un tirón se espacian)
+     * @param velocidadMax        tope de la velocidad derivada para extrapolar (px/s)
+     */
+    public InterpolacionSnapshots(long retrasoRenderNs, long extrapolacionMaxNs, float distanciaTeleport,
+                                  long intervaloSnapshotNs, float velocidadMax) {
+        if (retrasoRenderNs < 0) throw new IllegalArgumentException("retrasoRenderNs < 0");
+        if (extrapolacionMaxNs < 0) throw new IllegalArgumentException("extrapolacionMaxNs < 0");
+        if (intervaloSnapshotNs <= 0) throw new IllegalArgumentException("intervaloSnapshotNs <= 0");
+        if (velocidadMax < 0f) throw new IllegalArgumentException("velocidadMax < 0");
+        this.retrasoRenderNs = retrasoRenderNs;
+        this.extrapolacionMaxNs = extrapolacionMaxNs;
+        this.distanciaTeleport2 = distanciaTeleport * distanciaTeleport;
+        this.separacionMinNs = Math.max(1L, intervaloSnapshotNs / 2);
+        this.velocidadMax = velocidadMax;
+    }
+
+    /** Registra un snapshot recibido. tiempoRecepcionNs debe venir de System.nanoTime(). */
+    public void registrar(int id, float x, float y, long tiempoRecepcionNs) {
+        Historial h = historiales.get(id);
+        if (h == null) {
+            h = new Historial();
+            historiales.put(id, h);
+        }
+        h.agregar(x, y, tiempoRecepcionNs, separacionMinNs, distanciaTeleport2);
+    }
+
+    /**
+     * Calcula la posición a dibujar para el id en el instante ahoraNs.
+     * @return false si todavía no hay ningún snapshot para ese id (out queda intacto)
+     */
+    public boolean muestrear(int id, long ahoraNs, Vector2 out) {
+        Historial h = historiales.get(id);
+        if (h == null || h.cantidad == 0) return false;
+        h.muestrear(ahoraNs - retrasoRenderNs, extrapolacionMaxNs, velocidadMax, out);
+        return true;
+    }
+
+    /**
+     * Cuánto pasó el instante de render (ahoraNs - retraso) al último snapshot del id.
+     * <= 0: se está interpolando; entre 0 y extrapolacionMax: extrapolando; más: quieta.
+     * Long.MIN_VALUE si no hay snapshots. (Lo usan los bots de carga para medir si alcanza el NET_HZ.)
+     */
+    public long adelantoNs(int id, long ahoraNs) {
+        Historial h = historiales.get(id);
+        if (h == null || h.cantidad == 0) return Long.MIN_VALUE;
+        return ahoraNs - retrasoRenderNs - h.t[h.idx(h.cantidad - 1)];
+    }
+
+    public long getExtrapolacionMaxNs() {
+        return extrapolacionMaxNs;
+    }
+
+    public boolean contiene(int id) {
+        return historiales.containsKey(id);
+    }
+
+    /** Al recibir DespawnEnemy / fin de partida. */
+    public void quitar(int id) {
+        historiales.remove(id);
+    }
+
+    public void limpiar() {
+        historiales.clear();
+    }
+
+    // =====================
+    // Historial por entidad (ring buffer sin allocs por snapshot)
+    // =====================
+
+    private static final class Historial {
+        final long[] t = new long[CAPACIDAD];
+        final float[] x = new float[CAPACIDAD];
+        final float[] y = new float[CAPACIDAD];
+        int inicio = 0;
+        int cantidad = 0;
+
+        private int idx(int i) {
+            return (inicio + i) % CAPACIDAD;
+        }
+
+        void agregar(float px, float py, long tNs, long separacionMinNs, float distanciaTeleport2) {
+            if (cantidad > 0) {
+                int ult = idx(cantidad - 1);
+                // ✅ El tiempo es el de recepción, no el de envío: tras un tirón llegan varios juntos
+                // (microsegundos de diferencia) y dividir por eso dispara la velocidad. Forzamos una
+                // separación mínima de medio intervalo del server; el adelanto que eso genera se
+                // recupera solo, medio intervalo por paquete, cuando vuelve la cadencia normal.
+                long minimo = t[ult] + separacionMinNs;
+                if (tNs < minimo) tNs = minimo;
+
+                // salto grande = teletransporte: no interpolar a través de él
+                float ddx = px - x[ult];
+                float ddy = py - y[ult];
+                if (ddx * ddx + ddy * ddy > distanciaTeleport2) {
+                    inicio = 0;
+                    cantidad = 0;
+                }
+            }
+
+            if (cantidad == CAPACIDAD) {
+                inicio = (inicio + 1) % CAPACIDAD;
+                cantidad--;
+            }
+            int i = idx(cantidad);
+            t[i] = tNs;
+            x[i] = px;
+            y[i] = py;
+            cantidad++;
+        }
+
+        void muestrear(long tRender, long extrapolacionMaxNs, float velocidadMax, Vector2 out) {
+            // descartamos lo que ya quedó atrás, pero siempre dejamos 2 para poder extrapolar
+            while (cantidad >= 3 && t[idx(1)] <= tRender) {
+                inicio = (inicio + 1) % CAPACIDAD;
+                cantidad--;
+            }
+
+            int a = idx(0);
+            if (cantidad == 1 || tRender <= t[a]) {
+                out.set(x[a], y[a]);
+                return;
+            }
+
+            int b = idx(1);
+            if (tRender < t[b]) {
+                float alpha = (float) (tRender - t[a]) / (float) (t[b] - t[a]);
+                out.set(x[a] + (x[b] - x[a]) * alpha, y[a] + (y[b] - y[a]) * alpha);
+                return;
+            }
+
+            // ✅ paquetes perdidos/atrasados: seguimos con la última velocidad, acotada en tiempo y en módulo
+            float dtSeg = (t[b] - t[a]) / 1_000_000_000f;
+            float vx = (x[b] - x[a]) / dtSeg;
+            float vy = (y[b] - y[a]) / dtSeg;
+            float v2 = vx * vx + vy * vy;
+            if (v2 > velocidadMax * velocidadMax) {
+                float k = velocidadMax / (float) Math.sqrt(v2);
+                vx *= k;
+                vy *= k;
+            }
+            float pasadoSeg = Math.min(tRender - t[b], extrapolacionMaxNs) / 1_000_000_000f;
+            out.set(x[b] + vx * pasadoSeg, y[b] + vy * pasadoSeg);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package red;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recepción del cliente online en un hilo propio.
+ *
+ * - El hilo hace el receive bloqueante y decodifica cada datagrama a un slot de un ring
+ *   preasignado (un productor, un consumidor, sin locks). UpdatePosition/UpdateEnemy se
+ *   parsean directo de los bytes (sin String); el resto se guarda como texto.
+ * - El hilo de render llama aplicarPendientes() UNA vez por frame: aplica todo lo que llegó
+ *   en orden, pero de cada UpdatePosition/UpdateEnemy por id solo el último (después de un
+ *   tirón llegan ráfagas y las posiciones intermedias ya no sirven).
+ *
+ * Si el ring se llena (el render no drena) los datagramas nuevos se descartan y se cuentan.
+ * detener() interrumpe el receive, lo que cierra el canal (semántica de NIO).
+ *
+ * setVerificar(true) (lo usan los bots de carga): cada float parseado se compara contra
+ * Float.parseFloat y cada colapso contra una pasada O(n²) sin hash. Las diferencias se cuentan
+ * en getErroresParseo() / getErroresColapso(). Aloca: no es para el cliente real.
+ */
+public final class ReceptorCliente {
+
+    /** Lo que recibe el hilo de render por cada mensaje aplicado. */
+    public interface Consumidor {
+        void posicion(int playerNum, float x, float y, long tiempoRecepcionNs);
+        void enemigo(int id, float x, float y, long tiempoRecepcionNs);
+        void mensaje(String msg, long tiempoRecepcionNs);
+    }
+
+    public static final int CAPACIDAD_DEFECTO = 1024;
+
+    private static final int TIPO_POSICION = 0;
+    private static final int TIPO_ENEMIGO = 1;
+    private static final int TIPO_TEXTO = 2;
+
+    private static final byte[] PREFIJO_POSICION = "UpdatePosition:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREFIJO_ENEMIGO = "UpdateEnemy:".getBytes(StandardCharsets.US_ASCII);
+
+    private static final double[] POT10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final DatagramChannel canal;
+    private final SocketAddress servidor;
+    private final Thread hilo;
+
+    private volatile boolean corriendo = false;
+    private volatile Throwable error;
+
+    // =====================
+    // Ring (slots en arrays paralelos)
+    // =====================
+
+    private final int mascara;
+    private final int[] tipos;
+    private final int[] ids;
+    private final float[] xs;
+    private final float[] ys;
+    private final long[] tiempos;
+    private final String[] textos;
+
+    /** Publicado por el productor / liberado por el consumidor (lazySet: alcanza con orden release) */
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong leidos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+
+    // verificación (bots de carga)
+    private volatile boolean verificar = false;
+    private final AtomicLong verificados = new AtomicLong();
+    private final AtomicLong erroresParseo = new AtomicLong();
+    private long erroresColapso = 0L;
+
+    // solo productor
+    private final ByteBuffer entrada = ByteBuffer.allocate(2048);
+    private long escritosLocal = 0L;
+    private long leidosCache = 0L;
+    private float parseado;
+
+    // solo consumidor: colapso por (tipo, id) con marcas de generación (sin limpiar por frame)
+    private final boolean[] pisados;
+    private final long[] clavesVistas;
+    private final int[] marcasVistas;
+    private int marca = 0;
+    private long colapsados = 0L;
+
+    public ReceptorCliente(DatagramChannel canal, SocketAddress servidor) {
+        this(canal, servidor, CAPACIDAD_DEFECTO);
+    }
+
+    /**
+     * @param servidor si no es null, se ignoran datagramas de otro remitente
+     * @param capacidad slots del ring (se redondea a potencia de 2)
+     */
+    public ReceptorCliente(DatagramChannel canal, SocketAddress servidor, int capacidad) {
+        if (canal == null) throw new IllegalArgumentException("canal null");
+        if (capacidad <= 0) throw new IllegalArgumentException("capacidad <= 0");
+        this.canal = canal;
+        this.servidor = servidor;
+
+        int cap = Integer.highestOneBit(capacidad);
+        if (cap < capacidad) cap <<= 1;
+        mascara = cap - 1;
+        tipos = new int[cap];
+        ids = new int[cap];
+        xs = new float[cap];
+        ys = new float[cap];
+        tiempos = new long[cap];
+        textos = new String[cap];
+        pisados = new boolean[cap];
+        clavesVistas = new long[cap * 2]; // carga <= 0.5
+        marcasVistas = new int[cap * 2];
+
+        hilo = new Thread(this::correr, "ReceptorCliente");
+        hilo.setDaemon(true);
+    }
+
+    public void iniciar() throws IOException {
+        if (corriendo) return;
+        canal.configureBlocking(true);
+        corriendo = true;
+        hilo.start();
+    }
+
+    /** Frena el hilo y espera a que salga (el canal queda cerrado). */
+    public void detener() {
+        corriendo = false;
+        if (hilo == Thread.currentThread()) return;
+        hilo.interrupt();
+        try {
+            hilo.join(2000);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Error de E/S que terminó el hilo (null si terminó normal o sigue corriendo). */
+    public Throwable getError() {
+        return error;
+    }
+
+    /** Datagramas perdidos por ring lleno. */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /** UpdatePosition/UpdateEnemy que no se aplicaron porque llegó uno más nuevo del mismo id. */
+    public long getColapsados() {
+        return colapsados;
+    }
+
+    /** Activar antes de iniciar(). */
+    public void setVerificar(boolean verificar) {
+        this.verificar = verificar;
+    }
+
+    /** Floats comparados contra Float.parseFloat (solo con verificar). */
+    public long getVerificados() {
+        return verificados.get();
+    }
+
+    /** Floats en los que el parseo rápido no dio lo mismo que Float.parseFloat. */
+    public long getErroresParseo() {
+        return erroresParseo.get();
+    }
+
+    /** Slots en los que el colapso por hash no coincidió con la pasada O(n²) (leer desde el consumidor). */
+    public long getErroresColapso() {
+        return erroresColapso;
+    }
+
+    // =====================
+    // Consumidor (hilo de render, una vez por frame)
+    // =====================
+
+    /**
+     * Aplica todo lo recibido desde el frame anterior, en orden de llegada, salteando las
+     * posiciones pisadas por otra más nueva del mismo id.
+     * @return cantidad de mensajes entregados al consumidor
+     */
+    public int aplicarPendientes(Consumidor c) {
+        long desde = leidos.get();
+        long hasta = escritos.get();
+        if (desde == hasta) return 0;
+
+        // 1) de atrás para adelante: el primero que vemos de cada (tipo, id) es el último que llegó
+        nuevaMarca();
+        for (long s = hasta - 1; s >= desde; s--) {
+            int i = (int) s & mascara;
+            pisados[i] = tipos[i] != TIPO_TEXTO && !marcarVisto(clave(i));
+        }
+        if (verificar) verificarColapso(desde, hasta);
+
+        // 2) en orden de llegada
+        int aplicados = 0;
+        for (long s = desde; s < hasta; s++) {
+            int i = (int) s & mascara;
+            if (pisados[i]) {
+                colapsados++;
+                continue;
+            }
+            switch (tipos[i]) {
+                case TIPO_POSICION -> c.posicion(ids[i], xs[i], ys[i], tiempos[i]);
+                case TIPO_ENEMIGO -> c.enemigo(ids[i], xs[i], ys[i], tiempos[i]);
+                default -> {
+                    c.mensaje(textos[i], tiempos[i]);
+                    textos[i] = null;
+                }
+            }
+            aplicados++;
+        }
+
+        leidos.lazySet(hasta);
+        return aplicados;
+    }
+
+    private long clave(int i) {
+        return ((long) tipos[i] << 32) | (ids[i] & 0xFFFFFFFFL);
+    }
+
+    /** Un slot está pisado sii hay otro posterior con la misma (tipo, id). */
+    private void verificarColapso(long desde, long hasta) {
+        for (long s = desde; s < hasta; s++) {
+            int i = (int) s & mascara;
+            boolean esperado = false;
+            if (tipos[i] != TIPO_TEXTO) {
+                for (long t = s + 1; t < hasta && !esperado; t++) {
+                    int j = (int) t & mascara;
+                    esperado = tipos[j] != TIPO_TEXTO && clave(j) == clave(i);
+                }
+            }
+            if (esperado != pisados[i]) erroresColapso++;
+        }
+    }
+
+    private void nuevaMarca() {
+        if (++marca == 0) { // vuelta completa del int: reseteamos las marcas viejas
+            Arrays.fill(marcasVistas, 0);
+            marca = 1;
+        }
+    }
+
+    /** @return false si (tipo, id) ya estaba visto en esta pasada */
+    private boolean marcarVisto(long clave) {
+        int m = clavesVistas.length - 1;
+        int i = (int) (clave ^ (clave >>> 29)) * 0x9E3779B9 & m;
+        while (marcasVistas[i] == marca) {
+            if (clavesVistas[i] == clave) return false;
+            i = (i + 1) & m;
+        }
+        marcasVistas[i] = marca;
+        clavesVistas[i] = clave;
+        return true;
+    }
+
+    // =====================
+    // Productor (hilo propio)
+    // =====================
+
+    private void correr() {
+        try {
+            while (corriendo) {
+                entrada.clear();
+                SocketAddress remitente = canal.receive(entrada);
+                if (remitente == null) continue;
+                if (servidor != null && !servidor.equals(remitente)) continue;
+                entrada.flip();
+                encolar(System.nanoTime());
+            }
+        } catch (ClosedChannelException ignored) {
+            // detener() (ClosedByInterrupt / AsynchronousClose)
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            corriendo = false;
+        }
+    }
+
+    private void encolar(long ahoraNs) {
+        if (escritosLocal - leidosCache > mascara) {
+            leidosCache = leidos.get();
+            if (escritosLocal - leidosCache > mascara) {
+                descartados.incrementAndGet();
+                return;
+            }
+        }
+
+        int i = (int) escritosLocal & mascara;
+        byte[] b = entrada.array();
+        int fin = entrada.limit();
+
+        int tipo = TIPO_TEXTO;
+        int desde = -1;
+        if (empiezaCon(b, fin, PREFIJO_POSICION)) {
+            tipo = TIPO_POSICION;
+            desde = PREFIJO_POSICION.length;
+        } else if (empiezaCon(b, fin, PREFIJO_ENEMIGO)) {
+            tipo = TIPO_ENEMIGO;
+            desde = PREFIJO_ENEMIGO.length;
+        }
+
+        if (tipo != TIPO_TEXTO && !decodificarPosicion(b, desde, fin, i)) {
+            tipo = TIPO_TEXTO; // formato raro: que lo resuelva el consumidor
+        }
+        if (tipo == TIPO_TEXTO) {
+            textos[i] = new String(b, 0, fin, StandardCharsets.US_ASCII);
+        }
+        tipos[i] = tipo;
+        tiempos[i] = ahoraNs;
+
+        escritosLocal++;
+        escritos.lazySet(escritosLocal);
+    }
+
+    private static boolean empiezaCon(byte[] b, int fin, byte[] prefijo) {
+        if (fin < prefijo.length) return false;
+        for (int k = 0; k < prefijo.length; k++) {
+            if (b[k] != prefijo[k]) return false;
+        }
+        return true;
+    }
+
+    /** "id:x:y" desde b[desde..fin) al slot i. */
+    private boolean decodificarPosicion(byte[] b, int desde, int fin, int i) {
+        int id = 0;
+        int p = desde;
+        if (p >= fin) return false;
+        while (p < fin && b[p] != ':') {
+            int d = b[p] - '0';
+            if (d < 0 || d > 9) return false;
+            id = id * 10 + d;
+            p++;
+        }
+        if (p == desde || p >= fin) return false;
+
+        int finX = indiceDe(b, p + 1, fin, (byte) ':');
+        if (finX < 0 || !parsearFloat(b, p + 1, finX)) return false;
+        float x = parseado;
+        if (!parsearFloat(b, finX + 1, fin)) return false;
+
+        if (verificar) {
+            verificarFloat(b, p + 1, finX, x);
+            verificarFloat(b, finX + 1, fin, parseado);
+        }
+
+        ids[i] = id;
+        xs[i] = x;
+        ys[i] = parseado;
+        return true;
+    }
+
+    private void verificarFloat(byte[] b, int desde, int fin, float valor) {
+        verificados.incrementAndGet();
+        float esperado;
+        try {
+            esperado = Float.parseFloat(new String(b, desde, fin - desde, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            erroresParseo.incrementAndGet();
+            return;
+        }
+        if (Float.floatToIntBits(esperado) != Float.floatToIntBits(valor)) erroresParseo.incrementAndGet();
+    }
+
+    private static int indiceDe(byte[] b, int desde, int fin, byte c) {
+        for (int k = desde; k < fin; k++) {
+            if (b[k] == c) return k;
+        }
+        return -1;
+    }
+
+    /** Float.toString() sin allocs: [-]digitos[.digitos][E[-]digitos]. Deja el valor en 'parseado'. */
+    private boolean parsearFloat(byte[] b, int desde, int fin) {
+        int p = desde;
+        boolean negativo = p < fin && b[p] == '-';
+        if (negativo) p++;
+
+        long mantisa = 0L;
+        int digitos = 0;
+        int decimales = 0;
+        boolean enDecimales = false;
+        for (; p < fin; p++) {
+            byte c = b[p];
+            if (c == '.' && !enDecimales) {
+                enDecimales = true;
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9) break;
+            if (digitos >= 18) return false;
+            mantisa = mantisa * 10 + d;
+            if (mantisa != 0) digitos++;
+            if (enDecimales) decimales++;
+        }
+        if (p == desde || (negativo && p == desde + 1)) return false;
+
+        int exp = 0;
+        if (p < fin && (b[p] == 'E' || b[p] == 'e')) {
+            p++;
+            boolean expNeg = p < fin && b[p] == '-';
+            if (expNeg) p++;
+            int inicioExp = p;
+            for (; p < fin; p++) {
+                int d = b[p] - '0';
+                if (d < 0 || d > 9 || exp > 100) return false;
+                exp = exp * 10 + d;
+            }
+            if (p == inicioExp) return false;
+            if (expNeg) exp = -exp;
+        }
+        if (p != fin) return false;
+
+        exp -= decimales;
+        if (exp < -POT10.length + 1 || exp > POT10.length - 1) return false;
+        double v = (exp < 0) ? mantisa / POT10[-exp] : mantisa * POT10[exp];
+        parseado = (float) (negativo ? -v : v);
+        return true;
+    }
+}
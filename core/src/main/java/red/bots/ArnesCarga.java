@@ -0,0 +1,205 @@
+package red.bots;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import red.ReceptorCliente;
+import telemetria.HistogramaTiempos;
+
+/**
+ * Arnés de carga: N pares de bots contra servers en localhost (puertoBase, puertoBase+1, ...).
+ *
+ * - Todos los bots corren en UN hilo: un Selector para recibir y un frame a 60Hz para enviar.
+ *   (cientos de bots sin cientos de hilos: el que tiene que sufrir es el server, no el arnés)
+ * - Cada par va a su propio puerto: el server es de 2 jugadores por partida.
+ * - Mide del lado cliente (jitter, pérdida, tráfico) y CPU del proceso.
+ * - Los primeros cfg.botsConReceptor bots reciben con ReceptorCliente (como el cliente online) en
+ *   modo verificación: parseo contra Float.parseFloat y colapso contra una pasada sin hash.
+ *   Si hay diferencias, receptorOk() da false. Además muestrean su posición con InterpolacionSnapshots
+ *   (ver [interp] en el reporte).
+ */
+public final class ArnesCarga {
+
+    public static final class Config {
+        public int pares = 50;
+        public int segundos = 30;
+        public int puertoBase = 6000;
+        /** "aleatorio" o un guion tipo "R,R,U,0,L,D" */
+        public String guion = "aleatorio";
+        public long semilla = 1234L;
+        /** Cada cuántos frames (promedio) un bot pide RoomClear/NextLevel; 0 = nunca. */
+        public int framesEntrePedidos = 600;
+        /** Bots que reciben con ReceptorCliente (un hilo cada uno) en vez del Selector. */
+        public int botsConReceptor = 2;
+        /** Tasa de snapshots del server (-Dred.hz): período esperado para jitter/pérdida e interpolación. */
+        public int netHz = Integer.getInteger("red.hz", 20);
+    }
+
+    private static final long FRAME_NS = 16_666_667L;
+
+    private final Config cfg;
+    private final EstadisticasBots stats;
+    private final List<BotCliente> bots = new ArrayList<>();
+
+    private long cpuInicioNs;
+    private long wallInicioNs;
+    private double cpuPorcentaje;
+
+    public ArnesCarga(Config cfg) {
+        this.cfg = cfg;
+        this.stats = new EstadisticasBots(cfg.netHz);
+    }
+
+    public EstadisticasBots getEstadisticas() {
+        return stats;
+    }
+
+    /** Corre la carga en el hilo actual durante cfg.segundos (bloquea). */
+    public void correr() throws IOException {
+        InetAddress local = InetAddress.getLoopbackAddress();
+        ByteBuffer entrada = ByteBuffer.allocate(2048);
+
+        try (Selector selector = Selector.open()) {
+            for (int p = 0; p < cfg.pares; p++) {
+                InetSocketAddress servidor = new InetSocketAddress(local, cfg.puertoBase + p);
+                for (int j = 0; j < 2; j++) {
+                    DatagramChannel canal = DatagramChannel.open();
+                    canal.bind(new InetSocketAddress(local, 0));
+
+                    long semillaBot = cfg.semilla * 31L + p * 2L + j;
+                    GuionMovimiento guion = "aleatorio".equalsIgnoreCase(cfg.guion)
+                        ? GuionMovimiento.aleatorio(semillaBot, 30)
+                        : GuionMovimiento.guion(cfg.guion, 30);
+
+                    BotCliente bot = new BotCliente(canal, servidor, guion, stats, semillaBot, cfg.framesEntrePedidos);
+                    if (bots.size() < cfg.botsConReceptor) {
+                        bot.usarReceptor();
+                    } else {
+                        canal.configureBlocking(false);
+                        canal.register(selector, SelectionKey.OP_READ, bot);
+                    }
+                    bots.add(bot);
+                }
+            }
+
+            cpuInicioNs = cpuProcesoNs();
+            wallInicioNs = System.nanoTime();
+            long fin = wallInicioNs + cfg.segundos * 1_000_000_000L;
+            long proximo = wallInicioNs;
+            long frame = 0;
+
+            while (System.nanoTime() < fin) {
+                // 1) recibir todo lo que haya hasta el próximo frame
+                long espera = proximo - System.nanoTime();
+                if (espera > 0) selector.select(Math.max(1L, espera / 1_000_000L));
+                else selector.selectNow();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                long ahora = System.nanoTime();
+                while (it.hasNext()) {
+                    SelectionKey k = it.next();
+                    it.remove();
+                    BotCliente bot = (BotCliente) k.attachment();
+                    while (true) {
+                        entrada.clear();
+                        if (bot.getCanal().receive(entrada) == null) break;
+                        entrada.flip();
+                        bot.recibir(entrada, ahora);
+                    }
+                }
+
+                // 2) frame de envío
+                if (System.nanoTime() >= proximo) {
+                    for (BotCliente b : bots) {
+                        b.drenarReceptor(); // una vez por frame, como el render del cliente
+                        b.frame(frame);
+                    }
+                    frame++;
+                    proximo += FRAME_NS;
+                    // atrasados (GC / máquina saturada): no ráfagas, seguimos desde ahora
+                    if (System.nanoTime() - proximo > 5 * FRAME_NS) proximo = System.nanoTime();
+                }
+            }
+
+            long wall = System.nanoTime() - wallInicioNs;
+            long cpu = cpuProcesoNs() - cpuInicioNs;
+            int nucleos = Runtime.getRuntime().availableProcessors();
+            cpuPorcentaje = (wall > 0 && cpu >= 0) ? 100.0 * cpu / ((double) wall * nucleos) : -1.0;
+        } finally {
+            for (BotCliente b : bots) {
+                try { b.desconectar(); } catch (IOException ignored) {}
+                try { b.cerrar(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /** false si algún ReceptorCliente verificado difirió de Float.parseFloat o del colapso esperado. */
+    public boolean receptorOk() {
+        for (BotCliente b : bots) {
+            ReceptorCliente r = b.getReceptor();
+            if (r == null) continue;
+            if (r.getErroresParseo() > 0 || r.getErroresColapso() > 0 || r.getError() != null) return false;
+        }
+        return true;
+    }
+
+    /** Reporte final: bots + (si se pasan) histogramas de tick de los servers locales. */
+    public String reporte(List<HistogramaTiempos> ticksServers, long ticksExcedidos, long pasosDescartados) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("[carga] pares=").append(cfg.pares)
+          .append(" segundos=").append(cfg.segundos)
+          .append(" guion=").append(cfg.guion)
+          .append(String.format(" cpu=%.1f%% (%d núcleos)", cpuPorcentaje, Runtime.getRuntime().availableProcessors()))
+          .append('\n');
+        stats.reportar(sb);
+        reportarReceptores(sb);
+
+        if (ticksServers != null && !ticksServers.isEmpty()) {
+            HistogramaTiempos total = new HistogramaTiempos();
+            for (HistogramaTiempos h : ticksServers) total.sumar(h);
+            total.reportar(sb, "[servers] duracion tick");
+            sb.append("[servers] ticks excedidos=").append(ticksExcedidos)
+              .append(" descartados=").append(pasosDescartados)
+              .append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void reportarReceptores(StringBuilder sb) {
+        int n = 0;
+        long verificados = 0, errParseo = 0, errColapso = 0, colapsados = 0, descartados = 0;
+        for (BotCliente b : bots) {
+            ReceptorCliente r = b.getReceptor();
+            if (r == null) continue;
+            n++;
+            verificados += r.getVerificados();
+            errParseo += r.getErroresParseo();
+            errColapso += r.getErroresColapso();
+            colapsados += r.getColapsados();
+            descartados += r.getDescartados();
+        }
+        if (n == 0) return;
+        sb.append("[receptor] bots=").append(n)
+          .append(" floats verificados=").append(verificados)
+          .append(" errores parseo=").append(errParseo)
+          .append(" errores colapso=").append(errColapso)
+          .append(" colapsados=").append(colapsados)
+          .append(" descartados=").append(descartados)
+          .append('\n');
+    }
+
+    private static long cpuProcesoNs() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sun) return sun.getProcessCpuTime();
+        return -1L;
+    }
+}
@@ -0,0 +1,245 @@
+package red.bots;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import com.badlogic.gdx.math.Vector2;
+
+import red.InterpolacionSnapshots;
+import red.ReceptorCliente;
+
+/**
+ * Un cliente falso que habla el protocolo real por UDP:
+ * Connect:GENERO:ESTILO -> Connected:N -> Start -> Ready, y después Move a 60Hz,
+ * con RoomClearReq / NextLevelReq de vez en cuando (el server decide si corresponden).
+ * Responde Ping con Pong y al terminar manda Disconnect.
+ *
+ * Dos formas de recibir:
+ * - por defecto no tiene hilo propio: el ArnesCarga le entrega los datagramas (Selector) y le pide el frame;
+ * - con usarReceptor() recibe como el cliente online: ReceptorCliente (hilo + ring, parseo sin String y
+ *   colapso por id) y el arnés drena una vez por frame con aplicarPendientes(). Ahí el receptor corre en
+ *   modo verificación y no se cuentan bytes recibidos. Los recibidos suman también los colapsados (cuentan
+ *   datagramas, no mensajes aplicados) y estos bots NO alimentan intervalo/jitter/pérdida de snapshots:
+ *   con el colapso solo ven el último UpdatePosition de cada frame y eso parecería pérdida.
+ *   En cambio alimentan un InterpolacionSnapshots con su propia posición y lo muestrean una vez por
+ *   frame, como el render: así se mide si un NET_HZ de 10-15 alcanza.
+ */
+final class BotCliente implements ReceptorCliente.Consumidor {
+
+    private static final String SEP = ":";
+    private static final long FRAMES_REINTENTO_CONNECT = 60;
+
+    private final DatagramChannel canal;
+    private final InetSocketAddress servidor;
+    private final GuionMovimiento guion;
+    private final EstadisticasBots stats;
+    private final SplittableRandom rng;
+    private final int framesEntrePedidos;
+
+    private final ByteBuffer salida = ByteBuffer.allocate(256);
+    private final int[] mov = new int[2];
+
+    private int playerNum = 0;
+    private boolean enPartida = false;
+    private String sala = "INICIO_1";
+    private long ultimoSnapshotNs = 0L;
+    private String prefijoPropio = null;
+
+    private ReceptorCliente receptor;
+    private long colapsadosContados = 0L;
+    private InterpolacionSnapshots interpolacion;
+    private final Vector2 muestra = new Vector2();
+
+    BotCliente(DatagramChannel canal, InetSocketAddress servidor, GuionMovimiento guion,
+               EstadisticasBots stats, long semilla, int framesEntrePedidos) {
+        this.canal = canal;
+        this.servidor = servidor;
+        this.guion = guion;
+        this.stats = stats;
+        this.rng = new SplittableRandom(semilla);
+        this.framesEntrePedidos = Math.max(0, framesEntrePedidos);
+    }
+
+    DatagramChannel getCanal() {
+        return canal;
+    }
+
+    boolean estaEnPartida() {
+        return enPartida;
+    }
+
+    /** Pasa a recibir con ReceptorCliente (canal bloqueante, NO registrarlo en un Selector). */
+    void usarReceptor() throws IOException {
+        receptor = new ReceptorCliente(canal, servidor);
+        receptor.setVerificar(true);
+        interpolacion = new InterpolacionSnapshots(InterpolacionSnapshots.RETRASO_RENDER_NS_DEFECTO,
+            InterpolacionSnapshots.EXTRAPOLACION_MAX_NS_DEFECTO, InterpolacionSnapshots.DISTANCIA_TELEPORT_DEFECTO,
+            stats.periodoSnapshotNs, InterpolacionSnapshots.VELOCIDAD_MAX_DEFECTO);
+        receptor.iniciar();
+    }
+
+    /** null si recibe por el Selector del arnés. */
+    ReceptorCliente getReceptor() {
+        return receptor;
+    }
+
+    /** Entrega lo que juntó el receptor desde el frame anterior (hilo del arnés). */
+    void drenarReceptor() {
+        if (receptor == null) return;
+        receptor.aplicarPendientes(this);
+
+        // los colapsados también llegaron: sumarlos para que recibidos cuente datagramas
+        long colapsados = receptor.getColapsados();
+        stats.paquetesRecibidos.add(colapsados - colapsadosContados);
+        colapsadosContados = colapsados;
+
+        muestrearInterpolacion(System.nanoTime());
+    }
+
+    /** Un muestreo por frame del propio jugador; cuenta en qué estado quedó el render. */
+    private void muestrearInterpolacion(long ahoraNs) {
+        if (!enPartida || prefijoPropio == null) return;
+        if (!interpolacion.muestrear(playerNum, ahoraNs, muestra)) return;
+
+        long adelanto = interpolacion.adelantoNs(playerNum, ahoraNs);
+        if (adelanto <= 0) stats.framesInterpolados.increment();
+        else if (adelanto <= interpolacion.getExtrapolacionMaxNs()) stats.framesExtrapolados.increment();
+        else stats.framesCongelados.increment();
+    }
+
+    /** Frena el receptor (si hay) y cierra el canal. Llamar después de desconectar(). */
+    void cerrar() throws IOException {
+        if (receptor != null) receptor.detener();
+        canal.close();
+    }
+
+    // =====================
+    // Envío (un frame)
+    // =====================
+
+    void frame(long frame) throws IOException {
+        if (playerNum == 0) {
+            if (frame % FRAMES_REINTENTO_CONNECT == 0) {
+                enviar("Connect:" + (rng.nextBoolean() ? "MASCULINO" : "FEMENINO") + ":CLASICO");
+            }
+            return;
+        }
+        if (!enPartida) return;
+
+        guion.mover(frame, mov);
+        enviar("Move:" + mov[0] + SEP + mov[1]); // el cliente real repite el input cada frame
+
+        if (framesEntrePedidos > 0 && rng.nextInt(framesEntrePedidos) == 0) {
+            if (rng.nextBoolean()) enviar("RoomClearReq:" + sala);
+            else enviar("NextLevelReq");
+        }
+    }
+
+    /** Libera el slot en el server (si estaba conectado). */
+    void desconectar() throws IOException {
+        if (playerNum == 0) return;
+        enviar("Disconnect");
+        playerNum = 0;
+        enPartida = false;
+        prefijoPropio = null;
+    }
+
+    private void enviar(String msg) throws IOException {
+        salida.clear();
+        for (int i = 0; i < msg.length(); i++) salida.put((byte) msg.charAt(i)); // protocolo ASCII
+        salida.flip();
+        int n = canal.send(salida, servidor);
+        stats.paquetesEnviados.increment();
+        stats.bytesEnviados.add(n);
+    }
+
+    // =====================
+    // Recepción
+    // =====================
+
+    void recibir(ByteBuffer datos, long ahoraNs) throws IOException {
+        stats.paquetesRecibidos.increment();
+        stats.bytesRecibidos.add(datos.remaining());
+
+        procesar(StandardCharsets.US_ASCII.decode(datos).toString(), ahoraNs);
+    }
+
+    // ReceptorCliente.Consumidor (hilo del arnés, dentro de drenarReceptor)
+
+    @Override
+    public void posicion(int num, float x, float y, long tiempoRecepcionNs) {
+        // sin snapshotPropio: tras el colapso un intervalo de varios períodos no es pérdida
+        stats.paquetesRecibidos.increment();
+        if (prefijoPropio != null && num == playerNum) interpolacion.registrar(num, x, y, tiempoRecepcionNs);
+    }
+
+    @Override
+    public void enemigo(int id, float x, float y, long tiempoRecepcionNs) {
+        stats.paquetesRecibidos.increment();
+    }
+
+    @Override
+    public void mensaje(String msg, long tiempoRecepcionNs) {
+        stats.paquetesRecibidos.increment();
+        try {
+            procesar(msg, tiempoRecepcionNs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void procesar(String msg, long ahoraNs) throws IOException {
+        // camino caliente: snapshot propio
+        if (prefijoPropio != null && msg.startsWith(prefijoPropio)) {
+            stats.snapshotPropio(ultimoSnapshotNs, ahoraNs);
+            ultimoSnapshotNs = ahoraNs;
+            return;
+        }
+
+        int fin = msg.indexOf(':');
+        String tipo = (fin < 0) ? msg : msg.substring(0, fin);
+        String[] partes;
+
+        switch (tipo) {
+            case "Connected":
+                partes = msg.split(SEP);
+                if (partes.length >= 2) {
+                    playerNum = Integer.parseInt(partes[1].trim());
+                    prefijoPropio = "UpdatePosition:" + playerNum + SEP;
+                }
+                break;
+            case "Ping":
+                enviar((fin < 0) ? "Pong" : "Pong" + msg.substring(fin));
+                break;
+            case "Full":
+                stats.rechazados.increment();
+                break;
+            case "Start":
+                // nuevo nivel: el cliente recrea su mundo y avisa que está listo
+                enPartida = true;
+                sala = "INICIO_1";
+                ultimoSnapshotNs = 0L;
+                if (interpolacion != null) interpolacion.limpiar(); // mundo nuevo: no interpolar desde el nivel anterior
+                stats.partidasIniciadas.increment();
+                enviar("Ready:" + playerNum);
+                break;
+            case "UpdateRoom":
+                partes = msg.split(SEP);
+                if (partes.length >= 2) sala = partes[1];
+                break;
+            case "GameOver":
+            case "Win":
+                enPartida = false;
+                playerNum = 0;        // el server resetea el lobby: volvemos a conectar
+                prefijoPropio = null;
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package red.bots;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+
+import server.GameControllerImpl;
+import server.MotorTicks;
+import server.ServerThread;
+import telemetria.HistogramaTiempos;
+import telemetria.Log;
+
+/**
+ * App sin render para pruebas de carga: levanta un server por par de bots (puertos consecutivos,
+ * mismo backend que ServerApp, sin grabación) y corre el ArnesCarga contra ellos en localhost.
+ *
+ * Con servidoresLocales=false solo corre los bots (contra servers ya levantados en esos puertos).
+ *
+ * Pensada para el backend headless (sin ventana ni GL): su loop corre los postRunnable que usan
+ * los servers (avance de nivel, fin de partida por abandono). esperarFin() bloquea hasta el dispose.
+ */
+public class CargaApp extends ApplicationAdapter {
+
+    private static final Log.Categoria LOG = Log.categoria("CARGA");
+
+    private final ArnesCarga.Config cfg;
+    private final boolean servidoresLocales;
+
+    private final List<ServerThread> servers = new ArrayList<>();
+    private final List<GameControllerImpl> juegos = new ArrayList<>();
+    private final List<TiledMap> mapas = new ArrayList<>();
+    private final CountDownLatch fin = new CountDownLatch(1);
+
+    private volatile String reporte = "";
+    private volatile boolean ok = false;
+
+    public CargaApp(ArnesCarga.Config cfg, boolean servidoresLocales) {
+        this.cfg = cfg;
+        this.servidoresLocales = servidoresLocales;
+    }
+
+    public boolean terminoBien() {
+        return ok;
+    }
+
+    public String getReporte() {
+        return reporte;
+    }
+
+    /** Bloquea hasta que la app terminó (dispose incluido). */
+    public void esperarFin() throws InterruptedException {
+        fin.await();
+    }
+
+    @Override
+    public void create() {
+        if (servidoresLocales) {
+            // ✅ un TiledMap por server: cada hilo de física recorre solo el suyo
+            //    (los iteradores cacheados de libGDX no son thread-safe y no tocamos Collections global)
+            TmxMapLoader loader = new TmxMapLoader();
+            for (int i = 0; i < cfg.pares; i++) {
+                TiledMap map = loader.load("TMX/mapa.tmx");
+                mapas.add(map);
+
+                GameControllerImpl game = new GameControllerImpl();
+                game.setTiledMap(map);
+
+                ServerThread server = new ServerThread(game, cfg.puertoBase + i);
+                game.setServer(server);
+                server.start();
+
+                juegos.add(game);
+                servers.add(server);
+            }
+            LOG.info(cfg.pares + " servers en puertos " + cfg.puertoBase + ".." + (cfg.puertoBase + cfg.pares - 1));
+        }
+
+        // Los bots corren fuera del hilo de la app: tiene que quedar libre para startGame() y los postRunnable
+        Thread hilo = new Thread(this::correrCarga, "ArnesCarga");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void correrCarga() {
+        ArnesCarga arnes = new ArnesCarga(cfg);
+        try {
+            arnes.correr();
+
+            List<HistogramaTiempos> ticks = new ArrayList<>();
+            long excedidos = 0;
+            long descartados = 0;
+            for (GameControllerImpl g : juegos) {
+                MotorTicks m = g.getMotorTicks();
+                ticks.add(m.getDuracionTick());
+                excedidos += m.getTicksExcedidos();
+                descartados += m.getPasosDescartados();
+            }
+            reporte = arnes.reporte(ticks, excedidos, descartados);
+            ok = arnes.receptorOk();
+            if (!ok) LOG.error("ReceptorCliente no coincidió con Float.parseFloat / colapso esperado (ver [receptor])");
+        } catch (Exception e) {
+            LOG.error("La carga falló: " + e.getMessage(), e);
+        } finally {
+            Gdx.app.postRunnable(() -> Gdx.app.exit());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (ServerThread s : servers) s.terminate();
+        for (GameControllerImpl g : juegos) {
+            try { g.stop(); } catch (Exception ignored) {}
+        }
+        for (TiledMap m : mapas) m.dispose();
+        mapas.clear();
+        Log.vaciar();
+        fin.countDown();
+    }
+}
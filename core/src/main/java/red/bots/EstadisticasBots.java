@@ -0,0 +1,92 @@
+package red.bots;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import telemetria.HistogramaTiempos;
+
+/**
+ * Lo que miden los bots del lado cliente (agregado de todos).
+ *
+ * - Llegada de snapshots propios (UpdatePosition del mismo jugador): intervalo y jitter contra el período esperado.
+ * - Pérdida estimada: huecos en esa serie (un intervalo de 3 períodos = 2 snapshots perdidos).
+ *   Los huecos largos (cambio de nivel, pausa) no cuentan.
+ *   Solo los bots que reciben por el Selector: los de ReceptorCliente colapsan por frame y sesgarían la serie.
+ * - Paquetes y bytes enviados/recibidos.
+ * - Bots con ReceptorCliente: en qué estado quedó cada frame el render interpolado del propio jugador
+ *   (InterpolacionSnapshots). Con un NET_HZ bajo, si extrapola o se congela seguido, no alcanza.
+ */
+public final class EstadisticasBots {
+
+    private static final long HUECO_IGNORADO_NS = 1_000_000_000L;
+
+    /** Período con el que manda posiciones el server (1 / NET_HZ). */
+    final long periodoSnapshotNs;
+    private final int netHz;
+
+    final HistogramaTiempos intervalo = new HistogramaTiempos();
+    final HistogramaTiempos jitter = new HistogramaTiempos();
+
+    final LongAdder snapshotsRecibidos = new LongAdder();
+    final LongAdder snapshotsPerdidos = new LongAdder();
+    final LongAdder paquetesEnviados = new LongAdder();
+    final LongAdder bytesEnviados = new LongAdder();
+    final LongAdder paquetesRecibidos = new LongAdder();
+    final LongAdder bytesRecibidos = new LongAdder();
+    final LongAdder partidasIniciadas = new LongAdder();
+    final LongAdder rechazados = new LongAdder();
+
+    final LongAdder framesInterpolados = new LongAdder();
+    final LongAdder framesExtrapolados = new LongAdder();
+    final LongAdder framesCongelados = new LongAdder();
+
+    /** @param netHz tasa de snapshots del server (la misma -Dred.hz) */
+    EstadisticasBots(int netHz) {
+        this.netHz = Math.max(1, netHz);
+        this.periodoSnapshotNs = 1_000_000_000L / this.netHz;
+    }
+
+    /** @param anteriorNs llegada del snapshot anterior del mismo bot (0 si es el primero) */
+    void snapshotPropio(long anteriorNs, long ahoraNs) {
+        snapshotsRecibidos.increment();
+        if (anteriorNs == 0L) return;
+
+        long dt = ahoraNs - anteriorNs;
+        if (dt >= HUECO_IGNORADO_NS) return;
+
+        intervalo.registrarNs(dt);
+        jitter.registrarNs(Math.abs(dt - periodoSnapshotNs));
+
+        long perdidos = Math.round((double) dt / periodoSnapshotNs) - 1;
+        if (perdidos > 0) snapshotsPerdidos.add(perdidos);
+    }
+
+    public double getPerdidaPorcentaje() {
+        long rec = snapshotsRecibidos.sum();
+        long per = snapshotsPerdidos.sum();
+        return (rec + per) > 0 ? 100.0 * per / (rec + per) : 0.0;
+    }
+
+    public void reportar(StringBuilder sb) {
+        sb.append("[bots] partidas=").append(partidasIniciadas.sum())
+          .append(" rechazados=").append(rechazados.sum())
+          .append(" enviados=").append(paquetesEnviados.sum()).append(" (").append(bytesEnviados.sum()).append(" B)")
+          .append(" recibidos=").append(paquetesRecibidos.sum()).append(" (").append(bytesRecibidos.sum()).append(" B)")
+          .append('\n');
+        sb.append("[bots] snapshots=").append(snapshotsRecibidos.sum())
+          .append(" perdidos~").append(snapshotsPerdidos.sum())
+          .append(String.format(" (%.2f%%)", getPerdidaPorcentaje()))
+          .append('\n');
+        intervalo.reportar(sb, "[bots] intervalo snapshot");
+        jitter.reportar(sb, "[bots] jitter snapshot");
+
+        long interp = framesInterpolados.sum();
+        long extrap = framesExtrapolados.sum();
+        long congel = framesCongelados.sum();
+        long total = interp + extrap + congel;
+        if (total > 0) {
+            sb.append(String.format("[interp] hz=%d frames=%d interpolando=%.1f%% extrapolando=%.1f%% congelado=%.1f%%",
+                netHz, total, 100.0 * interp / total, 100.0 * extrap / total, 100.0 * congel / total))
+              .append('\n');
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package red.bots;
+
+import java.util.SplittableRandom;
+
+/**
+ * Qué input manda un bot en cada frame (dx, dy en -1..1, igual que el cliente real).
+ */
+@FunctionalInterface
+public interface GuionMovimiento {
+
+    /** Escribe dx en out[0] y dy en out[1] para el frame dado (60 por segundo). */
+    void mover(long frame, int[] out);
+
+    /** Direcciones al azar, cambiando cada framesPorCambio frames (a veces se queda quieto). */
+    static GuionMovimiento aleatorio(long semilla, int framesPorCambio) {
+        final SplittableRandom rng = new SplittableRandom(semilla);
+        final int cada = Math.max(1, framesPorCambio);
+        final int[] actual = new int[2];
+        return (frame, out) -> {
+            if (frame % cada == 0) {
+                actual[0] = rng.nextInt(3) - 1;
+                actual[1] = rng.nextInt(3) - 1;
+            }
+            out[0] = actual[0];
+            out[1] = actual[1];
+        };
+    }
+
+    /**
+     * Guion fijo en loop: "R,R,U,0,L,D" (R/L/U/D, combinaciones tipo "UR", "0" = quieto),
+     * cada paso dura framesPorPaso frames.
+     */
+    static GuionMovimiento guion(String pasos, int framesPorPaso) {
+        String[] tokens = pasos.split(",");
+        final int[][] dirs = new int[tokens.length][2];
+        for (int i = 0; i < tokens.length; i++) {
+            String t = tokens[i].trim().toUpperCase();
+            dirs[i][0] = (t.indexOf('R') >= 0 ? 1 : 0) - (t.indexOf('L') >= 0 ? 1 : 0);
+            dirs[i][1] = (t.indexOf('U') >= 0 ? 1 : 0) - (t.indexOf('D') >= 0 ? 1 : 0);
+        }
+        final int cada = Math.max(1, framesPorPaso);
+        return (frame, out) -> {
+            int[] d = dirs[(int) ((frame / cada) % dirs.length)];
+            out[0] = d[0];
+            out[1] = d[1];
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package server;
+
+/**
+ * Hacia dónde manda mensajes el GameController.
+ *
+ * En juego es el ServerThread (UDP). En el reproductor de partidas es un canal
+ * que solo cuenta mensajes: la simulación corre igual, sin red.
+ */
+public interface CanalSalida {
+
+    void sendMessageToAll(String message);
+
+    /** Envia un mensaje SOLO al cliente asociado a ese playerNum. */
+    void sendMessageToPlayer(int playerNum, String message);
+
+    /** Terminó la partida (GameOver/Victoria): se libera el lobby. */
+    void resetLobby();
+}
@@ -13,6 +13,13 @@ public class Client {
     private String genero = "MASCULINO";
     private String estilo = "CLASICO";
 
+    // Keepalive (solo lo toca el ServerThread)
+    private long ultimaActividadNs;
+    private int pingPendiente = 0;
+    private long pingEnviadoNs = 0L;
+    private long rttNs = -1L;
+    private boolean respondePing = false; // contestó al menos un Pong: recién ahí aplica el timeout en el lobby
+
     public Client(int num, InetAddress ip, int port) {
         this.num = num;
         this.ip = ip;
@@ -35,6 +42,27 @@ public class Client {
     public void setGenero(String genero) { if (genero != null && !genero.isBlank()) this.genero = genero; }
     public void setEstilo(String estilo) { if (estilo != null && !estilo.isBlank()) this.estilo = estilo; }
 
+    public long getUltimaActividadNs() { return ultimaActividadNs; }
+    public void marcarActividad(long ahoraNs) { this.ultimaActividadNs = ahoraNs; }
+
+    public long getRttNs() { return rttNs; }
+    public boolean respondePing() { return respondePing; }
+
+    public void registrarPing(int id, long enviadoNs) {
+        // si el anterior no volvió, se descarta: medimos contra el último
+        this.pingPendiente = id;
+        this.pingEnviadoNs = enviadoNs;
+    }
+
+    /** @return RTT en ns, o -1 si el Pong no corresponde al último Ping (tardío o repetido). */
+    public long registrarPong(int id, long ahoraNs) {
+        respondePing = true; // aunque sea tardío: el cliente implementa keepalive
+        if (id != pingPendiente || pingPendiente == 0) return -1L;
+        pingPendiente = 0;
+        rttNs = ahoraNs - pingEnviadoNs;
+        return rttNs;
+    }
+
     @Override
     public String toString() {
         return "Client{num=" + num + ", id=" + id + "}";
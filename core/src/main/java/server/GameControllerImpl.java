@@ -4,8 +4,10 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.IntArray;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 import fisica.ColisionesDesdeTiled;
@@ -14,27 +16,44 @@ import interfaces.GameController;
 import juego.inicializacion.InicializadorSensoresPuertas;
 import mapa.generacion.*;
 import mapa.model.*;
+import mapa.navegacion.NavegacionSalas;
 import mapa.puertas.DatosPuerta;
 import mapa.trampilla.DatosTrampilla;
+import server.replay.FormatoPartida;
+import server.replay.FuenteAleatoria;
+import server.replay.GrabadorPartida;
 import entidades.GestorDeEntidades;
+import entidades.RegistroHandles;
 import entidades.enemigos.Enemigo;
 import entidades.enemigos.EnemigosDesdeTiled;
 import entidades.items.Item;
+import entidades.items.ItemTipo;
 import entidades.datos.Estilo;
 import entidades.datos.Genero;
 import entidades.personajes.Jugador;
+import telemetria.EventosJfr;
+import telemetria.Log;
+import telemetria.Metricas;
 
 public class GameControllerImpl implements GameController {
 
+    private static final Log.Categoria LOG = Log.categoria("SERVER");
+
     private static final float DT = 1f / 60f;
     private static final float MOVE_SPEED = 160f;
-    private static final int NET_HZ = 20; // ✅ 20 updates/s (liviano y suficiente)
+    // ✅ 20 updates/s por defecto; con la interpolación del cliente alcanza 10-15 (-Dred.hz, medir con cargaBots --hz)
+    private static final int NET_HZ = Math.max(1, Math.min(60, Integer.getInteger("red.hz", 20)));
     private static final int HUD_HZ = 2;  // ✅ re-sync HUD cada 0.5s (UDP puede perder)
-    private ServerThread server;
+    private static final int TICKS_RED = Math.max(1, Math.round(1f / (DT * NET_HZ)));
+    private static final int TICKS_HUD = Math.max(1, Math.round(1f / (DT * HUD_HZ)));
+    private CanalSalida server;
 
     // ✅ fin de partida (GameOver) - evita disparar múltiples veces
     private volatile boolean gameOverDisparado = false;
 
+    // ✅ un jugador se fue: un startGame()/cambio de nivel ya encolado no debe revivir la partida
+    private volatile boolean partidaAbandonada = false;
+
     private World world;
     private Body b1, b2;
 
@@ -51,6 +70,19 @@ public class GameControllerImpl implements GameController {
     // ✅ Física corre en hilo dedicado
     private volatile Thread physicsThread = null;
 
+    // ✅ Ritmo del hilo de física + estadísticas de ticks (se acumulan entre niveles)
+    private final MotorTicks motorTicks = new MotorTicks((long) (DT * 1_000_000_000L), 5);
+
+    // ✅ Métricas del servidor (tráfico, colas, entidades por sala). Muestreo cada TICKS_METRICAS
+    private static final int TICKS_METRICAS = 60;
+    private final Metricas metricas = new Metricas();
+    private final int[] metricasEnemigos = new int[Habitacion.values().length];
+    private final int[] metricasItems = new int[Habitacion.values().length];
+
+    // contadores del snapshot en curso (solo hilo de física)
+    private int snapshotMensajes = 0;
+    private long snapshotBytes = 0L;
+
     // ==================================================
     // ✅ Stop modes
     // - fullReset=true  : fin de partida / reinicio total (borra jugadores)
@@ -58,13 +90,56 @@ public class GameControllerImpl implements GameController {
     // ==================================================
     private volatile boolean stopFullReset = true;
 
-    // ✅ Red: snapshots a tasa fija
-    private volatile long nextNetSendNs = 0L;
-    private volatile long nextHudSendNs = 0L;
+    // ✅ Tick de simulación: cuenta toda la partida (no se reinicia al pasar de nivel).
+    // Cooldowns y tasas de red van en ticks (no en reloj) => la partida se puede reproducir igual.
+    private long tickActual = 0L;
+
+    // ✅ Red: snapshots a tasa fija (en ticks)
+    private long proximoTickRed = 0L;
+    private long proximoTickHud = 0L;
+
+    // ✅ Loop externo: el que llama tick() es otro (reproductor), no el hilo de física
+    private boolean loopExterno = false;
+
+    // =====================
+    // Grabación / replay
+    // =====================
+    private GrabadorPartida grabador;
+    private FuenteAleatoria fuente = FuenteAleatoria.sistema();
+    private long ultimoChecksum = 0L;
+
+    // Comandos de clientes: llegan por el hilo de red y se aplican al inicio del tick (orden determinista)
+    private static final class ComandoCliente {
+        static final int MOVE = 0;
+        static final int SPAWN = 1;
+        static final int ROOM_CLEAR = 2;
+        static final int NEXT_LEVEL = 3;
+
+        final int tipo;
+        final int playerNum;
+        final int dx, dy;
+        final float x, y;
+        final Habitacion sala;
+
+        ComandoCliente(int tipo, int playerNum, int dx, int dy, float x, float y, Habitacion sala) {
+            this.tipo = tipo;
+            this.playerNum = playerNum;
+            this.dx = dx;
+            this.dy = dy;
+            this.x = x;
+            this.y = y;
+            this.sala = sala;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<ComandoCliente> comandosEntrantes = new ConcurrentLinkedQueue<>();
 
     // ✅ map pre-cargado en hilo GL
     private TiledMap map;
 
+    // ✅ grillas de navegación: el mapa no cambia entre niveles, se construyen una vez
+    private NavegacionSalas navegacion;
+
     // =====================
     // Config de partida (para puertas autoritativas)
     // =====================
@@ -84,18 +159,21 @@ public class GameControllerImpl implements GameController {
     // Items (server-driven)
     // =====================
     private GestorDeEntidades gestorEntidades;
-    private final IdentityHashMap<Item, Integer> idPorItem = new IdentityHashMap<>();
-    private final HashMap<Integer, Item> itemPorId = new HashMap<>();
-    private int nextItemId = 1;
+    // ✅ ids de red = handles con generación (id <-> item en O(1), sin boxing)
+    private final RegistroHandles<Item> registroItems = new RegistroHandles<>();
+    private static final int FLAG_PICKUP_ENCOLADO = 1;
 
     // =====================
     // Enemigos (server-driven)
     // =====================
-    private final IdentityHashMap<Enemigo, Integer> idPorEnemigo = new IdentityHashMap<>();
-    private final HashMap<Integer, Enemigo> enemigoPorId = new HashMap<>();
-    private int nextEnemyId = 1;
+    private final RegistroHandles<Enemigo> registroEnemigos = new RegistroHandles<>();
     private final HashSet<Habitacion> salasConEnemigos = new HashSet<>();
 
+    // =====================
+    // Interest management (qué replica cada cliente)
+    // =====================
+    private final InteresPorCliente interes = new InteresPorCliente();
+
     // =====================
     // Daño (server-driven)
     // =====================
@@ -105,7 +183,7 @@ public class GameControllerImpl implements GameController {
     }
 
     private final ArrayDeque<PendingDamage> pendingDamages = new ArrayDeque<>();
-    private final HashSet<Integer> damagesEncolados = new HashSet<>();
+    private int damagesEncolados = 0; // bit por playerNum
     private static final float HIT_COOLDOWN_S = 0.60f;
 
     private static final class PendingPickup {
@@ -118,11 +196,10 @@ public class GameControllerImpl implements GameController {
     }
 
     private final ArrayDeque<PendingPickup> pendingPickups = new ArrayDeque<>();
-    private final HashSet<Integer> pickupsEncolados = new HashSet<>();
 
     // Anti-retrigger de puertas (el contacto puede disparar varias veces)
-    private long lastDoorNs = 0L;
-    private static final long DOOR_COOLDOWN_NS = 400_000_000L; // 400ms
+    private static final int DOOR_COOLDOWN_TICKS = 24; // 400ms
+    private long ultimoTickPuerta = -DOOR_COOLDOWN_TICKS;
 
     // ✅ Nunca teletransportar/modificar cuerpos dentro de callbacks de Box2D.
     // Encolamos la transición y la procesamos fuera del step para evitar crashes nativos.
@@ -162,31 +239,97 @@ private static class PendingRoomClear {
     private Habitacion salaTrampilla;
     private volatile boolean advanceLevelRequested = false;
     private volatile boolean advancingLevelNow = false;
-    private long lastAdvanceNs = 0L;
-    private static final long ADVANCE_COOLDOWN_NS = 1_000_000_000L; // 1s
+    private static final int ADVANCE_COOLDOWN_TICKS = 60; // 1s
+    private long ultimoTickAvance = -ADVANCE_COOLDOWN_TICKS;
     private static final int NIVEL_MAX = 3;
 
 
     // ✅ temp para evitar alloc por frame
     private final Vector2 tmpVel = new Vector2();
 
-    public void setServer(ServerThread server) {
+    public void setServer(CanalSalida server) {
         this.server = server;
     }
 
+    /** Graba cada partida (desde configure() hasta stop()) en la carpeta del grabador. null = no grabar. */
+    public void setGrabador(GrabadorPartida grabador) {
+        this.grabador = grabador;
+    }
+
+    public void setFuenteAleatoria(FuenteAleatoria fuente) {
+        this.fuente = (fuente != null) ? fuente : FuenteAleatoria.sistema();
+    }
+
+    /**
+     * true: startGame() no levanta el hilo de física; el que llama avanza la simulación con tick().
+     * Los cambios de nivel se resuelven al final del tick (sin Gdx.app.postRunnable).
+     */
+    public void setLoopExterno(boolean loopExterno) {
+        this.loopExterno = loopExterno;
+    }
+
+    public long getTick() {
+        return tickActual;
+    }
+
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    /** Conteos que solo el hilo de física puede leer seguro: se publican a Metricas cada TICKS_METRICAS. */
+    private void muestrearMetricas() {
+        metricas.registrarProfundidad("danosPendientes", pendingDamages.size());
+        metricas.registrarProfundidad("pickupsPendientes", pendingPickups.size());
+        if (gestorEntidades == null) return;
+
+        Habitacion[] salas = Habitacion.values();
+        for (int i = 0; i < salas.length; i++) {
+            metricasEnemigos[i] = gestorEntidades.contarEnemigosDeSala(salas[i]);
+            metricasItems[i] = gestorEntidades.contarItemsDeSala(salas[i]);
+        }
+        metricas.publicarEntidadesPorSala(metricasEnemigos, metricasItems);
+    }
+
+    /** Estadísticas de ritmo del hilo de física (duración de tick, sobre-espera, steps descartados). */
+    public MotorTicks getMotorTicks() {
+        return motorTicks;
+    }
+
+    /** @return true mientras hay un mundo simulándose (false tras GameOver/Victoria). */
+    public boolean estaSimulando() {
+        return world != null;
+    }
+
+    public int getNivel() {
+        return nivelPartida;
+    }
+
     public void setTiledMap(TiledMap map) {
         this.map = map;
+        this.navegacion = null;
     }
 
         @Override
     public void configure(long seed, int nivel) {
         this.seedPartida = seed;
         this.nivelPartida = Math.max(1, nivel);
+        this.partidaAbandonada = false;
+
+        // ✅ nueva partida: reloj de ticks e input desde cero (así arranca también el replay)
+        tickActual = 0L;
+        ultimoTickPuerta = -DOOR_COOLDOWN_TICKS;
+        ultimoTickAvance = -ADVANCE_COOLDOWN_TICKS;
+        Arrays.fill(dx, 0);
+        Arrays.fill(dy, 0);
+        comandosEntrantes.clear();
+
+        if (grabador != null) grabador.iniciar(seedPartida, nivelPartida);
     }
 
 @Override
     public void startGame() {
-        System.out.println("[SERVER] Juego iniciado");
+        if (partidaAbandonada) return;
+        LOG.info("Juego iniciado nivel=" + nivelPartida);
 
         gameOverDisparado = false;
 
@@ -198,7 +341,7 @@ private static class PendingRoomClear {
         enviarHudAll();
 
         enviarPosiciones(true);
-        startLoop();
+        if (!loopExterno) startLoop();
     }
 
     private void initFisicaServidor() {
@@ -206,26 +349,39 @@ private static class PendingRoomClear {
             throw new IllegalStateException("TiledMap no seteado. Llamá setTiledMap(map) antes de startGame().");
         }
 
+        EventosJfr.InitFisica ev = new EventosJfr.InitFisica();
+        ev.begin();
+        try {
+            crearMundoDelNivel();
+        } finally {
+            if (ev.shouldCommit()) {
+                ev.nivel = nivelPartida;
+                ev.cuerpos = (world != null) ? world.getBodyCount() : 0;
+                ev.commit();
+            }
+        }
+    }
+
+    private void crearMundoDelNivel() {
+
         // ✅ limpiar estado por nivel
         salasDespejadas.clear();
         salasConEnemigos.clear();
 
-        idPorItem.clear();
-        itemPorId.clear();
-        nextItemId = 1;
-
-        idPorEnemigo.clear();
-        enemigoPorId.clear();
-        nextEnemyId = 1;
+        registroItems.limpiar();
+        registroEnemigos.limpiar();
 
         pendingDamages.clear();
-        damagesEncolados.clear();
+        damagesEncolados = 0;
         pendingPickups.clear();
-        pickupsEncolados.clear();
 
         pendingDoor = null;
         pendingRoomClear = null;
 
+        // primer snapshot / HUD inmediato
+        proximoTickRed = tickActual;
+        proximoTickHud = tickActual;
+
         limpiarTrampilla();
 
         if (world != null) {
@@ -250,6 +406,9 @@ private static class PendingRoomClear {
         disposicion = generador.generar();
         salaActual = disposicion.salaInicio();
 
+        // ✅ nuevo nivel: los clientes no conocen ninguna entidad todavía
+        interes.reiniciar(salaActual);
+
         // ✅ Spawn basado en sala INICIO (evita hardcodes que rompen entre niveles)
         Vector2 sp1 = calcularSpawnJugador(salaActual, 1);
         Vector2 sp2 = calcularSpawnJugador(salaActual, 2);
@@ -283,6 +442,10 @@ private static class PendingRoomClear {
 
         // ✅ Gestor de entidades en server (items + enemigos)
         gestorEntidades = new GestorDeEntidades(world);
+        if (navegacion == null) navegacion = NavegacionSalas.desdeMapa(map);
+        gestorEntidades.setNavegacion(navegacion);
+        // ✅ drops reproducibles: RNG propio del nivel, derivado de su semilla
+        gestorEntidades.setRngItems(ItemTipo.rngParaSemilla(seedPartida));
         // ✅ CRÍTICO: si el gestor es nuevo, hay que volver a registrar jugadores,
         // si no, el HUD/estado del cliente puede "volver a defaults".
         try { gestorEntidades.registrarJugador(j1); } catch (Exception ignored) {}
@@ -352,21 +515,18 @@ private static class PendingRoomClear {
         if (!(ud instanceof Item)) return;
 
         Item item = (Item) ud;
-        int itemId = idPorItem.getOrDefault(item, -1);
-        if (itemId <= 0) {
-            // si todavía no le asignamos id (spawn reciente), se lo asignamos acá
-            itemId = asignarIdItem(item);
-        }
+        // si todavía no le asignamos id (spawn reciente), se lo asignamos acá
+        int itemId = registroItems.registrar(item);
 
         // evita encolar muchas veces el mismo item
-        if (pickupsEncolados.contains(itemId)) return;
+        if (registroItems.tieneFlag(itemId, FLAG_PICKUP_ENCOLADO)) return;
 
         Object bUd = jugadorFx.getBody() != null ? jugadorFx.getBody().getUserData() : null;
         int playerNum = 1;
         if (bUd instanceof Jugador) playerNum = ((Jugador) bUd).getId();
         else if (bUd instanceof Integer) playerNum = (Integer) bUd;
 
-        pickupsEncolados.add(itemId);
+        registroItems.ponerFlag(itemId, FLAG_PICKUP_ENCOLADO);
         pendingPickups.addLast(new PendingPickup(playerNum, itemId));
     }
 
@@ -383,20 +543,12 @@ private static class PendingRoomClear {
         if (playerNum < 1 || playerNum > 2) return;
 
         // Evita encolar múltiples veces por frame
-        if (damagesEncolados.contains(playerNum)) return;
-        damagesEncolados.add(playerNum);
+        int bit = 1 << playerNum;
+        if ((damagesEncolados & bit) != 0) return;
+        damagesEncolados |= bit;
         pendingDamages.addLast(new PendingDamage(playerNum));
     }
 
-    private int asignarIdItem(Item item) {
-        Integer existing = idPorItem.get(item);
-        if (existing != null) return existing;
-        int id = nextItemId++;
-        idPorItem.put(item, id);
-        itemPorId.put(id, item);
-        return id;
-    }
-
     private Body crearJugadorBody(float px, float py) {
         BodyDef bd = new BodyDef();
         bd.type = BodyDef.BodyType.DynamicBody;
@@ -423,12 +575,17 @@ private static class PendingRoomClear {
     @Override
     public void move(int playerNum, int dx, int dy) {
         if (playerNum < 1 || playerNum > 2) return;
-        this.dx[playerNum] = dx;
-        this.dy[playerNum] = dy;
+        comandosEntrantes.add(new ComandoCliente(ComandoCliente.MOVE, playerNum, dx, dy, 0f, 0f, null));
     }
 
     @Override
     public void spawn(int playerNum, float px, float py) {
+        // ⚠️ viene desde el hilo de red => NO tocar Box2D acá. Se aplica al inicio del próximo tick.
+        if (playerNum < 1 || playerNum > 2) return;
+        comandosEntrantes.add(new ComandoCliente(ComandoCliente.SPAWN, playerNum, 0, 0, px, py, null));
+    }
+
+    private void aplicarSpawn(int playerNum, float px, float py) {
         Body b = (playerNum == 1) ? b1 : (playerNum == 2 ? b2 : null);
         if (b == null) return;
 
@@ -472,23 +629,85 @@ public void roomClearRequest(int playerNum, String sala) {
     if (sala == null || sala.isBlank()) return;
     try {
         Habitacion h = Habitacion.valueOf(sala.trim());
-        pendingRoomClear = new PendingRoomClear(playerNum, h);
+        comandosEntrantes.add(new ComandoCliente(ComandoCliente.ROOM_CLEAR, playerNum, 0, 0, 0f, 0f, h));
     } catch (IllegalArgumentException ignored) {}
 }
 
 @Override
 public void nextLevelRequest(int playerNum) {
+    comandosEntrantes.add(new ComandoCliente(ComandoCliente.NEXT_LEVEL, playerNum, 0, 0, 0f, 0f, null));
+}
+
+@Override
+public void jugadorDesconectado(int playerNum) {
+    LOG.info("P" + playerNum + " abandonó: se detiene la partida");
+    partidaAbandonada = true;
+    gameOverDisparado = true;
+
+    // ✅ No bloqueamos el hilo de red: stop() espera al hilo de física (join de hasta 2 s), así que
+    // lo corre el hilo principal, igual que el cambio de nivel. Hasta entonces tick() ya no simula.
+    if (loopExterno) {
+        detenerPorAbandono();
+        return;
+    }
+    Gdx.app.postRunnable(this::detenerPorAbandono);
+}
+
+private void detenerPorAbandono() {
+    try {
+        stop();
+    } catch (Throwable t) {
+        LOG.error("stop() falló: " + t.getMessage(), t);
+    }
+    // recién con el mundo liberado aceptamos una partida nueva
+    if (server != null) server.resetLobby();
+}
+
+private void aplicarNextLevelRequest() {
     // Fallback: sólo aceptamos si estamos en JEFE y está despejada.
     if (salaActual == null) return;
     if (!salaActual.name().startsWith("JEFE")) return;
     if (!salaEstaDespejada(salaActual)) return;
 
-    long now = System.nanoTime();
-    if (now - lastAdvanceNs < ADVANCE_COOLDOWN_NS) return;
-    lastAdvanceNs = now;
+    if (tickActual - ultimoTickAvance < ADVANCE_COOLDOWN_TICKS) return;
+    ultimoTickAvance = tickActual;
     advanceLevelRequested = true;
 }
 
+/** Aplica (y graba) los comandos de clientes que llegaron desde el tick anterior. */
+private void aplicarComandosEntrantes() {
+    ComandoCliente c;
+    int aplicados = 0;
+    while ((c = comandosEntrantes.poll()) != null) {
+        aplicados++;
+        int p = c.playerNum;
+        switch (c.tipo) {
+            case ComandoCliente.MOVE:
+                // el cliente repite el mismo input: no cambia nada, no se graba
+                if (dx[p] == c.dx && dy[p] == c.dy) break;
+                dx[p] = c.dx;
+                dy[p] = c.dy;
+                if (grabador != null) grabador.registrarMove(tickActual, p, c.dx, c.dy);
+                break;
+            case ComandoCliente.SPAWN:
+                if (grabador != null) grabador.registrarSpawn(tickActual, p, c.x, c.y);
+                aplicarSpawn(p, c.x, c.y);
+                break;
+            case ComandoCliente.ROOM_CLEAR:
+                if (grabador != null) grabador.registrarRoomClear(tickActual, p, c.sala.ordinal());
+                pendingRoomClear = new PendingRoomClear(p, c.sala);
+                break;
+            case ComandoCliente.NEXT_LEVEL:
+                if (grabador != null) grabador.registrarNextLevel(tickActual, p);
+                aplicarNextLevelRequest();
+                break;
+            default:
+                break;
+        }
+    }
+    metricas.registrarProfundidad("comandosPorTick", aplicados);
+}
+
 
 
     private void tryDoor(Fixture jugadorFx, Fixture otroFx) {
@@ -505,9 +724,8 @@ public void nextLevelRequest(int playerNum) {
         if (puerta.origen() != salaActual) return;
 
         // cooldown (evita disparos múltiples por el mismo contacto)
-        long now = System.nanoTime();
-        if (now - lastDoorNs < DOOR_COOLDOWN_NS) return;
-        lastDoorNs = now;
+        if (tickActual - ultimoTickPuerta < DOOR_COOLDOWN_TICKS) return;
+        ultimoTickPuerta = tickActual;
 
         Object bUd = jugadorFx.getBody() != null ? jugadorFx.getBody().getUserData() : null;
         int playerNum = 1;
@@ -539,9 +757,8 @@ public void nextLevelRequest(int playerNum) {
         if (!(ud instanceof DatosTrampilla)) return;
 
         // Anti-retrigger (múltiples beginContact seguidos)
-        long now = System.nanoTime();
-        if (now - lastAdvanceNs < ADVANCE_COOLDOWN_NS) return;
-        lastAdvanceNs = now;
+        if (tickActual - ultimoTickAvance < ADVANCE_COOLDOWN_TICKS) return;
+        ultimoTickAvance = tickActual;
 
         // Seguridad extra: solo permitir avanzar desde sala JEFE despejada
         if (salaActual == null) return;
@@ -556,120 +773,10 @@ public void nextLevelRequest(int playerNum) {
         if (running) return;
         running = true;
 
-        // ✅ Física a 60Hz en tiempo real + snapshots de red a tasa fija (NET_HZ).
+        // ✅ Física a 60Hz en tiempo real. Toda la lógica vive en tick(): este hilo solo marca el ritmo.
         Thread physicsThreadLocal = new Thread(() -> {
-            final long stepNs = (long) (DT * 1_000_000_000L);
-            final long netNs = 1_000_000_000L / NET_HZ;
-            final long hudNs = 1_000_000_000L / HUD_HZ;
-
-            long nextStep = System.nanoTime();
-            nextNetSendNs = nextStep; // primer snapshot inmediato
-            nextHudSendNs = nextStep; // primer HUD inmediato
-
             try {
-
-            while (running) {
-                if (world == null) break;
-
-                long now = System.nanoTime();
-
-                // Dormimos hasta el próximo step de física si vamos antes.
-                if (now < nextStep) {
-                    long sleepNs = nextStep - now;
-                    try {
-                        Thread.sleep(sleepNs / 1_000_000L, (int) (sleepNs % 1_000_000L));
-                    } catch (InterruptedException ignored) {}
-                    continue;
-                }
-
-                // Catch-up limitado (evita espiral de muerte si hay un spike)
-                int steps = 0;
-                while (now >= nextStep && steps < 5) {
-                    aplicarInputServidor();
-                    world.step(DT, 6, 2);
-
-                    // tick de estados/cooldowns autoritativos de jugador (iframes, cooldownDanio)
-                    if (j1 != null) j1.tick(DT);
-                    if (j2 != null) j2.tick(DT);
-
-                    nextStep += stepNs;
-                    steps++;
-                }
-
-                // ✅ Spawns de items (BOTIN) desde server (no cliente)
-                if (gestorEntidades != null && salaActual != null) {
-                    gestorEntidades.actualizar(DT, salaActual);
-                    enviarSpawnsItemsNuevos();
-                }
-
-                // ✅ Update de enemigos solo en la sala actual (AI simple)
-                if (gestorEntidades != null && salaActual != null) {
-                    actualizarEnemigosDeSalaActual(DT);
-                }
-
-                // ✅ Auto-clear dinámico para COMBATE/JEFE cuando ya no quedan enemigos.
-                checkAutoClearSalaActual();
-
-                // ✅ En JEFE: si la sala está despejada, spawneamos trampilla autoritativa.
-                actualizarTrampilla();
-
-                // ✅ Fin de nivel autoritativo
-                if (advanceLevelRequested) {
-                    advanceLevelRequested = false;
-                    solicitarAvanceNivel();
-                }
-
-                // ✅ Procesar transición de puerta fuera de callbacks de colisión.
-                PendingDoor pd = pendingDoor;
-                if (pd != null) {
-                    pendingDoor = null;
-
-                    // ✅ Si la sala actual está bloqueada (puzzle no resuelto), ignoramos la puerta.
-                    if (requiereSalaDespejada(salaActual) && !salaEstaDespejada(salaActual)) {
-                        // opcional: podríamos avisar a los clientes, pero con MVP alcanza con ignorar.
-                        continue;
-                    }
-
-                    // Ejecuta transición autoritativa (teleporta + UpdateRoom + snapshot)
-                    door(pd.playerNum, pd.origen.name(), pd.destino.name(), pd.direccion.name());
-
-                    // En tu juego ambos jugadores viajan juntos.
-                    salaActual = pd.destino;
-
-                    // ✅ Al entrar a una nueva sala, spawnea enemigos (si existen en Tiled)
-                    spawnearEnemigosDeSalaSiHaceFalta(salaActual);
-                }
-
-                // ✅ Procesar pickups fuera de callbacks
-                procesarPickupsPendientes();
-
-                // ✅ Procesar daño fuera de callbacks
-                procesarDaniosPendientes();
-
-                // ✅ Procesar sala despejada (puzzle resuelto) fuera de callbacks
-                procesarRoomClearPendiente();
-
-                // ✅ HUD re-sync (vida/inventario) a tasa fija
-                now = System.nanoTime();
-                if (now >= nextHudSendNs) {
-                    enviarHudAll();
-                    do {
-                        nextHudSendNs += hudNs;
-                    } while (now >= nextHudSendNs);
-                }
-
-                // Snapshot de red a tasa fija
-                now = System.nanoTime();
-                if (now >= nextNetSendNs) {
-                    enviarPosiciones(false);
-                    // avanza el siguiente tick sin drift
-                    do {
-                        nextNetSendNs += netNs;
-                    } while (now >= nextNetSendNs);
-                }
-
-            }
-
+                motorTicks.correr(() -> running && world != null, this::tick);
             } finally {
                 // ✅ Cleanup seguro: no dejamos un World vivo mientras otro hilo podría recrearlo.
                 try {
@@ -699,6 +806,184 @@ public void nextLevelRequest(int playerNum) {
             physicsThreadLocal.start();
 }
 
+    /**
+     * Un tick de simulación (DT fijo): comandos de clientes, step de física y lógica autoritativa.
+     * Lo llama el hilo de física o, con loop externo, el reproductor de partidas.
+     */
+    public void tick() {
+        EventosJfr.Tick ev = new EventosJfr.Tick();
+        ev.begin();
+        long tickInicio = tickActual;
+
+        tickSimulacion();
+
+        if (ev.shouldCommit()) {
+            ev.tick = tickInicio;
+            ev.sala = (salaActual != null) ? salaActual.name() : null;
+            ev.commit();
+        }
+    }
+
+    private void tickSimulacion() {
+        if (world == null) return;
+
+        // Cambio de nivel en curso: el mundo se va a reemplazar, no simulamos más este nivel
+        if (advancingLevelNow) return;
+
+        // Alguien se fue: el stop() ya está encolado en el hilo principal
+        if (partidaAbandonada) return;
+
+        aplicarComandosEntrantes();
+        aplicarInputServidor();
+
+        EventosJfr.StepFisica evStep = new EventosJfr.StepFisica();
+        evStep.begin();
+        world.step(DT, 6, 2);
+        if (evStep.shouldCommit()) {
+            evStep.tick = tickActual;
+            evStep.cuerpos = world.getBodyCount();
+            evStep.contactos = world.getContactCount();
+            evStep.commit();
+        }
+
+        // tick de estados/cooldowns autoritativos de jugador (iframes, cooldownDanio)
+        if (j1 != null) j1.tick(DT);
+        if (j2 != null) j2.tick(DT);
+
+        // ✅ Spawns de items (BOTIN) desde server (no cliente)
+        if (gestorEntidades != null && salaActual != null) {
+            gestorEntidades.actualizar(DT, salaActual);
+            enviarSpawnsItemsNuevos();
+        }
+
+        // ✅ Update de enemigos solo en la sala actual (AI simple)
+        if (gestorEntidades != null && salaActual != null) {
+            actualizarEnemigosDeSalaActual(DT);
+        }
+
+        // ✅ Auto-clear dinámico para COMBATE/JEFE cuando ya no quedan enemigos.
+        checkAutoClearSalaActual();
+
+        // ✅ En JEFE: si la sala está despejada, spawneamos trampilla autoritativa.
+        actualizarTrampilla();
+
+        // ✅ Fin de nivel autoritativo
+        if (advanceLevelRequested) {
+            advanceLevelRequested = false;
+            solicitarAvanceNivel();
+        }
+
+        // ✅ Procesar transición de puerta fuera de callbacks de colisión.
+        PendingDoor pd = pendingDoor;
+        if (pd != null) {
+            pendingDoor = null;
+
+            // ✅ Si la sala actual está bloqueada (puzzle no resuelto), ignoramos la puerta.
+            if (!requiereSalaDespejada(salaActual) || salaEstaDespejada(salaActual)) {
+                // Ejecuta transición autoritativa (teleporta + UpdateRoom + snapshot)
+                door(pd.playerNum, pd.origen.name(), pd.destino.name(), pd.direccion.name());
+
+                // En tu juego ambos jugadores viajan juntos.
+                salaActual = pd.destino;
+
+                // ✅ Cambió la sala => cambia el set relevante de cada cliente
+                actualizarInteres();
+
+                // ✅ Salas sin jugadores quedan dormidas (Box2D no las simula)
+                if (gestorEntidades != null) gestorEntidades.activarSoloSala(salaActual);
+
+                // ✅ Al entrar a una nueva sala, spawnea enemigos (si existen en Tiled)
+                spawnearEnemigosDeSalaSiHaceFalta(salaActual);
+            }
+        }
+
+        // ✅ Procesar pickups fuera de callbacks
+        procesarPickupsPendientes();
+
+        // ✅ Procesar daño fuera de callbacks
+        procesarDaniosPendientes();
+
+        // GameOver: stop() ya soltó el mundo
+        if (world == null || j1 == null) return;
+
+        // ✅ Procesar sala despejada (puzzle resuelto) fuera de callbacks
+        procesarRoomClearPendiente();
+
+        // ✅ HUD re-sync (vida/inventario) a tasa fija
+        if (tickActual >= proximoTickHud) {
+            enviarHudAll();
+            proximoTickHud = tickActual + TICKS_HUD;
+        }
+
+        // Snapshot de red a tasa fija
+        if (tickActual >= proximoTickRed) {
+            enviarPosiciones(false);
+            proximoTickRed = tickActual + TICKS_RED;
+        }
+
+        if (tickActual % FormatoPartida.TICKS_CHECKSUM == 0) {
+            ultimoChecksum = checksumEstado();
+            if (grabador != null) grabador.registrarChecksum(tickActual, ultimoChecksum);
+        }
+
+        if (tickActual % TICKS_METRICAS == 0) muestrearMetricas();
+
+        tickActual++;
+
+        // ✅ El cambio de nivel se resuelve acá mismo en los dos modos (fuera del step, al final del tick
+        //    que lo pidió): la semilla se graba con este tickActual y en vivo no corre ningún tick más.
+        if (advancingLevelNow) {
+            try {
+                avanzarNivelAutoritativo();
+            } catch (Throwable t) {
+                LOG.error("Error avanzando nivel: " + t.getMessage(), t);
+                advancingLevelNow = false;
+            }
+        }
+    }
+
+    /** Checksum del último tick múltiplo de TICKS_CHECKSUM (ver checksumEstado). */
+    public long getUltimoChecksum() {
+        return ultimoChecksum;
+    }
+
+    /**
+     * Hash del estado autoritativo que importa para el juego (posiciones, vida, sala, entidades).
+     * Lo graba el server y lo compara el reproductor: si difiere, la simulación divergió en ese tick.
+     */
+    private long checksumEstado() {
+        long h = 0xcbf29ce484222325L;
+        h = mezclar(h, tickActual);
+        h = mezclar(h, nivelPartida);
+        h = mezclar(h, salaActual != null ? salaActual.ordinal() : -1);
+        h = mezclar(h, salasDespejadas.size());
+        if (b1 != null) {
+            h = mezclar(h, Float.floatToIntBits(b1.getPosition().x));
+            h = mezclar(h, Float.floatToIntBits(b1.getPosition().y));
+        }
+        if (b2 != null) {
+            h = mezclar(h, Float.floatToIntBits(b2.getPosition().x));
+            h = mezclar(h, Float.floatToIntBits(b2.getPosition().y));
+        }
+        if (j1 != null) h = mezclar(h, j1.getVida());
+        if (j2 != null) h = mezclar(h, j2.getVida());
+        h = mezclar(h, registroEnemigos.getCantidad());
+        h = mezclar(h, registroItems.getCantidad());
+        if (gestorEntidades != null && salaActual != null) {
+            for (Enemigo e : gestorEntidades.getEnemigosDeSala(salaActual)) {
+                if (e == null || e.getCuerpoFisico() == null) continue;
+                Vector2 p = e.getCuerpoFisico().getPosition();
+                h = mezclar(h, Float.floatToIntBits(p.x));
+                h = mezclar(h, Float.floatToIntBits(p.y));
+            }
+        }
+        return h;
+    }
+
+    private static long mezclar(long h, long v) {
+        h ^= v;
+        return h * 0x100000001b3L;
+    }
 
     private void checkAutoClearSalaActual() {
         if (server == null || gestorEntidades == null || salaActual == null) return;
@@ -742,50 +1027,79 @@ public void nextLevelRequest(int playerNum) {
         if (advancingLevelNow) return;
         if (server == null) return;
 
+        // Se resuelve al final de tickSimulacion() (mismo tick en vivo y en el replay)
         advancingLevelNow = true;
-
-        // Ejecutamos el reinicio del nivel en el hilo principal de LibGDX.
-        Gdx.app.postRunnable(() -> {
-            try {
-                avanzarNivelAutoritativo();
-            } catch (Throwable t) {
-                System.out.println("[SERVER] Error avanzando nivel: " + t.getMessage());
-                t.printStackTrace();
-            } finally {
-                advancingLevelNow = false;
-            }
-        });
     }
 
+    /**
+     * Decide el avance en el hilo que simula, al final del tick que lo pidió. Con loop externo
+     * también reinicia el mundo ahí; en vivo frena el loop (no corre otro tick) y solo el
+     * stop()/startGame() va al hilo principal de LibGDX.
+     */
     private void avanzarNivelAutoritativo() {
 
+        if (partidaAbandonada) {
+            advancingLevelNow = false;
+            return;
+        }
+
         // ✅ Si se completó el nivel 3 -> fin del juego
         if (nivelPartida >= NIVEL_MAX) {
             if (server != null) {
                 server.sendMessageToAll("Win");
-                System.out.println("[SERVER] WIN enviado (se completaron " + NIVEL_MAX + " niveles)");
+                LOG.info("WIN enviado (se completaron " + NIVEL_MAX + " niveles)");
             }
 
-            // detener simulación
-            try { stop(); } catch (Throwable ignored) {}
-
-            // liberar lobby para volver a jugar sin reiniciar server
-            if (server != null) server.resetLobby();
+            // detener simulación y liberar lobby para volver a jugar sin reiniciar server
+            enHiloPrincipal(() -> {
+                try { stop(); } catch (Throwable ignored) {}
+                if (server != null) server.resetLobby();
+            }, true);
             return;
         }
 
         // ✅ Caso normal: pasar al siguiente nivel
         nivelPartida += 1;
-        seedPartida = System.currentTimeMillis();
+        seedPartida = fuente.semillaNivel();
+        if (grabador != null) grabador.registrarSemillaNivel(tickActual, seedPartida, nivelPartida);
 
         if (server != null) {
             server.sendMessageToAll("Start:" + seedPartida + ":" + nivelPartida);
-            System.out.println("[SERVER] Start enviado seed=" + seedPartida + " nivel=" + nivelPartida);
+            LOG.info("Start enviado seed=" + seedPartida + " nivel=" + nivelPartida);
         }
 
         // ✅ Cambio de nivel: detenemos simulación sin borrar jugadores.
-        stop(false);
-        startGame();
+        enHiloPrincipal(() -> {
+            stop(false);
+            startGame();
+        }, false);
+    }
+
+    /**
+     * Con loop externo corre ya. En vivo: el loop de física sale antes del próximo tick y la
+     * acción (stop/start) se encola en el hilo principal; advancingLevelNow baja al terminar.
+     */
+    private void enHiloPrincipal(Runnable accion, boolean fullReset) {
+        if (loopExterno) {
+            try {
+                accion.run();
+            } finally {
+                advancingLevelNow = false;
+            }
+            return;
+        }
+
+        stopFullReset = fullReset;
+        running = false;
+        Gdx.app.postRunnable(() -> {
+            try {
+                accion.run();
+            } catch (Throwable t) {
+                LOG.error("Error avanzando nivel: " + t.getMessage(), t);
+            } finally {
+                advancingLevelNow = false;
+            }
+        });
     }
 
 
@@ -794,33 +1108,49 @@ public void nextLevelRequest(int playerNum) {
 
         for (Item item : gestorEntidades.getItemsMundo()) {
             if (item == null) continue;
-            Integer id = idPorItem.get(item);
-            if (id == null) {
-                id = asignarIdItem(item);
-
-                Body body = gestorEntidades.getCuerpoItem(item);
-                if (body != null) {
-                    Vector2 p = body.getPosition();
-                    // SpawnItem:id:tipo:x:y
-                    server.sendMessageToAll("SpawnItem:" + id + ":" + item.getTipo().name() + ":" + p.x + ":" + p.y);
-                }
+            int id = registroItems.registrar(item);
+
+            // ya replicado (el id pudo asignarse antes en tryPickup, por eso miramos el registro de interés)
+            if (interes.salaDeItem(id) != null) continue;
+
+            // los items (BOTIN) se spawnean siempre en la sala actual
+            interes.registrarItem(id, salaActual);
+
+            // drop nuevo: se graba qué salió (el replay lo verifica contra su propio sorteo)
+            if (grabador != null) grabador.registrarSorteoItem(tickActual, item.getTipo().ordinal());
+            fuente.itemSorteado(item.getTipo());
+            for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+                replicarSpawnItem(p, id, item);
+            }
+        }
+    }
+
+    private void replicarSpawnItem(int playerNum, int id, Item item) {
+        if (!interes.esRelevante(playerNum, interes.salaDeItem(id))) return;
+        if (interes.conoceItem(playerNum, id)) return;
+
+        Body body = gestorEntidades.getCuerpoItem(item);
+        if (body == null) return;
+        Vector2 p = body.getPosition();
+
+        // SpawnItem:id:tipo:x:y
+        server.sendMessageToPlayer(playerNum, "SpawnItem:" + id + ":" + item.getTipo().name() + ":" + p.x + ":" + p.y);
+        interes.marcarItemConocido(playerNum, id);
+    }
+
+    private void replicarDespawnItem(int id) {
+        for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+            if (interes.olvidarItem(p, id)) {
+                server.sendMessageToPlayer(p, "DespawnItem:" + id);
             }
         }
+        interes.quitarItem(id);
     }
 
     // =====================
     // Enemigos (server-driven)
     // =====================
 
-    private int asignarIdEnemigo(Enemigo e) {
-        Integer existing = idPorEnemigo.get(e);
-        if (existing != null) return existing;
-        int id = nextEnemyId++;
-        idPorEnemigo.put(e, id);
-        enemigoPorId.put(id, e);
-        return id;
-    }
-
     private void spawnearEnemigosDeSalaSiHaceFalta(Habitacion sala) {
         if (server == null || gestorEntidades == null || map == null) return;
         if (sala == null) return;
@@ -858,30 +1188,105 @@ public void nextLevelRequest(int playerNum) {
 
         for (Enemigo e : gestorEntidades.getEnemigosDeSala(sala)) {
             if (e == null) continue;
-            Integer id = idPorEnemigo.get(e);
-            if (id == null) id = asignarIdEnemigo(e);
+            int id = registroEnemigos.registrar(e);
+            interes.registrarEnemigo(id, sala);
+
+            for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+                replicarSpawnEnemigo(p, id, e);
+            }
+        }
+    }
 
-            Body b = e.getCuerpoFisico();
-            if (b == null) continue;
-            Vector2 p = b.getPosition();
+    /** Manda SpawnEnemy solo si al cliente le importa esa sala y todavía no lo conoce. */
+    private void replicarSpawnEnemigo(int playerNum, int id, Enemigo e) {
+        Habitacion sala = interes.salaDeEnemigo(id);
+        if (!interes.esRelevante(playerNum, sala)) return;
+        if (interes.conoceEnemigo(playerNum, id)) return;
 
-            // SpawnEnemy:id:nombre:x:y:sala
-            server.sendMessageToAll("SpawnEnemy:" + id + ":" + e.getNombre() + ":" + p.x + ":" + p.y + ":" + sala.name());
+        Body b = e.getCuerpoFisico();
+        if (b == null) return;
+        Vector2 p = b.getPosition();
+
+        // SpawnEnemy:id:nombre:x:y:sala
+        server.sendMessageToPlayer(playerNum, "SpawnEnemy:" + id + ":" + e.getNombre() + ":" + p.x + ":" + p.y + ":" + sala.name());
+        interes.marcarEnemigoConocido(playerNum, id);
+    }
+
+    private void replicarDespawnEnemigo(int id) {
+        for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+            if (interes.olvidarEnemigo(p, id)) {
+                server.sendMessageToPlayer(p, "DespawnEnemy:" + id);
+            }
+        }
+        interes.quitarEnemigo(id);
+    }
+
+    // =====================
+    // Interest management
+    // =====================
+
+    /**
+     * Hoy ambos jugadores viajan juntos (salaActual), pero la relevancia se maneja por jugador:
+     * si algún día se separan, cada cliente recibe solo lo de su sala.
+     */
+    private void actualizarInteres() {
+        for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+            if (interes.setSala(p, salaActual)) {
+                resincronizarInteres(p);
+            }
+        }
+    }
+
+    /** Cambió la sala del jugador: despawnea lo que dejó de ver y manda el set completo de la nueva sala. */
+    private void resincronizarInteres(int playerNum) {
+        if (server == null || gestorEntidades == null) return;
+
+        IntArray fuera = interes.enemigosConocidosFueraDeSala(playerNum);
+        for (int i = 0; i < fuera.size; i++) {
+            int id = fuera.get(i);
+            interes.olvidarEnemigo(playerNum, id);
+            server.sendMessageToPlayer(playerNum, "DespawnEnemy:" + id);
+        }
+        fuera = interes.itemsConocidosFueraDeSala(playerNum);
+        for (int i = 0; i < fuera.size; i++) {
+            int id = fuera.get(i);
+            interes.olvidarItem(playerNum, id);
+            server.sendMessageToPlayer(playerNum, "DespawnItem:" + id);
+        }
+
+        Habitacion sala = interes.getSala(playerNum);
+        if (sala == null) return;
+
+        for (Enemigo e : gestorEntidades.getEnemigosDeSala(sala)) {
+            if (e == null) continue;
+            int id = registroEnemigos.handleDe(e);
+            if (id != RegistroHandles.SIN_HANDLE) replicarSpawnEnemigo(playerNum, id, e);
+        }
+        for (Item item : gestorEntidades.getItemsMundo()) {
+            if (item == null) continue;
+            int id = registroItems.handleDe(item);
+            if (id != RegistroHandles.SIN_HANDLE) replicarSpawnItem(playerNum, id, item);
         }
     }
 
     private void actualizarEnemigosDeSalaActual(float delta) {
         if (gestorEntidades == null || salaActual == null) return;
-        for (Enemigo e : gestorEntidades.getEnemigosDeSala(salaActual)) {
-            if (e == null) continue;
-            e.actualizar(delta, j1, j2);
+
+        EventosJfr.IaEnemigos ev = new EventosJfr.IaEnemigos();
+        ev.begin();
+        gestorEntidades.actualizarEnemigosDeSala(salaActual, delta, j1, j2);
+        if (ev.shouldCommit()) {
+            ev.tick = tickActual;
+            ev.sala = salaActual.name();
+            ev.enemigos = gestorEntidades.contarEnemigosDeSala(salaActual);
+            ev.commit();
         }
     }
 
     private void procesarPickupsPendientes() {
         if (server == null || gestorEntidades == null) {
             pendingPickups.clear();
-            pickupsEncolados.clear();
+            registroItems.quitarFlagATodos(FLAG_PICKUP_ENCOLADO);
             return;
         }
 
@@ -889,11 +1294,9 @@ public void nextLevelRequest(int playerNum) {
             PendingPickup pp = pendingPickups.pollFirst();
             if (pp == null) continue;
 
-            Item item = itemPorId.get(pp.itemId);
-            if (item == null) {
-                pickupsEncolados.remove(pp.itemId);
-                continue;
-            }
+            // id viejo (item ya levantado / nivel anterior): el registro no lo resuelve
+            Item item = registroItems.get(pp.itemId);
+            if (item == null) continue;
 
             // ✅ aplica pickup en server (autoritativo): remover del mundo + agregar a inventario del jugador
             gestorEntidades.removerItemDelMundo(item);
@@ -904,16 +1307,15 @@ public void nextLevelRequest(int playerNum) {
             }
 
             // evento al cliente
+            // PickupItem es estado del jugador (inventario): va a todos. El despawn solo a quien lo conocía.
             server.sendMessageToAll("PickupItem:" + pp.playerNum + ":" + pp.itemId + ":" + item.getTipo().name());
-            server.sendMessageToAll("DespawnItem:" + pp.itemId);
+            replicarDespawnItem(pp.itemId);
 
             // ✅ HUD actualizado (vida/inventario)
             enviarHud(pp.playerNum);
 
-            // limpiar tracking
-            idPorItem.remove(item);
-            itemPorId.remove(pp.itemId);
-            pickupsEncolados.remove(pp.itemId);
+            // limpiar tracking (libera el slot: el flag de encolado se va con él)
+            registroItems.liberar(pp.itemId);
 
             // manda snapshot para que no quede 1 frame raro
             enviarPosiciones(true);
@@ -947,12 +1349,11 @@ private void procesarRoomClearPendiente() {
         List<Enemigo> enemigos = new ArrayList<>(gestorEntidades.getEnemigosDeSala(sala));
         for (Enemigo e : enemigos) {
             if (e == null) continue;
-            Integer id = idPorEnemigo.get(e);
-            if (id != null && server != null) {
-                server.sendMessageToAll("DespawnEnemy:" + id);
+            int id = registroEnemigos.handleDe(e);
+            if (id != RegistroHandles.SIN_HANDLE && server != null) {
+                replicarDespawnEnemigo(id);
             }
-            if (id != null) enemigoPorId.remove(id);
-            if (e != null) idPorEnemigo.remove(e);
+            registroEnemigos.liberar(id);
         }
         gestorEntidades.eliminarEnemigosDeSala(sala);
     }
@@ -967,7 +1368,7 @@ private void procesarRoomClearPendiente() {
 private void procesarDaniosPendientes() {
         if (server == null) {
             pendingDamages.clear();
-            damagesEncolados.clear();
+            damagesEncolados = 0;
             return;
         }
 
@@ -977,7 +1378,7 @@ private void procesarDaniosPendientes() {
 
             Jugador j = (pd.playerNum == 1) ? j1 : (pd.playerNum == 2 ? j2 : null);
             if (j == null) {
-                damagesEncolados.remove(pd.playerNum);
+                damagesEncolados &= ~(1 << pd.playerNum);
                 continue;
             }
 
@@ -1001,7 +1402,7 @@ private void procesarDaniosPendientes() {
                         try {
                             stop();
                         } catch (Throwable t) {
-                            System.out.println("[SERVER] stop() falló: " + t.getMessage());
+                            LOG.error("stop() falló: " + t.getMessage(), t);
                         }
 
 
@@ -1015,7 +1416,7 @@ private void procesarDaniosPendientes() {
                 enviarOtherStateAll();
             }
 
-            damagesEncolados.remove(pd.playerNum);
+            damagesEncolados &= ~(1 << pd.playerNum);
         }
     }
 
@@ -1039,29 +1440,64 @@ private void procesarDaniosPendientes() {
     private void enviarPosiciones(boolean force) {
         if (server == null) return;
 
+        EventosJfr.Snapshot ev = new EventosJfr.Snapshot();
+        ev.begin();
+        snapshotMensajes = 0;
+        snapshotBytes = 0L;
+
         // Si forzamos (spawn/door/start), adelantamos el siguiente tick de red para evitar doble envío inmediato.
         if (force) {
-            long now = System.nanoTime();
-            nextNetSendNs = now + (1_000_000_000L / NET_HZ);
+            proximoTickRed = tickActual + TICKS_RED;
         }
 
-        if (b1 != null) {
-            Vector2 p1 = b1.getPosition();
-            server.sendMessageToAll("UpdatePosition:1:" + p1.x + ":" + p1.y);
-        }
-        if (b2 != null) {
-            Vector2 p2 = b2.getPosition();
-            server.sendMessageToAll("UpdatePosition:2:" + p2.x + ":" + p2.y);
-        }
+        // Jugadores: la posición propia siempre; la del otro solo si comparten sala.
+        if (b1 != null) enviarPosicionJugador(1, b1);
+        if (b2 != null) enviarPosicionJugador(2, b2);
 
         // Enemigos: solo sincronizamos los de la sala actual (lo demás no se renderiza)
         if (gestorEntidades != null && salaActual != null) {
             for (Enemigo e : gestorEntidades.getEnemigosDeSala(salaActual)) {
                 if (e == null || e.getCuerpoFisico() == null) continue;
-                Integer id = idPorEnemigo.get(e);
-                if (id == null) id = asignarIdEnemigo(e);
+                int id = registroEnemigos.registrar(e);
                 Vector2 pe = e.getCuerpoFisico().getPosition();
-                server.sendMessageToAll("UpdateEnemy:" + id + ":" + pe.x + ":" + pe.y);
+                String msg = null;
+
+                for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+                    if (!interes.esRelevante(p, interes.salaDeEnemigo(id))) continue;
+                    if (!interes.conoceEnemigo(p, id)) {
+                        // todavía no le mandamos el Spawn a este cliente: primero Spawn, después Updates
+                        replicarSpawnEnemigo(p, id, e);
+                        continue;
+                    }
+                    if (msg == null) msg = "UpdateEnemy:" + id + ":" + pe.x + ":" + pe.y;
+                    enviarSnapshot(p, msg);
+                }
+            }
+        }
+
+        if (ev.shouldCommit()) {
+            ev.tick = tickActual;
+            ev.mensajes = snapshotMensajes;
+            ev.bytes = snapshotBytes;
+            ev.commit();
+        }
+    }
+
+    /** Envío de un mensaje del snapshot (cuenta mensajes/bytes para el evento JFR). */
+    private void enviarSnapshot(int playerNum, String msg) {
+        server.sendMessageToPlayer(playerNum, msg);
+        snapshotMensajes++;
+        snapshotBytes += msg.length(); // protocolo ASCII: 1 char = 1 byte
+    }
+
+    private void enviarPosicionJugador(int playerNum, Body b) {
+        Vector2 pos = b.getPosition();
+        String msg = "UpdatePosition:" + playerNum + ":" + pos.x + ":" + pos.y;
+        Habitacion sala = interes.getSala(playerNum);
+
+        for (int p = 1; p <= InteresPorCliente.MAX_JUGADORES; p++) {
+            if (p == playerNum || sala == null || interes.esRelevante(p, sala)) {
+                enviarSnapshot(p, msg);
             }
         }
     }
@@ -1201,6 +1637,9 @@ private void procesarDaniosPendientes() {
         salaTrampilla = null;
         fisicaMundo = null;
         physicsThread = null;
+
+        // ✅ fin de partida: se cierra el log grabado
+        if (fullReset && grabador != null) grabador.cerrar(tickActual);
     }
 
     public void stop() {
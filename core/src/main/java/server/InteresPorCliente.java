@@ -0,0 +1,214 @@
+package server;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import entidades.RegistroHandles;
+import mapa.model.Habitacion;
+
+/**
+ * Interest management del server: qué entidades replicadas le importan a cada cliente.
+ *
+ * - Cada jugador tiene una sala actual (la relevancia es "misma sala").
+ * - Cada entidad replicada (enemigo / item) está registrada con la sala donde vive.
+ * - Por cliente guardamos qué ids ya conoce (le mandamos Spawn y todavía no Despawn).
+ * - Los ids son handles de RegistroHandles: todo se indexa por slot en arrays/bitsets (sin boxing),
+ *   y un handle viejo que reusa el slot no hereda sala ni "conocido".
+ *
+ * El GameController decide QUÉ mensaje armar; esta clase solo responde A QUIÉN le corresponde.
+ * Solo se usa desde el hilo de física del server (no es thread-safe).
+ */
+public final class InteresPorCliente {
+
+    public static final int MAX_JUGADORES = 2;
+
+    // índices 1..MAX_JUGADORES usados
+    private final Habitacion[] salaDe = new Habitacion[MAX_JUGADORES + 1];
+
+    private final Replicados enemigos = new Replicados();
+    private final Replicados items = new Replicados();
+
+    // ✅ temp para evitar alloc en resync
+    private final IntArray tmpIds = new IntArray();
+
+    /** Nuevo nivel: se olvida todo y ambos jugadores arrancan en la misma sala. */
+    public void reiniciar(Habitacion salaInicial) {
+        enemigos.limpiar();
+        items.limpiar();
+        for (int p = 0; p <= MAX_JUGADORES; p++) {
+            salaDe[p] = (p == 0) ? null : salaInicial;
+        }
+    }
+
+    private static boolean jugadorValido(int playerNum) {
+        return playerNum >= 1 && playerNum <= MAX_JUGADORES;
+    }
+
+    // =====================
+    // Relevancia
+    // =====================
+
+    public Habitacion getSala(int playerNum) {
+        return jugadorValido(playerNum) ? salaDe[playerNum] : null;
+    }
+
+    /** @return true si la sala del jugador cambió (hay que re-sincronizar su set relevante). */
+    public boolean setSala(int playerNum, Habitacion sala) {
+        if (!jugadorValido(playerNum)) return false;
+        if (salaDe[playerNum] == sala) return false;
+        salaDe[playerNum] = sala;
+        return true;
+    }
+
+    public boolean esRelevante(int playerNum, Habitacion sala) {
+        return jugadorValido(playerNum) && sala != null && salaDe[playerNum] == sala;
+    }
+
+    // =====================
+    // Enemigos
+    // =====================
+
+    public void registrarEnemigo(int id, Habitacion sala) {
+        enemigos.registrar(id, sala);
+    }
+
+    public Habitacion salaDeEnemigo(int id) {
+        return enemigos.sala(id);
+    }
+
+    public boolean conoceEnemigo(int playerNum, int id) {
+        return jugadorValido(playerNum) && enemigos.conoce(playerNum, id);
+    }
+
+    public void marcarEnemigoConocido(int playerNum, int id) {
+        if (jugadorValido(playerNum)) enemigos.marcar(playerNum, id);
+    }
+
+    /** @return true si el cliente lo conocía (=> hay que mandarle Despawn). */
+    public boolean olvidarEnemigo(int playerNum, int id) {
+        return jugadorValido(playerNum) && enemigos.olvidar(playerNum, id);
+    }
+
+    /** El enemigo dejó de existir: ya no pertenece a ninguna sala. */
+    public void quitarEnemigo(int id) {
+        enemigos.quitar(id);
+    }
+
+    /** Ids de enemigos que el cliente conoce pero ya no están en su sala. La lista se reutiliza. */
+    public IntArray enemigosConocidosFueraDeSala(int playerNum) {
+        return conocidosFueraDeSala(playerNum, enemigos);
+    }
+
+    // =====================
+    // Items
+    // =====================
+
+    public void registrarItem(int id, Habitacion sala) {
+        items.registrar(id, sala);
+    }
+
+    public Habitacion salaDeItem(int id) {
+        return items.sala(id);
+    }
+
+    public boolean conoceItem(int playerNum, int id) {
+        return jugadorValido(playerNum) && items.conoce(playerNum, id);
+    }
+
+    public void marcarItemConocido(int playerNum, int id) {
+        if (jugadorValido(playerNum)) items.marcar(playerNum, id);
+    }
+
+    public boolean olvidarItem(int playerNum, int id) {
+        return jugadorValido(playerNum) && items.olvidar(playerNum, id);
+    }
+
+    public void quitarItem(int id) {
+        items.quitar(id);
+    }
+
+    public IntArray itemsConocidosFueraDeSala(int playerNum) {
+        return conocidosFueraDeSala(playerNum, items);
+    }
+
+    private IntArray conocidosFueraDeSala(int playerNum, Replicados r) {
+        tmpIds.clear();
+        if (!jugadorValido(playerNum)) return tmpIds;
+
+        Habitacion sala = salaDe[playerNum];
+        BitSet conocidos = r.conocidos[playerNum];
+        for (int i = conocidos.nextSetBit(0); i >= 0; i = conocidos.nextSetBit(i + 1)) {
+            if (r.salaPorSlot[i] != sala) tmpIds.add(r.handlePorSlot[i]);
+        }
+        return tmpIds;
+    }
+
+    /**
+     * Estado replicado de un tipo de entidad, indexado por slot del handle.
+     * handlePorSlot guarda el handle dueño del slot: si no coincide, el id es viejo.
+     */
+    private static final class Replicados {
+        Habitacion[] salaPorSlot = new Habitacion[64];
+        int[] handlePorSlot = new int[64];
+        final BitSet[] conocidos = new BitSet[MAX_JUGADORES + 1];
+
+        Replicados() {
+            for (int p = 0; p <= MAX_JUGADORES; p++) conocidos[p] = new BitSet();
+        }
+
+        void limpiar() {
+            Arrays.fill(salaPorSlot, null);
+            Arrays.fill(handlePorSlot, RegistroHandles.SIN_HANDLE);
+            for (BitSet b : conocidos) b.clear();
+        }
+
+        private boolean vigente(int id) {
+            if (id <= 0) return false;
+            int i = RegistroHandles.indice(id);
+            return i < handlePorSlot.length && handlePorSlot[i] == id;
+        }
+
+        void registrar(int id, Habitacion sala) {
+            if (id <= 0) return;
+            int i = RegistroHandles.indice(id);
+            if (i >= handlePorSlot.length) {
+                int cap = Math.max(i + 1, handlePorSlot.length * 2);
+                salaPorSlot = Arrays.copyOf(salaPorSlot, cap);
+                handlePorSlot = Arrays.copyOf(handlePorSlot, cap);
+            }
+            if (handlePorSlot[i] != id) {
+                // slot reusado por otro handle: lo que sabían los clientes era del anterior
+                for (BitSet b : conocidos) b.clear(i);
+            }
+            handlePorSlot[i] = id;
+            salaPorSlot[i] = sala;
+        }
+
+        Habitacion sala(int id) {
+            return vigente(id) ? salaPorSlot[RegistroHandles.indice(id)] : null;
+        }
+
+        boolean conoce(int playerNum, int id) {
+            return vigente(id) && conocidos[playerNum].get(RegistroHandles.indice(id));
+        }
+
+        void marcar(int playerNum, int id) {
+            if (vigente(id)) conocidos[playerNum].set(RegistroHandles.indice(id));
+        }
+
+        boolean olvidar(int playerNum, int id) {
+            if (!vigente(id)) return false;
+            int i = RegistroHandles.indice(id);
+            boolean estaba = conocidos[playerNum].get(i);
+            conocidos[playerNum].clear(i);
+            return estaba;
+        }
+
+        void quitar(int id) {
+            if (!vigente(id)) return;
+            salaPorSlot[RegistroHandles.indice(id)] = null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import telemetria.HistogramaTiempos;
+import telemetria.Reporte;
+
+/**
+ * Marca el ritmo del loop de simulación a paso fijo.
+ *
+ * - Espera con parkNanos hasta ~MARGEN_SPIN_NS antes del próximo step y el resto con spin
+ *   (Thread.sleep en Windows/Linux se pasa 1-2ms: a 60Hz eso es un 10% del tick).
+ * - Catch-up limitado a maxPasos por vuelta; si aun así seguimos atrasados,
+ *   los steps sobrantes se descartan (y se cuentan) en vez de acumular atraso para siempre.
+ * - Mide duración de cada tick, cuánto se pasó la espera (oversleep) y los steps descartados.
+ *
+ * El motor vive lo que vive el servidor: las estadísticas se acumulan entre niveles.
+ */
+public final class MotorTicks implements Reporte {
+
+    /** Últimos us antes del step se esperan con spin (parkNanos no es más preciso que esto). */
+    private static final long MARGEN_SPIN_NS = 250_000L;
+
+    private final long periodoNs;
+    private final int maxPasos;
+
+    private final HistogramaTiempos duracionTick = new HistogramaTiempos();
+    private final HistogramaTiempos sobreEspera = new HistogramaTiempos();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong pasosDescartados = new AtomicLong();
+    private final AtomicLong vueltasAtrasadas = new AtomicLong();
+    private final AtomicLong ticksExcedidos = new AtomicLong();
+
+    public MotorTicks(long periodoNs, int maxPasos) {
+        this.periodoNs = periodoNs;
+        this.maxPasos = Math.max(1, maxPasos);
+    }
+
+    /**
+     * Corre el loop en el hilo actual hasta que seguir devuelva false.
+     * Cada step llama a tick una vez (el DT lo pone quien llama: siempre fijo).
+     */
+    public void correr(BooleanSupplier seguir, Runnable tick) {
+        long proximo = System.nanoTime();
+
+        while (seguir.getAsBoolean()) {
+            long ahora = System.nanoTime();
+
+            // ✅ Vamos antes: esperar hasta el step y medir cuánto nos pasamos
+            if (ahora < proximo) {
+                esperarHasta(proximo);
+                ahora = System.nanoTime();
+                if (ahora < proximo) continue; // interrumpido
+                sobreEspera.registrarNs(ahora - proximo);
+            }
+
+            // Catch-up limitado (evita espiral de muerte si hay un spike)
+            int pasos = 0;
+            while (pasos < maxPasos && ahora >= proximo && seguir.getAsBoolean()) {
+                long t0 = System.nanoTime();
+                tick.run();
+                ahora = System.nanoTime();
+
+                long dur = ahora - t0;
+                duracionTick.registrarNs(dur);
+                if (dur > periodoNs) ticksExcedidos.incrementAndGet();
+                ticks.incrementAndGet();
+
+                proximo += periodoNs;
+                pasos++;
+            }
+
+            if (pasos > 1) vueltasAtrasadas.incrementAndGet();
+
+            // ✅ Si después del catch-up seguimos atrás, soltamos esos steps (el mundo "se frena" un instante)
+            if (pasos == maxPasos && ahora >= proximo) {
+                long perdidos = (ahora - proximo) / periodoNs + 1;
+                pasosDescartados.addAndGet(perdidos);
+                proximo += perdidos * periodoNs;
+            }
+        }
+    }
+
+    private static void esperarHasta(long objetivo) {
+        while (true) {
+            long falta = objetivo - System.nanoTime();
+            if (falta <= 0) return;
+
+            if (falta > MARGEN_SPIN_NS) {
+                LockSupport.parkNanos(falta - MARGEN_SPIN_NS);
+                // un interrupt haría que parkNanos retorne al instante: salimos y el loop revisa si sigue
+                if (Thread.interrupted()) return;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    // =====================
+    // Lectura (cualquier hilo)
+    // =====================
+
+    public long getTicks() { return ticks.get(); }
+    public long getPasosDescartados() { return pasosDescartados.get(); }
+    public long getTicksExcedidos() { return ticksExcedidos.get(); }
+    public HistogramaTiempos getDuracionTick() { return duracionTick; }
+    public HistogramaTiempos getSobreEspera() { return sobreEspera; }
+
+    @Override
+    public void reportar(StringBuilder sb) {
+        sb.append("[ticks] periodo=").append(periodoNs / 1_000L).append("us")
+          .append(" total=").append(getTicks())
+          .append(" excedidos=").append(getTicksExcedidos())
+          .append(" catchup=").append(vueltasAtrasadas.get())
+          .append(" descartados=").append(getPasosDescartados())
+          .append('\n');
+        duracionTick.reportar(sb, "[ticks] duracion");
+        sobreEspera.reportar(sb, "[ticks] sobreespera");
+    }
+}
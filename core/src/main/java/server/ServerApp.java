@@ -5,14 +5,26 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 
+import java.nio.file.Paths;
+
+import server.replay.GrabadorPartida;
+import telemetria.Log;
+import telemetria.Metricas;
+import telemetria.ServidorAdmin;
+import telemetria.VolcadoMetricas;
+
 public class ServerApp extends ApplicationAdapter {
 
+    private static final Log.Categoria LOG = Log.categoria("SERVER");
+
     private ServerThread server;
     private GameControllerImpl game;
+    private ServidorAdmin admin;
+    private VolcadoMetricas volcado;
 
     @Override
     public void create() {
-        System.out.println("[SERVER] Backend inicializado");
+        LOG.info("Backend inicializado");
 
         // ✅ Cargar TMX acá (hilo GL)
         TiledMap map = new TmxMapLoader().load("tmx/mapa.tmx"); // <-- tu TMX real
@@ -20,15 +32,47 @@ public class ServerApp extends ApplicationAdapter {
         game = new GameControllerImpl();
         game.setTiledMap(map); // <-- nuevo setter
 
+        // ✅ Grabación opt-in: con -Dreplays.dir=carpeta cada partida queda grabada para reproducirla
+        //    (un archivo por partida, sin rotación: no se prende sola en un server de larga vida)
+        String carpetaReplays = System.getProperty("replays.dir", "");
+        if (!carpetaReplays.isBlank()) {
+            game.setGrabador(new GrabadorPartida(Paths.get(carpetaReplays)));
+        }
+
+        // ✅ Métricas: ticks + tráfico + colas + entidades, en un solo reporte
+        Metricas metricas = game.getMetricas();
+        metricas.agregarFuente(game.getMotorTicks());
+
         server = new ServerThread(game);
+        server.setMetricas(metricas);
         game.setServer(server);
 
         server.start();
+
+        // ✅ Consulta local de estadísticas (nc 127.0.0.1 5556). -Dadmin.port=0 para desactivar
+        int puertoAdmin = Integer.getInteger("admin.port", ServidorAdmin.PUERTO_POR_DEFECTO);
+        if (puertoAdmin > 0) {
+            admin = new ServidorAdmin(puertoAdmin);
+            admin.registrar(metricas);
+            admin.start();
+        }
+
+        // ✅ Volcado periódico a archivo rotativo (-Dmetricas.dir= vacío para desactivar)
+        String carpetaMetricas = System.getProperty("metricas.dir",
+            Paths.get(System.getProperty("user.home"), ".roomguelike", "metricas").toString());
+        if (!carpetaMetricas.isBlank()) {
+            long periodoMs = Long.getLong("metricas.periodo", 10L) * 1000L;
+            volcado = new VolcadoMetricas(metricas, Paths.get(carpetaMetricas), periodoMs, 5L * 1024 * 1024, 3);
+            volcado.start();
+        }
     }
 
     @Override
     public void dispose() {
+        if (admin != null) admin.terminar();
+        if (volcado != null) volcado.terminar();
         if (server != null) server.terminate();
         if (game != null) game.stop();
+        Log.vaciar();
     }
 }
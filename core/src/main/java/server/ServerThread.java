@@ -2,19 +2,24 @@ package server;
 
 import com.badlogic.gdx.Gdx;
 import interfaces.GameController;
+import telemetria.Log;
+import telemetria.Metricas;
 
 import java.io.IOException;
 import java.net.*;
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class ServerThread extends Thread {
+public class ServerThread extends Thread implements CanalSalida {
 
     // ===== Constantes =====
-    private static final int SERVER_PORT = 5555;
+    public static final int SERVER_PORT = 5555;
     private static final int BUFFER_SIZE = 1024;
     private static final int MAX_CLIENTS = 2;
     private static final String SEP = ":";
 
+    private static final Log.Categoria LOG = Log.categoria("RED");
+    private static final Log.Categoria LOG_PAQUETES = Log.categoria("RED" + Log.SUFIJO_PAQUETES);
+
     // Comandos
     private static final String CMD_CONNECT = "Connect";
     private static final String CMD_MOVE = "Move";
@@ -23,6 +28,11 @@ public class ServerThread extends Thread {
     private static final String CMD_ROOMCLEAR = "RoomClearReq";
     private static final String CMD_NEXTLEVEL = "NextLevelReq";
     private static final String CMD_READY = "Ready";
+    private static final String CMD_PONG = "Pong";
+    private static final String CMD_DISCONNECT = "Disconnect";
+
+    private static final String MSG_PING = "Ping";
+    private static final String MSG_PLAYER_LEFT = "PlayerLeft";
 
     private static final String MSG_ALREADY_CONNECTED = "AlreadyConnected";
     private static final String MSG_FULL = "Full";
@@ -31,11 +41,27 @@ public class ServerThread extends Thread {
     private DatagramSocket socket;
     private volatile boolean end = false;
 
+    // ===== Keepalive =====
+    // Cualquier mensaje cuenta como señal de vida; el Ping además mide RTT (el cliente responde Pong:id).
+    // ✅ Timeout por inactividad: en partida aplica a todos (el cliente manda Move cada frame);
+    // en el lobby solo a los que ya contestaron un Pong (el cliente real ahí se queda callado).
+    // -Dred.timeout.ms=0 lo apaga del todo.
+    private static final long PING_INTERVALO_MS = Long.getLong("red.ping.ms", 1000L);
+    private static final long TIMEOUT_MS = Long.getLong("red.timeout.ms", 5000L);
+    private static final int RECEIVE_TIMEOUT_MS = (int) Math.max(50L, Math.min(250L, PING_INTERVALO_MS / 4));
+
     private int connectedClients = 0;
-    private final ArrayList<Client> clients = new ArrayList<>();
+    // ✅ lo recorre también el hilo de física (sendMessageToAll): copy-on-write, cambia muy poco
+    private final CopyOnWriteArrayList<Client> clients = new CopyOnWriteArrayList<>();
+
+    private int siguientePing = 1;
+    private long proximoPingNs = 0L;
 
     private final GameController gameController;
 
+    // ✅ Contadores de tráfico (se reemplaza por el del juego en ServerApp)
+    private Metricas metricas = new Metricas();
+
     private long seedPartida = 0L;
     private int nivelPartida = 1;
     private boolean partidaArrancada = false;
@@ -44,37 +70,56 @@ public class ServerThread extends Thread {
     private final byte[] buffer = new byte[BUFFER_SIZE];
 
     public ServerThread(GameController gameController) {
-        super("ServerThread");
+        this(gameController, SERVER_PORT);
+    }
+
+    /** Puerto explícito: el arnés de bots levanta varios servers en la misma máquina. */
+    public ServerThread(GameController gameController, int puerto) {
+        super("ServerThread-" + puerto);
         this.gameController = gameController;
 
         try {
-            socket = new DatagramSocket(SERVER_PORT);
-            System.out.println("[SERVER] Escuchando en puerto " + SERVER_PORT);
+            socket = new DatagramSocket(puerto);
+            LOG.info("Escuchando en puerto " + puerto);
         } catch (SocketException e) {
-            System.out.println("[SERVER] No se pudo abrir el puerto " + SERVER_PORT + ": " + e.getMessage());
+            LOG.error("No se pudo abrir el puerto " + puerto + ": " + e.getMessage());
         }
     }
 
+    public void setMetricas(Metricas metricas) {
+        if (metricas != null) this.metricas = metricas;
+    }
+
     @Override
     public void run() {
         if (socket == null) return;
 
         DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
 
+        try {
+            socket.setSoTimeout(RECEIVE_TIMEOUT_MS);
+        } catch (SocketException e) {
+            LOG.warn("No se pudo setear timeout de receive: " + e.getMessage());
+        }
+
         while (!end) {
             try {
-                socket.receive(packet);
-                processMessage(packet);
+                try {
+                    socket.receive(packet);
+                    processMessage(packet);
+                } catch (SocketTimeoutException ignored) {
+                    // sin tráfico: igual revisamos pings/timeouts
+                }
+                revisarConexiones();
             } catch (SocketException se) {
                 // normal cuando cerrás el socket en terminate()
-                if (!end) System.out.println("[SERVER] Socket: " + se.getMessage());
+                if (!end) LOG.warn("Socket: " + se.getMessage());
             } catch (IOException e) {
-                if (!end) System.out.println("[SERVER] IO: " + e.getMessage());
+                if (!end) LOG.warn("IO: " + e.getMessage());
             } catch (Exception e) {
                 // ✅ evita que el server thread muera por mensajes raros
                 if (!end) {
-                    System.out.println("[SERVER] Unexpected: " + e.getMessage());
-                    e.printStackTrace();
+                    LOG.error("Unexpected: " + e.getMessage(), e);
                 }
             }
         }
@@ -82,6 +127,7 @@ public class ServerThread extends Thread {
 
     private void processMessage(DatagramPacket packet) {
         final String message = new String(packet.getData(), 0, packet.getLength()).trim();
+        metricas.paqueteEntrante(message, packet.getLength());
         if (message.isEmpty()) return;
 
         final String[] parts = message.split(SEP);
@@ -91,8 +137,10 @@ public class ServerThread extends Thread {
         final int port = packet.getPort();
 
         int index = findClientIndex(ip, port);
+        if (index != -1) clients.get(index).marcarActividad(System.nanoTime());
 
-        System.out.println("[SERVER] Recibido: " + message + " desde " + ip + ":" + port);
+        // ✅ por paquete: apagado en producción (-Dlog.perfil=desarrollo lo muestrea)
+        if (LOG_PAQUETES.debug()) LOG_PAQUETES.debug("Recibido: " + message + " desde " + ip + ":" + port);
 
         // CONNECT
         if (CMD_CONNECT.equals(parts[0])) {
@@ -102,19 +150,24 @@ public class ServerThread extends Thread {
                 return;
             }
 
-            if (connectedClients >= MAX_CLIENTS) {
+            // ✅ partida en curso con un slot libre (alguien se fue): no se puede entrar a mitad
+            if (connectedClients >= MAX_CLIENTS || partidaArrancada) {
                 sendMessage(MSG_FULL, ip, port);
                 return;
             }
 
-            connectedClients++;
-            Client newClient = new Client(connectedClients, ip, port);
-            // Connect:GENERO:ESTILO
-            if (parts.length >= 3) newClient.setGenero(parts[1]);
-            if (parts.length >= 3) newClient.setEstilo(parts[2]);
-            clients.add(newClient);
+            Client newClient;
+            synchronized (this) {
+                newClient = new Client(slotLibre(), ip, port);
+                connectedClients++;
+                // Connect:GENERO:ESTILO
+                if (parts.length >= 3) newClient.setGenero(parts[1]);
+                if (parts.length >= 3) newClient.setEstilo(parts[2]);
+                newClient.marcarActividad(System.nanoTime());
+                clients.add(newClient);
+            }
 
-            sendMessage("Connected:" + connectedClients, ip, port);
+            sendMessage("Connected:" + newClient.getNum(), ip, port);
 
             // Enviar apariencias: primero las existentes al nuevo, y luego la del nuevo a todos
             for (Client c : clients) {
@@ -126,11 +179,15 @@ public class ServerThread extends Thread {
             if (connectedClients == MAX_CLIENTS && !partidaArrancada) {
                 partidaArrancada = true;
 
+                // el timeout en partida cuenta desde el Start (en el lobby pudieron estar callados)
+                long ahora = System.nanoTime();
+                for (Client c : clients) c.marcarActividad(ahora);
+
                 seedPartida = System.currentTimeMillis();
                 nivelPartida = 1;
 
                 sendMessageToAll("Start:" + seedPartida + ":" + nivelPartida);
-                System.out.println("[SERVER] Start enviado seed=" + seedPartida + " nivel=" + nivelPartida);
+                LOG.info("Start enviado seed=" + seedPartida + " nivel=" + nivelPartida);
 
                 gameController.configure(seedPartida, nivelPartida);
 
@@ -141,8 +198,7 @@ public class ServerThread extends Thread {
                     try {
                         gameController.startGame();
                     } catch (Throwable t) {
-                        System.out.println("[SERVER] startGame() explotó: " + t.getMessage());
-                        t.printStackTrace();
+                        LOG.error("startGame() explotó: " + t.getMessage(), t);
                         // dejamos el thread vivo para que puedas volver a intentar
                         partidaArrancada = false;
                     }
@@ -162,6 +218,23 @@ public class ServerThread extends Thread {
 
         switch (parts[0]) {
 
+            case CMD_PONG: {
+                // Pong:id
+                Integer id = (parts.length >= 2) ? tryParseInt(parts[1]) : null;
+                if (id == null) {
+                    metricas.falloParseo();
+                    break;
+                }
+                long rttNs = client.registrarPong(id, System.nanoTime());
+                if (rttNs >= 0) metricas.registrarRttUs(client.getNum(), rttNs / 1_000L);
+                break;
+            }
+
+            case CMD_DISCONNECT: {
+                desconectar(client, "Disconnect");
+                break;
+            }
+
             case CMD_MOVE: {
                 // Move:dx:dy
                 if (parts.length >= 3) {
@@ -170,7 +243,8 @@ public class ServerThread extends Thread {
                     if (dx != null && dy != null) {
                         gameController.move(client.getNum(), dx, dy);
                     } else {
-                        System.out.println("[SERVER] Move mal formado: " + message);
+                        metricas.falloParseo();
+                        LOG.warn("Move mal formado: " + message);
                     }
                 }
                 break;
@@ -185,7 +259,8 @@ public class ServerThread extends Thread {
                     if (id != null && px != null && py != null) {
                         gameController.spawn(id, px, py);
                     } else {
-                        System.out.println("[SERVER] Spawn mal formado: " + message);
+                        metricas.falloParseo();
+                        LOG.warn("Spawn mal formado: " + message);
                     }
                 }
                 break;
@@ -204,7 +279,8 @@ public class ServerThread extends Thread {
                 if (parts.length >= 5) {
                     Integer parsedPlayer = tryParseInt(parts[1]);
                     if (parsedPlayer == null) {
-                        System.out.println("[SERVER] Door mal formado (player): " + message);
+                        metricas.falloParseo();
+                        LOG.warn("Door mal formado (player): " + message);
                         break;
                     }
 
@@ -219,14 +295,14 @@ public class ServerThread extends Thread {
                     dir = parts[3];
 
                 } else {
-                    System.out.println("[SERVER] Door mal formado: " + message);
+                    metricas.falloParseo();
+                    LOG.warn("Door mal formado: " + message);
                     break;
                 }
 
-                System.out.println("[SERVER] Door OK -> P" + playerNum + " " + origen + " -> " + destino + " (" + dir + ")");
                 // ✅ Puertas ahora son autoritativas por contacto en el server.
                 // Ignoramos mensajes Door desde cliente para evitar desync/cheat.
-                System.out.println("[SERVER] Ignorando Door desde cliente: " + message);
+                if (LOG.debug()) LOG.debug("Ignorando Door desde cliente: P" + playerNum + " " + origen + " -> " + destino + " (" + dir + ")");
                 break;
             }
 
@@ -261,7 +337,7 @@ public class ServerThread extends Thread {
                         try {
                             ((server.GameControllerImpl) gameController).enviarSnapshotHudPara(finalPlayerNum);
                         } catch (Throwable t) {
-                            System.out.println("[SERVER] Ready->snapshot fallo: " + t.getMessage());
+                            LOG.error("Ready->snapshot fallo: " + t.getMessage(), t);
                         }
                     });
                 }
@@ -269,11 +345,80 @@ public class ServerThread extends Thread {
             }
 
             default:
-                // ignorar desconocidos
+                // ignorar desconocidos (comandos nuevos / de otra versión): no es un fallo de parseo
+                metricas.mensajeDesconocido();
                 break;
         }
     }
 
+    // =====================
+    // Keepalive / desconexión
+    // =====================
+
+    private void revisarConexiones() {
+        if (clients.isEmpty()) return;
+        long ahora = System.nanoTime();
+
+        // ✅ timeouts primero: a un muerto no le mandamos ping
+        if (TIMEOUT_MS > 0) {
+            long timeoutNs = TIMEOUT_MS * 1_000_000L;
+            for (Client c : clients) {
+                boolean vigilado = partidaArrancada || c.respondePing();
+                if (vigilado && ahora - c.getUltimaActividadNs() > timeoutNs) desconectar(c, "timeout");
+            }
+        }
+
+        if (ahora - proximoPingNs < 0) return;
+        proximoPingNs = ahora + PING_INTERVALO_MS * 1_000_000L;
+
+        int id = siguientePing++;
+        for (Client c : clients) {
+            c.registrarPing(id, ahora);
+            sendMessage(MSG_PING + SEP + id, c.getIp(), c.getPort());
+        }
+    }
+
+    /**
+     * Libera el slot del cliente. En lobby solo se va él; con partida en curso la partida termina
+     * (es cooperativa de 2): el que queda recibe PlayerLeft:N + GameOver:N (N = el que se fue) y el
+     * GameController detiene la simulación y resetea el lobby fuera de este hilo.
+     */
+    private void desconectar(Client client, String motivo) {
+        boolean estaba;
+        boolean enPartida;
+        synchronized (this) {
+            estaba = clients.remove(client);
+            if (estaba) connectedClients--;
+            enPartida = partidaArrancada;
+        }
+        if (!estaba) return;
+
+        LOG.info("P" + client.getNum() + " desconectado (" + motivo + ") " + client.getId());
+        String left = MSG_PLAYER_LEFT + SEP + client.getNum();
+        // también al que se va: si el timeout fue un falso positivo, se entera de que perdió el slot
+        sendMessage(left, client.getIp(), client.getPort());
+        sendMessageToAll(left);
+
+        if (enPartida) {
+            // mismo formato que la muerte de un jugador (GameControllerImpl): GameOver:playerNum
+            sendMessageToAll("GameOver" + SEP + client.getNum());
+            // ✅ no seguimos simulando ni mandando snapshots a una dirección muerta
+            gameController.jugadorDesconectado(client.getNum());
+        }
+    }
+
+    /** Número de jugador más bajo sin usar (1..MAX_CLIENTS). */
+    private int slotLibre() {
+        for (int n = 1; n <= MAX_CLIENTS; n++) {
+            boolean usado = false;
+            for (Client c : clients) {
+                if (c.getNum() == n) { usado = true; break; }
+            }
+            if (!usado) return n;
+        }
+        return MAX_CLIENTS + 1; // no pasa: se chequea connectedClients antes
+    }
+
     private int findClientIndex(InetAddress ip, int port) {
         String id = Client.buildId(ip, port);
         for (int i = 0; i < clients.size(); i++) {
@@ -289,15 +434,17 @@ public class ServerThread extends Thread {
         if (socket == null || socket.isClosed()) return;
 
         byte[] data = message.getBytes();
+        metricas.paqueteSaliente(message, data.length);
         DatagramPacket packet = new DatagramPacket(data, data.length, clientIp, clientPort);
 
         try {
             socket.send(packet);
         } catch (IOException e) {
-            System.out.println("[SERVER] Send error: " + e.getMessage());
+            LOG.warn("Send error: " + e.getMessage());
         }
     }
 
+    @Override
     public void sendMessageToAll(String message) {
         for (Client client : clients) {
             sendMessage(message, client.getIp(), client.getPort());
@@ -305,6 +452,7 @@ public class ServerThread extends Thread {
     }
 
     /** Envia un mensaje SOLO al cliente asociado a ese playerNum (1..MAX_CLIENTS). */
+    @Override
     public void sendMessageToPlayer(int playerNum, String message) {
         if (playerNum < 1) return;
         for (Client client : clients) {
@@ -320,13 +468,14 @@ public class ServerThread extends Thread {
      * sin tener que reiniciar el server. No cierra el socket.
      * Se usa cuando termina una partida (GameOver/Victoria).
      */
+    @Override
     public synchronized void resetLobby() {
         connectedClients = 0;
         clients.clear();
         partidaArrancada = false;
         seedPartida = 0L;
         nivelPartida = 1;
-        System.out.println("[SERVER] Lobby reseteado (esperando nuevos Connect)");
+        LOG.info("Lobby reseteado (esperando nuevos Connect)");
     }
 
     public void terminate() {
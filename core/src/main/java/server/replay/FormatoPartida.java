@@ -0,0 +1,60 @@
+package server.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Formato binario del log de partida (append-only, big-endian):
+ *
+ *   cabecera: int MAGIA, short VERSION
+ *   registro: byte tipo, varint deltaTick, payload según tipo
+ *
+ * El tick es el de simulación (60 Hz) y no se reinicia al pasar de nivel.
+ * Un comando grabado en el tick T se aplica al inicio del tick T (antes del step).
+ */
+public final class FormatoPartida {
+
+    public static final int MAGIA = 0x52475250; // "RGRP"
+    public static final short VERSION = 2;
+
+    public static final String EXTENSION = ".rgr";
+
+    // ===== tipos de registro =====
+    public static final byte CONFIG = 1;          // long semilla, varint nivel
+    public static final byte MOVE = 2;            // byte jugador, byte dx, byte dy
+    public static final byte SPAWN = 3;           // byte jugador, float x, float y
+    public static final byte ROOM_CLEAR = 4;      // byte jugador, varint ordinal de Habitacion
+    public static final byte NEXT_LEVEL = 5;      // byte jugador
+    public static final byte SORTEO_ITEM = 6;     // varint ordinal de ItemTipo (drop que salió)
+    public static final byte SEMILLA_NIVEL = 7;   // long semilla, varint nivel
+    public static final byte CHECKSUM = 8;        // long hash del estado al final del tick
+    public static final byte FIN = 9;             // sin payload
+
+    // checksum de estado cada 1s de simulación
+    public static final int TICKS_CHECKSUM = 60;
+
+    private FormatoPartida() {}
+
+    // ===== varints (LEB128 sin signo) =====
+
+    static void escribirVarint(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    static long leerVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+            if (shift > 63) throw new IOException("Varint corrupto");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package server.replay;
+
+import entidades.items.ItemTipo;
+
+/**
+ * Lo aleatorio que decide el server durante una partida y no sale de la semilla.
+ *
+ * En juego sale del sistema (reloj); al reproducir una partida sale del log grabado,
+ * así la simulación vuelve a tomar exactamente las mismas decisiones.
+ * Los drops ya son deterministas (RNG derivado de la semilla): acá solo se avisan para verificarlos.
+ */
+public interface FuenteAleatoria {
+
+    /** Semilla del siguiente nivel (al pasar de nivel). */
+    long semillaNivel();
+
+    /** Aviso: apareció un drop de este tipo (el reproductor lo compara con la grabación). */
+    default void itemSorteado(ItemTipo tipo) {}
+
+    static FuenteAleatoria sistema() {
+        return System::currentTimeMillis;
+    }
+}
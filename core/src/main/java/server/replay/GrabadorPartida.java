@@ -0,0 +1,169 @@
+package server.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import telemetria.Log;
+
+/**
+ * Graba una partida del server en un log binario append-only (ver FormatoPartida).
+ *
+ * Se graba solo lo que no se puede recalcular: semilla/nivel y comandos de clientes con su tick.
+ * Los drops salen de la semilla; igual se anotan para que el reproductor los verifique. Cada TICKS_CHECKSUM ticks va un checksum del estado, que el
+ * reproductor usa para detectar en qué tick diverge una simulación.
+ *
+ * Si falla el disco, la grabación se desactiva y la partida sigue (nunca tira la simulación).
+ */
+public final class GrabadorPartida {
+
+    private static final Log.Categoria LOG = Log.categoria("REPLAY");
+
+    private final Path carpeta;
+
+    private DataOutputStream out;
+    private Path archivoActual;
+    private long ultimoTick = 0L;
+
+    public GrabadorPartida(Path carpeta) {
+        this.carpeta = carpeta;
+    }
+
+    public synchronized Path getArchivoActual() {
+        return archivoActual;
+    }
+
+    public synchronized boolean estaGrabando() {
+        return out != null;
+    }
+
+    /** Nueva partida: cierra la anterior (si quedó abierta) y abre un archivo nuevo. */
+    public synchronized void iniciar(long semilla, int nivel) {
+        cerrar(ultimoTick);
+        try {
+            Files.createDirectories(carpeta);
+            archivoActual = carpeta.resolve("partida-" + semilla + FormatoPartida.EXTENSION);
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivoActual,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+            out.writeInt(FormatoPartida.MAGIA);
+            out.writeShort(FormatoPartida.VERSION);
+            ultimoTick = 0L;
+
+            cabecera(FormatoPartida.CONFIG, 0L);
+            out.writeLong(semilla);
+            FormatoPartida.escribirVarint(out, nivel);
+            LOG.info("Grabando partida en " + archivoActual);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarMove(long tick, int jugador, int dx, int dy) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.MOVE, tick);
+            out.writeByte(jugador);
+            out.writeByte(dx);
+            out.writeByte(dy);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarSpawn(long tick, int jugador, float x, float y) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.SPAWN, tick);
+            out.writeByte(jugador);
+            out.writeFloat(x);
+            out.writeFloat(y);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarRoomClear(long tick, int jugador, int ordinalSala) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.ROOM_CLEAR, tick);
+            out.writeByte(jugador);
+            FormatoPartida.escribirVarint(out, ordinalSala);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarNextLevel(long tick, int jugador) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.NEXT_LEVEL, tick);
+            out.writeByte(jugador);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarSorteoItem(long tick, int ordinalTipo) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.SORTEO_ITEM, tick);
+            FormatoPartida.escribirVarint(out, ordinalTipo);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    public synchronized void registrarSemillaNivel(long tick, long semilla, int nivel) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.SEMILLA_NIVEL, tick);
+            out.writeLong(semilla);
+            FormatoPartida.escribirVarint(out, nivel);
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    /** Checksum del estado al final del tick. Aprovecha para bajar el buffer a disco (1 vez por segundo). */
+    public synchronized void registrarChecksum(long tick, long hash) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.CHECKSUM, tick);
+            out.writeLong(hash);
+            out.flush();
+        } catch (IOException e) {
+            fallo(e);
+        }
+    }
+
+    /** Fin de partida: marca FIN y cierra el archivo. */
+    public synchronized void cerrar(long tick) {
+        if (out == null) return;
+        try {
+            cabecera(FormatoPartida.FIN, Math.max(tick, ultimoTick));
+            out.close();
+        } catch (IOException e) {
+            LOG.warn("Error cerrando grabación: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private void cabecera(byte tipo, long tick) throws IOException {
+        // los ticks nunca bajan: si llega uno viejo lo pegamos al último
+        long t = Math.max(tick, ultimoTick);
+        out.writeByte(tipo);
+        FormatoPartida.escribirVarint(out, t - ultimoTick);
+        ultimoTick = t;
+    }
+
+    private void fallo(IOException e) {
+        LOG.error("Grabación desactivada: " + e.getMessage());
+        try {
+            if (out != null) out.close();
+        } catch (IOException ignored) {}
+        out = null;
+    }
+}
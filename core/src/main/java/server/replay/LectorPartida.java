@@ -0,0 +1,87 @@
+package server.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee un log de partida completo a memoria (son pocos KB por minuto de juego).
+ * Un archivo cortado (server que murió sin cerrar) se lee hasta el último registro completo.
+ */
+public final class LectorPartida {
+
+    private LectorPartida() {}
+
+    public static List<RegistroPartida> leer(Path archivo) throws IOException {
+        List<RegistroPartida> registros = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != FormatoPartida.MAGIA) {
+                throw new IOException("No es un log de partida: " + archivo);
+            }
+            short version = in.readShort();
+            if (version != FormatoPartida.VERSION) {
+                throw new IOException("Versión de log no soportada: " + version);
+            }
+
+            long tick = 0L;
+            while (true) {
+                int tipo = in.read();
+                if (tipo < 0) break;
+
+                try {
+                    tick += FormatoPartida.leerVarint(in);
+                    RegistroPartida r = leerPayload((byte) tipo, tick, in);
+                    registros.add(r);
+                    if (tipo == FormatoPartida.FIN) break;
+                } catch (EOFException cortado) {
+                    break;
+                }
+            }
+        }
+        return registros;
+    }
+
+    private static RegistroPartida leerPayload(byte tipo, long tick, DataInputStream in) throws IOException {
+        switch (tipo) {
+            case FormatoPartida.CONFIG:
+            case FormatoPartida.SEMILLA_NIVEL: {
+                long semilla = in.readLong();
+                int nivel = (int) FormatoPartida.leerVarint(in);
+                return new RegistroPartida(tipo, tick, 0, nivel, 0, 0f, 0f, semilla);
+            }
+            case FormatoPartida.MOVE: {
+                int jugador = in.readByte();
+                int dx = in.readByte();
+                int dy = in.readByte();
+                return new RegistroPartida(tipo, tick, jugador, dx, dy, 0f, 0f, 0L);
+            }
+            case FormatoPartida.SPAWN: {
+                int jugador = in.readByte();
+                float x = in.readFloat();
+                float y = in.readFloat();
+                return new RegistroPartida(tipo, tick, jugador, 0, 0, x, y, 0L);
+            }
+            case FormatoPartida.ROOM_CLEAR: {
+                int jugador = in.readByte();
+                int sala = (int) FormatoPartida.leerVarint(in);
+                return new RegistroPartida(tipo, tick, jugador, sala, 0, 0f, 0f, 0L);
+            }
+            case FormatoPartida.NEXT_LEVEL:
+                return new RegistroPartida(tipo, tick, in.readByte(), 0, 0, 0f, 0f, 0L);
+            case FormatoPartida.SORTEO_ITEM:
+                return new RegistroPartida(tipo, tick, 0, (int) FormatoPartida.leerVarint(in), 0, 0f, 0f, 0L);
+            case FormatoPartida.CHECKSUM:
+                return new RegistroPartida(tipo, tick, 0, 0, 0, 0f, 0f, in.readLong());
+            case FormatoPartida.FIN:
+                return new RegistroPartida(tipo, tick, 0, 0, 0, 0f, 0f, 0L);
+            default:
+                throw new IOException("Tipo de registro desconocido: " + tipo);
+        }
+    }
+}
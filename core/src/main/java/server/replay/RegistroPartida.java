@@ -0,0 +1,20 @@
+package server.replay;
+
+/**
+ * Un registro leído del log de partida. Los campos que no usa el tipo quedan en 0.
+ *
+ * - MOVE: jugador, a=dx, b=dy
+ * - SPAWN: jugador, x, y
+ * - ROOM_CLEAR: jugador, a=ordinal de Habitacion
+ * - NEXT_LEVEL: jugador
+ * - SORTEO_ITEM: a=ordinal de ItemTipo
+ * - CONFIG / SEMILLA_NIVEL: valor=semilla, a=nivel
+ * - CHECKSUM: valor=hash
+ */
+public record RegistroPartida(byte tipo, long tick, int jugador, int a, int b, float x, float y, long valor) {
+
+    public boolean esComando() {
+        return tipo == FormatoPartida.MOVE || tipo == FormatoPartida.SPAWN
+            || tipo == FormatoPartida.ROOM_CLEAR || tipo == FormatoPartida.NEXT_LEVEL;
+    }
+}
@@ -0,0 +1,65 @@
+package server.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+
+/**
+ * App sin render que reproduce una partida grabada (mismo backend que ServerApp, ventana oculta).
+ * Carga el TMX en el hilo GL, reproduce N veces y sale.
+ */
+public class ReplayApp extends ApplicationAdapter {
+
+    private final Path archivo;
+    private final int repeticiones;
+
+    private volatile boolean fiel = true;
+
+    public ReplayApp(Path archivo, int repeticiones) {
+        this.archivo = archivo;
+        this.repeticiones = Math.max(1, repeticiones);
+    }
+
+    /** @return false si alguna repetición divergió de la partida grabada (o no se pudo leer). */
+    public boolean esFiel() {
+        return fiel;
+    }
+
+    @Override
+    public void create() {
+        TiledMap map = null;
+        try {
+            List<RegistroPartida> registros = LectorPartida.leer(archivo);
+            System.out.println("[REPLAY] " + archivo + ": " + registros.size() + " registros");
+
+            map = new TmxMapLoader().load("TMX/mapa.tmx");
+            ReproductorPartida reproductor = new ReproductorPartida(map);
+
+            for (int i = 1; i <= repeticiones; i++) {
+                ReproductorPartida.Resultado r = reproductor.reproducir(registros);
+                System.out.println("[REPLAY] #" + i + " " + r);
+                if (!r.esFiel()) fiel = false;
+            }
+        } catch (IOException e) {
+            System.out.println("[REPLAY] No se pudo leer " + archivo + ": " + e.getMessage());
+            fiel = false;
+        } finally {
+            if (map != null) map.dispose();
+            Gdx.app.exit();
+        }
+    }
+
+    public static ReplayApp desdeArgs(String[] args) {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Uso: replay <archivo" + FormatoPartida.EXTENSION + "> [repeticiones]");
+        }
+        int reps = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        return new ReplayApp(Paths.get(args[0]), reps);
+    }
+}
@@ -0,0 +1,201 @@
+package server.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import entidades.items.ItemTipo;
+import mapa.model.Habitacion;
+import server.CanalSalida;
+import server.GameControllerImpl;
+
+/**
+ * Re-ejecuta una partida grabada sobre un GameControllerImpl real, sin red y a máxima velocidad.
+ *
+ * - Los comandos se inyectan por la misma API que usa el ServerThread, en su tick grabado.
+ * - Las semillas de nivel salen del log y cada drop se compara con el grabado (FuenteGrabada).
+ * - Cada checksum grabado se compara con el de la simulación: la primera diferencia marca
+ *   el tick donde divergió (oráculo de regresión). El tiempo total sirve de benchmark repetible.
+ */
+public final class ReproductorPartida {
+
+    public static final class Resultado {
+        public long ticks;
+        public long nanos;
+        public long mensajes;
+        public int checksumsOk;
+        public int checksumsTotal;
+        public int divergencias;
+        public long primerTickDivergente = -1L;
+        public int nivelFinal;
+
+        public boolean esFiel() {
+            return divergencias == 0;
+        }
+
+        public double ticksPorSegundo() {
+            return nanos > 0 ? ticks * 1_000_000_000.0 / nanos : 0.0;
+        }
+
+        void divergencia(long tick) {
+            divergencias++;
+            if (primerTickDivergente < 0) primerTickDivergente = tick;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ticks=%d (%.1fs de juego) en %.1f ms | %.0f ticks/s (x%.0f tiempo real) | mensajes=%d | "
+                    + "checksums %d/%d | divergencias=%d%s | nivel final=%d",
+                ticks, ticks / 60.0, nanos / 1_000_000.0, ticksPorSegundo(), ticksPorSegundo() / 60.0, mensajes,
+                checksumsOk, checksumsTotal, divergencias,
+                (primerTickDivergente >= 0 ? " (primera en tick " + primerTickDivergente + ")" : ""), nivelFinal);
+        }
+    }
+
+    private final TiledMap map;
+
+    public ReproductorPartida(TiledMap map) {
+        this.map = map;
+    }
+
+    public Resultado reproducir(List<RegistroPartida> registros) {
+        if (registros.isEmpty() || registros.get(0).tipo() != FormatoPartida.CONFIG) {
+            throw new IllegalArgumentException("El log no empieza con CONFIG");
+        }
+        RegistroPartida config = registros.get(0);
+
+        Resultado res = new Resultado();
+        CanalConteo canal = new CanalConteo();
+
+        GameControllerImpl game = new GameControllerImpl();
+        FuenteGrabada fuente = new FuenteGrabada(registros, game, res);
+        game.setTiledMap(map);
+        game.setServer(canal);
+        game.setFuenteAleatoria(fuente);
+        game.setLoopExterno(true);
+        game.configure(config.valor(), config.a());
+
+        List<RegistroPartida> checksums = new ArrayList<>();
+        for (RegistroPartida r : registros) {
+            if (r.tipo() == FormatoPartida.CHECKSUM) checksums.add(r);
+        }
+        long ultimoTick = registros.get(registros.size() - 1).tick();
+
+        long t0 = System.nanoTime();
+        game.startGame();
+
+        int i = 1;
+        int c = 0;
+        final int n = registros.size();
+        while (game.estaSimulando() && game.getTick() <= ultimoTick) {
+            long tick = game.getTick();
+
+            // comandos grabados en este tick (lo demás lo consume la fuente o el chequeo de checksums)
+            while (i < n && registros.get(i).tick() <= tick) {
+                RegistroPartida r = registros.get(i++);
+                if (r.esComando()) aplicarComando(game, r);
+            }
+
+            game.tick();
+
+            while (c < checksums.size() && checksums.get(c).tick() < tick) {
+                // checksum de un tick que no llegamos a simular igual
+                res.checksumsTotal++;
+                res.divergencia(checksums.get(c++).tick());
+            }
+            if (c < checksums.size() && checksums.get(c).tick() == tick) {
+                res.checksumsTotal++;
+                if (checksums.get(c++).valor() == game.getUltimoChecksum()) res.checksumsOk++;
+                else res.divergencia(tick);
+            }
+        }
+
+        res.nanos = System.nanoTime() - t0;
+        res.ticks = game.getTick();
+        res.mensajes = canal.mensajes;
+        res.nivelFinal = game.getNivel();
+
+        // checksums que quedaron sin comparar (la simulación terminó antes que la grabada)
+        while (c < checksums.size()) {
+            res.checksumsTotal++;
+            res.divergencia(checksums.get(c++).tick());
+        }
+
+        game.stop();
+        return res;
+    }
+
+    private static void aplicarComando(GameControllerImpl game, RegistroPartida r) {
+        switch (r.tipo()) {
+            case FormatoPartida.MOVE:
+                game.move(r.jugador(), r.a(), r.b());
+                break;
+            case FormatoPartida.SPAWN:
+                game.spawn(r.jugador(), r.x(), r.y());
+                break;
+            case FormatoPartida.ROOM_CLEAR:
+                Habitacion[] salas = Habitacion.values();
+                if (r.a() >= 0 && r.a() < salas.length) game.roomClearRequest(r.jugador(), salas[r.a()].name());
+                break;
+            case FormatoPartida.NEXT_LEVEL:
+                game.nextLevelRequest(r.jugador());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // =====================
+    // Red / aleatoriedad de mentira
+    // =====================
+
+    /** Canal sin red: solo cuenta lo que el server hubiera mandado. */
+    private static final class CanalConteo implements CanalSalida {
+        long mensajes = 0L;
+
+        @Override public void sendMessageToAll(String message) { mensajes++; }
+        @Override public void sendMessageToPlayer(int playerNum, String message) { mensajes++; }
+        @Override public void resetLobby() {}
+    }
+
+    /** Devuelve las semillas grabadas en orden y verifica los drops; si no coinciden (tick o valor) cuenta divergencia. */
+    private static final class FuenteGrabada implements FuenteAleatoria {
+        private final List<RegistroPartida> sorteos = new ArrayList<>();
+        private final List<RegistroPartida> semillas = new ArrayList<>();
+        private final GameControllerImpl game;
+        private final Resultado res;
+        private int iSorteo = 0;
+        private int iSemilla = 0;
+
+        FuenteGrabada(List<RegistroPartida> registros, GameControllerImpl game, Resultado res) {
+            this.game = game;
+            this.res = res;
+            for (RegistroPartida r : registros) {
+                if (r.tipo() == FormatoPartida.SORTEO_ITEM) sorteos.add(r);
+                else if (r.tipo() == FormatoPartida.SEMILLA_NIVEL) semillas.add(r);
+            }
+        }
+
+        @Override
+        public void itemSorteado(ItemTipo tipo) {
+            if (iSorteo >= sorteos.size()) {
+                res.divergencia(game.getTick());
+                return;
+            }
+            RegistroPartida r = sorteos.get(iSorteo++);
+            if (r.tick() != game.getTick() || r.a() != tipo.ordinal()) res.divergencia(game.getTick());
+        }
+
+        @Override
+        public long semillaNivel() {
+            if (iSemilla >= semillas.size()) {
+                res.divergencia(game.getTick());
+                return 0L;
+            }
+            RegistroPartida r = semillas.get(iSemilla++);
+            if (r.tick() != game.getTick()) res.divergencia(game.getTick());
+            return r.valor();
+        }
+    }
+}
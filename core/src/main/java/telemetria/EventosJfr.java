@@ -0,0 +1,109 @@
+package telemetria;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Eventos JFR propios del servidor (fases del tick, generación de nivel y red).
+ *
+ * Uso: java -XX:StartFlightRecording=settings=default,filename=server.jfr ...
+ * y en JMC/`jfr print --events roomguelike.*` se ve qué fase se comió el presupuesto de 16.6ms.
+ *
+ * - Sin grabación activa, begin()/commit() no hacen nada (y el objeto no escapa).
+ * - Las fases por tick tienen umbral: solo se graban las lentas, para poder dejar JFR prendido siempre.
+ * - Sin stack trace: el nombre del evento ya dice dónde fue.
+ */
+public final class EventosJfr {
+
+    private static final String CATEGORIA = "Roomguelike";
+
+    private EventosJfr() {}
+
+    // =====================
+    // Por tick
+    // =====================
+
+    @Name("roomguelike.Tick")
+    @Label("Tick de servidor")
+    @Description("Tick completo (comandos, física, IA, lógica y red)")
+    @Category({ CATEGORIA, "Tick" })
+    @StackTrace(false)
+    @Threshold("10 ms")
+    public static final class Tick extends Event {
+        @Label("Tick") public long tick;
+        @Label("Sala") public String sala;
+    }
+
+    @Name("roomguelike.StepFisica")
+    @Label("world.step")
+    @Category({ CATEGORIA, "Tick" })
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class StepFisica extends Event {
+        @Label("Tick") public long tick;
+        @Label("Cuerpos") public int cuerpos;
+        @Label("Contactos") public int contactos;
+    }
+
+    @Name("roomguelike.IaEnemigos")
+    @Label("IA de enemigos")
+    @Category({ CATEGORIA, "Tick" })
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class IaEnemigos extends Event {
+        @Label("Tick") public long tick;
+        @Label("Sala") public String sala;
+        @Label("Enemigos") public int enemigos;
+    }
+
+    @Name("roomguelike.Snapshot")
+    @Label("Snapshot de red")
+    @Description("Armado y envío de posiciones a los clientes")
+    @Category({ CATEGORIA, "Red" })
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class Snapshot extends Event {
+        @Label("Tick") public long tick;
+        @Label("Mensajes") public int mensajes;
+        @Label("Bytes") @DataAmount public long bytes;
+    }
+
+    // =====================
+    // Por nivel
+    // =====================
+
+    @Name("roomguelike.GeneracionMapa")
+    @Label("GeneradorMapa.generar")
+    @Category({ CATEGORIA, "Nivel" })
+    @StackTrace(false)
+    public static final class GeneracionMapa extends Event {
+        @Label("Nivel") public int nivel;
+        @Label("Semilla") public long semilla;
+        @Label("Nodos expandidos") public long nodosExpandidos;
+        @Label("Candidatos") public int candidatos;
+        @Label("Salas del piso") public int salas;
+    }
+
+    @Name("roomguelike.InitFisica")
+    @Label("initFisicaServidor")
+    @Category({ CATEGORIA, "Nivel" })
+    @StackTrace(false)
+    public static final class InitFisica extends Event {
+        @Label("Nivel") public int nivel;
+        @Label("Cuerpos") public int cuerpos;
+    }
+
+    @Name("roomguelike.Colisiones")
+    @Label("ColisionesDesdeTiled.crearColisiones")
+    @Category({ CATEGORIA, "Nivel" })
+    @StackTrace(false)
+    public static final class Colisiones extends Event {
+        @Label("Colisiones creadas") public int creadas;
+    }
+}
@@ -0,0 +1,117 @@
+package telemetria;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de tiempos en microsegundos, log-lineal (8 sub-buckets por potencia de 2: error &lt; 12.5%).
+ *
+ * - registrar() es O(1) y no aloca: se puede llamar en cada tick.
+ * - Un solo hilo escribe (el del loop), cualquiera puede leer percentiles (lectura aproximada, sin lock).
+ * - Acumula desde el arranque (o el último reiniciar()).
+ */
+public final class HistogramaTiempos {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;          // 8
+    private static final int LINEAL = SUB * 2;             // 0..15 us exactos
+    private static final int MAX_EXP = 32;                 // ~71 min, de sobra
+    private static final int CANT_BUCKETS = LINEAL + (MAX_EXP - SUB_BITS - 1) * SUB;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(CANT_BUCKETS);
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong sumaUs = new AtomicLong();
+    private final AtomicLong maxUs = new AtomicLong();
+
+    public void registrarNs(long nanos) {
+        registrarUs(Math.max(0L, nanos) / 1_000L);
+    }
+
+    public void registrarUs(long us) {
+        if (us < 0) us = 0;
+        buckets.incrementAndGet(indice(us));
+        cantidad.incrementAndGet();
+        sumaUs.addAndGet(us);
+        if (us > maxUs.get()) maxUs.set(us); // un solo escritor
+    }
+
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    public long getMaxUs() {
+        return maxUs.get();
+    }
+
+    public double getPromedioUs() {
+        long n = cantidad.get();
+        return n > 0 ? (double) sumaUs.get() / n : 0.0;
+    }
+
+    /** @param p en [0, 100]. Devuelve el límite superior del bucket (0 si está vacío). */
+    public long percentilUs(double p) {
+        long n = cantidad.get();
+        if (n == 0) return 0L;
+
+        long objetivo = (long) Math.ceil(n * Math.min(100.0, Math.max(0.0, p)) / 100.0);
+        if (objetivo < 1) objetivo = 1;
+
+        long acumulado = 0;
+        for (int i = 0; i < CANT_BUCKETS; i++) {
+            acumulado += buckets.get(i);
+            if (acumulado >= objetivo) return Math.min(limiteSuperior(i), maxUs.get());
+        }
+        return maxUs.get();
+    }
+
+    /** Acumula otro histograma en este (para agregar varios servidores en un reporte). */
+    public void sumar(HistogramaTiempos otro) {
+        for (int i = 0; i < CANT_BUCKETS; i++) {
+            long n = otro.buckets.get(i);
+            if (n != 0) buckets.addAndGet(i, n);
+        }
+        cantidad.addAndGet(otro.cantidad.get());
+        sumaUs.addAndGet(otro.sumaUs.get());
+        if (otro.maxUs.get() > maxUs.get()) maxUs.set(otro.maxUs.get());
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < CANT_BUCKETS; i++) buckets.set(i, 0L);
+        cantidad.set(0L);
+        sumaUs.set(0L);
+        maxUs.set(0L);
+    }
+
+    /** Una línea: n, promedio, p50/p90/p99/p99.9 y máximo (en us). */
+    public void reportar(StringBuilder sb, String nombre) {
+        sb.append(nombre)
+          .append(" n=").append(getCantidad())
+          .append(" avg=").append(String.format("%.1f", getPromedioUs()))
+          .append(" p50=").append(percentilUs(50))
+          .append(" p90=").append(percentilUs(90))
+          .append(" p99=").append(percentilUs(99))
+          .append(" p999=").append(percentilUs(99.9))
+          .append(" max=").append(getMaxUs())
+          .append(" us\n");
+    }
+
+    // ===== buckets =====
+
+    private static int indice(long us) {
+        if (us < LINEAL) return (int) us;
+        int exp = 63 - Long.numberOfLeadingZeros(us);          // >= SUB_BITS + 1
+        if (exp >= MAX_EXP) return CANT_BUCKETS - 1;
+        int sub = (int) (us >>> (exp - SUB_BITS)) & (SUB - 1);
+        return LINEAL + (exp - SUB_BITS - 1) * SUB + sub;
+    }
+
+    private static long limiteSuperior(int i) {
+        if (i < LINEAL) return i;
+        int k = i - LINEAL;
+        int exp = k / SUB + SUB_BITS + 1;
+        int sub = k % SUB;
+        long base = 1L << exp;
+        long paso = 1L << (exp - SUB_BITS);
+        return base + (sub + 1) * paso - 1;
+    }
+}
@@ -0,0 +1,245 @@
+package telemetria;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log asincrónico por categorías (reemplaza los System.out del servidor y la generación de mapa).
+ *
+ * - Niveles por categoría. Lo que no pasa el nivel no arma el String si se usa el guard (if (LOG.debug())).
+ * - Handoff sin locks: ring acotado MPSC; un hilo daemon escribe a stdout en tandas.
+ *   Si el ring se llena, el mensaje se descarta y se cuenta (nunca bloquea red ni física).
+ * - Por categoría: muestreo (1 de cada N) y límite de mensajes por segundo; lo suprimido se resume en una línea.
+ *
+ * Perfiles (-Dlog.perfil): "produccion" (por defecto: INFO, RED.PAQUETES apagado) o "desarrollo" (DEBUG).
+ * Por categoría: -Dlog.RED=WARN, -Dlog.RED.muestreo=10, -Dlog.RED.porSegundo=50
+ */
+public final class Log {
+
+    public enum Nivel { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final int CAPACIDAD = 4096; // potencia de 2
+    private static final long ESPERA_VACIO_NS = 2_000_000L;
+
+    private static final boolean DESARROLLO = "desarrollo".equalsIgnoreCase(System.getProperty("log.perfil", "produccion"));
+    private static final Nivel NIVEL_POR_DEFECTO = DESARROLLO ? Nivel.DEBUG : Nivel.INFO;
+    private static final int POR_SEGUNDO_POR_DEFECTO = 200;
+
+    /** Sufijo de categorías que loguean por paquete: apagadas en producción, muestreadas en desarrollo. */
+    public static final String SUFIJO_PAQUETES = ".PAQUETES";
+    private static final int MUESTREO_PAQUETES_DESARROLLO = 30;
+
+    private static final ConcurrentHashMap<String, Categoria> CATEGORIAS = new ConcurrentHashMap<>();
+
+    // ===== ring MPSC acotado (secuencia por slot) =====
+    private static final AtomicReferenceArray<Entrada> RING = new AtomicReferenceArray<>(CAPACIDAD);
+    private static final AtomicLongArray SECUENCIA = new AtomicLongArray(CAPACIDAD);
+    private static final AtomicLong COLA = new AtomicLong();
+    private static long cabeza = 0; // solo el escritor
+    private static final AtomicLong DESCARTADOS = new AtomicLong();
+
+    private static volatile Thread escritor;
+    private static final PrintStream SALIDA = System.out;
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    static {
+        for (int i = 0; i < CAPACIDAD; i++) SECUENCIA.set(i, i);
+    }
+
+    private Log() {}
+
+    /** Categoría con nombre fijo (ej: "RED"). Guardarla en un static final: el lookup es una sola vez. */
+    public static Categoria categoria(String nombre) {
+        return CATEGORIAS.computeIfAbsent(nombre, Categoria::new);
+    }
+
+    public static long getDescartados() {
+        return DESCARTADOS.get();
+    }
+
+    /** Escribe lo pendiente en el hilo actual (al cerrar el server). */
+    public static void vaciar() {
+        drenar();
+        SALIDA.flush();
+    }
+
+    // =====================
+    // Categoría
+    // =====================
+
+    public static final class Categoria {
+        private final String nombre;
+        private volatile Nivel nivel;
+        private volatile int muestreo;     // 1 = todos
+        private volatile int porSegundo;   // 0 = sin límite
+
+        private final AtomicLong vistos = new AtomicLong();
+        private final AtomicLong ventanaSeg = new AtomicLong();
+        private final AtomicInteger enVentana = new AtomicInteger();
+        private final AtomicInteger suprimidos = new AtomicInteger();
+
+        private Categoria(String nombre) {
+            this.nombre = nombre;
+            boolean porPaquete = nombre.endsWith(SUFIJO_PAQUETES);
+            this.nivel = leerNivel(nombre, (porPaquete && !DESARROLLO) ? Nivel.OFF : NIVEL_POR_DEFECTO);
+            int muestreoBase = (porPaquete && DESARROLLO) ? MUESTREO_PAQUETES_DESARROLLO : 1;
+            this.muestreo = Math.max(1, Integer.getInteger("log." + nombre + ".muestreo", muestreoBase));
+            this.porSegundo = Math.max(0, Integer.getInteger("log." + nombre + ".porSegundo", POR_SEGUNDO_POR_DEFECTO));
+        }
+
+        public String getNombre() { return nombre; }
+        public Nivel getNivel() { return nivel; }
+
+        public Categoria setNivel(Nivel nivel) { this.nivel = nivel; return this; }
+        public Categoria setMuestreo(int unoDeCada) { this.muestreo = Math.max(1, unoDeCada); return this; }
+        public Categoria setPorSegundo(int max) { this.porSegundo = Math.max(0, max); return this; }
+
+        public boolean activo(Nivel n) { return n.ordinal() >= nivel.ordinal() && n != Nivel.OFF; }
+        public boolean trace() { return activo(Nivel.TRACE); }
+        public boolean debug() { return activo(Nivel.DEBUG); }
+
+        public void trace(String msg) { log(Nivel.TRACE, msg, null); }
+        public void debug(String msg) { log(Nivel.DEBUG, msg, null); }
+        public void info(String msg) { log(Nivel.INFO, msg, null); }
+        public void warn(String msg) { log(Nivel.WARN, msg, null); }
+        public void error(String msg) { log(Nivel.ERROR, msg, null); }
+        public void error(String msg, Throwable t) { log(Nivel.ERROR, msg, t); }
+
+        public void log(Nivel n, String msg, Throwable t) {
+            if (!activo(n)) return;
+
+            // WARN/ERROR no se muestrean: son raros y son los que importan
+            if (n.ordinal() < Nivel.WARN.ordinal()) {
+                int m = muestreo;
+                if (m > 1 && (vistos.getAndIncrement() % m) != 0) return;
+            }
+            if (!dentroDelLimite()) return;
+
+            publicar(new Entrada(System.currentTimeMillis(), n, this, msg, t, Thread.currentThread().getName()));
+        }
+
+        private boolean dentroDelLimite() {
+            int max = porSegundo;
+            if (max <= 0) return true;
+
+            long seg = System.nanoTime() / 1_000_000_000L;
+            long anterior = ventanaSeg.get();
+            if (seg != anterior && ventanaSeg.compareAndSet(anterior, seg)) {
+                enVentana.set(0);
+                int perdidos = suprimidos.getAndSet(0);
+                if (perdidos > 0) {
+                    publicar(new Entrada(System.currentTimeMillis(), Nivel.WARN, this,
+                        perdidos + " mensajes suprimidos por límite (" + max + "/s)", null, Thread.currentThread().getName()));
+                }
+            }
+
+            if (enVentana.incrementAndGet() <= max) return true;
+            suprimidos.incrementAndGet();
+            return false;
+        }
+    }
+
+    private static Nivel leerNivel(String categoria, Nivel porDefecto) {
+        String v = System.getProperty("log." + categoria);
+        if (v != null) {
+            try { return Nivel.valueOf(v.trim().toUpperCase()); } catch (IllegalArgumentException ignored) {}
+        }
+        return porDefecto;
+    }
+
+    // =====================
+    // Ring + escritor
+    // =====================
+
+    private record Entrada(long ms, Nivel nivel, Categoria categoria, String mensaje, Throwable error, String hilo) {}
+
+    private static void publicar(Entrada e) {
+        asegurarEscritor();
+
+        final int mascara = CAPACIDAD - 1;
+        long pos = COLA.get();
+        while (true) {
+            int i = (int) (pos & mascara);
+            long sec = SECUENCIA.get(i);
+            long dif = sec - pos;
+            if (dif == 0) {
+                if (COLA.compareAndSet(pos, pos + 1)) {
+                    RING.set(i, e);
+                    SECUENCIA.set(i, pos + 1); // publicado
+                    return;
+                }
+                pos = COLA.get();
+            } else if (dif < 0) {
+                DESCARTADOS.incrementAndGet(); // lleno: nunca bloqueamos al que loguea
+                return;
+            } else {
+                pos = COLA.get();
+            }
+        }
+    }
+
+    private static synchronized void drenar() {
+        final int mascara = CAPACIDAD - 1;
+        StringBuilder sb = null;
+        while (true) {
+            int i = (int) (cabeza & mascara);
+            if (SECUENCIA.get(i) != cabeza + 1) break;
+
+            Entrada e = RING.get(i);
+            RING.set(i, null);
+            SECUENCIA.set(i, cabeza + CAPACIDAD); // libre para la próxima vuelta
+            cabeza++;
+
+            if (sb == null) sb = new StringBuilder(256);
+            formatear(sb, e);
+        }
+        if (sb != null) SALIDA.print(sb);
+    }
+
+    private static void formatear(StringBuilder sb, Entrada e) {
+        HORA.formatTo(Instant.ofEpochMilli(e.ms()), sb);
+        sb.append(' ').append(e.nivel().name())
+          .append(" [").append(e.categoria().nombre).append("] ")
+          .append(e.mensaje());
+        if (e.nivel().ordinal() >= Nivel.WARN.ordinal()) sb.append(" (").append(e.hilo()).append(')');
+        sb.append('\n');
+
+        Throwable t = e.error();
+        if (t != null) {
+            sb.append("    ").append(t).append('\n');
+            for (StackTraceElement st : t.getStackTrace()) sb.append("        at ").append(st).append('\n');
+        }
+    }
+
+    private static void asegurarEscritor() {
+        if (escritor != null) return;
+        synchronized (Log.class) {
+            if (escritor != null) return;
+
+            Thread t = new Thread(() -> {
+                long avisados = 0;
+                while (true) {
+                    drenar();
+                    long d = DESCARTADOS.get();
+                    if (d != avisados) {
+                        SALIDA.println("[LOG] " + (d - avisados) + " mensajes descartados (cola llena)");
+                        avisados = d;
+                    }
+                    LockSupport.parkNanos(ESPERA_VACIO_NS);
+                }
+            }, "LogAsync");
+            t.setDaemon(true);
+            t.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(Log::vaciar, "LogAsync-cierre"));
+            escritor = t;
+        }
+    }
+}
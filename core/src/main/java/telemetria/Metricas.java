@@ -0,0 +1,264 @@
+package telemetria;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import mapa.model.Habitacion;
+
+/**
+ * Registro de métricas del servidor (en proceso, sin dependencias).
+ *
+ * - Tráfico: paquetes y bytes entrantes/salientes por tipo de mensaje ("Move", "Pos", ...).
+ * - Fallos de parseo de mensajes de clientes.
+ * - RTT por jugador.
+ * - Profundidad de colas (último valor y máximo).
+ * - Entidades por sala (muestreo que publica el hilo de física).
+ * - Fuentes extra (ej: MotorTicks) que se agregan al reporte.
+ *
+ * Escribir es barato y sin locks (LongAdder / atomics, sin allocs en el camino caliente):
+ * se llama desde el hilo de red y el de física. Leer/reportar puede hacerse desde cualquier hilo.
+ */
+public final class Metricas implements Reporte {
+
+    private static final int MAX_JUGADORES = 2;
+
+    // ===== tráfico por tipo (tabla abierta, sin substring por paquete) =====
+    private static final int CAPACIDAD_TIPOS = 64;            // potencia de 2
+    private static final String TIPO_OTROS = "(otros)";
+    private static final int MAX_TIPOS_ENTRANTES = 16;        // lo que manda un cliente no puede llenar la tabla
+
+    private final AtomicReferenceArray<ContadorTipo> tipos = new AtomicReferenceArray<>(CAPACIDAD_TIPOS);
+    private final AtomicLong cantidadTipos = new AtomicLong();
+    private final AtomicLong cantidadTiposEntrantes = new AtomicLong();
+    private final ContadorTipo otros = new ContadorTipo(TIPO_OTROS);
+
+    private final LongAdder fallosParseo = new LongAdder();
+    private final LongAdder mensajesDesconocidos = new LongAdder();
+
+    // ===== RTT =====
+    private final HistogramaTiempos[] rtt = new HistogramaTiempos[MAX_JUGADORES + 1];
+    private final AtomicLong[] ultimoRttUs = new AtomicLong[MAX_JUGADORES + 1];
+
+    // ===== colas =====
+    private final ConcurrentHashMap<String, Profundidad> colas = new ConcurrentHashMap<>();
+
+    // ===== entidades por sala (índice = Habitacion.ordinal()) =====
+    private volatile int[] enemigosPorSala = new int[0];
+    private volatile int[] itemsPorSala = new int[0];
+
+    private final CopyOnWriteArrayList<Reporte> fuentes = new CopyOnWriteArrayList<>();
+
+    private final long inicioMs = System.currentTimeMillis();
+
+    public Metricas() {
+        for (int i = 1; i <= MAX_JUGADORES; i++) {
+            rtt[i] = new HistogramaTiempos();
+            ultimoRttUs[i] = new AtomicLong(-1L);
+        }
+    }
+
+    /** Otra fuente cuyo reporte se incluye en el de Metricas (tick, etc). */
+    public void agregarFuente(Reporte r) {
+        if (r != null && r != this) fuentes.add(r);
+    }
+
+    // =====================
+    // Tráfico
+    // =====================
+
+    public void paqueteEntrante(String mensaje, int bytes) {
+        ContadorTipo c = contadorPara(mensaje, true);
+        c.paquetesIn.increment();
+        c.bytesIn.add(bytes);
+    }
+
+    public void paqueteSaliente(String mensaje, int bytes) {
+        ContadorTipo c = contadorPara(mensaje, false);
+        c.paquetesOut.increment();
+        c.bytesOut.add(bytes);
+    }
+
+    public void falloParseo() {
+        fallosParseo.increment();
+    }
+
+    public long getFallosParseo() {
+        return fallosParseo.sum();
+    }
+
+    /** Tipo de mensaje que el server no conoce (se ignora). */
+    public void mensajeDesconocido() {
+        mensajesDesconocidos.increment();
+    }
+
+    public long getMensajesDesconocidos() {
+        return mensajesDesconocidos.sum();
+    }
+
+    /**
+     * Tipo = texto hasta el primer ':'. Busca sin crear Strings; solo aloca la primera vez que ve un tipo.
+     * Los tipos entrantes (los elige el cliente) tienen cupo propio: no pueden llenar la tabla.
+     */
+    private ContadorTipo contadorPara(String mensaje, boolean entrante) {
+        if (mensaje == null || mensaje.isEmpty()) return otros;
+
+        int fin = mensaje.indexOf(':');
+        if (fin < 0) fin = mensaje.length();
+        if (fin > 32) return otros; // basura de un cliente roto
+
+        int h = 0;
+        for (int i = 0; i < fin; i++) h = 31 * h + mensaje.charAt(i);
+        h ^= (h >>> 16);
+
+        int mascara = CAPACIDAD_TIPOS - 1;
+        for (int intento = 0, i = h & mascara; intento < CAPACIDAD_TIPOS; intento++, i = (i + 1) & mascara) {
+            ContadorTipo c = tipos.get(i);
+            if (c == null) {
+                if (entrante && cantidadTiposEntrantes.get() >= MAX_TIPOS_ENTRANTES) return otros;
+                // tabla medio llena => los tipos nuevos van a "otros" (clientes no controlan la cardinalidad)
+                if (cantidadTipos.get() >= CAPACIDAD_TIPOS / 2) return otros;
+                ContadorTipo nuevo = new ContadorTipo(mensaje.substring(0, fin));
+                if (tipos.compareAndSet(i, null, nuevo)) {
+                    cantidadTipos.incrementAndGet();
+                    if (entrante) cantidadTiposEntrantes.incrementAndGet();
+                    return nuevo;
+                }
+                c = tipos.get(i); // otro hilo ganó el slot
+            }
+            if (c.nombre.length() == fin && mensaje.regionMatches(0, c.nombre, 0, fin)) return c;
+        }
+        return otros;
+    }
+
+    // =====================
+    // RTT
+    // =====================
+
+    public void registrarRttUs(int jugador, long us) {
+        if (jugador < 1 || jugador > MAX_JUGADORES) return;
+        rtt[jugador].registrarUs(us);
+        ultimoRttUs[jugador].set(us);
+    }
+
+    /** @return último RTT medido en us, o -1 si todavía no hay. */
+    public long getUltimoRttUs(int jugador) {
+        if (jugador < 1 || jugador > MAX_JUGADORES) return -1L;
+        return ultimoRttUs[jugador].get();
+    }
+
+    // =====================
+    // Colas
+    // =====================
+
+    /** Registra la profundidad actual de una cola (nombre fijo, ej: "comandos"). */
+    public void registrarProfundidad(String cola, int valor) {
+        colas.computeIfAbsent(cola, Profundidad::new).registrar(valor);
+    }
+
+    // =====================
+    // Entidades por sala
+    // =====================
+
+    /** Lo llama el hilo de física cada tanto con conteos indexados por Habitacion.ordinal(). */
+    public void publicarEntidadesPorSala(int[] enemigos, int[] items) {
+        enemigosPorSala = enemigos.clone();
+        itemsPorSala = items.clone();
+    }
+
+    // =====================
+    // Reporte
+    // =====================
+
+    @Override
+    public void reportar(StringBuilder sb) {
+        sb.append("[metricas] uptime=").append((System.currentTimeMillis() - inicioMs) / 1000L).append("s\n");
+
+        for (Reporte r : fuentes) r.reportar(sb);
+
+        sb.append("[red] tipo paquetesIn bytesIn paquetesOut bytesOut\n");
+        for (int i = 0; i < CAPACIDAD_TIPOS; i++) {
+            ContadorTipo c = tipos.get(i);
+            if (c != null) c.reportar(sb);
+        }
+        if (otros.total() > 0) otros.reportar(sb);
+        sb.append("[red] fallosParseo=").append(getFallosParseo())
+          .append(" desconocidos=").append(getMensajesDesconocidos()).append('\n');
+
+        for (int j = 1; j <= MAX_JUGADORES; j++) {
+            if (rtt[j].getCantidad() == 0) continue;
+            rtt[j].reportar(sb, "[rtt] P" + j + " ultimo=" + getUltimoRttUs(j) + "us");
+        }
+
+        for (Profundidad p : colas.values()) p.reportar(sb);
+
+        int[] enemigos = enemigosPorSala;
+        int[] items = itemsPorSala;
+        Habitacion[] salas = Habitacion.values();
+        for (int i = 0; i < salas.length; i++) {
+            int e = (i < enemigos.length) ? enemigos[i] : 0;
+            int it = (i < items.length) ? items[i] : 0;
+            if (e == 0 && it == 0) continue;
+            sb.append("[salas] ").append(salas[i].name())
+              .append(" enemigos=").append(e)
+              .append(" items=").append(it)
+              .append('\n');
+        }
+    }
+
+    // =====================
+    // Contadores
+    // =====================
+
+    private static final class ContadorTipo {
+        final String nombre;
+        final LongAdder paquetesIn = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder paquetesOut = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+
+        ContadorTipo(String nombre) {
+            this.nombre = nombre;
+        }
+
+        long total() {
+            return paquetesIn.sum() + paquetesOut.sum();
+        }
+
+        void reportar(StringBuilder sb) {
+            sb.append("[red] ").append(nombre)
+              .append(' ').append(paquetesIn.sum())
+              .append(' ').append(bytesIn.sum())
+              .append(' ').append(paquetesOut.sum())
+              .append(' ').append(bytesOut.sum())
+              .append('\n');
+        }
+    }
+
+    private static final class Profundidad {
+        final String nombre;
+        final AtomicLong actual = new AtomicLong();
+        final AtomicLong maximo = new AtomicLong();
+
+        Profundidad(String nombre) {
+            this.nombre = nombre;
+        }
+
+        void registrar(int valor) {
+            actual.set(valor);
+            long m;
+            while (valor > (m = maximo.get())) {
+                if (maximo.compareAndSet(m, valor)) break;
+            }
+        }
+
+        void reportar(StringBuilder sb) {
+            sb.append("[colas] ").append(nombre)
+              .append(" actual=").append(actual.get())
+              .append(" max=").append(maximo.get())
+              .append('\n');
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package telemetria;
+
+/**
+ * Algo que sabe escribir su estado como texto plano (para el endpoint admin / dumps).
+ */
+@FunctionalInterface
+public interface Reporte {
+
+    void reportar(StringBuilder sb);
+}
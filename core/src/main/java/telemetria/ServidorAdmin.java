@@ -0,0 +1,86 @@
+package telemetria;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Endpoint de consulta local (TCP, solo loopback): cada conexión recibe el reporte
+ * de texto plano de todas las fuentes registradas y se cierra.
+ *
+ * Uso: nc 127.0.0.1 5556
+ *
+ * Corre en su propio hilo daemon: nunca toca el hilo de física ni el de red del juego.
+ */
+public final class ServidorAdmin extends Thread {
+
+    public static final int PUERTO_POR_DEFECTO = 5556;
+
+    private static final Log.Categoria LOG = Log.categoria("ADMIN");
+
+    private final int puerto;
+    private final CopyOnWriteArrayList<Reporte> reportes = new CopyOnWriteArrayList<>();
+
+    private volatile ServerSocket socket;
+    private volatile boolean fin = false;
+
+    public ServidorAdmin(int puerto) {
+        super("ServidorAdmin");
+        this.puerto = puerto;
+        setDaemon(true);
+    }
+
+    public void registrar(Reporte r) {
+        if (r != null) reportes.add(r);
+    }
+
+    /** Arma el reporte completo (lo mismo que recibe una conexión). */
+    public String generarReporte() {
+        StringBuilder sb = new StringBuilder(1024);
+        for (Reporte r : reportes) {
+            try {
+                r.reportar(sb);
+            } catch (RuntimeException e) {
+                sb.append("! error en reporte: ").append(e).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void run() {
+        try (ServerSocket ss = new ServerSocket(puerto, 4, InetAddress.getLoopbackAddress())) {
+            socket = ss;
+            LOG.info("Consultas en 127.0.0.1:" + puerto);
+
+            while (!fin) {
+                try (Socket s = ss.accept()) {
+                    s.setSoTimeout(1000);
+                    OutputStream out = s.getOutputStream();
+                    out.write(generarReporte().getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                } catch (SocketException se) {
+                    if (!fin) LOG.warn("Socket: " + se.getMessage());
+                } catch (IOException e) {
+                    if (!fin) LOG.warn("IO: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("No se pudo abrir el puerto " + puerto + ": " + e.getMessage());
+        }
+    }
+
+    public void terminar() {
+        fin = true;
+        ServerSocket ss = socket;
+        if (ss != null) {
+            try { ss.close(); } catch (IOException ignored) {}
+        }
+        interrupt();
+    }
+}
@@ -0,0 +1,93 @@
+package telemetria;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Vuelca un Reporte a un archivo cada N segundos, con rotación por tamaño:
+ * metricas.log -> metricas.log.1 -> ... -> metricas.log.(archivos-1) (el más viejo se pisa).
+ *
+ * Hilo daemon propio: no toca física ni red. Si falla el disco, avisa una vez y sigue intentando.
+ */
+public final class VolcadoMetricas extends Thread {
+
+    private static final String NOMBRE = "metricas.log";
+
+    private static final Log.Categoria LOG = Log.categoria("METRICAS");
+
+    private final Reporte fuente;
+    private final Path carpeta;
+    private final long periodoMs;
+    private final long maxBytes;
+    private final int archivos;
+
+    private volatile boolean fin = false;
+    private boolean avisoError = false;
+
+    public VolcadoMetricas(Reporte fuente, Path carpeta, long periodoMs, long maxBytes, int archivos) {
+        super("VolcadoMetricas");
+        this.fuente = fuente;
+        this.carpeta = carpeta;
+        this.periodoMs = Math.max(1000L, periodoMs);
+        this.maxBytes = Math.max(64 * 1024L, maxBytes);
+        this.archivos = Math.max(1, archivos);
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        while (!fin) {
+            try {
+                Thread.sleep(periodoMs);
+            } catch (InterruptedException e) {
+                if (fin) break;
+            }
+            volcar();
+        }
+        volcar(); // último estado al cerrar
+    }
+
+    private void volcar() {
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append("===== ").append(LocalDateTime.now()).append(" =====\n");
+        fuente.reportar(sb);
+
+        try {
+            Files.createDirectories(carpeta);
+            Path actual = carpeta.resolve(NOMBRE);
+            if (Files.exists(actual) && Files.size(actual) >= maxBytes) rotar();
+
+            Files.write(actual, sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            avisoError = false;
+        } catch (IOException e) {
+            if (!avisoError) {
+                LOG.warn("No se pudo escribir en " + carpeta + ": " + e.getMessage());
+                avisoError = true;
+            }
+        }
+    }
+
+    private void rotar() throws IOException {
+        if (archivos == 1) {
+            Files.deleteIfExists(carpeta.resolve(NOMBRE));
+            return;
+        }
+        for (int i = archivos - 1; i >= 1; i--) {
+            Path origen = carpeta.resolve(i == 1 ? NOMBRE : NOMBRE + "." + (i - 1));
+            if (Files.exists(origen)) {
+                Files.move(origen, carpeta.resolve(NOMBRE + "." + i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    public void terminar() {
+        fin = true;
+        interrupt();
+    }
+}
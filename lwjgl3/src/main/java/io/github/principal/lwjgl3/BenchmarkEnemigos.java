@@ -0,0 +1,146 @@
+package io.github.principal.lwjgl3;
+
+import java.util.Random;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+
+import entidades.GestorDeEntidades;
+import entidades.datos.Estilo;
+import entidades.datos.Genero;
+import entidades.enemigos.Enemigo;
+import entidades.personajes.Jugador;
+import mapa.model.Habitacion;
+import mapa.navegacion.NavegacionSalas;
+
+/**
+ * Benchmark de la IA de enemigos (backend headless, sin ventana ni GL).
+ *
+ * Usa la navegación real de TMX/mapa.tmx (paredes incluidas) y mide
+ * GestorDeEntidades.actualizarEnemigosDeSala con N enemigos en la sala medida y
+ * otros N repartidos en el resto de las salas (el store solo debe recorrer los de la sala).
+ * Solo mide la pasada de IA, no world.step().
+ *
+ * Uso: ./gradlew :lwjgl3:benchmarkEnemigos  (opcional: -Pargs="cantidad ticks")
+ */
+public class BenchmarkEnemigos extends ApplicationAdapter {
+
+    private static final Habitacion SALA = Habitacion.INICIO_1;
+
+    private final int cantidad;
+    private final int ticks;
+
+    public BenchmarkEnemigos(int cantidad, int ticks) {
+        this.cantidad = cantidad;
+        this.ticks = ticks;
+    }
+
+    public static void main(String[] args) {
+        int cantidad = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int ticks = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+        new HeadlessApplication(new BenchmarkEnemigos(cantidad, ticks));
+    }
+
+    @Override
+    public void create() {
+        try {
+            correr();
+        } finally {
+            Gdx.app.exit();
+        }
+    }
+
+    private void correr() {
+        int calentamiento = ticks / 4;
+
+        Box2D.init();
+
+        TiledMap map = new TmxMapLoader().load("TMX/mapa.tmx");
+        World world = new World(new Vector2(0f, 0f), true);
+        GestorDeEntidades gestor = new GestorDeEntidades(world);
+        gestor.setNavegacion(NavegacionSalas.desdeMapa(map));
+
+        Jugador j1 = new Jugador(1, "J1", Genero.MASCULINO, Estilo.CLASICO);
+        Jugador j2 = new Jugador(2, "J2", Genero.FEMENINO, Estilo.CLASICO);
+        float baseX = SALA.gridX * SALA.ancho;
+        float baseY = SALA.gridY * SALA.alto;
+        j1.setCuerpoFisico(crearBody(world, baseX + 100f, baseY + 100f));
+        j2.setCuerpoFisico(crearBody(world, baseX + 400f, baseY + 400f));
+
+        Random rng = new Random(1234L);
+        for (int i = 0; i < cantidad; i++) {
+            registrar(gestor, world, rng, SALA, i);
+        }
+
+        // Relleno en las otras salas: no deberían sumar costo a la sala medida
+        Habitacion[] salas = Habitacion.values();
+        for (int i = 0, k = 0; i < cantidad; k++) {
+            Habitacion otra = salas[k % salas.length];
+            if (otra == SALA) continue;
+            registrar(gestor, world, rng, otra, i++);
+        }
+
+        long ns = medir(ticks, calentamiento, () -> {
+            moverJugadores(j1, j2);
+            gestor.actualizarEnemigosDeSala(SALA, 1f / 60f, j1, j2);
+        });
+
+        System.out.println("Mapa: TMX/mapa.tmx | sala: " + SALA
+            + " | enemigos en sala: " + gestor.getAlmacenEnemigos().getCantidadEnSala(SALA)
+            + " | en el store: " + gestor.getAlmacenEnemigos().getCantidad()
+            + " | ticks: " + ticks);
+        System.out.printf("IA de la sala : %8.1f us/tick%n", ns / 1000.0 / ticks);
+
+        world.dispose();
+        map.dispose();
+    }
+
+    private static void registrar(GestorDeEntidades gestor, World world, Random rng, Habitacion sala, int i) {
+        float bx = sala.gridX * sala.ancho;
+        float by = sala.gridY * sala.alto;
+        float x = bx + 16f + rng.nextFloat() * (sala.ancho - 32f);
+        float y = by + 16f + rng.nextFloat() * (sala.alto - 32f);
+        gestor.registrarEnemigo(sala, new Enemigo("bench", 120f, crearBody(world, x, y), i % 3));
+    }
+
+    private static long medir(int ticks, int calentamiento, Runnable tick) {
+        for (int i = 0; i < calentamiento; i++) tick.run();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ticks; i++) tick.run();
+        return System.nanoTime() - t0;
+    }
+
+    private static int frame = 0;
+
+    // Los jugadores se mueven un poco para forzar recálculos de campo como en juego real
+    private static void moverJugadores(Jugador j1, Jugador j2) {
+        frame++;
+        float baseX = SALA.gridX * SALA.ancho;
+        float baseY = SALA.gridY * SALA.alto;
+        float ox = (frame % 240) * 1.5f;
+        j1.getCuerpoFisico().setTransform(baseX + 64f + ox, baseY + 100f, 0f);
+        j2.getCuerpoFisico().setTransform(baseX + 448f - ox, baseY + 400f, 0f);
+    }
+
+    private static Body crearBody(World world, float x, float y) {
+        BodyDef bd = new BodyDef();
+        bd.type = BodyDef.BodyType.DynamicBody;
+        bd.position.set(x, y);
+        bd.fixedRotation = true;
+        Body body = world.createBody(bd);
+
+        CircleShape shape = new CircleShape();
+        shape.setRadius(12f);
+        FixtureDef fd = new FixtureDef();
+        fd.shape = shape;
+        fd.isSensor = true;
+        body.createFixture(fd);
+        shape.dispose();
+        return body;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.principal.lwjgl3;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import red.bots.ArnesCarga;
+import red.bots.CargaApp;
+
+/**
+ * Prueba de carga en localhost: N pares de bots UDP, cada par contra su propio server in-process.
+ * Imprime tick del server, jitter/pérdida de snapshots y CPU. Sale con código 1 si la carga falló.
+ * Corre en el backend headless: no necesita ventana ni GL (sirve en CI).
+ *
+ * Uso: ./gradlew :lwjgl3:cargaBots -Pargs="pares segundos [guion] [--externo] [--receptor=N] [--hz=N]"
+ *   guion: "aleatorio" (por defecto) o "R,R,U,0,L,D"
+ *   --externo: no levanta servers, usa los que ya escuchan en 6000, 6001, ...
+ *   --receptor=N: cuántos bots reciben con ReceptorCliente verificado (default 2, 0 = ninguno)
+ *   --hz=N: NET_HZ de los servers locales y de las métricas (default 20). Con --externo, levantar los
+ *           servers con -Dred.hz=N. Para ver si 10-15 alcanza, mirar la línea [interp] del reporte.
+ */
+public class CargaBotsMain {
+
+    public static void main(String[] args) throws InterruptedException {
+        ArnesCarga.Config cfg = new ArnesCarga.Config();
+        boolean externo = false;
+        int pos = 0;
+        for (String a : args) {
+            if ("--externo".equals(a)) { externo = true; continue; }
+            if (a.startsWith("--receptor=")) { cfg.botsConReceptor = Integer.parseInt(a.substring(11)); continue; }
+            if (a.startsWith("--hz=")) {
+                cfg.netHz = Integer.parseInt(a.substring(5));
+                System.setProperty("red.hz", a.substring(5)); // antes de cargar GameControllerImpl
+                continue;
+            }
+            switch (pos++) {
+                case 0 -> cfg.pares = Integer.parseInt(a);
+                case 1 -> cfg.segundos = Integer.parseInt(a);
+                case 2 -> cfg.guion = a;
+                default -> {}
+            }
+        }
+
+        CargaApp app = new CargaApp(cfg, !externo);
+
+        // El loop headless corre en su propio hilo (60 Hz, ejecuta los postRunnable)
+        new HeadlessApplication(app);
+        app.esperarFin();
+        System.out.print(app.getReporte());
+        System.exit(app.terminoBien() ? 0 : 1);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.principal.lwjgl3;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+/**
+ * Empaqueta los sprites del juego en assets/atlas/juego.atlas (TexturePacker de gdx-tools).
+ *
+ * Solo entran las carpetas de CARPETAS: los Fondos/Tilesets los usa el TMX y quedan sueltos.
+ * Los nombres de región son "Carpeta/archivo" (sin .png), los mismos que pide AtlasJuego.
+ * No se recorta whitespace ni se rota: las hojas se cortan en grilla (split) en runtime.
+ *
+ * Uso: ./gradlew :lwjgl3:empaquetarAtlas  (también corre antes de processResources)
+ */
+public final class EmpaquetarAtlas {
+
+    static final String[] CARPETAS = { "Jugadores", "Enemigos", "items", "Botones", "Puertas", "Trampilla", "Hud" };
+
+    private static final String NOMBRE_ATLAS = "juego";
+
+    public static void main(String[] args) throws IOException {
+        Path assets = Paths.get(args.length > 0 ? args[0] : "assets");
+        Path salida = Paths.get(args.length > 1 ? args[1] : assets.resolve("atlas").toString());
+        Path staging = Paths.get(args.length > 2 ? args[2] : "build/atlas-src");
+
+        // 1) staging limpio con solo las carpetas a empaquetar
+        borrar(staging);
+        int archivos = 0;
+        for (String carpeta : CARPETAS) {
+            Path origen = assets.resolve(carpeta);
+            if (!Files.isDirectory(origen)) continue;
+
+            Path destino = staging.resolve(carpeta);
+            Files.createDirectories(destino);
+            try (Stream<Path> pngs = Files.list(origen)) {
+                for (Path png : (Iterable<Path>) pngs.filter(p -> p.toString().endsWith(".png"))::iterator) {
+                    Files.copy(png, destino.resolve(png.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    archivos++;
+                }
+            }
+        }
+
+        // 2) TexturePacker
+        TexturePacker.Settings s = new TexturePacker.Settings();
+        s.maxWidth = 4096;             // los botones son hojas de 1536x1024
+        s.maxHeight = 4096;
+        s.paddingX = 2;
+        s.paddingY = 2;
+        s.duplicatePadding = true;     // evita bleeding con Nearest al escalar
+        s.edgePadding = true;
+        s.stripWhitespaceX = false;    // las hojas se cortan por grilla: no recortar
+        s.stripWhitespaceY = false;
+        s.rotation = false;
+        s.combineSubdirectories = true;
+        s.useIndexes = false;          // "x_1.png" no se convierte en índice
+        s.filterMin = Texture.TextureFilter.Nearest;
+        s.filterMag = Texture.TextureFilter.Nearest;
+
+        Files.createDirectories(salida);
+        TexturePacker.process(s, staging.toString(), salida.toString(), NOMBRE_ATLAS);
+
+        System.out.println("Atlas: " + archivos + " sprites -> " + salida.resolve(NOMBRE_ATLAS + ".atlas"));
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> todo = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) todo.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.principal.lwjgl3;
+
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import server.replay.ReplayApp;
+
+/**
+ * Reproduce una partida grabada por el server, a máxima velocidad.
+ * Sale con código 1 si la simulación divergió de la grabación.
+ *
+ * Uso: ./gradlew :lwjgl3:replay -Pargs="replays/partida-123.rgr 10"
+ */
+public class ReplayMain {
+
+    public static void main(String[] args) {
+        ReplayApp app = ReplayApp.desdeArgs(args);
+
+        Lwjgl3ApplicationConfiguration cfg = new Lwjgl3ApplicationConfiguration();
+        cfg.setTitle("Roomguelike Replay");
+        cfg.setWindowedMode(320, 240);
+        cfg.setInitialVisible(false);
+        cfg.setResizable(false);
+
+        new Lwjgl3Application(app, cfg);
+        System.exit(app.esFiel() ? 0 : 1);
+    }
+}